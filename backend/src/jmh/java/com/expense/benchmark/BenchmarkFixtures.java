@@ -0,0 +1,75 @@
+package com.expense.benchmark;
+
+import com.expense.mapper.CategoryMapper;
+import com.expense.mapper.ExpenseMapper;
+import com.expense.mapper.UserMapper;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import com.expense.model.User;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entities and wired components shared by the benchmarks (no Spring context is started)
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Usuário " + id);
+        user.setEmail("usuario" + id + "@example.com");
+        user.setBaseCurrency("BRL");
+        return user;
+    }
+
+    static Category category(long id, User user) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("Categoria " + id);
+        category.setDescription("Descrição da categoria " + id);
+        category.setColor("#4CAF50");
+        category.setIcon("shopping_cart");
+        category.setUser(user);
+        category.setVersion(0L);
+        return category;
+    }
+
+    static Expense expense(long id, Category category, User user) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setDescription("Despesa " + id);
+        expense.setAmount(BigDecimal.valueOf(1000 + id % 9000, 2));
+        expense.setCurrency("BRL");
+        expense.setDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id % 365));
+        expense.setCategory(category);
+        expense.setUser(user);
+        expense.setVersion(0L);
+        return expense;
+    }
+
+    static ExpenseMapper expenseMapper() {
+        ExpenseMapper mapper = new ExpenseMapper();
+        ReflectionTestUtils.setField(mapper, "categoryMapper", new CategoryMapper());
+        ReflectionTestUtils.setField(mapper, "userMapper", new UserMapper());
+        return mapper;
+    }
+
+    /**
+     * Links are built from the current request, as in a controller call
+     */
+    static void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.setServerName("localhost");
+        request.setServerPort(8083);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,47 @@
+package com.expense.benchmark;
+
+import com.expense.assembler.ExpenseModelAssembler;
+import com.expense.dto.response.ExpenseResponseDTO;
+import com.expense.model.User;
+import com.expense.model.hateoas.ExpenseModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExpenseModelAssembler.toModel: one HAL model with its nine links
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpenseAssemblerBenchmark {
+
+    private ExpenseModelAssembler assembler;
+    private ExpenseResponseDTO dto;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        assembler = new ExpenseModelAssembler();
+        User user = BenchmarkFixtures.user(1L);
+        dto = BenchmarkFixtures.expenseMapper()
+            .toResponseDTO(BenchmarkFixtures.expense(1L, BenchmarkFixtures.category(1L, user), user));
+    }
+
+    @Benchmark
+    public ExpenseModel toModel() {
+        return assembler.toModel(dto);
+    }
+}
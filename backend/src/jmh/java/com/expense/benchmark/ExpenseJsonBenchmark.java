@@ -0,0 +1,81 @@
+package com.expense.benchmark;
+
+import com.expense.assembler.ExpenseModelAssembler;
+import com.expense.mapper.ExpenseMapper;
+import com.expense.model.Category;
+import com.expense.model.User;
+import com.expense.model.hateoas.ExpenseModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HAL serialization of an expense listing, written to a discarding stream so only
+ * Jackson's own work (and allocation) is measured
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseJsonBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private CollectionModel<ExpenseModel> collection;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.bindRequest();
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new Jackson2HalModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+            new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        ExpenseMapper mapper = BenchmarkFixtures.expenseMapper();
+        ExpenseModelAssembler assembler = new ExpenseModelAssembler();
+        User user = BenchmarkFixtures.user(1L);
+        List<Category> categories = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            categories.add(BenchmarkFixtures.category(id, user));
+        }
+        List<ExpenseModel> models = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Category category = categories.get((int) (id % categories.size()));
+            models.add(assembler.toModel(mapper.toResponseDTO(BenchmarkFixtures.expense(id, category, user))));
+        }
+        collection = CollectionModel.of(models);
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), collection);
+    }
+}
@@ -0,0 +1,67 @@
+package com.expense.benchmark;
+
+import com.expense.dto.response.CategoryResponseDTO;
+import com.expense.dto.response.ExpenseResponseDTO;
+import com.expense.dto.response.UserResponseDTO;
+import com.expense.mapper.CategoryMapper;
+import com.expense.mapper.ExpenseMapper;
+import com.expense.mapper.UserMapper;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import com.expense.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response DTO conversion, done once per item of every listing
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private ExpenseMapper expenseMapper;
+    private CategoryMapper categoryMapper;
+    private UserMapper userMapper;
+    private User user;
+    private Category category;
+    private Expense expense;
+
+    @Setup
+    public void setUp() {
+        expenseMapper = BenchmarkFixtures.expenseMapper();
+        categoryMapper = new CategoryMapper();
+        userMapper = new UserMapper();
+        user = BenchmarkFixtures.user(1L);
+        category = BenchmarkFixtures.category(1L, user);
+        expense = BenchmarkFixtures.expense(1L, category, user);
+    }
+
+    @Benchmark
+    public ExpenseResponseDTO expenseToResponseDTO() {
+        return expenseMapper.toResponseDTO(expense);
+    }
+
+    @Benchmark
+    public CategoryResponseDTO categoryToResponseDTO() {
+        return categoryMapper.toResponseDTO(category);
+    }
+
+    @Benchmark
+    public UserResponseDTO userToResponseDTO() {
+        return userMapper.toResponseDTO(user);
+    }
+}
@@ -0,0 +1,121 @@
+package com.expense.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * The backend's REST API as the mobile client calls it: JSON bodies and a Bearer token.
+ * Any status other than 2xx is an error for the operation.
+ */
+class ApiClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    /**
+     * A registered account; the token is replaced on every login
+     */
+    static final class VirtualUser {
+
+        final String email;
+        final String password;
+        volatile String token;
+        volatile long id;
+        long[] categoryIds = new long[0];
+
+        VirtualUser(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+    }
+
+    void register(VirtualUser user, String name) throws IOException, InterruptedException {
+        send(post("/api/auth/register", null, Map.of("name", name, "email", user.email, "password", user.password)), false);
+    }
+
+    void login(VirtualUser user) throws IOException, InterruptedException {
+        JsonNode body = send(post("/api/auth/login", null, Map.of("email", user.email, "password", user.password)), true);
+        user.token = body.path("token").asText();
+        user.id = body.path("userId").asLong();
+    }
+
+    long createCategory(VirtualUser user, String name) throws IOException, InterruptedException {
+        JsonNode body = send(post("/api/categories", user.token,
+            Map.of("name", name, "description", "Categoria " + name, "color", "#4CAF50", "icon", "label")), true);
+        return body.path("id").asLong();
+    }
+
+    void listCategories(VirtualUser user) throws IOException, InterruptedException {
+        send(get("/api/categories", user.token), false);
+    }
+
+    void listExpenses(VirtualUser user) throws IOException, InterruptedException {
+        send(get("/api/expenses", user.token), false);
+    }
+
+    void createExpense(VirtualUser user, RandomGenerator random) throws IOException, InterruptedException {
+        long categoryId = user.categoryIds[random.nextInt(user.categoryIds.length)];
+        Map<String, Object> expense = Map.of(
+            "description", "Despesa " + random.nextInt(100_000),
+            "amount", BigDecimal.valueOf(100 + random.nextInt(50_000), 2),
+            "date", LocalDate.now().minusDays(random.nextInt(365)).toString(),
+            "categoryId", categoryId,
+            "userId", user.id);
+        send(post("/api/expenses", user.token, expense), false);
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        return request(path, token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+            .build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(TIMEOUT)
+            .header("Accept", "application/hal+json, application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    /**
+     * Send and check the status; the body is read fully but only parsed when the caller needs it
+     */
+    private JsonNode send(HttpRequest request, boolean parse) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri().getPath() + " retornou " + response.statusCode());
+        }
+        byte[] body = response.body();
+        return parse && body.length > 0 ? objectMapper.readTree(body) : objectMapper.missingNode();
+    }
+}
@@ -0,0 +1,94 @@
+package com.expense.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms (microseconds, 3 significant digits) and error counts.
+ * The report is a fixed-layout text file — settings, then one tab-separated line per
+ * operation — so reports of two builds can be compared with diff; each operation's full
+ * percentile distribution is written next to it as .hgrm for HdrHistogram's plotter.
+ */
+class LatencyReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos) {
+        histograms.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+    }
+
+    void error(Operation operation) {
+        errors.get(operation).increment();
+    }
+
+    /**
+     * Open model: an arrival found max-in-flight requests already running and was not sent
+     */
+    void drop(Operation operation) {
+        dropped.get(operation).increment();
+    }
+
+    void write(LoadTestConfig config, double seconds) throws IOException {
+        Path report = config.report().toAbsolutePath();
+        Files.createDirectories(report.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+            config.describe().forEach((key, value) -> out.printf("# %s: %s%n", key, value));
+            out.println("operation\tcount\terrors\tdropped\tper_sec\tp50_ms\tp90_ms\tp99_ms\tp99.9_ms\tmax_ms");
+            for (Operation operation : config.mix().keySet()) {
+                Histogram histogram = histograms.get(operation);
+                StringBuilder line = new StringBuilder(operation.label())
+                    .append('\t').append(histogram.getTotalCount())
+                    .append('\t').append(errors.get(operation).sum())
+                    .append('\t').append(dropped.get(operation).sum())
+                    .append('\t').append(format(histogram.getTotalCount() / seconds));
+                for (double percentile : PERCENTILES) {
+                    line.append('\t').append(millis(histogram.getValueAtPercentile(percentile)));
+                }
+                line.append('\t').append(millis(histogram.getMaxValue()));
+                out.println(line);
+                writeDistribution(report, operation, histogram);
+            }
+        }
+        System.out.println(Files.readString(report));
+    }
+
+    private static void writeDistribution(Path report, Operation operation, Histogram histogram) throws IOException {
+        String name = report.getFileName().toString().replaceFirst("\\.[^.]*$", "") + "-" + operation.label() + ".hgrm";
+        try (PrintStream out = new PrintStream(Files.newOutputStream(report.resolveSibling(name)), false, StandardCharsets.UTF_8)) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String millis(long micros) {
+        return format(micros / 1000.0);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,117 @@
+package com.expense.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, given as key=value arguments (all optional):
+ * <pre>
+ * target=embedded|http://host:port   backend under test (embedded boots ExpenseApplication)
+ * db=h2|mysql                        embedded database: H2 in MySQL mode or application.properties
+ * model=open|closed                  open: arrivals at a rate; closed: N users in a loop
+ * rate=50                            open model, requests per second
+ * arrival=poisson|constant           open model, inter-arrival times
+ * concurrency=20                     closed: virtual users; open: max requests in flight
+ * think=0ms                          closed model, pause between a user's requests
+ * duration=60s warmup=10s            measured time and discarded warm-up before it
+ * users=20 categories=8 expenses=200 data seeded before the run (per user)
+ * mix=login:5,categories:20,...      weight of each operation
+ * seed=42                            random seed (same seed, same request sequence)
+ * report=target/loadtest/report.txt  report file; histograms go next to it
+ * label=                             free text written to the report (build, commit)
+ * </pre>
+ */
+record LoadTestConfig(String target, String db, boolean openModel, double rate, boolean poisson,
+                      int concurrency, Duration think, Duration duration, Duration warmup,
+                      int users, int categories, int expenses, Map<Operation, Integer> mix,
+                      long seed, Path report, String label) {
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (esperado chave=valor): " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+            values.getOrDefault("target", "embedded"),
+            values.getOrDefault("db", "h2"),
+            !"closed".equals(values.getOrDefault("model", "open")),
+            Double.parseDouble(values.getOrDefault("rate", "50")),
+            !"constant".equals(values.getOrDefault("arrival", "poisson")),
+            Integer.parseInt(values.getOrDefault("concurrency", "20")),
+            duration(values.getOrDefault("think", "0ms")),
+            duration(values.getOrDefault("duration", "60s")),
+            duration(values.getOrDefault("warmup", "10s")),
+            Integer.parseInt(values.getOrDefault("users", "20")),
+            Integer.parseInt(values.getOrDefault("categories", "8")),
+            Integer.parseInt(values.getOrDefault("expenses", "200")),
+            mix(values.getOrDefault("mix", "login:5,categories:20,expenses:35,create:15,charts:25")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Path.of(values.getOrDefault("report", "target/loadtest/report.txt")),
+            values.getOrDefault("label", ""));
+        if (config.rate <= 0 || config.concurrency <= 0 || config.users <= 0 || config.categories <= 0) {
+            throw new IllegalArgumentException("rate, concurrency, users e categories devem ser positivos");
+        }
+        return config;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.byName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("O mix precisa de ao menos uma operação com peso positivo");
+        }
+        return weights;
+    }
+
+    /**
+     * Settings as report header lines, so two reports show what differed between the runs
+     */
+    Map<String, String> describe() {
+        Map<String, String> description = new LinkedHashMap<>();
+        description.put("label", label);
+        description.put("target", "embedded".equals(target) ? "embedded (" + db + ")" : target);
+        description.put("model", openModel ? "open" : "closed");
+        if (openModel) {
+            description.put("rate", rate + "/s " + (poisson ? "poisson" : "constant"));
+            description.put("max-in-flight", String.valueOf(concurrency));
+        } else {
+            description.put("concurrency", String.valueOf(concurrency));
+            description.put("think", think.toMillis() + "ms");
+        }
+        description.put("duration", duration.toSeconds() + "s");
+        description.put("warmup", warmup.toSeconds() + "s");
+        description.put("data", users + " users x " + categories + " categories x " + expenses + " expenses");
+        StringBuilder weights = new StringBuilder();
+        mix.forEach((operation, weight) -> weights.append(weights.isEmpty() ? "" : ",")
+            .append(operation.label()).append(':').append(weight));
+        description.put("mix", weights.toString());
+        description.put("seed", String.valueOf(seed));
+        return description;
+    }
+}
@@ -0,0 +1,228 @@
+package com.expense.loadtest;
+
+import com.expense.ExpenseApplication;
+import com.expense.loadtest.ApiClient.VirtualUser;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * Load generator for the backend: seeds accounts, categories and expenses through the API,
+ * replays the mobile client's call mix and writes a latency report (see {@link LoadTestConfig}
+ * for the arguments).
+ * <p>
+ * In the open model requests arrive at the configured rate whatever the response times, and
+ * latency is measured from the intended arrival time, so a slow backend shows up as queueing
+ * in the percentiles instead of silently lowering the load (coordinated omission).
+ * The closed model keeps a fixed number of users each waiting for its previous response.
+ */
+public class LoadTestRunner {
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+    private final LatencyReport report = new LatencyReport();
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Set<Operation> reportedErrors = ConcurrentHashMap.newKeySet();
+    private final List<VirtualUser> users = new ArrayList<>();
+
+    LoadTestRunner(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.client = new ApiClient(baseUrl);
+        this.operations = config.mix().keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.target();
+        if ("embedded".equals(baseUrl)) {
+            context = startBackend(config.db());
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            LoadTestRunner runner = new LoadTestRunner(config, baseUrl);
+            runner.seed();
+            runner.run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Boot the application in this JVM on a random port: H2 in MySQL mode with the schema
+     * created by Hibernate, or the MySQL configured in application.properties (Flyway as usual)
+     */
+    private static ConfigurableApplicationContext startBackend(String db) {
+        String[] profiles = "mysql".equals(db) ? new String[] {"loadtest"} : new String[] {"loadtest", "loadtest-h2"};
+        return new SpringApplicationBuilder(ExpenseApplication.class)
+            .profiles(profiles)
+            .run();
+    }
+
+    /**
+     * Register the accounts and give each its categories and expense history
+     */
+    void seed() throws Exception {
+        long runId = System.currentTimeMillis();
+        for (int i = 0; i < config.users(); i++) {
+            users.add(new VirtualUser("carga" + runId + "." + i + "@example.com", "senha-carga-" + i));
+        }
+        System.out.printf("Criando %d usuários com %d categorias e %d despesas cada...%n",
+            config.users(), config.categories(), config.expenses());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                VirtualUser user = users.get(i);
+                RandomGenerator random = new SplittableRandom(config.seed() + i);
+                pending.add(executor.submit(() -> {
+                    client.register(user, "Usuário de carga");
+                    client.login(user);
+                    long[] categoryIds = new long[config.categories()];
+                    for (int c = 0; c < categoryIds.length; c++) {
+                        categoryIds[c] = client.createCategory(user, "Categoria " + c);
+                    }
+                    user.categoryIds = categoryIds;
+                    for (int e = 0; e < config.expenses(); e++) {
+                        client.createExpense(user, random);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        }
+    }
+
+    void run() throws IOException {
+        System.out.printf("Carga %s por %ds (+%ds de aquecimento)...%n", config.openModel() ? "aberta" : "fechada",
+            config.duration().toSeconds(), config.warmup().toSeconds());
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        if (config.openModel()) {
+            runOpen(start, measureFrom, end);
+        } else {
+            runClosed(measureFrom, end);
+        }
+        report.write(config, config.duration().toMillis() / 1000.0);
+    }
+
+    private void runOpen(long start, long measureFrom, long end) {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        double meanGapNanos = 1e9 / config.rate();
+        double next = start;
+        Semaphore inFlight = new Semaphore(config.concurrency());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                next += config.poisson() ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+                long intended = (long) next;
+                if (intended >= end) {
+                    break;
+                }
+                Operation operation = pick(random);
+                VirtualUser user = users.get(random.nextInt(users.size()));
+                SplittableRandom payloadRandom = random.split();
+                boolean measured = intended >= measureFrom;
+                sleepUntil(intended);
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        report.drop(operation);
+                    }
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        execute(operation, user, payloadRandom, intended, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void runClosed(long measureFrom, long end) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < config.concurrency(); worker++) {
+                SplittableRandom random = new SplittableRandom(config.seed() + worker);
+                VirtualUser user = users.get(worker % users.size());
+                executor.execute(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        execute(pick(random), user, random, now, now >= measureFrom);
+                        if (!config.think().isZero()) {
+                            LockSupport.parkNanos(config.think().toNanos());
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private void execute(Operation operation, VirtualUser user, RandomGenerator random, long startNanos, boolean measured) {
+        try {
+            switch (operation) {
+                case LOGIN -> client.login(user);
+                case LIST_CATEGORIES -> client.listCategories(user);
+                case LIST_EXPENSES -> client.listExpenses(user);
+                case CREATE_EXPENSE -> client.createExpense(user, random);
+                case CHARTS -> {
+                    client.listCategories(user);
+                    client.listExpenses(user);
+                }
+            }
+            if (measured) {
+                report.record(operation, System.nanoTime() - startNanos);
+            }
+        } catch (IOException e) {
+            if (measured) {
+                report.error(operation);
+            }
+            if (reportedErrors.add(operation)) {
+                System.err.println("Primeiro erro em " + operation.label() + ": " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Operation pick(RandomGenerator random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.expense.loadtest;
+
+/**
+ * Calls the mobile client makes, named after the screen action that triggers them
+ * (frontend/src/services/api.ts and the screens using it)
+ */
+enum Operation {
+
+    /** AuthContext.login: POST /api/auth/login */
+    LOGIN("login"),
+    /** CategoriesScreen / HomeScreen: GET /api/categories */
+    LIST_CATEGORIES("categories"),
+    /** HomeScreen: GET /api/expenses */
+    LIST_EXPENSES("expenses"),
+    /** HomeScreen: POST /api/expenses */
+    CREATE_EXPENSE("create"),
+    /** ChartsScreen: GET /api/categories then GET /api/expenses, measured as one screen load */
+    CHARTS("charts");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation byName(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida no mix: " + label);
+    }
+}
@@ -0,0 +1,30 @@
+-- Tabelas usadas só por SQL nativo (sem entidade), como nas migrações V9 e V10
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until DATETIME NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_offset (
+    consumer VARCHAR(64) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at DATETIME(3) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status SMALLINT NULL,
+    content_type VARCHAR(100) NULL,
+    location VARCHAR(255) NULL,
+    body BLOB NULL,
+    created_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('recurring-expenses', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('outbox-dispatch', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('outbox-purge', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('expense-archive', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('idempotency-purge', '1970-01-01 00:00:00', '');
@@ -0,0 +1,50 @@
+package com.expense.assembler;
+
+import com.expense.controller.BudgetController;
+import com.expense.controller.CategoryController;
+import com.expense.controller.ExpenseController;
+import com.expense.dto.response.BudgetResponseDTO;
+import com.expense.model.hateoas.BudgetModel;
+import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@Component
+public class BudgetModelAssembler extends RepresentationModelAssemblerSupport<BudgetResponseDTO, BudgetModel> {
+    
+    public BudgetModelAssembler() {
+        super(BudgetController.class, BudgetModel.class);
+    }
+    
+    @Override
+    public BudgetModel toModel(BudgetResponseDTO dto) {
+        BudgetModel model = new BudgetModel(
+            dto.getId(),
+            dto.getCategoryId(),
+            dto.getCategoryName(),
+            dto.getLimitAmount(),
+            dto.getSpent()
+        );
+        
+        // Link para o próprio recurso (self)
+        model.add(linkTo(methodOn(BudgetController.class).getBudgetById(dto.getId())).withSelfRel());
+        
+        // Link para listar todos os orçamentos
+        model.add(linkTo(methodOn(BudgetController.class).getAllBudgets()).withRel("budgets"));
+        
+        // Links para a categoria e suas despesas
+        if (dto.getCategoryId() != null) {
+            model.add(linkTo(methodOn(CategoryController.class).getCategoryById(dto.getCategoryId())).withRel("category"));
+            model.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(dto.getCategoryId(), null, null)).withRel("category-expenses"));
+        }
+        
+        // Link para atualizar orçamento
+        model.add(linkTo(methodOn(BudgetController.class).updateBudget(dto.getId(), null)).withRel("update"));
+        
+        // Link para deletar orçamento
+        model.add(linkTo(methodOn(BudgetController.class).deleteBudget(dto.getId())).withRel("delete"));
+        
+        return model;
+    }
+}
@@ -25,6 +25,7 @@ public class CategoryModelAssembler extends RepresentationModelAssemblerSupport<
             dto.getColor(), 
             dto.getIcon()
         );
+        model.setVersion(dto.getVersion());
         
         // Link para o próprio recurso (self)
         model.add(linkTo(methodOn(CategoryController.class).getCategoryById(dto.getId())).withSelfRel());
@@ -33,13 +34,16 @@ public class CategoryModelAssembler extends RepresentationModelAssemblerSupport<
         model.add(linkTo(methodOn(CategoryController.class).getAllCategories()).withRel("categories"));
         
         // Link para atualizar categoria
-        model.add(linkTo(methodOn(CategoryController.class).updateCategory(dto.getId(), null)).withRel("update"));
+        model.add(linkTo(methodOn(CategoryController.class).updateCategory(dto.getId(), null, null)).withRel("update"));
+        
+        // Link para atualização parcial (exige If-Match com a versão)
+        model.add(linkTo(methodOn(CategoryController.class).patchCategory(dto.getId(), null, null)).withRel("patch"));
         
         // Link para deletar categoria
         model.add(linkTo(methodOn(CategoryController.class).deleteCategory(dto.getId())).withRel("delete"));
         
         // Link para despesas desta categoria
-        model.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(dto.getId())).withRel("expenses"));
+        model.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(dto.getId(), null, null)).withRel("expenses"));
         
         return model;
     }
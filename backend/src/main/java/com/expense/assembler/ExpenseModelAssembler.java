@@ -29,6 +29,8 @@ public class ExpenseModelAssembler extends RepresentationModelAssemblerSupport<E
             dto.getCategory() != null ? dto.getCategory().getId() : null,
             dto.getCategory() != null ? dto.getCategory().getName() : null
         );
+        model.setVersion(dto.getVersion());
+        model.setCurrency(dto.getCurrency());
         
         // Link para o próprio recurso (self)
         model.add(linkTo(methodOn(ExpenseController.class).getExpenseById(dto.getId())).withSelfRel());
@@ -40,18 +42,21 @@ public class ExpenseModelAssembler extends RepresentationModelAssemblerSupport<E
         if (dto.getUser() != null) {
             model.add(linkTo(methodOn(UserController.class).getUserById(dto.getUser().getId())).withRel("user"));
             // Link para despesas do mesmo usuário
-            model.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(dto.getUser().getId())).withRel("user-expenses"));
+            model.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(dto.getUser().getId(), null, null)).withRel("user-expenses"));
         }
         
         // Link para a categoria da despesa
         if (dto.getCategory() != null) {
             model.add(linkTo(methodOn(CategoryController.class).getCategoryById(dto.getCategory().getId())).withRel("category"));
             // Link para despesas da mesma categoria
-            model.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(dto.getCategory().getId())).withRel("category-expenses"));
+            model.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(dto.getCategory().getId(), null, null)).withRel("category-expenses"));
         }
         
         // Link para atualizar despesa
-        model.add(linkTo(methodOn(ExpenseController.class).updateExpense(dto.getId(), null)).withRel("update"));
+        model.add(linkTo(methodOn(ExpenseController.class).updateExpense(dto.getId(), null, null)).withRel("update"));
+        
+        // Link para atualização parcial (exige If-Match com a versão)
+        model.add(linkTo(methodOn(ExpenseController.class).patchExpense(dto.getId(), null, null)).withRel("patch"));
         
         // Link para deletar despesa
         model.add(linkTo(methodOn(ExpenseController.class).deleteExpense(dto.getId())).withRel("delete"));
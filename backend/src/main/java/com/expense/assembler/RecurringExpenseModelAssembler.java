@@ -0,0 +1,55 @@
+package com.expense.assembler;
+
+import com.expense.controller.CategoryController;
+import com.expense.controller.RecurringExpenseController;
+import com.expense.dto.response.RecurringExpenseResponseDTO;
+import com.expense.model.hateoas.RecurringExpenseModel;
+import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@Component
+public class RecurringExpenseModelAssembler
+        extends RepresentationModelAssemblerSupport<RecurringExpenseResponseDTO, RecurringExpenseModel> {
+    
+    public RecurringExpenseModelAssembler() {
+        super(RecurringExpenseController.class, RecurringExpenseModel.class);
+    }
+    
+    @Override
+    public RecurringExpenseModel toModel(RecurringExpenseResponseDTO dto) {
+        RecurringExpenseModel model = new RecurringExpenseModel(
+            dto.getId(),
+            dto.getDescription(),
+            dto.getAmount(),
+            dto.getCategoryId(),
+            dto.getCategoryName(),
+            dto.getRule(),
+            dto.getStartDate(),
+            dto.getEndDate(),
+            dto.getNextOccurrence(),
+            dto.isActive()
+        );
+        model.setCurrency(dto.getCurrency());
+        
+        // Link para o próprio recurso (self)
+        model.add(linkTo(methodOn(RecurringExpenseController.class).getRecurringExpenseById(dto.getId())).withSelfRel());
+        
+        // Link para listar todas as despesas recorrentes
+        model.add(linkTo(methodOn(RecurringExpenseController.class).getAllRecurringExpenses()).withRel("recurring-expenses"));
+        
+        // Link para a categoria
+        if (dto.getCategoryId() != null) {
+            model.add(linkTo(methodOn(CategoryController.class).getCategoryById(dto.getCategoryId())).withRel("category"));
+        }
+        
+        // Link para atualizar despesa recorrente
+        model.add(linkTo(methodOn(RecurringExpenseController.class).updateRecurringExpense(dto.getId(), null)).withRel("update"));
+        
+        // Link para deletar despesa recorrente
+        model.add(linkTo(methodOn(RecurringExpenseController.class).deleteRecurringExpense(dto.getId())).withRel("delete"));
+        
+        return model;
+    }
+}
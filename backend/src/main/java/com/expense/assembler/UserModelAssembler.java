@@ -19,6 +19,7 @@ public class UserModelAssembler extends RepresentationModelAssemblerSupport<User
     @Override
     public UserModel toModel(UserResponseDTO dto) {
         UserModel model = new UserModel(dto.getId(), dto.getName(), dto.getEmail());
+        model.setBaseCurrency(dto.getBaseCurrency());
         
         // Link para o próprio recurso (self)
         model.add(linkTo(methodOn(UserController.class).getUserById(dto.getId())).withSelfRel());
@@ -36,7 +37,7 @@ public class UserModelAssembler extends RepresentationModelAssemblerSupport<User
         model.add(linkTo(methodOn(UserController.class).deleteUser(dto.getId())).withRel("delete"));
         
         // Link para despesas do usuário
-        model.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(dto.getId())).withRel("expenses"));
+        model.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(dto.getId(), null, null)).withRel("expenses"));
         
         return model;
     }
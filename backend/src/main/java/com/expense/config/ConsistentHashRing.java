@@ -0,0 +1,70 @@
+package com.expense.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent-hash ring of shard names with virtual nodes: a key belongs to the first point
+ * at or after its hash. Adding a shard to N existing ones moves only about 1/(N+1) of the
+ * keys, all of them to the new shard.
+ */
+class ConsistentHashRing {
+
+    private final long[] points;
+    private final String[] owners;
+
+    ConsistentHashRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("O anel precisa de ao menos um shard e um nó virtual");
+        }
+        int size = shards.size() * virtualNodes;
+        long[] hashes = new long[size];
+        String[] names = new String[size];
+        Integer[] order = new Integer[size];
+        int i = 0;
+        for (String shard : shards) {
+            for (int v = 0; v < virtualNodes; v++) {
+                hashes[i] = hash(shard + "#" + v);
+                names[i] = shard;
+                order[i] = i;
+                i++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = names[order[j]];
+        }
+    }
+
+    String shardFor(long key) {
+        int index = Arrays.binarySearch(points, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    private static long hash(String value) {
+        long h = 0;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = 31 * h + b;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Finalizer of MurmurHash3 (fmix64): sequential user ids spread over the whole ring
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,53 @@
+package com.expense.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Second-level cache of Hibernate: Caffeine regions behind JCache, bounded and configured in
+ * hibernate-cache.conf, with Micrometer metrics per region (cache.gets, cache.puts,
+ * cache.evictions, tag cache=region). Coherence between nodes: see CacheInvalidator.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    static final String CONFIG = "classpath:hibernate-cache.conf";
+
+    /**
+     * Regions reported as metrics (the timestamps region holds one entry per table)
+     */
+    static final List<String> REGIONS = List.of("category", "user", "user-natural-id", "category-by-user");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        // Um gerenciador por contexto (o fragmento distingue a URI): os testes sobem vários na mesma JVM
+        URI uri = URI.create(CONFIG + "#" + UUID.randomUUID());
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(uri, getClass().getClassLoader());
+    }
+
+    /**
+     * Hibernate uses this cache manager instead of creating its own
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+            JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region)));
+    }
+}
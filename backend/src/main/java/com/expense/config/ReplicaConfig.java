@@ -0,0 +1,137 @@
+package com.expense.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas (replica.enabled=true): read-only transactions are served by replicas of the
+ * database (replica.urls) or, with sharding, of each shard (sharding.shards[n].replica-urls).
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    /**
+     * Hibernate keeps a session's connection until the request ends (open-in-view) by default;
+     * releasing it after each transaction lets the next one pick primary or replica again
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    /**
+     * A replica can be behind the primary (and behind what other nodes already invalidated), so a
+     * session that takes a replica connection reads the second-level cache but puts nothing in it
+     * until its transaction ends: the cache is filled only from the primary
+     */
+    @Bean
+    public SmartInitializingSingleton replicaReadsSkipCachePuts(ReplicaLagMonitor replicaLagMonitor,
+                                                                EntityManagerFactory entityManagerFactory) {
+        return () -> replicaLagMonitor.routers().forEach(router ->
+            router.setReplicaReadListener(() -> skipCachePuts(entityManagerFactory)));
+    }
+
+    static void skipCachePuts(EntityManagerFactory entityManagerFactory) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !(TransactionSynchronizationManager.getResource(entityManagerFactory) instanceof EntityManagerHolder holder)) {
+            return;
+        }
+        Session session = holder.getEntityManager().unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        if (!previous.isPutEnabled()) {
+            return;
+        }
+        session.setCacheMode(CacheMode.GET);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Com open-in-view a sessão continua na próxima transação da requisição
+                session.setCacheMode(previous);
+            }
+        });
+    }
+
+    /**
+     * Single database (no sharding): spring.datasource.* is the primary
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "false", matchIfMissing = true)
+    static class SingleDatabase {
+
+        @Value("${replica.urls:}")
+        private List<String> urls = new ArrayList<>();
+
+        @Value("${replica.username:${spring.datasource.username:}}")
+        private String username;
+
+        @Value("${replica.password:${spring.datasource.password:}}")
+        private String password;
+
+        @Value("${replica.max-lag-ms:2000}")
+        private long maxLagMs = 2000;
+
+        @Value("${replica.sticky-ms:5000}")
+        private long stickyMs = 5000;
+
+        // O pool montado aqui não recebe spring.datasource.hikari.* sozinho
+        @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+        private int maximumPoolSize = 10;
+
+        @Bean
+        public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties) {
+            HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            primary.setPoolName("primary");
+            primary.setMaximumPoolSize(maximumPoolSize);
+            List<DataSource> replicas = new ArrayList<>();
+            for (int i = 0; i < urls.size(); i++) {
+                replicas.add(replica("replica-" + i, urls.get(i), username, password, maximumPoolSize));
+            }
+            return new ReplicaRoutingDataSource("primary", primary, replicas,
+                Duration.ofMillis(maxLagMs), Duration.ofMillis(stickyMs));
+        }
+
+        /**
+         * The replica is chosen when a statement first needs a connection, after the
+         * transaction has been marked read-only
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+        }
+    }
+
+    static HikariDataSource replica(String poolName, String url, String username, String password, int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
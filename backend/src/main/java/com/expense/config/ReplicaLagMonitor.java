@@ -0,0 +1,43 @@
+package com.expense.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures replica lag for every primary with replicas (one per shard when sharded).
+ * Without this job running no replica is ever fresh, so all reads stay on the primaries.
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Scheduled(fixedDelayString = "${replica.check-ms:1000}")
+    public void check() {
+        routers().forEach(ReplicaRoutingDataSource::checkLag);
+    }
+
+    List<ReplicaRoutingDataSource> routers() {
+        DataSource target = dataSource instanceof DelegatingDataSource delegating
+            ? delegating.getTargetDataSource()
+            : dataSource;
+        List<ReplicaRoutingDataSource> routers = new ArrayList<>();
+        if (target instanceof ReplicaRoutingDataSource router) {
+            routers.add(router);
+        } else if (target instanceof ShardRoutingDataSource shards) {
+            for (DataSource shard : shards.getShards().values()) {
+                if (shard instanceof ReplicaRoutingDataSource router) {
+                    routers.add(router);
+                }
+            }
+        }
+        return routers;
+    }
+}
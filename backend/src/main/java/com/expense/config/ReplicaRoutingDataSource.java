@@ -0,0 +1,239 @@
+package com.expense.config;
+
+import com.expense.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A primary and its read replicas. Read-only transactions go to a replica, round-robin,
+ * when its measured lag is under the limit; everything else — writes, reads outside a
+ * transaction, and any read while no replica is fresh — goes to the primary.
+ * After a user's read-write transaction that user's reads stay on the primary for the
+ * sticky window, so they see their own writes (per node: another node only knows its own).
+ * Reads that must not miss any committed write, even within the allowed lag, run in
+ * {@link #onPrimary}.
+ * Must sit behind a LazyConnectionDataSourceProxy so the connection is taken after the
+ * transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+    static final String BEAT = "UPDATE replica_heartbeat SET beat = CURRENT_TIMESTAMP(3) WHERE id = 1";
+    static final String READ_BEAT = "SELECT beat FROM replica_heartbeat WHERE id = 1";
+
+    private static final int MAX_STICKY_USERS = 100000;
+
+    private static final ThreadLocal<Boolean> ON_PRIMARY = new ThreadLocal<>();
+
+    private final String name;
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagNanos;
+    private final long stickyNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+    private volatile Runnable replicaReadListener = () -> { };
+
+    public ReplicaRoutingDataSource(String name, DataSource primary, List<DataSource> replicas,
+                                    Duration maxLag, Duration sticky) {
+        this(name, primary, replicas, maxLag, sticky, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(String name, DataSource primary, List<DataSource> replicas,
+                             Duration maxLag, Duration sticky, LongSupplier clock) {
+        this.name = name;
+        this.primary = primary;
+        this.maxLagNanos = maxLag.toNanos();
+        this.stickyNanos = sticky.toNanos();
+        this.clock = clock;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica(name + "-replica-" + i, replicas.get(i));
+            this.replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                markWrite(userId);
+            }
+            return PRIMARY;
+        }
+        if (ON_PRIMARY.get() != null || userId != null && isSticky(userId)) {
+            return PRIMARY;
+        }
+        long now = clock.getAsLong();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.isFresh(now, maxLagNanos)) {
+                replicaReadListener.run();
+                return replica.key;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Called on the thread that is about to take a replica connection
+     */
+    public void setReplicaReadListener(Runnable listener) {
+        this.replicaReadListener = listener;
+    }
+
+    /**
+     * Run the task with every connection it takes from the primary, read-only transactions included
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        boolean outer = ON_PRIMARY.get() == null;
+        ON_PRIMARY.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (outer) {
+                ON_PRIMARY.remove();
+            }
+        }
+    }
+
+    /**
+     * Compare the heartbeat each replica has with the one on the primary, then write the next
+     * beat: a replica that applied the previous beat has lag 0, so the precision is one check
+     * interval. A replica that fails the check is skipped until the next one passes.
+     */
+    public void checkLag() {
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+        Timestamp beat;
+        try {
+            beat = primaryJdbc.queryForObject(READ_BEAT, Timestamp.class);
+        } catch (RuntimeException e) {
+            logger.warn("Heartbeat de replicação indisponível no primário {}: {}", name, e.getMessage());
+            return;
+        }
+        long checkedAt = clock.getAsLong();
+        for (Replica replica : replicas) {
+            try {
+                Timestamp seen = new JdbcTemplate(replica.dataSource).queryForObject(READ_BEAT, Timestamp.class);
+                long lag = Math.max(0, Duration.between(seen.toInstant(), beat.toInstant()).toNanos());
+                replica.update(lag, checkedAt);
+                if (lag > maxLagNanos) {
+                    logger.debug("Réplica {} atrasada {} ms; leituras vão para o primário", replica.key, lag / 1_000_000);
+                }
+            } catch (RuntimeException e) {
+                replica.update(Long.MAX_VALUE, checkedAt);
+                logger.warn("Réplica {} indisponível: {}", replica.key, e.getMessage());
+            }
+        }
+        try {
+            primaryJdbc.update(BEAT);
+        } catch (RuntimeException e) {
+            logger.warn("Heartbeat de replicação falhou no primário {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Lag of each replica in the last check, in milliseconds (-1 if unreachable)
+     */
+    public Map<String, Long> lagMillis() {
+        Map<String, Long> lags = new HashMap<>();
+        for (Replica replica : replicas) {
+            long lag = replica.lagNanos;
+            lags.put(replica.key, lag == Long.MAX_VALUE ? -1 : lag / 1_000_000);
+        }
+        return lags;
+    }
+
+    private void markWrite(long userId) {
+        if (stickyUntil.size() >= MAX_STICKY_USERS) {
+            long now = clock.getAsLong();
+            stickyUntil.values().removeIf(until -> until - now < 0);
+        }
+        stickyUntil.put(userId, clock.getAsLong() + stickyNanos);
+    }
+
+    private boolean isSticky(long userId) {
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - clock.getAsLong() < 0) {
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws Exception {
+        List<DataSource> all = new ArrayList<>();
+        all.add(primary);
+        replicas.forEach(replica -> all.add(replica.dataSource));
+        for (DataSource dataSource : all) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String key;
+        private final DataSource dataSource;
+        private volatile long lagNanos = Long.MAX_VALUE;
+        private volatile long checkedAt;
+
+        Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        void update(long lagNanos, long checkedAt) {
+            this.lagNanos = lagNanos;
+            this.checkedAt = checkedAt;
+        }
+
+        /**
+         * Fresh only if the last check is recent too: a stuck monitor must not keep a stale verdict
+         */
+        boolean isFresh(long now, long maxLagNanos) {
+            return lagNanos <= maxLagNanos && now - checkedAt <= Math.max(maxLagNanos, 1) * 5;
+        }
+    }
+}
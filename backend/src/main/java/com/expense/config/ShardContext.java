@@ -0,0 +1,73 @@
+package com.expense.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Shard used by the current thread's database work. Requests get it from the authenticated
+ * user, background jobs set it while they process each shard; with no shard set the
+ * routing data source uses the first shard (the one holding the user directory).
+ * The shard is read when a connection is taken, so it cannot change inside a transaction.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run the task on the given shard and restore the previous one afterwards
+     */
+    public static <T> T callIn(String shard, Supplier<T> task) {
+        String previous = CURRENT.get();
+        if (!Objects.equals(previous, shard) && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Troca de shard dentro de uma transação: " + previous + " -> " + shard);
+        }
+        CURRENT.set(shard);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static void runIn(String shard, Runnable task) {
+        callIn(shard, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the task once per shard, or once on the single database when sharding is off
+     * (no directory)
+     */
+    public static void forEachShard(ShardDirectory directory, Runnable task) {
+        if (directory == null) {
+            task.run();
+            return;
+        }
+        for (String shard : directory.getShards()) {
+            runIn(shard, task);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.expense.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where each user lives. The user_directory table on the first shard maps the normalized
+ * email to the user id — allocated there, so ids are unique across shards — and to the
+ * user's shard, chosen by the consistent-hash ring at registration and stored, so adding a
+ * shard never moves existing users implicitly (a move updates the row after copying data).
+ * Rows without a shard are users from before sharding, still on the first shard.
+ * Lookups are cached in memory; the cache is bounded by clearing it when full.
+ */
+public class ShardDirectory {
+
+    static final String INSERT = "INSERT INTO user_directory (email_normalized, created_at) VALUES (?, ?)";
+    static final String ASSIGN = "UPDATE user_directory SET shard = ? WHERE user_id = ?";
+    static final String FIND_BY_EMAIL = "SELECT user_id, shard FROM user_directory WHERE email_normalized = ?";
+    static final String UPDATE_EMAIL = "UPDATE user_directory SET email_normalized = ? WHERE user_id = ?";
+    static final String DELETE = "DELETE FROM user_directory WHERE user_id = ?";
+    static final String IMPORT_UNSHARDED = "INSERT INTO user_directory (user_id, email_normalized, shard, created_at) "
+            + "SELECT u.id, u.email_normalized, NULL, u.created_at FROM user u "
+            + "WHERE NOT EXISTS (SELECT 1 FROM user_directory d WHERE d.user_id = u.id)";
+
+    /**
+     * A user's id and shard
+     */
+    public record Entry(long userId, String shard) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> shards;
+    private final ConsistentHashRing ring;
+    private final int cacheSize;
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    public ShardDirectory(DataSource directoryDataSource, List<String> shards, int virtualNodes, int cacheSize) {
+        this.jdbcTemplate = new JdbcTemplate(directoryDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(directoryDataSource));
+        this.shards = List.copyOf(shards);
+        this.ring = new ConsistentHashRing(this.shards, virtualNodes);
+        this.cacheSize = cacheSize;
+    }
+
+    public List<String> getShards() {
+        return shards;
+    }
+
+    /**
+     * Add users of the first shard's database that are not in the directory yet (the single
+     * database from before sharding). Returns the number of users added.
+     */
+    public int importUnsharded() {
+        return jdbcTemplate.update(IMPORT_UNSHARDED);
+    }
+
+    /**
+     * Shard a new user with this id is placed on
+     */
+    public String placementOf(long userId) {
+        return ring.shardFor(userId);
+    }
+
+    /**
+     * Allocate an id and a shard for a new email. Throws DuplicateKeyException if taken.
+     */
+    public Entry register(String email) {
+        return transactionTemplate.execute(status -> {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS);
+                statement.setString(1, normalize(email));
+                statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                return statement;
+            }, keyHolder);
+            long userId = keyHolder.getKey().longValue();
+            String shard = placementOf(userId);
+            jdbcTemplate.update(ASSIGN, shard, userId);
+            return new Entry(userId, shard);
+        });
+    }
+
+    public Optional<Entry> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        String key = normalize(email);
+        Entry cached = byEmail.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        List<Entry> found = jdbcTemplate.query(FIND_BY_EMAIL, (rs, row) -> {
+            long userId = rs.getLong("user_id");
+            String shard = rs.getString("shard");
+            // Sem shard gravado: usuário anterior aos shards, que continua no primeiro
+            return new Entry(userId, shard != null ? shard : shards.get(0));
+        }, key);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        if (byEmail.size() >= cacheSize) {
+            byEmail.clear();
+        }
+        byEmail.put(key, found.get(0));
+        return Optional.of(found.get(0));
+    }
+
+    public boolean contains(String email) {
+        return findByEmail(email).isPresent();
+    }
+
+    /**
+     * Point the user's directory row at a new email. Throws DuplicateKeyException if taken.
+     */
+    public void changeEmail(long userId, String oldEmail, String newEmail) {
+        jdbcTemplate.update(UPDATE_EMAIL, normalize(newEmail), userId);
+        byEmail.remove(normalize(oldEmail));
+    }
+
+    public void remove(long userId, String email) {
+        jdbcTemplate.update(DELETE, userId);
+        if (email != null) {
+            byEmail.remove(normalize(email));
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
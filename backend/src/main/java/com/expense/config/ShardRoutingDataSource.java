@@ -0,0 +1,53 @@
+package com.expense.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard in {@link ShardContext}, or of the first shard when
+ * none is set. An unknown shard name is an error rather than a silent fallback.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<String, DataSource> shards;
+
+    public ShardRoutingDataSource(LinkedHashMap<String, DataSource> shards) {
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(directory());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Data source of each shard, in configuration order
+     */
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * The first shard, which also holds the user directory
+     */
+    public DataSource directory() {
+        return shards.values().iterator().next();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : shards.values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
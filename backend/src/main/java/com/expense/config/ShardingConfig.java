@@ -0,0 +1,119 @@
+package com.expense.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Per-user sharding (sharding.enabled=true): one pool per shard behind a routing data source
+ * that JPA, JdbcTemplate and the transaction manager use as the only DataSource, the user
+ * directory on the first shard, and Flyway run against every shard.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Value("${replica.enabled:false}")
+    private boolean replicasEnabled;
+
+    @Value("${replica.max-lag-ms:2000}")
+    private long replicaMaxLagMs = 2000;
+
+    @Value("${replica.sticky-ms:5000}")
+    private long replicaStickyMs = 5000;
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.enabled=true sem sharding.shards configurados");
+        }
+        LinkedHashMap<String, DataSource> shards = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            if (shards.put(shard.getName(), withReplicas(shard, dataSource)) != null) {
+                throw new IllegalStateException("Shard duplicado: " + shard.getName());
+            }
+        }
+        logger.info("Shards configurados: {}", shards.keySet());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * With replica.enabled, read-only transactions of a shard go to its replicas
+     */
+    private DataSource withReplicas(ShardingProperties.Shard shard, DataSource primary) {
+        if (!replicasEnabled || shard.getReplicaUrls().isEmpty()) {
+            return primary;
+        }
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < shard.getReplicaUrls().size(); i++) {
+            replicas.add(ReplicaConfig.replica("shard-" + shard.getName() + "-replica-" + i, shard.getReplicaUrls().get(i),
+                shard.getUsername(), shard.getPassword(), shard.getMaximumPoolSize()));
+        }
+        return new ReplicaRoutingDataSource(shard.getName(), primary, replicas,
+            Duration.ofMillis(replicaMaxLagMs), Duration.ofMillis(replicaStickyMs));
+    }
+
+    /**
+     * The shard is chosen when a statement first needs a connection, not when a transaction
+     * or EntityManager is opened
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardDirectory shardDirectory(ShardRoutingDataSource shardRoutingDataSource, ShardingProperties properties) {
+        return new ShardDirectory(shardRoutingDataSource.directory(),
+            List.copyOf(shardRoutingDataSource.getShards().keySet()),
+            properties.getVirtualNodes(),
+            properties.getDirectoryCacheSize());
+    }
+
+    /**
+     * Apply the same migrations to every shard, then add pre-sharding users to the directory
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRoutingDataSource shardRoutingDataSource,
+                                                          ShardDirectory shardDirectory) {
+        return flyway -> {
+            shardRoutingDataSource.getShards().forEach((name, dataSource) -> {
+                logger.info("Migrando shard {}", name);
+                Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(dataSource)
+                    .load()
+                    .migrate();
+            });
+            int imported = shardDirectory.importUnsharded();
+            if (imported > 0) {
+                logger.info("{} usuários existentes adicionados ao diretório", imported);
+            }
+        };
+    }
+}
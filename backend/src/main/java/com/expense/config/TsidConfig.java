@@ -0,0 +1,43 @@
+package com.expense.config;
+
+import com.expense.model.Tsid;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Node bits of the generated ids (see {@link Tsid}). A single instance uses node 0; with
+ * ids.node-count above 1, or with sharding, each running instance needs its own ids.node,
+ * below ids.node-count, and startup fails without it.
+ */
+@Configuration
+public class TsidConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(TsidConfig.class);
+
+    @Value("${ids.node:-1}")
+    private int node = -1;
+
+    @Value("${ids.node-count:1}")
+    private int nodeCount = 1;
+
+    @Value("${sharding.enabled:false}")
+    private boolean sharding;
+
+    @PostConstruct
+    public void init() {
+        Tsid.setNodeCount(nodeCount);
+        int resolved = node;
+        if (resolved < 0) {
+            if (nodeCount > 1 || sharding) {
+                throw new IllegalStateException("ids.node não configurado: defina um nó de 0 a " + (nodeCount - 1)
+                    + " diferente em cada instância");
+            }
+            resolved = 0;
+        }
+        Tsid.setNode(resolved);
+        logger.info("Gerador de ids no nó {} de {}", resolved, nodeCount);
+    }
+}
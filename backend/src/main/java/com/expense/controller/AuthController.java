@@ -4,10 +4,14 @@ import com.expense.dto.request.LoginRequestDTO;
 import com.expense.dto.request.UserRequestDTO;
 import com.expense.model.User;
 import com.expense.model.hateoas.LoginResponseModel;
+import com.expense.security.AuthenticatedUser;
 import com.expense.security.JwtTokenProvider;
 import com.expense.service.UserService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,6 +19,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.Map;
 
@@ -24,6 +29,16 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    
+    // Links da resposta de login montados uma vez (relativos ao contexto, com o id como variável)
+    private static final Link USER_LINK = linkTo(methodOn(UserController.class).getUserById(null)).withRel("user");
+    private static final Link USERS_LINK = linkTo(methodOn(UserController.class).getAllUsers()).withRel("users");
+    private static final Link EXPENSES_LINK =
+        linkTo(methodOn(ExpenseController.class).getExpensesByUser(null, null, null)).withRel("expenses");
+    private static final Link CATEGORIES_LINK =
+        linkTo(methodOn(CategoryController.class).getAllCategories()).withRel("categories");
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -35,57 +50,52 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO loginRequest) {
-        System.out.println("=== AUTH CONTROLLER LOGIN ===");
-        System.out.println("Email: " + loginRequest.getEmail());
-        System.out.println("Password present: " + (loginRequest.getPassword() != null));
-        
         try {
-            // Tenta autenticar
-            System.out.println("Attempting authentication...");
+            // Uma consulta ao usuário e uma verificação BCrypt; o principal já traz id e nome
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getEmail(),
                     loginRequest.getPassword()
                 )
             );
-            
-            System.out.println("Authentication successful!");
-            System.out.println("Principal: " + authentication.getPrincipal());
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
             
             // Gera o token JWT
-            String jwt = tokenProvider.generateToken(loginRequest.getEmail());
-            System.out.println("JWT generated: " + jwt);
-            
-            // Busca informações do usuário
-            User user = userService.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-            
-            System.out.println("User found - ID: " + user.getId() + ", Email: " + user.getEmail());
+            String jwt = tokenProvider.generateToken(user.getUsername());
             
             // Cria o modelo HATEOAS
-            LoginResponseModel response = new LoginResponseModel(jwt, user.getId(), user.getEmail(), user.getName());
+            LoginResponseModel response = new LoginResponseModel(jwt, user.getId(), user.getUsername(), user.getName());
             
             // Adiciona links HATEOAS
-            response.add(linkTo(methodOn(UserController.class).getUserById(user.getId())).withRel("user"));
-            response.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("users"));
-            response.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(user.getId())).withRel("expenses"));
-            response.add(linkTo(methodOn(CategoryController.class).getAllCategories()).withRel("categories"));
+            String baseUri = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+            response.add(withUser(USER_LINK, baseUri, user.getId()));
+            response.add(withUser(USERS_LINK, baseUri, user.getId()));
+            response.add(withUser(EXPENSES_LINK, baseUri, user.getId()));
+            response.add(withUser(CATEGORIES_LINK, baseUri, user.getId()));
             
+            logger.info("User {} logged in", user.getId());
             return ResponseEntity.ok(response);
             
         } catch (AuthenticationException e) {
-            System.out.println("Authentication failed: " + e.getMessage());
-            System.out.println("Exception type: " + e.getClass().getName());
-            e.printStackTrace();
+            logger.warn("Authentication failed for {}: {}", loginRequest.getEmail(), e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("error", "Credenciais inválidas"));
         } catch (Exception e) {
-            System.out.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error during login", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", e.getMessage()));
         }
     }
+    
+    /**
+     * Absolute link from a prebuilt template, with the user id in place of its path variable
+     */
+    private static Link withUser(Link template, String baseUri, Long userId) {
+        String href = template.getHref()
+            .replace("{id}", String.valueOf(userId))
+            .replace("{userId}", String.valueOf(userId));
+        return Link.of(baseUri + href, template.getRel());
+    }
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody UserRequestDTO userRequest) {
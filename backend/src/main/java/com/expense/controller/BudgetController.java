@@ -0,0 +1,158 @@
+package com.expense.controller;
+
+import com.expense.assembler.BudgetModelAssembler;
+import com.expense.dto.request.BudgetRequestDTO;
+import com.expense.mapper.BudgetMapper;
+import com.expense.model.Budget;
+import com.expense.model.User;
+import com.expense.model.hateoas.BudgetModel;
+import com.expense.repository.UserRepository;
+import com.expense.service.BudgetService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/api/budgets")
+public class BudgetController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetController.class);
+    
+    @Autowired
+    private BudgetService budgetService;
+    
+    @Autowired
+    private BudgetMapper budgetMapper;
+    
+    @Autowired
+    private BudgetModelAssembler budgetModelAssembler;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * Get current authenticated user ID
+     */
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = ((UserDetails) authentication.getPrincipal()).getUsername();
+        User user = userRepository.findByEmail(email);
+        return user.getId();
+    }
+    
+    private BudgetModel toModel(Budget budget, Long userId) {
+        return budgetModelAssembler.toModel(budgetMapper.toResponseDTO(budget, budgetService.getSpent(userId, budget)));
+    }
+    
+    @GetMapping
+    public ResponseEntity<CollectionModel<BudgetModel>> getAllBudgets() {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("GET /api/budgets - Fetching all budgets for user: {}", userId);
+            
+            List<Budget> budgets = budgetService.getAllBudgets(userId);
+            CollectionModel<BudgetModel> budgetModels = CollectionModel.of(
+                budgets.stream()
+                    .map(budget -> toModel(budget, userId))
+                    .collect(Collectors.toList())
+            );
+            
+            budgetModels.add(linkTo(methodOn(BudgetController.class).getAllBudgets()).withSelfRel());
+            
+            logger.info("Found {} budgets for user {}", budgets.size(), userId);
+            return ResponseEntity.ok(budgetModels);
+        } catch (Exception e) {
+            logger.error("Error fetching budgets", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<BudgetModel> getBudgetById(@PathVariable Long id) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("GET /api/budgets/{} - Fetching budget for user: {}", id, userId);
+            
+            return budgetService.getBudgetById(id, userId)
+                    .map(budget -> ResponseEntity.ok(toModel(budget, userId)))
+                    .orElseGet(() -> {
+                        logger.warn("Budget {} not found for user {}", id, userId);
+                        return ResponseEntity.notFound().build();
+                    });
+        } catch (Exception e) {
+            logger.error("Error fetching budget", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PostMapping
+    public ResponseEntity<BudgetModel> createBudget(@Valid @RequestBody BudgetRequestDTO requestDTO) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("POST /api/budgets - Creating budget for user: {}", userId);
+            
+            Budget budget = budgetService.createBudget(requestDTO, userId);
+            
+            logger.info("Budget created with ID: {}", budget.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(toModel(budget, userId));
+        } catch (RuntimeException e) {
+            logger.warn("Invalid budget: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error creating budget", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetModel> updateBudget(
+            @PathVariable Long id,
+            @Valid @RequestBody BudgetRequestDTO requestDTO) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("PUT /api/budgets/{} - Updating budget for user: {}", id, userId);
+            
+            Budget budget = budgetService.updateBudget(id, requestDTO, userId);
+            
+            logger.info("Budget {} updated successfully", id);
+            return ResponseEntity.ok(toModel(budget, userId));
+        } catch (RuntimeException e) {
+            logger.error("Budget not found or unauthorized", e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error updating budget", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBudget(@PathVariable Long id) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("DELETE /api/budgets/{} - Deleting budget for user: {}", id, userId);
+            
+            budgetService.deleteBudget(id, userId);
+            logger.info("Budget {} deleted successfully", id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            logger.error("Budget not found or unauthorized", e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error deleting budget", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.expense.controller;
 
 import com.expense.assembler.CategoryModelAssembler;
+import com.expense.dto.request.CategoryPatchDTO;
 import com.expense.dto.request.CategoryRequestDTO;
 import com.expense.dto.response.CategoryResponseDTO;
 import com.expense.mapper.CategoryMapper;
 import com.expense.model.Category;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
+import com.expense.model.hateoas.BulkOperationModel;
 import com.expense.model.hateoas.CategoryModel;
+import com.expense.model.hateoas.DeletionJobModel;
 import com.expense.repository.UserRepository;
 import com.expense.service.CategoryService;
+import com.expense.service.IdConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -92,7 +100,7 @@ public class CategoryController {
                         logger.info("Category found: {}", category.getName());
                         CategoryResponseDTO dto = categoryMapper.toResponseDTO(category);
                         CategoryModel model = categoryModelAssembler.toModel(dto);
-                        return ResponseEntity.ok(model);
+                        return ResponseEntity.ok().eTag(ETags.of(category.getVersion())).body(model);
                     })
                     .orElseGet(() -> {
                         logger.warn("Category {} not found for user {}", id, userId);
@@ -117,6 +125,12 @@ public class CategoryController {
             
             logger.info("Category created with ID: {}", category.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid category: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IdConflictException e) {
+            logger.warn("Category id {} already used by another user", requestDTO.getId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error creating category", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -126,17 +140,27 @@ public class CategoryController {
     @PutMapping("/{id}")
     public ResponseEntity<CategoryModel> updateCategory(
             @PathVariable Long id, 
-            @Valid @RequestBody CategoryRequestDTO requestDTO) {
+            @Valid @RequestBody CategoryRequestDTO requestDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
             Long userId = getCurrentUserId();
             logger.info("PUT /api/categories/{} - Updating category for user: {}", id, userId);
             
-            Category category = categoryService.updateCategory(id, requestDTO, userId);
+            Category category = categoryService.updateCategory(id, requestDTO, userId, ETags.parseIfMatch(ifMatch));
             CategoryResponseDTO dto = categoryMapper.toResponseDTO(category);
             CategoryModel model = categoryModelAssembler.toModel(dto);
             
             logger.info("Category {} updated successfully", id);
-            return ResponseEntity.ok(model);
+            return ResponseEntity.ok().eTag(ETags.of(category.getVersion())).body(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid If-Match header: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Category {} was modified concurrently", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Category name already used by another category of the user");
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             logger.error("Category not found or unauthorized", e);
             return ResponseEntity.notFound().build();
@@ -146,15 +170,91 @@ public class CategoryController {
         }
     }
     
+    /**
+     * Partial update. Requires If-Match with the current version (428 without it, 412 if stale).
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<CategoryModel> patchCategory(
+            @PathVariable Long id,
+            @Valid @RequestBody CategoryPatchDTO patchDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("PATCH /api/categories/{} - Patching category for user: {}", id, userId);
+            
+            Long version = ETags.parseIfMatch(ifMatch);
+            if (version == null) {
+                logger.warn("PATCH /api/categories/{} without If-Match", id);
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            Category category = categoryService.patchCategory(id, patchDTO, userId, version);
+            CategoryResponseDTO dto = categoryMapper.toResponseDTO(category);
+            CategoryModel model = categoryModelAssembler.toModel(dto);
+            
+            logger.info("Category {} patched successfully", id);
+            return ResponseEntity.ok().eTag(ETags.of(category.getVersion())).body(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid If-Match header: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Category {} was modified concurrently", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Category name already used by another category of the user");
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            logger.error("Category not found or unauthorized", e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error patching category", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Merge this category into the target: its expenses move with one UPDATE and it is deleted
+     */
+    @PostMapping("/{id}/merge-into/{targetId}")
+    public ResponseEntity<BulkOperationModel> mergeCategory(@PathVariable Long id, @PathVariable Long targetId) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("POST /api/categories/{}/merge-into/{} - Merging categories for user: {}", id, targetId, userId);
+            
+            int moved = categoryService.mergeCategory(id, targetId, userId);
+            BulkOperationModel model = new BulkOperationModel("merge", moved);
+            model.add(linkTo(methodOn(CategoryController.class).getCategoryById(targetId)).withRel("category"));
+            model.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(targetId, null, null)).withRel("expenses"));
+            
+            logger.info("Category {} merged into {} ({} expenses moved)", id, targetId, moved);
+            return ResponseEntity.ok(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid merge request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            logger.error("Category not found or unauthorized", e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error merging categories", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Delete category: it is gone at once and its expenses are purged in the background;
+     * answers 202 with the purge job, whose progress is at /api/categories/{id}/deletion
+     */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
+    public ResponseEntity<DeletionJobModel> deleteCategory(@PathVariable Long id) {
         try {
             Long userId = getCurrentUserId();
             logger.info("DELETE /api/categories/{} - Deleting category for user: {}", id, userId);
             
-            categoryService.deleteCategory(id, userId);
-            logger.info("Category {} deleted successfully", id);
-            return ResponseEntity.noContent().build();
+            DeletionJob job = categoryService.deleteCategory(id, userId);
+            logger.info("Category {} marked as deleted, purge job {} queued", id, job.id());
+            DeletionJobModel model = toDeletionJobModel(job);
+            return ResponseEntity.accepted()
+                .location(model.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .body(model);
         } catch (RuntimeException e) {
             logger.error("Category not found or unauthorized", e);
             return ResponseEntity.notFound().build();
@@ -164,6 +264,29 @@ public class CategoryController {
         }
     }
     
+    /**
+     * Progress of the purge of a deleted category
+     */
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<DeletionJobModel> getCategoryDeletion(@PathVariable Long id) {
+        Long userId = getCurrentUserId();
+        logger.info("GET /api/categories/{}/deletion - Fetching deletion job for user: {}", id, userId);
+        
+        return categoryService.getDeletionJob(id, userId)
+            .map(job -> ResponseEntity.ok(toDeletionJobModel(job)))
+            .orElseGet(() -> {
+                logger.warn("No deletion job for category {}", id);
+                return ResponseEntity.notFound().build();
+            });
+    }
+    
+    private static DeletionJobModel toDeletionJobModel(DeletionJob job) {
+        DeletionJobModel model = new DeletionJobModel(job);
+        model.add(linkTo(methodOn(CategoryController.class).getCategoryDeletion(job.targetId())).withSelfRel());
+        model.add(linkTo(methodOn(CategoryController.class).getAllCategories()).withRel("categories"));
+        return model;
+    }
+    
     @GetMapping("/test")
     public ResponseEntity<String> testEndpoint() {
         try {
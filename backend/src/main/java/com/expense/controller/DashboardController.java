@@ -0,0 +1,108 @@
+package com.expense.controller;
+
+import com.expense.assembler.CategoryModelAssembler;
+import com.expense.assembler.ExpenseModelAssembler;
+import com.expense.mapper.CategoryMapper;
+import com.expense.mapper.ExpenseMapper;
+import com.expense.model.User;
+import com.expense.model.hateoas.DashboardModel;
+import com.expense.repository.UserRepository;
+import com.expense.service.Dashboard;
+import com.expense.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.YearMonth;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ExpenseMapper expenseMapper;
+
+    @Autowired
+    private ExpenseModelAssembler expenseModelAssembler;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private CategoryModelAssembler categoryModelAssembler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Get current authenticated user
+     */
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = ((UserDetails) authentication.getPrincipal()).getUsername();
+        return userRepository.findByEmail(email);
+    }
+
+    /**
+     * Current month total, totals per category, latest expenses and categories in one response.
+     * A part that missed the deadline is left out and named in "missing"; 503 if none loaded.
+     */
+    @GetMapping
+    public ResponseEntity<DashboardModel> getDashboard() {
+        try {
+            User user = getCurrentUser();
+            logger.info("GET /api/dashboard - Loading dashboard for user: {}", user.getId());
+
+            Dashboard dashboard = dashboardService.getDashboard(user.getId(), YearMonth.now());
+            if (dashboard.isEmpty()) {
+                logger.error("Dashboard for user {} could not be loaded", user.getId());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+
+            DashboardModel model = new DashboardModel();
+            model.setMonth(dashboard.month().toString());
+            model.setCurrency(user.getBaseCurrency());
+            model.setMonthTotal(dashboard.monthTotal());
+            model.setCategoryTotals(dashboard.categoryTotals());
+            if (dashboard.recentExpenses() != null) {
+                model.setRecentExpenses(dashboard.recentExpenses().stream()
+                        .map(expenseMapper::toResponseDTO)
+                        .map(expenseModelAssembler::toModel)
+                        .collect(Collectors.toList()));
+            }
+            if (dashboard.categories() != null) {
+                model.setCategories(dashboard.categories().stream()
+                        .map(categoryMapper::toResponseDTO)
+                        .map(categoryModelAssembler::toModel)
+                        .collect(Collectors.toList()));
+            }
+            if (dashboard.isPartial()) {
+                logger.warn("Returning partial dashboard for user {}, missing {}", user.getId(), dashboard.missing());
+                model.setMissing(dashboard.missing());
+            }
+
+            model.add(linkTo(methodOn(DashboardController.class).getDashboard()).withSelfRel());
+            model.add(linkTo(methodOn(ExpenseController.class).getExpenseSummary(null, null)).withRel("summary"));
+            model.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("expenses"));
+            model.add(linkTo(methodOn(CategoryController.class).getAllCategories()).withRel("categories"));
+            return ResponseEntity.ok(model);
+        } catch (Exception e) {
+            logger.error("Error loading dashboard", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
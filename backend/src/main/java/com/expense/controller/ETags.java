@@ -0,0 +1,33 @@
+package com.expense.controller;
+
+/**
+ * Strong entity tags built from the @Version column ("\"3\"") and parsing of If-Match headers
+ */
+final class ETags {
+    
+    private ETags() {
+    }
+    
+    static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+    
+    /**
+     * Version required by an If-Match header; null when the header is absent or "*".
+     * Weak or malformed tags are rejected with IllegalArgumentException.
+     */
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+    }
+}
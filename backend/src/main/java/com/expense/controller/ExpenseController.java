@@ -1,29 +1,44 @@
 package com.expense.controller;
 
 import com.expense.assembler.ExpenseModelAssembler;
+import com.expense.dto.request.ExpenseBulkRequestDTO;
+import com.expense.dto.request.ExpenseFilterDTO;
+import com.expense.dto.request.ExpensePatchDTO;
 import com.expense.dto.request.ExpenseRequestDTO;
 import com.expense.dto.response.ExpenseResponseDTO;
+import com.expense.dto.response.GraficoResponseDTO;
 import com.expense.mapper.ExpenseMapper;
 import com.expense.model.Expense;
-import com.expense.model.Category;
 import com.expense.model.User;
+import com.expense.model.hateoas.BulkOperationModel;
 import com.expense.model.hateoas.ExpenseModel;
+import com.expense.repository.ExpenseCursor;
 import com.expense.repository.UserRepository;
+import com.expense.service.ExpenseSearchService;
 import com.expense.service.ExpenseService;
-import com.expense.service.CategoryService;
-import com.expense.service.UserService;
+import com.expense.service.IdConflictException;
+import com.expense.service.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,14 +50,14 @@ public class ExpenseController {
 
     private static final Logger logger = LoggerFactory.getLogger(ExpenseController.class);
 
-    @Autowired
-    private ExpenseService expenseService;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
-    private CategoryService categoryService;
+    private ExpenseService expenseService;
 
     @Autowired
-    private UserService userService;
+    private ExpenseSearchService expenseSearchService;
 
     @Autowired
     private ExpenseMapper expenseMapper;
@@ -101,7 +116,7 @@ public class ExpenseController {
                         logger.info("Expense found: amount={}", expense.getAmount());
                         ExpenseResponseDTO dto = expenseMapper.toResponseDTO(expense);
                         ExpenseModel model = expenseModelAssembler.toModel(dto);
-                        return ResponseEntity.ok(model);
+                        return ResponseEntity.ok().eTag(ETags.of(expense.getVersion())).body(model);
                     })
                     .orElseGet(() -> {
                         logger.warn("Expense {} not found for user {}", id, userId);
@@ -113,70 +128,192 @@ public class ExpenseController {
         }
     }
     
+    @GetMapping("/search")
+    public ResponseEntity<PagedModel<ExpenseModel>> searchExpenses(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Long userId = getCurrentUserId();
+            int pageNumber = pageNumber(page);
+            int pageSize = pageSize(size);
+            logger.info("GET /api/expenses/search - Searching for user: {}", userId);
+            
+            Page<Expense> result = expenseSearchService.search(userId, query, pageNumber, pageSize);
+            List<ExpenseModel> models = result.getContent().stream()
+                    .map(expenseMapper::toResponseDTO)
+                    .map(expenseModelAssembler::toModel)
+                    .collect(Collectors.toList());
+            
+            PagedModel<ExpenseModel> pagedModel = PagedModel.of(models, new PagedModel.PageMetadata(
+                    result.getSize(), result.getNumber(), result.getTotalElements(), result.getTotalPages()));
+            pagedModel.add(linkTo(methodOn(ExpenseController.class).searchExpenses(query, pageNumber, pageSize)).withSelfRel());
+            if (result.hasNext()) {
+                pagedModel.add(linkTo(methodOn(ExpenseController.class).searchExpenses(query, pageNumber + 1, pageSize)).withRel("next"));
+            }
+            if (result.hasPrevious()) {
+                pagedModel.add(linkTo(methodOn(ExpenseController.class).searchExpenses(query, pageNumber - 1, pageSize)).withRel("prev"));
+            }
+            
+            logger.info("Found {} expenses matching the search for user {}", result.getTotalElements(), userId);
+            return ResponseEntity.ok(pagedModel);
+        } catch (Exception e) {
+            logger.error("Error searching expenses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/filter")
+    public ResponseEntity<CollectionModel<ExpenseModel>> filterExpenses(@ModelAttribute ExpenseFilterDTO filter) {
+        try {
+            Long userId = getCurrentUserId();
+            int pageSize = pageSize(filter.getSize());
+            logger.info("GET /api/expenses/filter - Filtering expenses for user: {}", userId);
+            
+            Slice<Expense> result = expenseService.filterExpenses(userId, filter, pageSize);
+            CollectionModel<ExpenseModel> expenseModels = CollectionModel.of(
+                result.getContent().stream()
+                    .map(expenseMapper::toResponseDTO)
+                    .map(expenseModelAssembler::toModel)
+                    .collect(Collectors.toList())
+            );
+            
+            // Links: a próxima página é apontada pelo cursor da última linha
+            expenseModels.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().toUriString()).withSelfRel());
+            if (result.hasNext()) {
+                Expense last = result.getContent().get(result.getNumberOfElements() - 1);
+                String cursor = ExpenseCursor.after(last, result.getSort().iterator().next().getProperty()).encode();
+                expenseModels.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQueryParam("cursor", cursor)
+                        .toUriString()).withRel("next"));
+            }
+            expenseModels.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("all-expenses"));
+            
+            logger.info("Returning {} filtered expenses for user {}", result.getNumberOfElements(), userId);
+            return ResponseEntity.ok(expenseModels);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid expense filter: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error filtering expenses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Spending per category in [from, to] (default: current month) in the user's base currency
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<CollectionModel<GraficoResponseDTO>> getExpenseSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            Long userId = getCurrentUserId();
+            LocalDate start = from != null ? from : YearMonth.now().atDay(1);
+            LocalDate end = to != null ? to : YearMonth.now().atEndOfMonth();
+            logger.info("GET /api/expenses/summary - Summarizing expenses for user {} from {} to {}", userId, start, end);
+            if (end.isBefore(start)) {
+                return ResponseEntity.badRequest().build();
+            }
+            
+            CollectionModel<GraficoResponseDTO> summary = CollectionModel.of(
+                expenseService.summarizeByCategory(userId, start, end));
+            summary.add(linkTo(methodOn(ExpenseController.class).getExpenseSummary(start, end)).withSelfRel());
+            summary.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("all-expenses"));
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            logger.error("Error summarizing expenses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @GetMapping("/user/{userId}")
-    public ResponseEntity<CollectionModel<ExpenseModel>> getExpensesByUser(@PathVariable Long userId) {
+    public ResponseEntity<CollectionModel<ExpenseModel>> getExpensesByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        Long currentUserId = getCurrentUserId();
         logger.info("GET /api/expenses/user/{} - Fetching user expenses", userId);
         
-        return userService.getUserById(userId)
-                .map(user -> {
-                    List<Expense> expenses = expenseService.findByUserId(userId);
-                    List<ExpenseResponseDTO> expensesDTO = expenses.stream()
-                            .map(expenseMapper::toResponseDTO)
-                            .collect(Collectors.toList());
-                    
-                    // Converte para HATEOAS models
-                    CollectionModel<ExpenseModel> expenseModels = CollectionModel.of(
-                        expensesDTO.stream()
-                            .map(expenseModelAssembler::toModel)
-                            .collect(Collectors.toList())
-                    );
-                    
-                    // Adiciona links
-                    expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(userId)).withSelfRel());
-                    expenseModels.add(linkTo(methodOn(UserController.class).getUserById(userId)).withRel("user"));
-                    expenseModels.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("all-expenses"));
-                    
-                    logger.info("Found {} expenses for user {}", expenses.size(), userId);
-                    return ResponseEntity.ok(expenseModels);
-                })
-                .orElseGet(() -> {
-                    logger.warn("User with ID {} not found", userId);
-                    return ResponseEntity.notFound().build();
-                });
+        // Outro usuário: 404 para não revelar se o ID existe
+        if (!userId.equals(currentUserId)) {
+            logger.warn("User {} tried to list expenses of user {}", currentUserId, userId);
+            return ResponseEntity.notFound().build();
+        }
+        
+        int pageNumber = pageNumber(page);
+        int pageSize = pageSize(size);
+        Slice<Expense> expenses = expenseService.getExpensesPage(userId, pageNumber, pageSize);
+        CollectionModel<ExpenseModel> expenseModels = toCollectionModel(expenses);
+        
+        // Adiciona links
+        expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(userId, pageNumber, pageSize)).withSelfRel());
+        if (expenses.hasNext()) {
+            expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(userId, pageNumber + 1, pageSize)).withRel("next"));
+        }
+        if (expenses.hasPrevious()) {
+            expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByUser(userId, pageNumber - 1, pageSize)).withRel("prev"));
+        }
+        expenseModels.add(linkTo(methodOn(UserController.class).getUserById(userId)).withRel("user"));
+        expenseModels.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("all-expenses"));
+        
+        logger.info("Found {} expenses for user {}", expenses.getNumberOfElements(), userId);
+        return ResponseEntity.ok(expenseModels);
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<CollectionModel<ExpenseModel>> getExpensesByCategory(@PathVariable Long categoryId) {
-        logger.info("GET /api/expenses/category/{} - Fetching category expenses", categoryId);
+    public ResponseEntity<CollectionModel<ExpenseModel>> getExpensesByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        Long userId = getCurrentUserId();
+        logger.info("GET /api/expenses/category/{} - Fetching category expenses for user: {}", categoryId, userId);
         
-        return categoryService.findById(categoryId)
-                .map(category -> {
-                    List<Expense> expenses = expenseService.findByCategoryId(categoryId);
-                    List<ExpenseResponseDTO> expensesDTO = expenses.stream()
-                            .map(expenseMapper::toResponseDTO)
-                            .collect(Collectors.toList());
-                    
-                    // Converte para HATEOAS models
-                    CollectionModel<ExpenseModel> expenseModels = CollectionModel.of(
-                        expensesDTO.stream()
-                            .map(expenseModelAssembler::toModel)
-                            .collect(Collectors.toList())
-                    );
-                    
-                    // Adiciona links
-                    expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(categoryId)).withSelfRel());
-                    expenseModels.add(linkTo(methodOn(CategoryController.class).getCategoryById(categoryId)).withRel("category"));
-                    expenseModels.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("all-expenses"));
-                    
-                    logger.info("Found {} expenses for category {}", expenses.size(), categoryId);
-                    return ResponseEntity.ok(expenseModels);
-                })
-                .orElseGet(() -> {
-                    logger.warn("Category with ID {} not found", categoryId);
-                    return ResponseEntity.notFound().build();
-                });
+        int pageNumber = pageNumber(page);
+        int pageSize = pageSize(size);
+        Slice<Expense> expenses;
+        try {
+            expenses = expenseService.getExpensesPageByCategory(categoryId, userId, pageNumber, pageSize);
+        } catch (NotFoundException e) {
+            logger.warn("Category with ID {} not found for user {}", categoryId, userId);
+            return ResponseEntity.notFound().build();
+        }
+        CollectionModel<ExpenseModel> expenseModels = toCollectionModel(expenses);
+        
+        // Adiciona links
+        expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(categoryId, pageNumber, pageSize)).withSelfRel());
+        if (expenses.hasNext()) {
+            expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(categoryId, pageNumber + 1, pageSize)).withRel("next"));
+        }
+        if (expenses.hasPrevious()) {
+            expenseModels.add(linkTo(methodOn(ExpenseController.class).getExpensesByCategory(categoryId, pageNumber - 1, pageSize)).withRel("prev"));
+        }
+        expenseModels.add(linkTo(methodOn(CategoryController.class).getCategoryById(categoryId)).withRel("category"));
+        expenseModels.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("all-expenses"));
+        
+        logger.info("Found {} expenses for category {}", expenses.getNumberOfElements(), categoryId);
+        return ResponseEntity.ok(expenseModels);
     }
     
+    private CollectionModel<ExpenseModel> toCollectionModel(Slice<Expense> expenses) {
+        return CollectionModel.of(
+            expenses.getContent().stream()
+                .map(expenseMapper::toResponseDTO)
+                .map(expenseModelAssembler::toModel)
+                .collect(Collectors.toList())
+        );
+    }
+    
+    private static int pageNumber(Integer page) {
+        return page != null ? Math.max(page, 0) : 0;
+    }
+    
+    private static int pageSize(Integer size) {
+        return size != null ? Math.min(Math.max(size, 1), MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    }
     
     @PostMapping
     public ResponseEntity<ExpenseModel> createExpense(@Valid @RequestBody ExpenseRequestDTO requestDTO) {
@@ -190,6 +327,12 @@ public class ExpenseController {
             
             logger.info("Expense created with ID: {}", expense.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid expense: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IdConflictException e) {
+            logger.warn("Expense id {} already used by another user", requestDTO.getId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error creating expense", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -199,19 +342,26 @@ public class ExpenseController {
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseModel> updateExpense(
             @PathVariable Long id,
-            @Valid @RequestBody ExpenseRequestDTO requestDTO) {
+            @Valid @RequestBody ExpenseRequestDTO requestDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         try {
             Long userId = getCurrentUserId();
             logger.info("PUT /api/expenses/{} - Updating expense for user: {}", id, userId);
             
-            Expense expense = expenseService.updateExpense(id, requestDTO, userId);
+            Expense expense = expenseService.updateExpense(id, requestDTO, userId, ETags.parseIfMatch(ifMatch));
             ExpenseResponseDTO dto = expenseMapper.toResponseDTO(expense);
             ExpenseModel model = expenseModelAssembler.toModel(dto);
             
             logger.info("Expense {} updated successfully", id);
-            return ResponseEntity.ok(model);
-        } catch (RuntimeException e) {
-            logger.error("Expense not found or unauthorized", e);
+            return ResponseEntity.ok().eTag(ETags.of(expense.getVersion())).body(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid If-Match header or currency: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Expense {} was modified concurrently", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (NotFoundException e) {
+            logger.warn("Expense {} not found or unauthorized", id);
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
             logger.error("Error updating expense", e);
@@ -219,6 +369,100 @@ public class ExpenseController {
         }
     }
     
+    /**
+     * Partial update. Requires If-Match with the current version (428 without it, 412 if stale).
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<ExpenseModel> patchExpense(
+            @PathVariable Long id,
+            @Valid @RequestBody ExpensePatchDTO patchDTO,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("PATCH /api/expenses/{} - Patching expense for user: {}", id, userId);
+            
+            Long version = ETags.parseIfMatch(ifMatch);
+            if (version == null) {
+                logger.warn("PATCH /api/expenses/{} without If-Match", id);
+                return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+            }
+            Expense expense = expenseService.patchExpense(id, patchDTO, userId, version);
+            ExpenseResponseDTO dto = expenseMapper.toResponseDTO(expense);
+            ExpenseModel model = expenseModelAssembler.toModel(dto);
+            
+            logger.info("Expense {} patched successfully", id);
+            return ResponseEntity.ok().eTag(ETags.of(expense.getVersion())).body(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid If-Match header: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("Expense {} was modified concurrently", id);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (NotFoundException e) {
+            logger.warn("Expense {} not found or unauthorized", id);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error patching expense", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Move a set of the user's expenses to another category with one UPDATE
+     */
+    @PostMapping("/bulk/recategorize")
+    public ResponseEntity<BulkOperationModel> recategorizeExpenses(@Valid @RequestBody ExpenseBulkRequestDTO requestDTO) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("POST /api/expenses/bulk/recategorize - {} expenses to category {} for user: {}",
+                    requestDTO.getExpenseIds().size(), requestDTO.getCategoryId(), userId);
+            
+            if (requestDTO.getCategoryId() == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            int affected = expenseService.recategorizeExpenses(requestDTO.getExpenseIds(), requestDTO.getCategoryId(), userId);
+            BulkOperationModel model = new BulkOperationModel("recategorize", affected);
+            model.add(linkTo(methodOn(ExpenseController.class)
+                    .getExpensesByCategory(requestDTO.getCategoryId(), null, null)).withRel("category-expenses"));
+            
+            logger.info("{} expenses recategorized", affected);
+            return ResponseEntity.ok(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (NotFoundException e) {
+            logger.warn("Category {} not found or unauthorized", requestDTO.getCategoryId());
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error recategorizing expenses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Delete a set of the user's expenses with one DELETE
+     */
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationModel> deleteExpenses(@Valid @RequestBody ExpenseBulkRequestDTO requestDTO) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("POST /api/expenses/bulk/delete - {} expenses for user: {}", requestDTO.getExpenseIds().size(), userId);
+            
+            int affected = expenseService.deleteExpenses(requestDTO.getExpenseIds(), userId);
+            BulkOperationModel model = new BulkOperationModel("delete", affected);
+            model.add(linkTo(methodOn(ExpenseController.class).getAllExpenses()).withRel("expenses"));
+            
+            logger.info("{} expenses deleted", affected);
+            return ResponseEntity.ok(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid bulk request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error deleting expenses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
         try {
@@ -228,8 +472,8 @@ public class ExpenseController {
             expenseService.deleteExpense(id, userId);
             logger.info("Expense {} deleted successfully", id);
             return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            logger.error("Expense not found or unauthorized", e);
+        } catch (NotFoundException e) {
+            logger.warn("Expense {} not found or unauthorized", id);
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
             logger.error("Error deleting expense", e);
@@ -0,0 +1,162 @@
+package com.expense.controller;
+
+import com.expense.assembler.RecurringExpenseModelAssembler;
+import com.expense.dto.request.RecurringExpenseRequestDTO;
+import com.expense.mapper.RecurringExpenseMapper;
+import com.expense.model.RecurringExpense;
+import com.expense.model.User;
+import com.expense.model.hateoas.RecurringExpenseModel;
+import com.expense.repository.UserRepository;
+import com.expense.service.RecurringExpenseService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
+
+@RestController
+@RequestMapping("/api/recurring-expenses")
+public class RecurringExpenseController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RecurringExpenseController.class);
+    
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+    
+    @Autowired
+    private RecurringExpenseMapper recurringExpenseMapper;
+    
+    @Autowired
+    private RecurringExpenseModelAssembler recurringExpenseModelAssembler;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    /**
+     * Get current authenticated user ID
+     */
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String email = ((UserDetails) authentication.getPrincipal()).getUsername();
+        User user = userRepository.findByEmail(email);
+        return user.getId();
+    }
+    
+    @GetMapping
+    public ResponseEntity<CollectionModel<RecurringExpenseModel>> getAllRecurringExpenses() {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("GET /api/recurring-expenses - Fetching all recurring expenses for user: {}", userId);
+            
+            List<RecurringExpense> recurringExpenses = recurringExpenseService.getAllRecurringExpenses(userId);
+            CollectionModel<RecurringExpenseModel> models = CollectionModel.of(
+                recurringExpenses.stream()
+                    .map(recurringExpenseMapper::toResponseDTO)
+                    .map(recurringExpenseModelAssembler::toModel)
+                    .collect(Collectors.toList())
+            );
+            
+            models.add(linkTo(methodOn(RecurringExpenseController.class).getAllRecurringExpenses()).withSelfRel());
+            
+            logger.info("Found {} recurring expenses for user {}", recurringExpenses.size(), userId);
+            return ResponseEntity.ok(models);
+        } catch (Exception e) {
+            logger.error("Error fetching recurring expenses", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<RecurringExpenseModel> getRecurringExpenseById(@PathVariable Long id) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("GET /api/recurring-expenses/{} - Fetching recurring expense for user: {}", id, userId);
+            
+            return recurringExpenseService.getRecurringExpenseById(id, userId)
+                    .map(recurring -> ResponseEntity.ok(
+                        recurringExpenseModelAssembler.toModel(recurringExpenseMapper.toResponseDTO(recurring))))
+                    .orElseGet(() -> {
+                        logger.warn("Recurring expense {} not found for user {}", id, userId);
+                        return ResponseEntity.notFound().build();
+                    });
+        } catch (Exception e) {
+            logger.error("Error fetching recurring expense", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PostMapping
+    public ResponseEntity<RecurringExpenseModel> createRecurringExpense(
+            @Valid @RequestBody RecurringExpenseRequestDTO requestDTO) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("POST /api/recurring-expenses - Creating recurring expense for user: {}", userId);
+            
+            RecurringExpense recurring = recurringExpenseService.createRecurringExpense(requestDTO, userId);
+            RecurringExpenseModel model = recurringExpenseModelAssembler.toModel(recurringExpenseMapper.toResponseDTO(recurring));
+            
+            logger.info("Recurring expense created with ID: {}", recurring.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(model);
+        } catch (RuntimeException e) {
+            logger.warn("Invalid recurring expense: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error creating recurring expense", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<RecurringExpenseModel> updateRecurringExpense(
+            @PathVariable Long id,
+            @Valid @RequestBody RecurringExpenseRequestDTO requestDTO) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("PUT /api/recurring-expenses/{} - Updating recurring expense for user: {}", id, userId);
+            
+            RecurringExpense recurring = recurringExpenseService.updateRecurringExpense(id, requestDTO, userId);
+            RecurringExpenseModel model = recurringExpenseModelAssembler.toModel(recurringExpenseMapper.toResponseDTO(recurring));
+            
+            logger.info("Recurring expense {} updated successfully", id);
+            return ResponseEntity.ok(model);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid recurring expense: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            logger.error("Recurring expense not found or unauthorized", e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error updating recurring expense", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringExpense(@PathVariable Long id) {
+        try {
+            Long userId = getCurrentUserId();
+            logger.info("DELETE /api/recurring-expenses/{} - Deleting recurring expense for user: {}", id, userId);
+            
+            recurringExpenseService.deleteRecurringExpense(id, userId);
+            logger.info("Recurring expense {} deleted successfully", id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            logger.error("Recurring expense not found or unauthorized", e);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            logger.error("Error deleting recurring expense", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
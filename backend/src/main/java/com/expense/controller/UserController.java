@@ -2,6 +2,7 @@ package com.expense.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,10 +13,14 @@ import com.expense.assembler.UserModelAssembler;
 import com.expense.dto.request.UserRequestDTO;
 import com.expense.dto.response.UserResponseDTO;
 import com.expense.mapper.UserMapper;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
+import com.expense.model.hateoas.DeletionJobModel;
 import com.expense.model.hateoas.UserModel;
+import com.expense.security.EmailCheckRateLimiter;
 import com.expense.service.UserService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +42,9 @@ public class UserController {
     
     @Autowired
     private UserModelAssembler userModelAssembler;
+    
+    @Autowired
+    private EmailCheckRateLimiter emailCheckRateLimiter;
 
     @GetMapping
     public ResponseEntity<CollectionModel<UserModel>> getAllUsers() {
@@ -143,6 +151,9 @@ public class UserController {
                         if (userRequestDTO.getPassword() != null && !userRequestDTO.getPassword().isEmpty()) {
                             existingUser.setPassword(userRequestDTO.getPassword());
                         }
+                        if (userRequestDTO.getBaseCurrency() != null) {
+                            existingUser.setBaseCurrency(userRequestDTO.getBaseCurrency());
+                        }
                         
                         User updatedUser = userService.createUser(existingUser);
                         UserResponseDTO responseDTO = userMapper.toResponseDTO(updatedUser);
@@ -162,15 +173,22 @@ public class UserController {
         }
     }
 
+    /**
+     * Delete user: the account is gone at once and its data is purged in the background;
+     * answers 202 with the purge job, whose progress is at /api/users/{id}/deletion
+     */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         logger.info("DELETE /api/users/{} - Deleting user", id);
         
         return userService.getUserById(id)
                 .map(user -> {
-                    userService.deleteUser(id);
-                    logger.info("User {} deleted successfully", id);
-                    return ResponseEntity.noContent().build();
+                    DeletionJob job = userService.deleteUser(id);
+                    logger.info("User {} marked as deleted, purge job {} queued", id, job.id());
+                    DeletionJobModel model = toDeletionJobModel(job);
+                    return ResponseEntity.accepted()
+                        .location(model.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .body((Object) model);
                 })
                 .orElseGet(() -> {
                     logger.warn("User with ID {} not found for deletion", id);
@@ -179,10 +197,37 @@ public class UserController {
                 });
     }
     
+    /**
+     * Progress of the purge of a deleted user
+     */
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<?> getUserDeletion(@PathVariable Long id) {
+        logger.info("GET /api/users/{}/deletion - Fetching deletion job", id);
+        
+        return userService.getDeletionJob(id)
+                .map(job -> ResponseEntity.ok((Object) toDeletionJobModel(job)))
+                .orElseGet(() -> {
+                    logger.warn("No deletion job for user {}", id);
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Remoção não encontrada"));
+                });
+    }
+    
+    private static DeletionJobModel toDeletionJobModel(DeletionJob job) {
+        DeletionJobModel model = new DeletionJobModel(job);
+        model.add(linkTo(methodOn(UserController.class).getUserDeletion(job.targetId())).withSelfRel());
+        return model;
+    }
+    
     @GetMapping("/check-email/{email}")
-    public ResponseEntity<java.util.Map<String, Boolean>> checkEmailAvailability(@PathVariable String email) {
+    public ResponseEntity<java.util.Map<String, Boolean>> checkEmailAvailability(@PathVariable String email,
+                                                                              HttpServletRequest request) {
         logger.info("GET /api/users/check-email/{} - Checking email availability", email);
-        boolean isAvailable = !userService.existsByEmail(email);
+        if (!emailCheckRateLimiter.tryAcquire(request)) {
+            logger.warn("Email check rate limit exceeded for {}", EmailCheckRateLimiter.clientOf(request));
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "1").build();
+        }
+        boolean isAvailable = userService.isEmailAvailable(email);
         logger.info("Email {} is available: {}", email, isAvailable);
         return ResponseEntity.ok(java.util.Map.of("available", isAvailable));
     }
@@ -0,0 +1,45 @@
+package com.expense.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for budget creation and update requests
+ */
+public class BudgetRequestDTO {
+    
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+    
+    @NotNull(message = "Limit is required")
+    @Positive(message = "Limit must be positive")
+    private BigDecimal limitAmount;
+
+    // Constructors
+    public BudgetRequestDTO() {
+    }
+
+    public BudgetRequestDTO(Long categoryId, BigDecimal limitAmount) {
+        this.categoryId = categoryId;
+        this.limitAmount = limitAmount;
+    }
+
+    // Getters and Setters
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public BigDecimal getLimitAmount() {
+        return limitAmount;
+    }
+
+    public void setLimitAmount(BigDecimal limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+}
@@ -19,6 +19,10 @@ public class CategoryRequestDTO {
     
     private String icon;
 
+    // Opcional, só na criação: id gerado no app (Tsid) para a categoria criada offline;
+    // reenviar o mesmo id devolve o registro já criado
+    private Long id;
+
     // Constructors
     public CategoryRequestDTO() {
     }
@@ -62,4 +66,12 @@ public class CategoryRequestDTO {
     public void setIcon(String icon) {
         this.icon = icon;
     }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
 }
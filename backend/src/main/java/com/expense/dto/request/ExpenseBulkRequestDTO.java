@@ -0,0 +1,44 @@
+package com.expense.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO for bulk expense operations (recategorize, delete)
+ */
+public class ExpenseBulkRequestDTO {
+    
+    @NotEmpty(message = "Expense IDs are required")
+    @Size(max = 1000, message = "At most 1000 expenses per request")
+    private List<Long> expenseIds;
+    
+    // Target category (recategorize only)
+    private Long categoryId;
+
+    // Constructors
+    public ExpenseBulkRequestDTO() {
+    }
+
+    public ExpenseBulkRequestDTO(List<Long> expenseIds, Long categoryId) {
+        this.expenseIds = expenseIds;
+        this.categoryId = categoryId;
+    }
+
+    // Getters and Setters
+    public List<Long> getExpenseIds() {
+        return expenseIds;
+    }
+
+    public void setExpenseIds(List<Long> expenseIds) {
+        this.expenseIds = expenseIds;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
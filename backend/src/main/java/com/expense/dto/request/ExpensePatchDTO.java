@@ -0,0 +1,64 @@
+package com.expense.dto.request;
+
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for partial expense updates (PATCH): only non-null fields are changed
+ */
+public class ExpensePatchDTO {
+    
+    private String description;
+    
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+    
+    private LocalDate date;
+    
+    private Long categoryId;
+
+    // Constructors
+    public ExpensePatchDTO() {
+    }
+
+    public ExpensePatchDTO(String description, BigDecimal amount, LocalDate date, Long categoryId) {
+        this.description = description;
+        this.amount = amount;
+        this.date = date;
+        this.categoryId = categoryId;
+    }
+
+    // Getters and Setters
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+}
@@ -2,6 +2,7 @@ package com.expense.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -26,6 +27,14 @@ public class ExpenseRequestDTO {
     
     @NotNull(message = "User ID is required")
     private Long userId;
+    
+    // Opcional: sem moeda, vale a moeda base do usuário
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code")
+    private String currency;
+
+    // Opcional, só na criação: id gerado no app (Tsid) para a despesa criada offline;
+    // reenviar o mesmo id devolve o registro já criado
+    private Long id;
 
     // Constructors
     public ExpenseRequestDTO() {
@@ -79,4 +88,20 @@ public class ExpenseRequestDTO {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
 }
@@ -0,0 +1,100 @@
+package com.expense.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for recurring expense creation and update requests
+ */
+public class RecurringExpenseRequestDTO {
+    
+    @Size(max = 255, message = "Description cannot exceed 255 characters")
+    private String description;
+    
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be positive")
+    private BigDecimal amount;
+    
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+    
+    // Ex.: FREQ=MONTHLY;BYMONTHDAY=5
+    @NotBlank(message = "Rule is required")
+    private String rule;
+    
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+    
+    private LocalDate endDate;
+    
+    // Opcional: sem moeda, vale a moeda base do usuário
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code")
+    private String currency;
+
+    // Constructors
+    public RecurringExpenseRequestDTO() {
+    }
+
+    // Getters and Setters
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
@@ -2,6 +2,7 @@ package com.expense.dto.request;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 /**
@@ -20,6 +21,10 @@ public class UserRequestDTO {
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     private String password;
+    
+    // Opcional: sem moeda base, mantém a atual (BRL para novos usuários)
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be an ISO 4217 code")
+    private String baseCurrency;
 
     // Constructors
     public UserRequestDTO() {
@@ -55,4 +60,12 @@ public class UserRequestDTO {
     public void setPassword(String password) {
         this.password = password;
     }
+    
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+    
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
 }
@@ -0,0 +1,68 @@
+package com.expense.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO for budget response data (spent is the current month's total for the category)
+ */
+public class BudgetResponseDTO {
+    
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal limitAmount;
+    private BigDecimal spent;
+
+    // Constructors
+    public BudgetResponseDTO() {
+    }
+
+    public BudgetResponseDTO(Long id, Long categoryId, String categoryName, BigDecimal limitAmount, BigDecimal spent) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.limitAmount = limitAmount;
+        this.spent = spent;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public BigDecimal getLimitAmount() {
+        return limitAmount;
+    }
+
+    public void setLimitAmount(BigDecimal limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+}
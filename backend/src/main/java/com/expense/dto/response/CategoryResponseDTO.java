@@ -10,6 +10,7 @@ public class CategoryResponseDTO {
     private String description;
     private String color;
     private String icon;
+    private Long version;
 
     // Constructors
     public CategoryResponseDTO() {
@@ -63,4 +64,12 @@ public class CategoryResponseDTO {
     public void setIcon(String icon) {
         this.icon = icon;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -11,9 +11,11 @@ public class ExpenseResponseDTO {
     private Long id;
     private String description;
     private BigDecimal amount;
+    private String currency;
     private LocalDate date;
     private CategoryResponseDTO category;
     private UserResponseDTO user;
+    private Long version;
 
     // Constructors
     public ExpenseResponseDTO() {
@@ -77,4 +79,20 @@ public class ExpenseResponseDTO {
     public void setUser(UserResponseDTO user) {
         this.user = user;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
@@ -8,6 +8,8 @@ public class GraficoResponseDTO {
     private BigDecimal totalValue;
     private Long count;
     private Double percentage;
+    // Moeda dos totais (a moeda base do usuário)
+    private String currency;
     
     // Construtores
     public GraficoResponseDTO() {
@@ -56,4 +58,12 @@ public class GraficoResponseDTO {
     public void setPercentage(Double percentage) {
         this.percentage = percentage;
     }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
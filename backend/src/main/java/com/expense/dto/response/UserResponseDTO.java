@@ -8,6 +8,7 @@ public class UserResponseDTO {
     private Long id;
     private String name;
     private String email;
+    private String baseCurrency;
 
     // Constructors
     public UserResponseDTO() {
@@ -43,4 +44,12 @@ public class UserResponseDTO {
     public void setEmail(String email) {
         this.email = email;
     }
+    
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+    
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
 }
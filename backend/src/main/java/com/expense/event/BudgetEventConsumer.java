@@ -0,0 +1,101 @@
+package com.expense.event;
+
+import com.expense.config.ShardContext;
+import com.expense.model.OutboxEvent;
+import com.expense.service.BudgetTracker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Feeds expense changes to the budget tracker, which evaluates alert thresholds.
+ * Bulk changes and events without the expense values make the tracker re-seed the user.
+ */
+@Component
+public class BudgetEventConsumer implements DomainEventConsumer {
+    
+    @Autowired
+    private BudgetTracker budgetTracker;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public String getName() {
+        return "budget-tracker";
+    }
+    
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        // O despachante entrega cada shard dentro do seu contexto: os ids são os do outbox desse shard
+        String shard = ShardContext.current();
+        for (OutboxEvent event : events) {
+            Long userId = event.getUserId();
+            switch (event.getEventType()) {
+                case OutboxEvent.EXPENSE_CREATED -> {
+                    ExpenseEventPayload payload = read(event, ExpenseEventPayload.class);
+                    budgetTracker.apply(shard, userId, event.getId(), current(payload));
+                }
+                case OutboxEvent.EXPENSE_UPDATED -> {
+                    ExpenseEventPayload payload = read(event, ExpenseEventPayload.class);
+                    if (payload == null || !payload.hasPrevious()) {
+                        budgetTracker.evict(userId);
+                    } else {
+                        budgetTracker.apply(shard, userId, event.getId(), BudgetTracker.Delta.of(payload.getPreviousCategoryId(),
+                            payload.getPreviousDate(), payload.getPreviousAmount().negate(), payload.getPreviousCurrency()),
+                            current(payload));
+                    }
+                }
+                case OutboxEvent.EXPENSE_DELETED -> {
+                    ExpenseEventPayload payload = read(event, ExpenseEventPayload.class);
+                    if (payload == null) {
+                        budgetTracker.evict(userId);
+                    } else {
+                        budgetTracker.apply(shard, userId, event.getId(), BudgetTracker.Delta.of(payload.getCategoryId(),
+                            payload.getDate(), payload.getAmount() != null ? payload.getAmount().negate() : null,
+                            payload.getCurrency()));
+                    }
+                }
+                case OutboxEvent.EXPENSES_BULK_CHANGED -> {
+                    ExpenseBulkEventPayload payload = read(event, ExpenseBulkEventPayload.class);
+                    LocalDateTime date = payload.getMonth().atDay(1).atStartOfDay();
+                    BudgetTracker.Delta[] deltas = payload.getCategoryDeltas().entrySet().stream()
+                        .map(delta -> BudgetTracker.Delta.of(delta.getKey(), date, delta.getValue(), payload.getCurrency()))
+                        .toArray(BudgetTracker.Delta[]::new);
+                    budgetTracker.apply(shard, userId, event.getId(), deltas);
+                    if (payload.getRemovedCategoryId() != null) {
+                        budgetTracker.removeLimit(userId, payload.getRemovedCategoryId());
+                    }
+                }
+                case OutboxEvent.EXPENSES_CHANGED, OutboxEvent.CATEGORY_DELETED -> budgetTracker.evict(userId);
+                default -> {
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void delivered(String shard, long upToId) {
+        budgetTracker.setDeliveredUpTo(shard, upToId);
+    }
+    
+    private static BudgetTracker.Delta current(ExpenseEventPayload payload) {
+        return BudgetTracker.Delta.of(payload.getCategoryId(), payload.getDate(), payload.getAmount(),
+            payload.getCurrency());
+    }
+    
+    private <T> T read(OutboxEvent event, Class<T> type) {
+        if (event.getPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload inválido no evento " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.expense.event;
+
+/**
+ * A second-level cache change made by one node that the other nodes must evict
+ *
+ * @param node node that made the change (it skips its own messages)
+ * @param target what changed
+ * @param entityId id of the category or user
+ */
+public record CacheInvalidation(String node, Target target, Long entityId) {
+
+    public enum Target {
+        /** A category was created, changed or deleted (also drops the user's cached category list) */
+        CATEGORY,
+        /** A user changed, email unchanged */
+        USER,
+        /** A user's email changed or the user was deleted (also drops the email lookups) */
+        USER_EMAIL
+    }
+}
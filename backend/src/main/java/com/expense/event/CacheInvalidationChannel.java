@@ -0,0 +1,17 @@
+package com.expense.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries second-level cache invalidations between backend nodes. Chosen by
+ * cache.invalidation.channel: local (in-process, a single node and tests) or jdbc.
+ */
+public interface CacheInvalidationChannel {
+
+    /**
+     * Send the invalidation to every subscriber; call it inside the transaction of the change
+     */
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> subscriber);
+}
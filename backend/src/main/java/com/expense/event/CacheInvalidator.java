@@ -0,0 +1,75 @@
+package com.expense.event;
+
+import com.expense.model.Category;
+import com.expense.model.User;
+import com.expense.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Keeps the second-level cache of every node coherent. Hibernate already updates the cache of
+ * the node making a change; the services report each change of a cached category or user here,
+ * and the other nodes evict what they hold for it when the channel delivers the message.
+ */
+@Component
+public class CacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    private final String node = UUID.randomUUID().toString();
+    private final CacheInvalidationChannel channel;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheInvalidator(CacheInvalidationChannel channel, EntityManagerFactory entityManagerFactory) {
+        this.channel = channel;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void init() {
+        channel.subscribe(this::evict);
+    }
+
+    /**
+     * A category was created, changed or deleted
+     */
+    public void categoryChanged(Long categoryId) {
+        channel.publish(new CacheInvalidation(node, CacheInvalidation.Target.CATEGORY, categoryId));
+    }
+
+    /**
+     * A user changed; emailChanged also covers a deleted user
+     */
+    public void userChanged(Long userId, boolean emailChanged) {
+        channel.publish(new CacheInvalidation(node,
+            emailChanged ? CacheInvalidation.Target.USER_EMAIL : CacheInvalidation.Target.USER, userId));
+    }
+
+    void evict(CacheInvalidation invalidation) {
+        if (node.equals(invalidation.node())) {
+            return;
+        }
+        logger.debug("Invalidando cache: {} {}", invalidation.target(), invalidation.entityId());
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        switch (invalidation.target()) {
+            case CATEGORY -> {
+                cache.evictEntityData(Category.class, invalidation.entityId());
+                // A lista em cache não é indexada por categoria: a região inteira sai
+                cache.evictQueryRegion(CategoryRepository.CATEGORIES_BY_USER_REGION);
+            }
+            case USER -> cache.evictEntityData(User.class, invalidation.entityId());
+            case USER_EMAIL -> {
+                cache.evictEntityData(User.class, invalidation.entityId());
+                // Só o id do usuário é conhecido aqui, não o email antigo: todos os emails saem
+                cache.evictNaturalIdData(User.class);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.expense.event;
+
+import com.expense.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once and in id order:
+ * a batch that throws is delivered again, so consume must be idempotent.
+ */
+public interface DomainEventConsumer {
+    
+    /**
+     * Unique name, used for offsets and metrics
+     */
+    String getName();
+    
+    /**
+     * Durable consumers resume from their offset in outbox_offset and run on one node at a time.
+     * Non-durable ones keep derived in-memory state on every node and start at the newest event on boot.
+     */
+    default boolean isDurable() {
+        return false;
+    }
+    
+    /**
+     * Deliver events of one shard's outbox; runs with that shard in {@link com.expense.config.ShardContext}
+     */
+    void consume(List<OutboxEvent> events);
+    
+    /**
+     * Every event of the shard's outbox (null without sharding) up to the given id has been
+     * delivered to this consumer (no open gap below it); later deliveries are all above it.
+     * Each shard numbers its outbox on its own, so ids of different shards are not comparable.
+     */
+    default void delivered(String shard, long upToId) {
+    }
+}
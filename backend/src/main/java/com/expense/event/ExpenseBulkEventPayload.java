@@ -0,0 +1,81 @@
+package com.expense.event;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Payload of one set-based expense operation: the net change of the month's spending per
+ * category, aggregated over every affected row and converted to one currency, instead of
+ * one event per expense.
+ */
+public class ExpenseBulkEventPayload {
+    
+    private YearMonth month;
+    // Moeda dos valores agregados (a moeda base do usuário na operação)
+    private String currency;
+    private Map<Long, BigDecimal> categoryDeltas = new LinkedHashMap<>();
+    private List<Long> deletedExpenseIds = new ArrayList<>();
+    private Long removedCategoryId;
+    
+    public ExpenseBulkEventPayload() {
+    }
+    
+    public ExpenseBulkEventPayload(YearMonth month, String currency) {
+        this.month = month;
+        this.currency = currency;
+    }
+    
+    /**
+     * Add a signed amount to the category's delta
+     */
+    public ExpenseBulkEventPayload add(Long categoryId, BigDecimal amount) {
+        if (categoryId != null && amount != null && amount.signum() != 0) {
+            categoryDeltas.merge(categoryId, amount, BigDecimal::add);
+        }
+        return this;
+    }
+    
+    public YearMonth getMonth() {
+        return month;
+    }
+    
+    public void setMonth(YearMonth month) {
+        this.month = month;
+    }
+    
+    public Map<Long, BigDecimal> getCategoryDeltas() {
+        return categoryDeltas;
+    }
+    
+    public void setCategoryDeltas(Map<Long, BigDecimal> categoryDeltas) {
+        this.categoryDeltas = categoryDeltas;
+    }
+    
+    public List<Long> getDeletedExpenseIds() {
+        return deletedExpenseIds;
+    }
+    
+    public void setDeletedExpenseIds(List<Long> deletedExpenseIds) {
+        this.deletedExpenseIds = deletedExpenseIds;
+    }
+    
+    public Long getRemovedCategoryId() {
+        return removedCategoryId;
+    }
+    
+    public void setRemovedCategoryId(Long removedCategoryId) {
+        this.removedCategoryId = removedCategoryId;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
@@ -0,0 +1,125 @@
+package com.expense.event;
+
+import com.expense.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of expense events: the values consumers need to update derived data without
+ * reloading the expense. Updates also carry the previous values.
+ */
+public class ExpenseEventPayload {
+    
+    private Long categoryId;
+    private BigDecimal amount;
+    private String currency;
+    private LocalDateTime date;
+    private Long previousCategoryId;
+    private BigDecimal previousAmount;
+    private String previousCurrency;
+    private LocalDateTime previousDate;
+    
+    public ExpenseEventPayload() {
+    }
+    
+    public ExpenseEventPayload(Long categoryId, BigDecimal amount, String currency, LocalDateTime date) {
+        this.categoryId = categoryId;
+        this.amount = amount;
+        this.currency = currency;
+        this.date = date;
+    }
+    
+    /**
+     * Current values of the expense
+     */
+    public static ExpenseEventPayload of(Expense expense) {
+        ExpenseEventPayload payload = new ExpenseEventPayload();
+        payload.categoryId = expense.getCategory() != null ? expense.getCategory().getId() : null;
+        payload.amount = expense.getAmount();
+        payload.currency = expense.getCurrency();
+        payload.date = expense.getDate();
+        return payload;
+    }
+    
+    /**
+     * Current values of the expense plus the values it had before the update
+     */
+    public static ExpenseEventPayload of(Expense expense, Long previousCategoryId, BigDecimal previousAmount,
+                                         String previousCurrency, LocalDateTime previousDate) {
+        ExpenseEventPayload payload = of(expense);
+        payload.previousCategoryId = previousCategoryId;
+        payload.previousAmount = previousAmount;
+        payload.previousCurrency = previousCurrency;
+        payload.previousDate = previousDate;
+        return payload;
+    }
+    
+    public boolean hasPrevious() {
+        return previousAmount != null;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public LocalDateTime getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDateTime date) {
+        this.date = date;
+    }
+    
+    public Long getPreviousCategoryId() {
+        return previousCategoryId;
+    }
+    
+    public void setPreviousCategoryId(Long previousCategoryId) {
+        this.previousCategoryId = previousCategoryId;
+    }
+    
+    public BigDecimal getPreviousAmount() {
+        return previousAmount;
+    }
+    
+    public void setPreviousAmount(BigDecimal previousAmount) {
+        this.previousAmount = previousAmount;
+    }
+    
+    public LocalDateTime getPreviousDate() {
+        return previousDate;
+    }
+    
+    public void setPreviousDate(LocalDateTime previousDate) {
+        this.previousDate = previousDate;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+    
+    public String getPreviousCurrency() {
+        return previousCurrency;
+    }
+    
+    public void setPreviousCurrency(String previousCurrency) {
+        this.previousCurrency = previousCurrency;
+    }
+}
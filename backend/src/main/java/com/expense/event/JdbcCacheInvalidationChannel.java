@@ -0,0 +1,141 @@
+package com.expense.event;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import com.expense.service.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Channel through the cache_invalidation table of each shard: publishing inserts a row in the
+ * transaction of the change, and every node polls the rows of the last window-ms and delivers
+ * the ones it has not delivered yet. Rows are read by creation time rather than by id, so a
+ * row committed after a higher id is still seen, as long as its transaction is shorter than
+ * the window.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.channel", havingValue = "jdbc")
+public class JdbcCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcCacheInvalidationChannel.class);
+
+    static final String PURGE_LOCK = "cache-invalidation-purge";
+    static final String INSERT = "INSERT INTO cache_invalidation (node, target, entity_id, created_at) VALUES (?, ?, ?, ?)";
+    static final String RECENT = "SELECT id, node, target, entity_id, created_at FROM cache_invalidation "
+            + "WHERE created_at >= ? ORDER BY id";
+    static final String PURGE = "DELETE FROM cache_invalidation WHERE created_at < ? LIMIT ?";
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+    // Linhas já entregues (shard:id -> created_at) enquanto ainda estão dentro da janela
+    private final Map<String, LocalDateTime> delivered = new HashMap<>();
+    // Linhas anteriores à subida do nó não interessam: o cache começa vazio (margem de 1s para a
+    // precisão de created_at)
+    private final LocalDateTime startedAt = LocalDateTime.now().minusSeconds(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchedulerLock schedulerLock;
+
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    @Value("${cache.invalidation.window-ms:60000}")
+    private long windowMs = 60000;
+
+    @Value("${cache.invalidation.retention-minutes:10}")
+    private long retentionMinutes = 10;
+
+    @Value("${cache.invalidation.purge.chunk-size:10000}")
+    private int purgeChunkSize = 10000;
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        jdbcTemplate.update(INSERT, invalidation.node(), invalidation.target().name(), invalidation.entityId(),
+            Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Deliver the rows of the window not delivered yet, on every shard. Returns how many.
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.poll-ms:500}")
+    public synchronized int poll() {
+        LocalDateTime from = LocalDateTime.now().minus(Duration.ofMillis(windowMs));
+        if (from.isBefore(startedAt)) {
+            from = startedAt;
+        }
+        LocalDateTime since = from;
+        int[] total = {0};
+        ShardContext.forEachShard(shardDirectory, () -> total[0] += poll(since));
+        delivered.values().removeIf(createdAt -> createdAt.isBefore(since));
+        return total[0];
+    }
+
+    private int poll(LocalDateTime since) {
+        String shard = ShardContext.current();
+        int[] count = {0};
+        jdbcTemplate.query(RECENT, rs -> {
+            String key = (shard != null ? shard : "") + ":" + rs.getLong("id");
+            if (delivered.putIfAbsent(key, rs.getTimestamp("created_at").toLocalDateTime()) == null) {
+                CacheInvalidation invalidation = new CacheInvalidation(rs.getString("node"),
+                    CacheInvalidation.Target.valueOf(rs.getString("target")), rs.getLong("entity_id"));
+                subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+                count[0]++;
+            }
+        }, Timestamp.valueOf(since));
+        return count[0];
+    }
+
+    /**
+     * Delete rows older than the retention, in chunks, on one node at a time
+     */
+    @Scheduled(fixedDelayString = "${cache.invalidation.purge.delay-ms:600000}",
+               initialDelayString = "${cache.invalidation.purge.initial-delay-ms:60000}")
+    public int purge() {
+        int[] total = {0};
+        ShardContext.forEachShard(shardDirectory, () -> total[0] += purgeShard());
+        return total[0];
+    }
+
+    private int purgeShard() {
+        if (!schedulerLock.tryAcquire(PURGE_LOCK, Duration.ofMinutes(10))) {
+            return 0;
+        }
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusMinutes(retentionMinutes));
+            int total = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE, cutoff, purgeChunkSize);
+                total += deleted;
+            } while (deleted == purgeChunkSize);
+            if (total > 0) {
+                logger.debug("{} invalidações de cache antigas removidas", total);
+            }
+            return total;
+        } finally {
+            schedulerLock.release(PURGE_LOCK);
+        }
+    }
+}
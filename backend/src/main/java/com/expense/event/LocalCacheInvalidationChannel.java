@@ -0,0 +1,29 @@
+package com.expense.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process channel: delivers each invalidation to the subscribers of this JVM right away.
+ * Enough for a single node (which skips its own messages) and for tests simulating several.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.channel", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private final List<Consumer<CacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
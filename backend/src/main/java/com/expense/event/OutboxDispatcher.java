@@ -0,0 +1,405 @@
+package com.expense.event;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import com.expense.model.OutboxEvent;
+import com.expense.repository.OutboxEventRepository;
+import com.expense.service.SchedulerLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Polls the outbox and delivers events to every {@link DomainEventConsumer} in id order,
+ * in batches, outside the request that wrote them.
+ * Each consumer has its own offset, advanced only after its batch succeeds (at-least-once).
+ * Ids are allocated before commit, so a hole in the sequence may be a transaction still in
+ * flight: delivery stops at the hole until the event after it is older than the gap timeout,
+ * then moves on and keeps the skipped ids as gaps. Gaps are polled again on every cycle and
+ * delivered (out of id order) when their transaction commits; a gap still empty after the
+ * abandon timeout was a rollback and is dropped with a warning and a metric. The stored offset
+ * of a durable consumer stays below its oldest open gap, so a restart delivers it again.
+ * With sharding every shard has its own outbox, offsets and lease, dispatched in turn.
+ */
+@Component
+public class OutboxDispatcher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    static final String DISPATCH_LOCK = "outbox-dispatch";
+    static final String PURGE_LOCK = "outbox-purge";
+    
+    static final String SELECT_OFFSET = "SELECT last_event_id FROM outbox_offset WHERE consumer = ?";
+    static final String SAVE_OFFSET = "INSERT INTO outbox_offset (consumer, last_event_id, updated_at) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE last_event_id = VALUES(last_event_id), updated_at = VALUES(updated_at)";
+    static final String PURGE = "DELETE FROM outbox_event WHERE created_at < ? AND id <= ? ORDER BY id LIMIT ?";
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerLock schedulerLock;
+    private final List<DomainEventConsumer> consumers;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+    
+    @Value("${outbox.dispatch.batch-size:500}")
+    private int batchSize = 500;
+    
+    @Value("${outbox.dispatch.gap-timeout-ms:5000}")
+    private long gapTimeoutMs = 5000;
+    
+    // Buraco ainda vazio depois disso foi um rollback: deixa de ser consultado
+    @Value("${outbox.dispatch.gap-abandon-ms:600000}")
+    private long gapAbandonMs = 600000;
+    
+    // Limite de buracos acompanhados por consumidor; acima disso os mais antigos são abandonados
+    @Value("${outbox.dispatch.max-gaps:10000}")
+    private int maxGaps = 10000;
+    
+    @Value("${outbox.dispatch.lease-seconds:30}")
+    private long leaseSeconds = 30;
+    
+    @Value("${outbox.purge.retention-hours:24}")
+    private long retentionHours = 24;
+    
+    @Value("${outbox.purge.chunk-size:10000}")
+    private int purgeChunkSize = 10000;
+    
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            JdbcTemplate jdbcTemplate,
+                            SchedulerLock schedulerLock,
+                            List<DomainEventConsumer> consumers,
+                            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.schedulerLock = schedulerLock;
+        this.consumers = List.copyOf(consumers);
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * In-memory consumers start at the newest event: their state is rebuilt from the database on demand
+     */
+    @PostConstruct
+    void init() {
+        ShardContext.forEachShard(shardDirectory, () -> start(lane()));
+    }
+    
+    private synchronized boolean start(Lane lane) {
+        try {
+            lane.headId = outboxEventRepository.findMaxId();
+            for (ConsumerState state : lane.consumers) {
+                state.offset = lane.headId;
+                state.consumer.delivered(lane.shard, lane.headId);
+            }
+            lane.started = true;
+        } catch (RuntimeException e) {
+            logger.warn("Outbox indisponível, nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+        return lane.started;
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.dispatch.delay-ms:200}")
+    public void run() {
+        // Lotes cheios indicam atraso: continua até alcançar o fim do outbox
+        while (dispatch() == batchSize) {
+            logger.debug("Outbox com atraso, despachando próximo lote");
+        }
+    }
+    
+    /**
+     * Deliver one batch (per shard). Returns the largest number of events any consumer accepted.
+     */
+    public synchronized int dispatch() {
+        int[] progress = {0};
+        ShardContext.forEachShard(shardDirectory, () -> progress[0] = Math.max(progress[0], dispatch(lane())));
+        return progress[0];
+    }
+    
+    private int dispatch(Lane lane) {
+        if (!lane.started && !start(lane)) {
+            return 0;
+        }
+        lane.headId = outboxEventRepository.findMaxId();
+        List<ConsumerState> active = activeConsumers(lane);
+        LocalDateTime now = LocalDateTime.now();
+        redeliverGaps(active, now);
+        long from = active.stream().mapToLong(s -> s.offset).min().orElse(lane.headId);
+        if (from >= lane.headId) {
+            active.forEach(s -> s.oldestPending = null);
+            return 0;
+        }
+        
+        List<OutboxEvent> batch = outboxEventRepository.findAfter(from, PageRequest.of(0, batchSize));
+        List<Long> skipped = new ArrayList<>();
+        List<OutboxEvent> ready = contiguous(batch, from, now, skipped);
+        int progress = 0;
+        for (ConsumerState state : active) {
+            List<OutboxEvent> pending = ready.stream().filter(e -> e.getId() > state.offset).toList();
+            batch.stream().filter(e -> e.getId() > state.offset).findFirst()
+                .ifPresent(e -> state.oldestPending = e.getCreatedAt());
+            if (pending.isEmpty()) {
+                continue;
+            }
+            long last = pending.get(pending.size() - 1).getId();
+            try {
+                state.consumer.consume(pending);
+            } catch (RuntimeException e) {
+                logger.error("Consumidor {} falhou a partir do evento {}; o lote será reentregue",
+                    state.consumer.getName(), pending.get(0).getId(), e);
+                continue;
+            }
+            long previous = state.offset;
+            skipped.stream().filter(id -> id > previous && id < last).forEach(id -> addGap(state, id, now));
+            state.offset = last;
+            commitOffset(state);
+            state.oldestPending = null;
+            progress = Math.max(progress, pending.size());
+        }
+        return progress;
+    }
+    
+    /**
+     * Deliver gap events that have committed since they were skipped and drop the gaps past the
+     * abandon timeout. One query per cycle for the gaps of every consumer.
+     */
+    private void redeliverGaps(List<ConsumerState> active, LocalDateTime now) {
+        Set<Long> ids = new TreeSet<>();
+        active.forEach(state -> ids.addAll(state.gaps.keySet()));
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<OutboxEvent> found = outboxEventRepository.findAllById(ids).stream()
+            .sorted(Comparator.comparing(OutboxEvent::getId))
+            .toList();
+        LocalDateTime abandonBefore = now.minus(Duration.ofMillis(gapAbandonMs));
+        for (ConsumerState state : active) {
+            boolean changed = false;
+            List<OutboxEvent> late = found.stream().filter(e -> state.gaps.containsKey(e.getId())).toList();
+            if (!late.isEmpty()) {
+                try {
+                    state.consumer.consume(late);
+                    late.forEach(e -> state.gaps.remove(e.getId()));
+                    changed = true;
+                    logger.info("{} eventos atrasados entregues ao consumidor {}", late.size(), state.consumer.getName());
+                } catch (RuntimeException e) {
+                    logger.error("Consumidor {} falhou nos eventos atrasados a partir de {}; serão reentregues",
+                        state.consumer.getName(), late.get(0).getId(), e);
+                }
+            }
+            for (Map.Entry<Long, LocalDateTime> gap : state.gaps.entrySet()) {
+                if (gap.getValue().isBefore(abandonBefore) && found.stream().noneMatch(e -> e.getId().equals(gap.getKey()))) {
+                    abandonGap(state, gap.getKey());
+                    changed = true;
+                }
+            }
+            if (changed) {
+                commitOffset(state);
+            }
+        }
+    }
+    
+    private void addGap(ConsumerState state, long id, LocalDateTime now) {
+        if (state.gaps.size() >= maxGaps) {
+            abandonGap(state, state.gaps.firstKey());
+        }
+        state.gaps.put(id, now);
+    }
+    
+    private void abandonGap(ConsumerState state, long id) {
+        state.gaps.remove(id);
+        state.abandonedGaps.increment();
+        logger.warn("Evento {} do outbox não apareceu a tempo e não será entregue ao consumidor {}",
+            id, state.consumer.getName());
+    }
+    
+    /**
+     * Store (durable consumers) and report to the consumer the id up to which it has every event
+     */
+    private void commitOffset(ConsumerState state) {
+        long committed = state.committedOffset();
+        if (state.consumer.isDurable()) {
+            jdbcTemplate.update(SAVE_OFFSET, state.consumer.getName(), committed, Timestamp.valueOf(LocalDateTime.now()));
+        }
+        state.consumer.delivered(state.shard, committed);
+    }
+    
+    /**
+     * Delete delivered events older than the retention, in chunks, on one node at a time
+     */
+    @Scheduled(fixedDelayString = "${outbox.purge.delay-ms:3600000}",
+               initialDelayString = "${outbox.purge.initial-delay-ms:60000}")
+    public int purge() {
+        int[] total = {0};
+        ShardContext.forEachShard(shardDirectory, () -> total[0] += purgeShard());
+        return total[0];
+    }
+    
+    private int purgeShard() {
+        if (!schedulerLock.tryAcquire(PURGE_LOCK, Duration.ofSeconds(leaseSeconds))) {
+            return 0;
+        }
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+            Long durableOffset = jdbcTemplate.queryForObject("SELECT MIN(last_event_id) FROM outbox_offset", Long.class);
+            long maxId = durableOffset != null ? durableOffset : Long.MAX_VALUE;
+            int total = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE, cutoff, maxId, purgeChunkSize);
+                total += deleted;
+            } while (deleted == purgeChunkSize);
+            if (total > 0) {
+                logger.info("{} eventos removidos do outbox", total);
+            }
+            return total;
+        } finally {
+            schedulerLock.release(PURGE_LOCK);
+        }
+    }
+    
+    /**
+     * Leading run of the batch with no holes after from, except holes older than the gap timeout,
+     * whose ids are added to skipped
+     */
+    List<OutboxEvent> contiguous(List<OutboxEvent> batch, long from, LocalDateTime now, List<Long> skipped) {
+        LocalDateTime settled = now.minus(Duration.ofMillis(gapTimeoutMs));
+        List<OutboxEvent> ready = new ArrayList<>();
+        long expected = from + 1;
+        for (OutboxEvent event : batch) {
+            if (event.getId() != expected && event.getCreatedAt().isAfter(settled)) {
+                break;
+            }
+            long firstTracked = Math.max(expected, event.getId() - maxGaps);
+            if (firstTracked > expected) {
+                logger.warn("Buraco de {} ids no outbox antes do evento {}: só os {} últimos serão acompanhados",
+                    event.getId() - expected, event.getId(), maxGaps);
+            }
+            for (long id = firstTracked; id < event.getId(); id++) {
+                skipped.add(id);
+            }
+            ready.add(event);
+            expected = event.getId() + 1;
+        }
+        return ready;
+    }
+    
+    private List<ConsumerState> activeConsumers(Lane lane) {
+        boolean hasDurable = consumers.stream().anyMatch(DomainEventConsumer::isDurable);
+        boolean leased = hasDurable && schedulerLock.tryAcquire(DISPATCH_LOCK, Duration.ofSeconds(leaseSeconds));
+        if (leased && !lane.holdsLease) {
+            // Outro nó pode ter avançado as posições enquanto não tínhamos o lease
+            for (ConsumerState state : lane.consumers) {
+                if (state.consumer.isDurable()) {
+                    List<Long> saved = jdbcTemplate.queryForList(SELECT_OFFSET, Long.class, state.consumer.getName());
+                    state.offset = saved.isEmpty() ? lane.headId : saved.get(0);
+                    // A posição salva fica antes dos buracos abertos: eles voltam na releitura
+                    state.gaps.clear();
+                }
+            }
+        }
+        lane.holdsLease = leased;
+        return lane.consumers.stream().filter(s -> !s.consumer.isDurable() || leased).toList();
+    }
+    
+    /**
+     * Dispatch state of the current shard (the only one without sharding), created on first use
+     */
+    private Lane lane() {
+        String shard = ShardContext.current();
+        return lanes.computeIfAbsent(shard != null ? shard : "", key -> new Lane(shard));
+    }
+    
+    /**
+     * Head of one outbox and every consumer's position in it; the gauges carry a shard tag
+     * only with sharding
+     */
+    private final class Lane {
+        
+        private final String shard;
+        private final List<ConsumerState> consumers = new ArrayList<>();
+        private volatile long headId;
+        private boolean started;
+        private boolean holdsLease;
+        
+        Lane(String shard) {
+            this.shard = shard;
+            for (DomainEventConsumer consumer : OutboxDispatcher.this.consumers) {
+                ConsumerState state = new ConsumerState(consumer, shard);
+                this.consumers.add(state);
+                List<Tag> tags = shard == null
+                    ? List.of(Tag.of("consumer", consumer.getName()))
+                    : List.of(Tag.of("consumer", consumer.getName()), Tag.of("shard", shard));
+                Gauge.builder("outbox.consumer.lag", state, s -> Math.max(0, headId - s.offset))
+                    .description("Eventos do outbox ainda não entregues ao consumidor")
+                    .tags(tags)
+                    .register(meterRegistry);
+                Gauge.builder("outbox.consumer.lag.seconds", state, ConsumerState::lagSeconds)
+                    .description("Idade do evento mais antigo ainda não entregue ao consumidor")
+                    .tags(tags)
+                    .register(meterRegistry);
+                Gauge.builder("outbox.consumer.gaps", state, s -> s.gaps.size())
+                    .description("Ids pulados ainda aguardando o commit do evento")
+                    .tags(tags)
+                    .register(meterRegistry);
+                state.abandonedGaps = Counter.builder("outbox.consumer.gaps.abandoned")
+                    .description("Ids pulados que nunca apareceram no outbox")
+                    .tags(tags)
+                    .register(meterRegistry);
+            }
+        }
+    }
+    
+    private static final class ConsumerState {
+        
+        private final DomainEventConsumer consumer;
+        private final String shard;
+        // Ids pulados por ainda não estarem commitados, com o momento em que foram pulados
+        private final NavigableMap<Long, LocalDateTime> gaps = new ConcurrentSkipListMap<>();
+        private volatile long offset;
+        private volatile LocalDateTime oldestPending;
+        private Counter abandonedGaps;
+        
+        ConsumerState(DomainEventConsumer consumer, String shard) {
+            this.consumer = consumer;
+            this.shard = shard;
+        }
+        
+        /**
+         * Every event up to this id was delivered: the offset, or just before the oldest open gap
+         */
+        long committedOffset() {
+            return gaps.isEmpty() ? offset : Math.min(offset, gaps.firstKey() - 1);
+        }
+        
+        double lagSeconds() {
+            LocalDateTime pending = oldestPending;
+            return pending == null ? 0 : Math.max(0, Duration.between(pending, LocalDateTime.now()).toMillis() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.expense.event;
+
+import com.expense.model.OutboxEvent;
+import com.expense.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes domain events to the outbox. Must run inside the transaction of the change
+ * being described, so the event exists if and only if the change was committed.
+ */
+@Component
+public class OutboxPublisher {
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String eventType, Long aggregateId, Long userId, Object payload) {
+        outboxEventRepository.save(new OutboxEvent(eventType, aggregateId, userId, toJson(payload)));
+    }
+    
+    private String toJson(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento", e);
+        }
+    }
+}
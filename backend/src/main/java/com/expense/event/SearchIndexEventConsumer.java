@@ -0,0 +1,75 @@
+package com.expense.event;
+
+import com.expense.model.OutboxEvent;
+import com.expense.repository.ExpenseRepository;
+import com.expense.service.ExpenseSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the in-memory description index in sync. Created and updated expenses are reloaded
+ * in one query per batch, so redelivered events just index the current row again.
+ */
+@Component
+public class SearchIndexEventConsumer implements DomainEventConsumer {
+    
+    @Autowired
+    private ExpenseSearchIndex expenseSearchIndex;
+    
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Override
+    public String getName() {
+        return "search-index";
+    }
+    
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        Set<Long> toIndex = new LinkedHashSet<>();
+        for (OutboxEvent event : events) {
+            switch (event.getEventType()) {
+                case OutboxEvent.EXPENSE_CREATED, OutboxEvent.EXPENSE_UPDATED -> {
+                    if (expenseSearchIndex.isLoaded(event.getUserId())) {
+                        toIndex.add(event.getAggregateId());
+                    }
+                }
+                case OutboxEvent.EXPENSE_DELETED -> {
+                    toIndex.remove(event.getAggregateId());
+                    expenseSearchIndex.remove(event.getUserId(), event.getAggregateId());
+                }
+                case OutboxEvent.EXPENSES_BULK_CHANGED -> {
+                    // Recategorizar não muda descrições: só as remoções afetam o índice
+                    for (Long expenseId : readBulk(event).getDeletedExpenseIds()) {
+                        toIndex.remove(expenseId);
+                        expenseSearchIndex.remove(event.getUserId(), expenseId);
+                    }
+                }
+                case OutboxEvent.EXPENSES_CHANGED, OutboxEvent.CATEGORY_DELETED ->
+                    expenseSearchIndex.evict(event.getUserId());
+                default -> {
+                }
+            }
+        }
+        if (!toIndex.isEmpty()) {
+            expenseRepository.findAllById(toIndex).forEach(expenseSearchIndex::index);
+        }
+    }
+    
+    private ExpenseBulkEventPayload readBulk(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), ExpenseBulkEventPayload.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload inválido no evento " + event.getId(), e);
+        }
+    }
+}
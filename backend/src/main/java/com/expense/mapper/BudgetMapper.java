@@ -0,0 +1,30 @@
+package com.expense.mapper;
+
+import com.expense.dto.response.BudgetResponseDTO;
+import com.expense.model.Budget;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+public class BudgetMapper {
+    
+    /**
+     * Converts Budget entity to BudgetResponseDTO with the current month's spending
+     */
+    public BudgetResponseDTO toResponseDTO(Budget budget, BigDecimal spent) {
+        if (budget == null) {
+            return null;
+        }
+        
+        BudgetResponseDTO dto = new BudgetResponseDTO();
+        dto.setId(budget.getId());
+        if (budget.getCategory() != null) {
+            dto.setCategoryId(budget.getCategory().getId());
+            dto.setCategoryName(budget.getCategory().getName());
+        }
+        dto.setLimitAmount(budget.getLimitAmount());
+        dto.setSpent(spent);
+        return dto;
+    }
+}
@@ -38,6 +38,7 @@ public class CategoryMapper {
         dto.setDescription(category.getDescription());
         dto.setColor(category.getColor());
         dto.setIcon(category.getIcon());
+        dto.setVersion(category.getVersion());
         return dto;
     }
     
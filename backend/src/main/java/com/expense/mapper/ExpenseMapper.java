@@ -27,6 +27,9 @@ public class ExpenseMapper {
         Expense expense = new Expense();
         expense.setDescription(dto.getDescription());
         expense.setAmount(dto.getAmount());
+        if (dto.getCurrency() != null) {
+            expense.setCurrency(dto.getCurrency());
+        }
         // Convert LocalDate to LocalDateTime
         if (dto.getDate() != null) {
             expense.setDate(dto.getDate().atStartOfDay());
@@ -46,12 +49,14 @@ public class ExpenseMapper {
         dto.setId(expense.getId());
         dto.setDescription(expense.getDescription());
         dto.setAmount(expense.getAmount());
+        dto.setCurrency(expense.getCurrency());
         // Convert LocalDateTime to LocalDate
         if (expense.getDate() != null) {
             dto.setDate(expense.getDate().toLocalDate());
         }
         dto.setCategory(categoryMapper.toResponseDTO(expense.getCategory()));
         dto.setUser(userMapper.toResponseDTO(expense.getUser()));
+        dto.setVersion(expense.getVersion());
         return dto;
     }
     
@@ -69,6 +74,9 @@ public class ExpenseMapper {
         if (dto.getAmount() != null) {
             expense.setAmount(dto.getAmount());
         }
+        if (dto.getCurrency() != null) {
+            expense.setCurrency(dto.getCurrency());
+        }
         if (dto.getDate() != null) {
             expense.setDate(dto.getDate().atStartOfDay());
         }
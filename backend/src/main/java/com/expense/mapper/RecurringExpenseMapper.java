@@ -0,0 +1,34 @@
+package com.expense.mapper;
+
+import com.expense.dto.response.RecurringExpenseResponseDTO;
+import com.expense.model.RecurringExpense;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RecurringExpenseMapper {
+    
+    /**
+     * Converts RecurringExpense entity to RecurringExpenseResponseDTO
+     */
+    public RecurringExpenseResponseDTO toResponseDTO(RecurringExpense recurring) {
+        if (recurring == null) {
+            return null;
+        }
+        
+        RecurringExpenseResponseDTO dto = new RecurringExpenseResponseDTO();
+        dto.setId(recurring.getId());
+        dto.setDescription(recurring.getDescription());
+        dto.setAmount(recurring.getAmount());
+        dto.setCurrency(recurring.getCurrency());
+        if (recurring.getCategory() != null) {
+            dto.setCategoryId(recurring.getCategory().getId());
+            dto.setCategoryName(recurring.getCategory().getName());
+        }
+        dto.setRule(recurring.getRule());
+        dto.setStartDate(recurring.getStartDate());
+        dto.setEndDate(recurring.getEndDate());
+        dto.setNextOccurrence(recurring.getNextOccurrence());
+        dto.setActive(recurring.isActive());
+        return dto;
+    }
+}
@@ -20,6 +20,9 @@ public class UserMapper {
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
         user.setPassword(dto.getPassword());
+        if (dto.getBaseCurrency() != null) {
+            user.setBaseCurrency(dto.getBaseCurrency());
+        }
         return user;
     }
     
@@ -35,6 +38,7 @@ public class UserMapper {
         dto.setId(user.getId());
         dto.setName(user.getName());
         dto.setEmail(user.getEmail());
+        dto.setBaseCurrency(user.getBaseCurrency());
         return dto;
     }
     
@@ -52,5 +56,8 @@ public class UserMapper {
         if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
             user.setPassword(dto.getPassword());
         }
+        if (dto.getBaseCurrency() != null) {
+            user.setBaseCurrency(dto.getBaseCurrency());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.expense.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Expense moved out of the hot table by the archive job (same id and columns).
+ * Read-only: rows are written only by the job's INSERT ... SELECT.
+ */
+@Entity
+@Immutable
+@Table(name = "expense_archive")
+public class ArchivedExpense {
+    
+    @Id
+    private Long id;
+    
+    @Column
+    private String description;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(nullable = false, length = 3)
+    private String currency;
+    
+    @Column(nullable = false)
+    private LocalDateTime date;
+    
+    // Sem chave estrangeira no arquivo: categoria removida depois do arquivamento vira null
+    @ManyToOne
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "category_id")
+    private Category category;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId;
+    
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    /**
+     * Detached Expense with the same values, for the mappers and assemblers of live expenses
+     */
+    public Expense toExpense() {
+        Expense expense = new Expense(description, amount, date, category, user);
+        expense.setId(id);
+        expense.setCurrency(currency);
+        expense.setRecurringExpenseId(recurringExpenseId);
+        expense.setOccurrenceDate(occurrenceDate);
+        expense.setVersion(version);
+        return expense;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public LocalDateTime getDate() {
+        return date;
+    }
+    
+    public Category getCategory() {
+        return category;
+    }
+    
+    public User getUser() {
+        return user;
+    }
+    
+    public Long getRecurringExpenseId() {
+        return recurringExpenseId;
+    }
+    
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -2,16 +2,21 @@ package com.expense.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", uniqueConstraints = @UniqueConstraint(name = "uk_categories_user_name",
+       columnNames = {"user_id", "active_name"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
     
     @Column(nullable = false)
@@ -30,6 +35,14 @@ public class Category {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // Marcada como removida: some das consultas enquanto DeletionPurger apaga as despesas
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
+    // Coluna gerada no banco (o nome, ou NULL se removida) com o índice único por usuário
+    @Column(name = "active_name", insertable = false, updatable = false)
+    private String activeName;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -37,6 +50,10 @@ public class Category {
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     private List<Expense> expenses;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -107,6 +124,18 @@ public class Category {
         this.createdAt = createdAt; 
     }
     
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    
+    public String getActiveName() {
+        return activeName;
+    }
+    
     public User getUser() {
         return user;
     }
@@ -122,4 +151,12 @@ public class Category {
     public void setExpenses(List<Expense> expenses) {
         this.expenses = expenses;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.expense.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background purge of a deleted account or category (table deletion_job). The row is marked
+ * deleted when the job is queued; purgedRows grows as DeletionPurger deletes its expenses.
+ */
+public record DeletionJob(Long id, Target target, Long targetId, Long userId, Status status,
+                          long purgedRows, LocalDateTime createdAt, LocalDateTime updatedAt,
+                          LocalDateTime finishedAt) {
+
+    public enum Target {
+        USER, CATEGORY
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 public class Expense {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     @Column
@@ -23,6 +24,10 @@ public class Expense {
     @Positive(message = "Valor deve ser positivo")
     private BigDecimal amount;
     
+    // Moeda do valor (ISO 4217)
+    @Column(nullable = false, length = 3)
+    private String currency = "BRL";
+    
     @Column(nullable = false)
     private LocalDateTime date;
     
@@ -36,6 +41,17 @@ public class Expense {
     @NotNull(message = "Usuário é obrigatório")
     private User user;
     
+    // Preenchidos apenas nas despesas geradas por uma despesa recorrente
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId;
+    
+    @Column(name = "occurrence_date")
+    private LocalDate occurrenceDate;
+    
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         if (date == null) {
@@ -109,4 +125,36 @@ public class Expense {
     public void setUser(User user) {
         this.user = user;
     }
+    
+    public Long getRecurringExpenseId() {
+        return recurringExpenseId;
+    }
+    
+    public void setRecurringExpenseId(Long recurringExpenseId) {
+        this.recurringExpenseId = recurringExpenseId;
+    }
+    
+    public LocalDate getOccurrenceDate() {
+        return occurrenceDate;
+    }
+    
+    public void setOccurrenceDate(LocalDate occurrenceDate) {
+        this.occurrenceDate = occurrenceDate;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.expense.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain event written in the same transaction as the change it describes
+ * and dispatched asynchronously to in-process consumers
+ */
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+    
+    public static final String EXPENSE_CREATED = "EXPENSE_CREATED";
+    public static final String EXPENSE_UPDATED = "EXPENSE_UPDATED";
+    public static final String EXPENSE_DELETED = "EXPENSE_DELETED";
+    // Despesas do usuário alteradas em lote (ex.: geradas por despesas recorrentes)
+    public static final String EXPENSES_CHANGED = "EXPENSES_CHANGED";
+    // Operação em lote com o delta agregado por categoria (ExpenseBulkEventPayload)
+    public static final String EXPENSES_BULK_CHANGED = "EXPENSES_BULK_CHANGED";
+    public static final String CATEGORY_CREATED = "CATEGORY_CREATED";
+    public static final String CATEGORY_UPDATED = "CATEGORY_UPDATED";
+    public static final String CATEGORY_DELETED = "CATEGORY_DELETED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+    
+    // Construtores
+    public OutboxEvent() {
+    }
+    
+    public OutboxEvent(String eventType, Long aggregateId, Long userId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.userId = userId;
+        this.payload = payload;
+    }
+    
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+    
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,93 @@
+package com.expense.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-sorted 53-bit ids generated in the application: 41 bits of milliseconds since
+ * 2025-01-01, 4 bits of node and 8 bits of sequence. 53 bits keep the ids exact as numbers in
+ * the JavaScript client; ids of one node always increase, and ids of all nodes follow the
+ * clock, so inserts go to the right edge of the primary key index.
+ * Nodes 0 to 7 are the server instances; nodes 8 to 15 are reserved for the ids the client
+ * generates offline, so those can never collide with an id generated here.
+ * Generation is lock-free: a burst of more than 256 ids in a millisecond, or a clock that
+ * goes back, continues from the last id (borrowing the next milliseconds) instead of waiting.
+ */
+public final class Tsid {
+
+    static final long EPOCH_MILLIS = 1735689600000L;
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    public static final int FIRST_CLIENT_NODE = 1 << (NODE_BITS - 1);
+    static final long MAX_ID = (1L << 53) - 1;
+
+    // Último valor gerado sem os bits de nó: (milissegundos << SEQUENCE_BITS) | sequência
+    private static final AtomicLong LAST = new AtomicLong();
+    private static volatile int node;
+    private static volatile int nodeCount = FIRST_CLIENT_NODE;
+
+    private Tsid() {
+    }
+
+    /**
+     * Node bits of the ids generated from now on; each running node needs its own
+     */
+    public static void setNode(int node) {
+        if (node < 0 || node >= nodeCount) {
+            throw new IllegalArgumentException("Nó de geração de ids deve estar entre 0 e " + (nodeCount - 1));
+        }
+        Tsid.node = node;
+    }
+    
+    /**
+     * Number of server nodes in use (nodes 0 to count - 1), at most FIRST_CLIENT_NODE
+     */
+    public static void setNodeCount(int count) {
+        if (count < 1 || count > FIRST_CLIENT_NODE) {
+            throw new IllegalArgumentException("Quantidade de nós de geração de ids deve estar entre 1 e " + FIRST_CLIENT_NODE);
+        }
+        nodeCount = count;
+    }
+
+    public static int getNode() {
+        return node;
+    }
+
+    public static long next() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long last = LAST.get();
+            long candidate = Math.max(now << SEQUENCE_BITS, last + 1);
+            if (LAST.compareAndSet(last, candidate)) {
+                return (candidate >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)
+                    | (long) node << SEQUENCE_BITS
+                    | candidate & ((1 << SEQUENCE_BITS) - 1);
+            }
+        }
+    }
+
+    /**
+     * Milliseconds since the Unix epoch encoded in the id
+     */
+    public static long millisOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Node bits of the id
+     */
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE;
+    }
+    
+    /**
+     * Whether a client-generated id fits in 53 bits, carries a client node (FIRST_CLIENT_NODE to
+     * MAX_NODE) and was created no later than a day ahead of the server clock
+     */
+    public static boolean isValid(long id) {
+        return id > 0 && id <= MAX_ID
+            && nodeOf(id) >= FIRST_CLIENT_NODE
+            && millisOf(id) > EPOCH_MILLIS
+            && millisOf(id) <= System.currentTimeMillis() + 86_400_000L;
+    }
+}
@@ -3,34 +3,55 @@ package com.expense.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
     
     @Column(nullable = false)
     @NotBlank(message = "Nome é obrigatório")
     private String name;
     
+    // Natural id: a busca por email (a cada requisição autenticada) passa pelo cache
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email deve ser válido")
     private String email;
     
+    // Coluna gerada no banco (LOWER(TRIM(email))) com índice único
+    @Column(name = "email_normalized", insertable = false, updatable = false)
+    private String emailNormalized;
+    
     @Column(nullable = false)
     @NotBlank(message = "Senha é obrigatória")
     private String password;
     
+    // Moeda em que os totais do usuário são exibidos (ISO 4217)
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency = "BRL";
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
+    // Conta marcada como removida: não autentica nem aparece enquanto DeletionPurger apaga os dados
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Expense> expenses;
     
@@ -90,6 +111,14 @@ public class User {
         this.createdAt = createdAt;
     }
     
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+    
     public List<Expense> getExpenses() {
         return expenses;
     }
@@ -97,4 +126,16 @@ public class User {
     public void setExpenses(List<Expense> expenses) {
         this.expenses = expenses;
     }
+    
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+    
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+    
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.expense.model.hateoas;
+
+import org.springframework.hateoas.RepresentationModel;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BudgetModel extends RepresentationModel<BudgetModel> {
+    
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal limitAmount;
+    private BigDecimal spent;
+    
+    public BudgetModel() {
+    }
+    
+    public BudgetModel(Long id, Long categoryId, String categoryName, BigDecimal limitAmount, BigDecimal spent) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.limitAmount = limitAmount;
+        this.spent = spent;
+    }
+    
+    @JsonProperty("id")
+    public Long getBudgetId() {
+        return id;
+    }
+    
+    public void setBudgetId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+    
+    public BigDecimal getLimitAmount() {
+        return limitAmount;
+    }
+    
+    public void setLimitAmount(BigDecimal limitAmount) {
+        this.limitAmount = limitAmount;
+    }
+    
+    public BigDecimal getSpent() {
+        return spent;
+    }
+    
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+}
@@ -0,0 +1,38 @@
+package com.expense.model.hateoas;
+
+import org.springframework.hateoas.RepresentationModel;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of a set-based operation: how many rows it affected
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOperationModel extends RepresentationModel<BulkOperationModel> {
+    
+    private String operation;
+    private int affected;
+    
+    public BulkOperationModel() {
+    }
+    
+    public BulkOperationModel(String operation, int affected) {
+        this.operation = operation;
+        this.affected = affected;
+    }
+    
+    public String getOperation() {
+        return operation;
+    }
+    
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+    
+    public int getAffected() {
+        return affected;
+    }
+    
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+}
@@ -12,6 +12,7 @@ public class CategoryModel extends RepresentationModel<CategoryModel> {
     private String description;
     private String color;
     private String icon;
+    private Long version;
     
     public CategoryModel() {
     }
@@ -64,4 +65,12 @@ public class CategoryModel extends RepresentationModel<CategoryModel> {
     public void setIcon(String icon) {
         this.icon = icon;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,82 @@
+package com.expense.model.hateoas;
+
+import com.expense.dto.response.GraficoResponseDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Home screen data in one response. Parts that did not load in time are omitted and named in missing.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardModel extends RepresentationModel<DashboardModel> {
+
+    private String month;
+    private String currency;
+    private BigDecimal monthTotal;
+    private List<GraficoResponseDTO> categoryTotals;
+    private List<ExpenseModel> recentExpenses;
+    private List<CategoryModel> categories;
+    private List<String> missing;
+
+    public DashboardModel() {
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getMonthTotal() {
+        return monthTotal;
+    }
+
+    public void setMonthTotal(BigDecimal monthTotal) {
+        this.monthTotal = monthTotal;
+    }
+
+    public List<GraficoResponseDTO> getCategoryTotals() {
+        return categoryTotals;
+    }
+
+    public void setCategoryTotals(List<GraficoResponseDTO> categoryTotals) {
+        this.categoryTotals = categoryTotals;
+    }
+
+    public List<ExpenseModel> getRecentExpenses() {
+        return recentExpenses;
+    }
+
+    public void setRecentExpenses(List<ExpenseModel> recentExpenses) {
+        this.recentExpenses = recentExpenses;
+    }
+
+    public List<CategoryModel> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryModel> categories) {
+        this.categories = categories;
+    }
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
@@ -0,0 +1,101 @@
+package com.expense.model.hateoas;
+
+import com.expense.model.DeletionJob;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the background purge of a deleted account or category
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DeletionJobModel extends RepresentationModel<DeletionJobModel> {
+
+    private Long id;
+    private String target;
+    private Long targetId;
+    private String status;
+    private long purgedRows;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    public DeletionJobModel() {
+    }
+
+    public DeletionJobModel(DeletionJob job) {
+        this.id = job.id();
+        this.target = job.target().name();
+        this.targetId = job.targetId();
+        this.status = job.status().name();
+        this.purgedRows = job.purgedRows();
+        this.createdAt = job.createdAt();
+        this.updatedAt = job.updatedAt();
+        this.finishedAt = job.finishedAt();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getPurgedRows() {
+        return purgedRows;
+    }
+
+    public void setPurgedRows(long purgedRows) {
+        this.purgedRows = purgedRows;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
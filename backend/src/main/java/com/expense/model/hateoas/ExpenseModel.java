@@ -11,12 +11,14 @@ public class ExpenseModel extends RepresentationModel<ExpenseModel> {
     
     private Long id;
     private BigDecimal amount;
+    private String currency;
     private String description;
     private LocalDate date;
     private Long userId;
     private String userName;
     private Long categoryId;
     private String categoryName;
+    private Long version;
     
     public ExpenseModel() {
     }
@@ -97,4 +99,20 @@ public class ExpenseModel extends RepresentationModel<ExpenseModel> {
     public void setCategoryName(String categoryName) {
         this.categoryName = categoryName;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
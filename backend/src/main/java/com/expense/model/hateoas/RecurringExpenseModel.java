@@ -0,0 +1,130 @@
+package com.expense.model.hateoas;
+
+import org.springframework.hateoas.RepresentationModel;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecurringExpenseModel extends RepresentationModel<RecurringExpenseModel> {
+    
+    private Long id;
+    private String description;
+    private BigDecimal amount;
+    private String currency;
+    private Long categoryId;
+    private String categoryName;
+    private String rule;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate nextOccurrence;
+    private boolean active;
+    
+    public RecurringExpenseModel() {
+    }
+    
+    public RecurringExpenseModel(Long id, String description, BigDecimal amount, Long categoryId, String categoryName,
+                                 String rule, LocalDate startDate, LocalDate endDate, LocalDate nextOccurrence,
+                                 boolean active) {
+        this.id = id;
+        this.description = description;
+        this.amount = amount;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.rule = rule;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.nextOccurrence = nextOccurrence;
+        this.active = active;
+    }
+    
+    @JsonProperty("id")
+    public Long getRecurringExpenseId() {
+        return id;
+    }
+    
+    public void setRecurringExpenseId(Long id) {
+        this.id = id;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+    
+    public String getRule() {
+        return rule;
+    }
+    
+    public void setRule(String rule) {
+        this.rule = rule;
+    }
+    
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    
+    public LocalDate getNextOccurrence() {
+        return nextOccurrence;
+    }
+    
+    public void setNextOccurrence(LocalDate nextOccurrence) {
+        this.nextOccurrence = nextOccurrence;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
@@ -10,6 +10,7 @@ public class UserModel extends RepresentationModel<UserModel> {
     private Long id;
     private String name;
     private String email;
+    private String baseCurrency;
     
     public UserModel() {
     }
@@ -44,4 +45,12 @@ public class UserModel extends RepresentationModel<UserModel> {
     public void setEmail(String email) {
         this.email = email;
     }
+    
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+    
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
 }
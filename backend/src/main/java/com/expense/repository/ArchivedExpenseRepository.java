@@ -0,0 +1,50 @@
+package com.expense.repository;
+
+import com.expense.model.ArchivedExpense;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read access to archived expenses. Rows are inserted only by the archive job and deleted
+ * only by DeletionPurger; the only change allowed here is a category merge.
+ */
+@org.springframework.stereotype.Repository
+public interface ArchivedExpenseRepository extends Repository<ArchivedExpense, Long>, JpaSpecificationExecutor<ArchivedExpense> {
+    
+    /**
+     * Find archived expense by ID and user ID (for security)
+     */
+    Optional<ArchivedExpense> findByIdAndUserId(Long id, Long userId);
+    
+    /**
+     * Same rows as {@link ExpenseRepository#sumByCategory} for the archive
+     */
+    @Query("SELECT e.category.id, e.currency, CAST(e.date AS LocalDate), SUM(e.amount), COUNT(e) FROM ArchivedExpense e "
+            + "WHERE e.user.id = :userId AND e.date >= :start AND e.date < :end "
+            + "GROUP BY e.category.id, e.currency, CAST(e.date AS LocalDate)")
+    List<Object[]> sumByCategory(@Param("userId") Long userId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+    
+    /**
+     * Move the user's archived expenses of the source category to the target category
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "expense_archive"))
+    @Query(value = "UPDATE expense_archive SET category_id = :targetId "
+            + "WHERE user_id = :userId AND category_id = :sourceId",
+           nativeQuery = true)
+    int moveToCategory(@Param("userId") Long userId, @Param("sourceId") Long sourceId,
+                       @Param("targetId") Long targetId);
+}
@@ -0,0 +1,30 @@
+package com.expense.repository;
+
+import com.expense.model.Budget;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+    
+    /**
+     * Find all budgets for a specific user
+     */
+    @EntityGraph(attributePaths = {"category"})
+    List<Budget> findByUserId(Long userId);
+    
+    /**
+     * Find budget by ID and user ID (for security)
+     */
+    @EntityGraph(attributePaths = {"category"})
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+    
+    /**
+     * Check if the user already has a budget for the category
+     */
+    boolean existsByUserIdAndCategoryId(Long userId, Long categoryId);
+}
@@ -1,9 +1,15 @@
 package com.expense.repository;
 
 import com.expense.model.Category;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,22 +17,87 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     /**
-     * Find category by name
+     * Query cache region of findByUserId (see hibernate-cache.conf)
      */
-    Category findByName(String name);
+    String CATEGORIES_BY_USER_REGION = "category-by-user";
     
     /**
-     * Check if category exists by name
+     * Find all categories for a specific user (query cache: the ids, then each category from its region)
      */
-    boolean existsByName(String name);
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = CATEGORIES_BY_USER_REGION)
+    })
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND c.deletedAt IS NULL")
+    List<Category> findByUserId(@Param("userId") Long userId);
     
     /**
-     * Find all categories for a specific user
+     * Find the user's category with this name (unique per user)
      */
-    List<Category> findByUserId(Long userId);
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId AND c.name = :name AND c.deletedAt IS NULL")
+    Optional<Category> findByUserIdAndName(@Param("userId") Long userId, @Param("name") String name);
+    
+    /**
+     * Insert the category unless the user already has one with this name, in one statement:
+     * the unique (user_id, name) index decides, so concurrent creates cannot duplicate it.
+     * Read the category back with findByUserIdAndName. Like every native write to categories, it
+     * evicts this node's cached categories (creates are rare next to reads).
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "categories"))
+    @Query(value = "INSERT INTO categories (id, name, description, color, icon, user_id, created_at, version) "
+            + "VALUES (:id, :name, :description, :color, :icon, :userId, :createdAt, 0) "
+            + "ON DUPLICATE KEY UPDATE id = id",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("id") Long id, @Param("userId") Long userId, @Param("name") String name,
+                       @Param("description") String description, @Param("color") String color,
+                       @Param("icon") String icon, @Param("createdAt") LocalDateTime createdAt);
     
     /**
      * Find category by ID and user ID (for security)
      */
-    Optional<Category> findByIdAndUserId(Long id, Long userId);
-}
\ No newline at end of file
+    @Query("SELECT c FROM Category c WHERE c.id = :id AND c.user.id = :userId AND c.deletedAt IS NULL")
+    Optional<Category> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    /**
+     * Check if category exists and belongs to the user
+     */
+    @Query("SELECT COUNT(c) > 0 FROM Category c WHERE c.id = :id AND c.user.id = :userId AND c.deletedAt IS NULL")
+    boolean existsByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    /**
+     * Mark the user's category as deleted in one statement: it leaves every query of this
+     * repository at once and DeletionPurger deletes it with its expenses later.
+     * Returns 0 if it is missing, belongs to another user or was already deleted.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "categories"))
+    @Query(value = "UPDATE categories SET deleted_at = :deletedAt, version = version + 1 "
+            + "WHERE id = :id AND user_id = :userId AND deleted_at IS NULL",
+           nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("userId") Long userId, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * Delete the category in one statement if it belongs to the user. Returns the rows deleted (0 or 1).
+     * Budgets and recurring expenses go with it (ON DELETE CASCADE); expenses must be deleted first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Category c WHERE c.id = :id AND c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    /**
+     * Partial update in one statement, guarded by owner and version (null arguments keep the column).
+     * Returns 0 if the category is missing, belongs to another user, was deleted or changed since that version.
+     * The query space limits the second-level cache eviction to categories.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "categories"))
+    @Query(value = "UPDATE categories SET name = COALESCE(:name, name), "
+            + "description = COALESCE(:description, description), color = COALESCE(:color, color), "
+            + "icon = COALESCE(:icon, icon), version = version + 1 "
+            + "WHERE id = :id AND user_id = :userId AND version = :version AND deleted_at IS NULL",
+           nativeQuery = true)
+    int patch(@Param("id") Long id, @Param("userId") Long userId, @Param("version") long version,
+              @Param("name") String name, @Param("description") String description,
+              @Param("color") String color, @Param("icon") String icon);
+}
@@ -0,0 +1,73 @@
+package com.expense.repository;
+
+import com.expense.model.Expense;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor: the sort key and id of the last row of a page,
+ * encoded as an opaque URL-safe token.
+ */
+public final class ExpenseCursor {
+
+    public static final String SORT_DATE = "date";
+    public static final String SORT_AMOUNT = "amount";
+
+    private final String sort;
+    private final Comparable<?> value;
+    private final Long id;
+
+    private ExpenseCursor(String sort, Comparable<?> value, Long id) {
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing after the given expense for the given sort key
+     */
+    public static ExpenseCursor after(Expense expense, String sort) {
+        Comparable<?> value = SORT_AMOUNT.equals(sort) ? expense.getAmount() : expense.getDate();
+        return new ExpenseCursor(sort, value, expense.getId());
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort key
+     */
+    public static ExpenseCursor decode(String token, String expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(expectedSort)) {
+                throw new IllegalArgumentException("Cursor inválido para a ordenação " + expectedSort);
+            }
+            Comparable<?> value = SORT_AMOUNT.equals(parts[0])
+                    ? new BigDecimal(parts[1])
+                    : LocalDateTime.parse(parts[1]);
+            return new ExpenseCursor(parts[0], value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort + "|" + (value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
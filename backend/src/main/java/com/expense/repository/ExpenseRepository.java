@@ -1,14 +1,30 @@
 package com.expense.repository;
 
+import com.expense.event.ExpenseEventPayload;
 import com.expense.model.Expense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
     
     /**
      * Find expenses by user ID
@@ -21,7 +37,128 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     List<Expense> findByCategoryId(Long categoryId);
     
     /**
-     * Find expense by ID and user ID (for security)
+     * Page of the user's expenses, newest first (served by the (user_id, date, id) index)
      */
+    @EntityGraph(attributePaths = {"category", "user"})
+    Slice<Expense> findByUserIdOrderByDateDescIdDesc(Long userId, Pageable pageable);
+    
+    /**
+     * Page of a category's expenses scoped to its owner, newest first
+     * (served by the (user_id, category_id, date, id) index)
+     */
+    @EntityGraph(attributePaths = {"category", "user"})
+    Slice<Expense> findByCategoryIdAndUserIdOrderByDateDescIdDesc(Long categoryId, Long userId, Pageable pageable);
+    
+    /**
+     * Find expense by ID and user ID (for security), with its category and user in the same query
+     */
+    @EntityGraph(attributePaths = {"category", "user"})
     Optional<Expense> findByIdAndUserId(Long id, Long userId);
-}
\ No newline at end of file
+    
+    /**
+     * Check if expense exists and belongs to the user
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+    
+    /**
+     * Category, amount, currency and date of the user's expense, read with SELECT ... FOR UPDATE
+     * so the values published on delete are the ones removed
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.expense.event.ExpenseEventPayload(e.category.id, e.amount, e.currency, e.date) "
+            + "FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+    Optional<ExpenseEventPayload> findForDelete(@Param("id") Long id, @Param("userId") Long userId);
+    
+    /**
+     * Delete the expense in one statement if it belongs to the user. Returns the rows deleted (0 or 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.id = :id AND e.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    /**
+     * Move the user's expenses among the given ids to the category in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "expense"))
+    @Query(value = "UPDATE expense SET category_id = :categoryId, version = version + 1 "
+            + "WHERE user_id = :userId AND id IN (:ids)",
+           nativeQuery = true)
+    int recategorize(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                     @Param("categoryId") Long categoryId);
+    
+    /**
+     * Delete the user's expenses among the given ids in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    /**
+     * Move every expense of the user's source category to the target category in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "expense"))
+    @Query(value = "UPDATE expense SET category_id = :targetId, version = version + 1 "
+            + "WHERE user_id = :userId AND category_id = :sourceId",
+           nativeQuery = true)
+    int moveToCategory(@Param("userId") Long userId, @Param("sourceId") Long sourceId,
+                       @Param("targetId") Long targetId);
+    
+    /**
+     * Partial update in one statement, guarded by owner and version (null arguments keep the column).
+     * Returns 0 if the expense is missing, belongs to another user or changed since that version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "expense"))
+    @Query(value = "UPDATE expense SET description = COALESCE(:description, description), "
+            + "amount = COALESCE(:amount, amount), date = COALESCE(:date, date), "
+            + "category_id = COALESCE(:categoryId, category_id), version = version + 1 "
+            + "WHERE id = :id AND user_id = :userId AND version = :version",
+           nativeQuery = true)
+    int patch(@Param("id") Long id, @Param("userId") Long userId, @Param("version") long version,
+              @Param("description") String description, @Param("amount") BigDecimal amount,
+              @Param("date") LocalDateTime date, @Param("categoryId") Long categoryId);
+    
+    /**
+     * Full-text search over the user's descriptions (MySQL FULLTEXT, boolean mode), ranked by relevance
+     */
+    @Query(value = "SELECT e.* FROM expense e "
+            + "WHERE e.user_id = :userId AND MATCH(e.description) AGAINST (:query IN BOOLEAN MODE) "
+            + "ORDER BY MATCH(e.description) AGAINST (:query IN BOOLEAN MODE) DESC, e.date DESC, e.id DESC",
+           countQuery = "SELECT COUNT(*) FROM expense e "
+            + "WHERE e.user_id = :userId AND MATCH(e.description) AGAINST (:query IN BOOLEAN MODE)",
+           nativeQuery = true)
+    Page<Expense> searchByDescription(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
+    
+    /**
+     * Portable LIKE search over the user's descriptions (fallback for databases without FULLTEXT, e.g. H2).
+     * The query must have %, _ and \ escaped with a backslash.
+     */
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId "
+            + "AND LOWER(e.description) LIKE LOWER(CONCAT('%', :query, '%')) ESCAPE '\\' "
+            + "ORDER BY e.date DESC, e.id DESC")
+    Page<Expense> searchByDescriptionLike(@Param("userId") Long userId, @Param("query") String query, Pageable pageable);
+    
+    /**
+     * Sum of the user's expenses in [start, end) per category, currency and day: rows of
+     * (categoryId, currency, day, total, count), ready for conversion at each day's FX rate
+     */
+    @Query("SELECT e.category.id, e.currency, CAST(e.date AS LocalDate), SUM(e.amount), COUNT(e) FROM Expense e "
+            + "WHERE e.user.id = :userId AND e.date >= :start AND e.date < :end "
+            + "GROUP BY e.category.id, e.currency, CAST(e.date AS LocalDate)")
+    List<Object[]> sumByCategory(@Param("userId") Long userId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+    
+    /**
+     * Same as {@link #sumByCategory} restricted to the given expense ids
+     */
+    @Query("SELECT e.category.id, e.currency, CAST(e.date AS LocalDate), SUM(e.amount), COUNT(e) FROM Expense e "
+            + "WHERE e.user.id = :userId AND e.id IN :ids AND e.date >= :start AND e.date < :end "
+            + "GROUP BY e.category.id, e.currency, CAST(e.date AS LocalDate)")
+    List<Object[]> sumByCategoryForIds(@Param("userId") Long userId,
+                                       @Param("ids") Collection<Long> ids,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,112 @@
+package com.expense.repository;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Composable predicates for filtered expense queries.
+ * Every query starts from {@link #belongsToUser(Long)} so the (user_id, date, id) and
+ * (user_id, amount, id) indexes can serve the filter and the keyset ordering.
+ * Generic so the same filter also runs against the archive (same attribute names).
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {
+    }
+
+    /**
+     * Expenses owned by the user
+     */
+    public static <T> Specification<T> belongsToUser(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Amount greater than or equal to min (ignored when null)
+     */
+    public static <T> Specification<T> amountAtLeast(BigDecimal min) {
+        return (root, query, cb) -> min == null ? null : cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    /**
+     * Amount less than or equal to max (ignored when null)
+     */
+    public static <T> Specification<T> amountAtMost(BigDecimal max) {
+        return (root, query, cb) -> max == null ? null : cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    /**
+     * Date on or after the given day (ignored when null)
+     */
+    public static <T> Specification<T> dateFrom(LocalDate from) {
+        return (root, query, cb) -> from == null ? null
+                : cb.greaterThanOrEqualTo(root.get("date"), from.atStartOfDay());
+    }
+
+    /**
+     * Date on or before the given day (ignored when null)
+     */
+    public static <T> Specification<T> dateTo(LocalDate to) {
+        return (root, query, cb) -> to == null ? null
+                : cb.lessThan(root.get("date"), to.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Category is one of the given ids (ignored when null or empty)
+     */
+    public static <T> Specification<T> categoryIn(Collection<Long> categoryIds) {
+        return (root, query, cb) -> categoryIds == null || categoryIds.isEmpty() ? null
+                : root.get("category").get("id").in(categoryIds);
+    }
+
+    /**
+     * Description starts with the prefix. Kept as a plain "LIKE 'prefix%'" so it stays sargable.
+     */
+    public static <T> Specification<T> descriptionStartsWith(String prefix) {
+        return (root, query, cb) -> prefix == null || prefix.isBlank() ? null
+                : cb.like(root.get("description"), escapeLike(prefix.trim()) + "%", '\\');
+    }
+
+    /**
+     * Rows strictly after the cursor in (sortKey, id) order
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(ExpenseCursor cursor, boolean descending) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            Path key = root.get(cursor.getSort());
+            Path<Long> id = root.get("id");
+            Comparable value = cursor.getValue();
+            if (descending) {
+                return cb.or(cb.lessThan(key, value),
+                        cb.and(cb.equal(key, value), cb.lessThan(id, cursor.getId())));
+            }
+            return cb.or(cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.getId())));
+        };
+    }
+
+    /**
+     * Fetch category and user in the same statement instead of one extra select per association
+     */
+    public static <T> Specification<T> fetchAssociations() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("category", JoinType.LEFT);
+                root.fetch("user", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
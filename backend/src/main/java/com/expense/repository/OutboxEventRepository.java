@@ -0,0 +1,32 @@
+package com.expense.repository;
+
+import com.expense.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Next events after the given id, in id order
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id > :afterId ORDER BY e.id")
+    List<OutboxEvent> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Ids of the user's events after the given id
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id > :afterId AND e.userId = :userId")
+    List<Long> findIdsByUserIdAfter(@Param("userId") Long userId, @Param("afterId") long afterId);
+    
+    /**
+     * Id of the newest event (0 when the outbox is empty)
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+}
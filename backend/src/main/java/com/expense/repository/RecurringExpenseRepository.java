@@ -0,0 +1,51 @@
+package com.expense.repository;
+
+import com.expense.model.RecurringExpense;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+    
+    /**
+     * Find all recurring expenses for a specific user
+     */
+    @EntityGraph(attributePaths = {"category"})
+    List<RecurringExpense> findByUserId(Long userId);
+    
+    /**
+     * Find recurring expense by ID and user ID (for security)
+     */
+    @EntityGraph(attributePaths = {"category"})
+    Optional<RecurringExpense> findByIdAndUserId(Long id, Long userId);
+    
+    /**
+     * Next batch of active definitions due on or before the given day, in id order after afterId
+     * (served by the (active, next_occurrence, id) index)
+     */
+    @Query("SELECT r FROM RecurringExpense r WHERE r.active = true AND r.nextOccurrence <= :today "
+            + "AND r.id > :afterId ORDER BY r.id")
+    List<RecurringExpense> findDue(@Param("today") LocalDate today, @Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Move the user's recurring expenses of the source category to the target category in one statement
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "recurring_expense"))
+    @Query(value = "UPDATE recurring_expense SET category_id = :targetId "
+            + "WHERE user_id = :userId AND category_id = :sourceId",
+           nativeQuery = true)
+    int moveToCategory(@Param("userId") Long userId, @Param("sourceId") Long sourceId,
+                       @Param("targetId") Long targetId);
+}
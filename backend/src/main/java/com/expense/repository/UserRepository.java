@@ -1,19 +1,65 @@
 package com.expense.repository;
 
 import com.expense.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     /**
-     * Busca usuário por email
+     * Verifica se existe usuário com o email
      */
-    User findByEmail(String email);
+    boolean existsByEmail(String email);
     
     /**
-     * Verifica se existe usuário com o email
+     * Verifica, pelo índice único normalizado, se o email já está em uso (sem carregar o usuário)
      */
-    boolean existsByEmail(String email);
-}
\ No newline at end of file
+    boolean existsByEmailNormalized(String emailNormalized);
+    
+    /**
+     * Emails de todos os usuários, lidos em lotes (precisa de uma transação aberta)
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+    
+    /**
+     * Moeda base do usuário, sem carregar a entidade
+     */
+    @Query("SELECT u.baseCurrency FROM User u WHERE u.id = :id")
+    String findBaseCurrencyById(@Param("id") Long id);
+    
+    /**
+     * Marca o usuário como removido em um comando: deixa de autenticar e de aparecer na hora, e o
+     * DeletionPurger apaga os dados depois. Retorna 0 se não existe ou já foi removido.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "user"))
+    @Query(value = "UPDATE user SET deleted_at = :deletedAt WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    /**
+     * Insere o usuário com o id alocado pelo diretório de shards (sem AUTO_INCREMENT)
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "user"))
+    @Query(value = "INSERT INTO user (id, name, email, password, base_currency, created_at) "
+            + "VALUES (:id, :name, :email, :password, :baseCurrency, :createdAt)", nativeQuery = true)
+    void insertWithId(@Param("id") Long id,
+                      @Param("name") String name,
+                      @Param("email") String email,
+                      @Param("password") String password,
+                      @Param("baseCurrency") String baseCurrency,
+                      @Param("createdAt") LocalDateTime createdAt);
+}
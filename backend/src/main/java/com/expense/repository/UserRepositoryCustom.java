@@ -0,0 +1,14 @@
+package com.expense.repository;
+
+import com.expense.model.User;
+
+/**
+ * Queries of {@link UserRepository} implemented by hand
+ */
+public interface UserRepositoryCustom {
+    
+    /**
+     * Busca usuário por email (pelo natural id, com cache de segundo nível)
+     */
+    User findByEmail(String email);
+}
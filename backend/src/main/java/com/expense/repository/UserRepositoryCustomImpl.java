@@ -0,0 +1,57 @@
+package com.expense.repository;
+
+import com.expense.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Email lookups go through Hibernate's natural id API, so on a cache hit neither the
+ * email -> id resolution nor the user itself costs a query. Deleted accounts are not found.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public User findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        boolean putEnabled = session.getCacheMode().isPutEnabled();
+        User user = session.bySimpleNaturalId(User.class).load(email);
+        if (putEnabled && !session.getCacheMode().isPutEnabled()) {
+            // A busca foi para uma réplica (ReplicaConfig): o Hibernate grava a resolução email -> id
+            // mesmo com CacheMode.GET, então ela sai do cache
+            evictNaturalId(session, email);
+        }
+        if (user != null && !user.getEmail().equalsIgnoreCase(email)) {
+            // O MySQL compara emails sem diferenciar maiúsculas, o cache não: a resolução de uma
+            // variação do email antigo pode sobreviver à troca de email
+            entityManager.getEntityManagerFactory().getCache().unwrap(org.hibernate.Cache.class)
+                .evictNaturalIdData(User.class);
+            return entityManager.createQuery("SELECT u FROM User u WHERE u.email = :email AND u.deletedAt IS NULL", User.class)
+                .setParameter("email", email)
+                .getResultStream().findFirst().orElse(null);
+        }
+        // Conta removida e ainda não apagada: não autentica
+        return user != null && user.getDeletedAt() == null ? user : null;
+    }
+    
+    private static void evictNaturalId(Session session, String email) {
+        SessionImplementor implementor = session.unwrap(SessionImplementor.class);
+        EntityPersister persister = implementor.getFactory().getMappingMetamodel().getEntityDescriptor(User.class);
+        NaturalIdDataAccess cacheAccess = persister.getNaturalIdMapping().getCacheAccess();
+        if (cacheAccess != null) {
+            cacheAccess.evict(cacheAccess.generateCacheKey(
+                persister.getNaturalIdMapping().normalizeInput(email), persister, implementor));
+        }
+    }
+}
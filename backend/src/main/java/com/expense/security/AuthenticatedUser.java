@@ -0,0 +1,29 @@
+package com.expense.security;
+
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * Principal built from the user row read during authentication, so callers get the id and
+ * name without querying the user again
+ */
+public class AuthenticatedUser extends User {
+    
+    private final Long id;
+    private final String name;
+    
+    public AuthenticatedUser(Long id, String name, String email, String password) {
+        super(email, password, Collections.emptyList());
+        this.id = id;
+        this.name = name;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+}
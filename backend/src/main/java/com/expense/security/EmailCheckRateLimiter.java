@@ -0,0 +1,81 @@
+package com.expense.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-client token bucket for the public email availability check: each client may burst up
+ * to capacity requests and then gets refillPerSecond more per second. A client is the user
+ * when the request carries a token, otherwise its address (the forwarded one behind the proxy,
+ * see server.forward-headers-strategy).
+ * Only the most recently seen clients are kept; an evicted client starts again with a full bucket.
+ */
+@Component
+public class EmailCheckRateLimiter {
+    
+    private final double capacity;
+    private final double refillPerNano;
+    private final Map<String, Bucket> buckets;
+    
+    public EmailCheckRateLimiter(@Value("${user.check-email.rate-limit.capacity:20}") int capacity,
+                                 @Value("${user.check-email.rate-limit.refill-per-second:5}") double refillPerSecond,
+                                 @Value("${user.check-email.rate-limit.max-clients:10000}") int maxClients) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.buckets = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxClients;
+            }
+        });
+    }
+    
+    /**
+     * Take one token for the request's client; false means the request should be rejected
+     */
+    public boolean tryAcquire(HttpServletRequest request) {
+        return tryAcquire(clientOf(request), System.nanoTime());
+    }
+    
+    /**
+     * Bucket key: the authenticated user, or the client address
+     */
+    public static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+    
+    boolean tryAcquire(String client, long now) {
+        Bucket bucket = buckets.computeIfAbsent(client, key -> new Bucket(capacity, now));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * refillPerNano);
+            bucket.updatedAt = now;
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens--;
+            return true;
+        }
+    }
+    
+    private static final class Bucket {
+        
+        private double tokens;
+        private long updatedAt;
+        
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.expense.security;
+
+import com.expense.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Pattern;
+
+/**
+ * Makes the create endpoints safe to retry: a POST carrying an Idempotency-Key runs once per
+ * (user, key) and retries get the stored response back, marked with Idempotent-Replayed.
+ * The same key with a different body is rejected (422). A duplicate of a request still running
+ * on this node waits for it and replays its response; on another node it answers 409. 5xx responses are not stored, so the client can retry them.
+ * Only authenticated create endpoints take part: authentication responses carry a token and
+ * are never stored. The body fingerprint is an HMAC, so stored fingerprints do not expose bodies.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // Requisição sem usuário autenticado: não passa pelo armazenamento
+    static final long ANONYMOUS = 0L;
+
+    // Só rotas autenticadas: a resposta do login e do cadastro traz um token, que não pode ser guardado
+    private static final Set<String> PATHS = Set.of("/api/expenses", "/api/categories");
+    private static final Pattern VALID_KEY = Pattern.compile("[A-Za-z0-9_.:-]{1,64}");
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Value("${jwt.secret:mySecretKeyForJwtTokenThatShouldBeAtLeast256BitsLongForHS256Algorithm}")
+    private String secret;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+            || request.getHeader(HEADER) == null
+            || !PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (!VALID_KEY.matcher(key).matches()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Idempotency-Key inválida");
+            return;
+        }
+        long userId = currentUserId();
+        if (userId == ANONYMOUS) {
+            // Sem autenticação a requisição será recusada adiante: não há o que guardar
+            filterChain.doFilter(request, response);
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String requestHash = fingerprint(request, body);
+
+        IdempotencyStore.Claim claim = claim(userId, key, requestHash);
+        if (claim.outcome() == IdempotencyStore.Outcome.IN_PROGRESS) {
+            // Se a chave está em andamento neste nó, espera a requisição terminar e tenta de novo
+            try {
+                idempotencyStore.awaitInFlight(userId, key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrompido esperando a Idempotency-Key", e);
+            }
+            claim = claim(userId, key, requestHash);
+        }
+        switch (claim.outcome()) {
+            case REPLAY -> replay(claim.response(), response);
+            case IN_PROGRESS -> response.sendError(HttpStatus.CONFLICT.value(), "Requisição com esta Idempotency-Key em andamento");
+            case MISMATCH -> response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Idempotency-Key já usada com outra requisição");
+            case NEW -> execute(new CachedBodyRequest(request, body), response, filterChain, userId, key, requestHash);
+        }
+    }
+
+    /**
+     * The stripe lock is held only while claiming, never while the request runs
+     */
+    private IdempotencyStore.Claim claim(long userId, String key, String requestHash) {
+        Lock lock = idempotencyStore.lockFor(userId, key);
+        lock.lock();
+        try {
+            return idempotencyStore.claim(userId, key, requestHash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         long userId, String key, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() < 500) {
+                idempotencyStore.complete(userId, key, new IdempotencyStore.StoredResponse(requestHash,
+                    wrapper.getStatus(), wrapper.getContentType(), wrapper.getHeader(HttpHeaders.LOCATION),
+                    wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyStore.release(userId, key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        logger.info("Replaying stored response for Idempotency-Key (status {})", stored.status());
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+
+    private static long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return ANONYMOUS;
+    }
+
+    /**
+     * Request whose body was already read (to fingerprint it) and is served again from memory
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
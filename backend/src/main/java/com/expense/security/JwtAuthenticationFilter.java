@@ -1,5 +1,7 @@
 package com.expense.security;
 
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, 
                                     @NonNull HttpServletResponse response, 
@@ -51,6 +56,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (jwt != null && tokenProvider.validateToken(jwt)) {
                 String email = tokenProvider.getEmailFromToken(jwt);
+                if (shardDirectory != null) {
+                    // O resto da requisição usa o shard do usuário autenticado
+                    shardDirectory.findByEmail(email).ifPresent(entry -> ShardContext.set(entry.shard()));
+                }
                 UserDetails userDetails = userDetailsService.loadUserByUsername(email);
                 
                 UsernamePasswordAuthenticationToken authentication = 
@@ -65,7 +74,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.error("Could not set user authentication in security context", ex);
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
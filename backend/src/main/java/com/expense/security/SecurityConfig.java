@@ -22,6 +22,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+    
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
 
@@ -63,7 +66,10 @@ public class SecurityConfig {
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             
             // Adiciona o filtro JWT
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            
+            // Idempotency-Key nos POST de criação (depois do JWT: a chave é por usuário)
+            .addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class);
 
         System.out.println("Security configuration completed");
         return http.build();
@@ -1,45 +1,48 @@
 package com.expense.security;
 
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
 import com.expense.model.User;
 import com.expense.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.ArrayList;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+    
+    /**
+     * Load the user with a single query; the principal carries id and name for the login response.
+     * With sharding the query goes to the user's shard, found in the directory.
+     */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        System.out.println("=== LOADING USER BY EMAIL ===");
-        System.out.println("Email: " + email);
-        
-        User user = userRepository.findByEmail(email);
+        User user;
+        if (shardDirectory == null) {
+            user = userRepository.findByEmail(email);
+        } else {
+            user = shardDirectory.findByEmail(email)
+                .map(entry -> ShardContext.callIn(entry.shard(), () -> userRepository.findByEmail(email)))
+                .orElse(null);
+        }
         
         if (user == null) {
-            System.out.println("User NOT FOUND in database");
+            logger.debug("Usuário não encontrado: {}", email);
             throw new UsernameNotFoundException("Usuário não encontrado: " + email);
         }
         
-        System.out.println("User FOUND:");
-        System.out.println("- ID: " + user.getId());
-        System.out.println("- Name: " + user.getName());
-        System.out.println("- Email: " + user.getEmail());
-        System.out.println("- Password hash: " + user.getPassword());
-        
-        return new org.springframework.security.core.userdetails.User(
-            user.getEmail(),
-            user.getPassword(),
-            new ArrayList<>()
-        );
+        return new AuthenticatedUser(user.getId(), user.getName(), user.getEmail(), user.getPassword());
     }
-}
\ No newline at end of file
+}
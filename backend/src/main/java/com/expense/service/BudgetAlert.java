@@ -0,0 +1,54 @@
+package com.expense.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * A category budget threshold (e.g. 80% or 100%) crossed by an expense write
+ */
+public class BudgetAlert {
+    
+    private final Long userId;
+    private final Long categoryId;
+    private final YearMonth month;
+    private final int threshold;
+    private final BigDecimal limitAmount;
+    private final BigDecimal spent;
+    
+    public BudgetAlert(Long userId, Long categoryId, YearMonth month, int threshold,
+                       BigDecimal limitAmount, BigDecimal spent) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.month = month;
+        this.threshold = threshold;
+        this.limitAmount = limitAmount;
+        this.spent = spent;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public YearMonth getMonth() {
+        return month;
+    }
+    
+    /**
+     * Threshold crossed, in percent of the limit
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+    
+    public BigDecimal getLimitAmount() {
+        return limitAmount;
+    }
+    
+    public BigDecimal getSpent() {
+        return spent;
+    }
+}
@@ -0,0 +1,10 @@
+package com.expense.service;
+
+/**
+ * Receives budget threshold alerts. Called on the expense write path, so implementations
+ * that talk to slow services (e-mail, push) should hand the alert off instead of blocking.
+ */
+public interface BudgetAlertNotifier {
+    
+    void notify(BudgetAlert alert);
+}
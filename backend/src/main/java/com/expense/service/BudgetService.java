@@ -0,0 +1,118 @@
+package com.expense.service;
+
+import com.expense.dto.request.BudgetRequestDTO;
+import com.expense.model.Budget;
+import com.expense.model.Category;
+import com.expense.model.User;
+import com.expense.repository.BudgetRepository;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class BudgetService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetService.class);
+    
+    @Autowired
+    private BudgetRepository budgetRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private BudgetTracker budgetTracker;
+    
+    /**
+     * Find all budgets for a specific user
+     */
+    public List<Budget> getAllBudgets(Long userId) {
+        logger.info("Buscando orçamentos do usuário: {}", userId);
+        return budgetRepository.findByUserId(userId);
+    }
+    
+    /**
+     * Find budget by ID (only if belongs to user)
+     */
+    public Optional<Budget> getBudgetById(Long id, Long userId) {
+        logger.info("Buscando orçamento {} do usuário {}", id, userId);
+        return budgetRepository.findByIdAndUserId(id, userId);
+    }
+    
+    /**
+     * Current month's spending in the budget's category
+     */
+    public BigDecimal getSpent(Long userId, Budget budget) {
+        return budgetTracker.spent(userId, budget.getCategory().getId());
+    }
+    
+    /**
+     * Create new budget for a user (one per category)
+     */
+    public Budget createBudget(BudgetRequestDTO budgetDTO, Long userId) {
+        logger.info("Criando orçamento para usuário: {}", userId);
+        
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        
+        Category category = categoryRepository.findByIdAndUserId(budgetDTO.getCategoryId(), userId)
+            .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+        
+        if (budgetRepository.existsByUserIdAndCategoryId(userId, category.getId())) {
+            throw new RuntimeException("Já existe um orçamento para esta categoria");
+        }
+        
+        Budget saved = budgetRepository.save(new Budget(budgetDTO.getLimitAmount(), category, user));
+        budgetTracker.setLimit(userId, category.getId(), saved.getLimitAmount());
+        return saved;
+    }
+    
+    /**
+     * Update budget (only if belongs to user)
+     */
+    public Budget updateBudget(Long id, BudgetRequestDTO budgetDTO, Long userId) {
+        logger.info("Atualizando orçamento {} do usuário {}", id, userId);
+        
+        Budget budget = budgetRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new RuntimeException("Orçamento não encontrado ou não pertence ao usuário"));
+        
+        Long previousCategoryId = budget.getCategory().getId();
+        if (!previousCategoryId.equals(budgetDTO.getCategoryId())) {
+            Category category = categoryRepository.findByIdAndUserId(budgetDTO.getCategoryId(), userId)
+                .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+            if (budgetRepository.existsByUserIdAndCategoryId(userId, category.getId())) {
+                throw new RuntimeException("Já existe um orçamento para esta categoria");
+            }
+            budget.setCategory(category);
+        }
+        budget.setLimitAmount(budgetDTO.getLimitAmount());
+        
+        Budget saved = budgetRepository.save(budget);
+        budgetTracker.removeLimit(userId, previousCategoryId);
+        budgetTracker.setLimit(userId, saved.getCategory().getId(), saved.getLimitAmount());
+        return saved;
+    }
+    
+    /**
+     * Delete budget (only if belongs to user)
+     */
+    public void deleteBudget(Long id, Long userId) {
+        logger.info("Deletando orçamento {} do usuário {}", id, userId);
+        
+        Budget budget = budgetRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new RuntimeException("Orçamento não encontrado ou não pertence ao usuário"));
+        
+        budgetRepository.delete(budget);
+        budgetTracker.removeLimit(userId, budget.getCategory().getId());
+    }
+}
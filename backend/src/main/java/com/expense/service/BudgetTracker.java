@@ -0,0 +1,321 @@
+package com.expense.service;
+
+import com.expense.config.ReplicaRoutingDataSource;
+import com.expense.config.ShardContext;
+import com.expense.model.Budget;
+import com.expense.model.Expense;
+import com.expense.repository.BudgetRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.OutboxEventRepository;
+import com.expense.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running current-month spending per (user, category) in the user's base currency, used to
+ * evaluate budget thresholds on every expense write without re-summing expenses.
+ * A user's totals are seeded with one grouped SUM the first time they are needed and again
+ * when the month rolls over; after that each write is a map update.
+ * Writes arrive as outbox events. The seed starts from the id up to which the dispatcher has
+ * delivered every event and records, in the same snapshot, which of the user's later events it
+ * already contains; those, older ones and redeliveries are ignored. An event still uncommitted
+ * when the seed ran (even with a smaller id than events in it) is applied when it arrives.
+ * The seed always reads the primary: a replica within the allowed lag can still miss events
+ * the dispatcher has delivered.
+ * With sharding each shard numbers its outbox on its own, so the delivered id is kept per shard
+ * and a user's totals are compared with the floor of the shard holding the user.
+ */
+@Component
+public class BudgetTracker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BudgetTracker.class);
+    
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    
+    private final ExpenseRepository expenseRepository;
+    private final BudgetRepository budgetRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserRepository userRepository;
+    private final FxRateCache fxRateCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final List<BudgetAlertNotifier> notifiers;
+    private final int[] thresholds;
+    private final Map<Long, UserMonth> months;
+    // Id até o qual o despachante entregou tudo, por shard ("" sem sharding)
+    private final Map<String, Long> deliveredUpTo = new ConcurrentHashMap<>();
+    
+    public BudgetTracker(ExpenseRepository expenseRepository,
+                         BudgetRepository budgetRepository,
+                         OutboxEventRepository outboxEventRepository,
+                         UserRepository userRepository,
+                         FxRateCache fxRateCache,
+                         PlatformTransactionManager transactionManager,
+                         List<BudgetAlertNotifier> notifiers,
+                         @Value("${budget.alert.thresholds:80,100}") int[] thresholds,
+                         @Value("${budget.tracker.max-users:10000}") int maxUsers) {
+        this.expenseRepository = expenseRepository;
+        this.budgetRepository = budgetRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userRepository = userRepository;
+        this.fxRateCache = fxRateCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.notifiers = notifiers;
+        this.thresholds = Arrays.stream(thresholds).sorted().toArray();
+        this.months = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserMonth> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+    
+    /**
+     * Apply the expense changes of one outbox event of the shard (null without sharding) and
+     * notify crossed thresholds
+     */
+    public void apply(String shard, Long userId, long eventId, Delta... deltas) {
+        YearMonth current = YearMonth.now();
+        String lane = lane(shard);
+        UserMonth state = months.get(userId);
+        if (state == null || !state.month.equals(current) || !state.shard.equals(lane)) {
+            state = seed(userId, current, lane);
+        }
+        
+        List<BudgetAlert> alerts = new ArrayList<>();
+        synchronized (state) {
+            if (!state.markApplied(eventId, deliveredUpTo(lane))) {
+                // Already part of the seed, or a redelivery
+                return;
+            }
+            for (Delta delta : deltas) {
+                if (!delta.isIn(current)) {
+                    continue;
+                }
+                BigDecimal amount = delta.currency == null ? delta.amount
+                    : fxRateCache.convert(delta.amount, delta.currency, state.baseCurrency, delta.date.toLocalDate());
+                BigDecimal before = state.total(delta.categoryId);
+                BigDecimal after = state.add(delta.categoryId, amount);
+                BigDecimal limit = state.limits.get(delta.categoryId);
+                if (limit != null) {
+                    collectCrossed(userId, delta.categoryId, current, limit, before, after, alerts);
+                }
+            }
+        }
+        
+        for (BudgetAlert alert : alerts) {
+            for (BudgetAlertNotifier notifier : notifiers) {
+                try {
+                    notifier.notify(alert);
+                } catch (RuntimeException e) {
+                    logger.error("Erro ao notificar alerta de orçamento", e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Current-month spending of the user in the category
+     */
+    public BigDecimal spent(Long userId, Long categoryId) {
+        YearMonth current = YearMonth.now();
+        String lane = lane(ShardContext.current());
+        UserMonth state = months.get(userId);
+        if (state == null || !state.month.equals(current) || !state.shard.equals(lane)) {
+            state = seed(userId, current, lane);
+        }
+        synchronized (state) {
+            return state.total(categoryId);
+        }
+    }
+    
+    /**
+     * Set or replace the category limit (no-op if the user is not loaded)
+     */
+    public void setLimit(Long userId, Long categoryId, BigDecimal limit) {
+        UserMonth state = months.get(userId);
+        if (state != null) {
+            synchronized (state) {
+                state.limits.put(categoryId, limit);
+            }
+        }
+    }
+    
+    /**
+     * Remove the category limit (no-op if the user is not loaded)
+     */
+    public void removeLimit(Long userId, Long categoryId) {
+        UserMonth state = months.get(userId);
+        if (state != null) {
+            synchronized (state) {
+                state.limits.remove(categoryId);
+            }
+        }
+    }
+    
+    /**
+     * Every outbox event of the shard (null without sharding) up to the id has been delivered to the tracker
+     */
+    public void setDeliveredUpTo(String shard, long upToId) {
+        deliveredUpTo.merge(lane(shard), upToId, Math::max);
+    }
+    
+    private long deliveredUpTo(String lane) {
+        return deliveredUpTo.getOrDefault(lane, 0L);
+    }
+    
+    private static String lane(String shard) {
+        return shard != null ? shard : "";
+    }
+    
+    /**
+     * Drop the user's totals; they are re-seeded on the next write
+     */
+    public void evict(Long userId) {
+        months.remove(userId);
+    }
+    
+    private void collectCrossed(Long userId, Long categoryId, YearMonth month, BigDecimal limit,
+                                BigDecimal before, BigDecimal after, List<BudgetAlert> alerts) {
+        for (int threshold : thresholds) {
+            BigDecimal boundary = limit.multiply(BigDecimal.valueOf(threshold)).divide(HUNDRED);
+            if (before.compareTo(boundary) < 0 && after.compareTo(boundary) >= 0) {
+                alerts.add(new BudgetAlert(userId, categoryId, month, threshold, limit, after));
+            }
+        }
+    }
+    
+    /**
+     * Load the user's totals from the current shard, whose outbox is the given lane
+     */
+    private UserMonth seed(Long userId, YearMonth month, String lane) {
+        logger.debug("Carregando totais do mês {} do usuário {}", month, userId);
+        UserMonth state = new UserMonth(month, lane);
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        // Eventos até floor já foram entregues; os posteriores do usuário visíveis no mesmo snapshot das somas
+        // já estão nelas, e os que ainda não tinham commit serão aplicados quando chegarem
+        long floor = deliveredUpTo(lane);
+        ReplicaRoutingDataSource.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            state.floor = floor;
+            state.applied.addAll(outboxEventRepository.findIdsByUserIdAfter(userId, floor));
+            String baseCurrency = userRepository.findBaseCurrencyById(userId);
+            if (baseCurrency != null) {
+                state.baseCurrency = baseCurrency;
+            }
+            state.totals.putAll(fxRateCache.sumConverted(
+                expenseRepository.sumByCategory(userId, start, start.plusMonths(1)), state.baseCurrency));
+            for (Budget budget : budgetRepository.findByUserId(userId)) {
+                state.limits.put(budget.getCategory().getId(), budget.getLimitAmount());
+            }
+            return null;
+        }));
+        months.put(userId, state);
+        return state;
+    }
+    
+    /**
+     * Signed change of one category's spending on a given date, in the given currency
+     * (null means the user's base currency)
+     */
+    public static final class Delta {
+        
+        private final Long categoryId;
+        private final LocalDateTime date;
+        private final BigDecimal amount;
+        private final String currency;
+        
+        private Delta(Long categoryId, LocalDateTime date, BigDecimal amount, String currency) {
+            this.categoryId = categoryId;
+            this.date = date;
+            this.amount = amount;
+            this.currency = currency;
+        }
+        
+        /**
+         * Spending in the category on the date changed by amount (negative for removals)
+         */
+        public static Delta of(Long categoryId, LocalDateTime date, BigDecimal amount, String currency) {
+            return new Delta(categoryId, date, amount != null ? amount : BigDecimal.ZERO, currency);
+        }
+        
+        /**
+         * The expense was created (or is the new state of an update)
+         */
+        public static Delta added(Expense expense) {
+            return of(expense, false);
+        }
+        
+        /**
+         * The expense was deleted (or is the previous state of an update)
+         */
+        public static Delta removed(Expense expense) {
+            return of(expense, true);
+        }
+        
+        private static Delta of(Expense expense, boolean negate) {
+            Long categoryId = expense.getCategory() != null ? expense.getCategory().getId() : null;
+            BigDecimal amount = expense.getAmount() != null ? expense.getAmount() : BigDecimal.ZERO;
+            return new Delta(categoryId, expense.getDate(), negate ? amount.negate() : amount, expense.getCurrency());
+        }
+        
+        private boolean isIn(YearMonth month) {
+            return categoryId != null && date != null && YearMonth.from(date).equals(month);
+        }
+    }
+    
+    private static final class UserMonth {
+        
+        private final YearMonth month;
+        // Shard cujo outbox numera os eventos do usuário
+        private final String shard;
+        private final Map<Long, BigDecimal> totals = new HashMap<>();
+        private final Map<Long, BigDecimal> limits = new HashMap<>();
+        private String baseCurrency = "BRL";
+        // Eventos até floor já estão nos totais; acima dele, os ids já aplicados (ou contidos na carga)
+        private long floor;
+        private final Set<Long> applied = new HashSet<>();
+        
+        UserMonth(YearMonth month, String shard) {
+            this.month = month;
+            this.shard = shard;
+        }
+        
+        /**
+         * Record the event as applied; false if it already was. Ids at or below what the dispatcher
+         * has fully delivered are no longer kept.
+         */
+        boolean markApplied(long eventId, long deliveredUpTo) {
+            if (deliveredUpTo > floor) {
+                floor = deliveredUpTo;
+                applied.removeIf(id -> id <= deliveredUpTo);
+            }
+            return eventId > floor && applied.add(eventId);
+        }
+        
+        BigDecimal total(Long categoryId) {
+            return totals.getOrDefault(categoryId, BigDecimal.ZERO);
+        }
+        
+        BigDecimal add(Long categoryId, BigDecimal amount) {
+            return totals.merge(categoryId, amount, BigDecimal::add);
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package com.expense.service;
 
+import com.expense.dto.request.CategoryPatchDTO;
 import com.expense.dto.request.CategoryRequestDTO;
+import com.expense.event.CacheInvalidator;
+import com.expense.event.ExpenseBulkEventPayload;
+import com.expense.event.OutboxPublisher;
 import com.expense.model.Category;
+import com.expense.model.DeletionJob;
+import com.expense.model.OutboxEvent;
+import com.expense.model.Tsid;
 import com.expense.model.User;
+import com.expense.repository.ArchivedExpenseRepository;
 import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.RecurringExpenseRepository;
 import com.expense.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,9 +39,31 @@ public class CategoryService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ExpenseRepository expenseRepository;
+    
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    
+    @Autowired
+    private FxRateCache fxRateCache;
+    
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+    
+    @Autowired
+    private DeletionPurger deletionPurger;
+    
     /**
      * Find all categories for a specific user
      */
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories(Long userId) {
         logger.info("Buscando categorias do usuário: {}", userId);
         return categoryRepository.findByUserId(userId);
@@ -36,11 +72,13 @@ public class CategoryService {
     /**
      * Find category by ID (only if belongs to user)
      */
+    @Transactional(readOnly = true)
     public Optional<Category> getCategoryById(Long id, Long userId) {
         logger.info("Buscando categoria {} do usuário {}", id, userId);
         return categoryRepository.findByIdAndUserId(id, userId);
     }
     
+    @Transactional(readOnly = true)
     public List<Category> findAll() {
         logger.debug("Buscando todas as categorias");
         List<Category> categories = categoryRepository.findAll();
@@ -48,6 +86,7 @@ public class CategoryService {
         return categories;
     }
     
+    @Transactional(readOnly = true)
     public Optional<Category> findById(Long id) {
         logger.debug("Buscando categoria com ID: {}", id);
         Optional<Category> category = categoryRepository.findById(id);
@@ -59,79 +98,169 @@ public class CategoryService {
         return category;
     }
     
-    public Optional<Category> findByName(String name) {
-        logger.debug("Buscando categoria com nome: {}", name);
-        Category category = categoryRepository.findByName(name);
-        return Optional.ofNullable(category);
-    }
-    
     /**
-     * Create new category for a user
+     * Create new category for a user, or return the user's category with the same name
      */
+    @Transactional
     public Category createCategory(CategoryRequestDTO categoryDTO, Long userId) {
         logger.info("Criando categoria para usuário: {}", userId);
+        if (categoryDTO.getName() == null || categoryDTO.getName().isBlank()) {
+            throw new IllegalArgumentException("Nome da categoria é obrigatório");
+        }
         
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         
-        Category category = new Category();
-        category.setName(categoryDTO.getName());
-        category.setDescription(categoryDTO.getDescription());
-        category.setColor(categoryDTO.getColor());
-        category.setIcon(categoryDTO.getIcon());
-        category.setUser(user);
-        category.setCreatedAt(LocalDateTime.now());
+        if (categoryDTO.getId() != null) {
+            // Id gerado offline pelo app: formato do Tsid (ordem por tempo) em um nó reservado aos clientes
+            if (!Tsid.isValid(categoryDTO.getId())) {
+                throw new IllegalArgumentException("Id de categoria inválido: " + categoryDTO.getId());
+            }
+            Optional<Category> existing = categoryRepository.findById(categoryDTO.getId());
+            if (existing.isPresent()) {
+                // Reenvio de uma categoria criada offline: devolve a já gravada
+                if (!existing.get().getUser().getId().equals(userId)) {
+                    throw new IdConflictException("Id de categoria já usado");
+                }
+                return existing.get();
+            }
+        }
         
-        return categoryRepository.save(category);
+        // Um único INSERT: o índice único (user_id, name) decide entre criar e reaproveitar, sem corrida
+        Long id = categoryDTO.getId() != null ? categoryDTO.getId() : Tsid.next();
+        categoryRepository.insertIfAbsent(id, user.getId(), categoryDTO.getName(), categoryDTO.getDescription(),
+            categoryDTO.getColor(), categoryDTO.getIcon(), LocalDateTime.now());
+        Category category = categoryRepository.findByUserIdAndName(userId, categoryDTO.getName())
+            // O id enviado pelo app pertence a uma categoria de outro usuário
+            .orElseThrow(() -> new IdConflictException("Id de categoria já usado"));
+        if (!category.getId().equals(id)) {
+            logger.info("Categoria '{}' já existe para o usuário {}: {}", categoryDTO.getName(), userId, category.getId());
+            return category;
+        }
+        
+        outboxPublisher.publish(OutboxEvent.CATEGORY_CREATED, category.getId(), userId, null);
+        cacheInvalidator.categoryChanged(category.getId());
+        return category;
     }
     
     /**
      * Update category (only if belongs to user)
      */
+    @Transactional
     public Category updateCategory(Long id, CategoryRequestDTO categoryDTO, Long userId) {
+        return updateCategory(id, categoryDTO, userId, null);
+    }
+    
+    /**
+     * Update category only if it is still at expectedVersion (null skips the check)
+     */
+    @Transactional
+    public Category updateCategory(Long id, CategoryRequestDTO categoryDTO, Long userId, Long expectedVersion) {
         logger.info("Atualizando categoria {} do usuário {}", id, userId);
         
         Category category = categoryRepository.findByIdAndUserId(id, userId)
             .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw new OptimisticLockingFailureException("Categoria alterada por outra requisição");
+        }
         
         category.setName(categoryDTO.getName());
         category.setDescription(categoryDTO.getDescription());
         category.setColor(categoryDTO.getColor());
         category.setIcon(categoryDTO.getIcon());
         
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        outboxPublisher.publish(OutboxEvent.CATEGORY_UPDATED, saved.getId(), userId, null);
+        cacheInvalidator.categoryChanged(saved.getId());
+        return saved;
     }
     
     /**
-     * Delete category (only if belongs to user)
+     * Partial update with a single conditional UPDATE (no prior SELECT of the category)
      */
-    public void deleteCategory(Long id, Long userId) {
-        logger.info("Deletando categoria {} do usuário {}", id, userId);
+    @Transactional
+    public Category patchCategory(Long id, CategoryPatchDTO patch, Long userId, long version) {
+        logger.info("Atualizando parcialmente categoria {} do usuário {} (versão {})", id, userId, version);
         
-        Category category = categoryRepository.findByIdAndUserId(id, userId)
+        int updated = categoryRepository.patch(id, userId, version, patch.getName(), patch.getDescription(),
+            patch.getColor(), patch.getIcon());
+        if (updated == 0) {
+            if (categoryRepository.existsByIdAndUserId(id, userId)) {
+                throw new OptimisticLockingFailureException("Categoria alterada por outra requisição");
+            }
+            throw new RuntimeException("Categoria não encontrada ou não pertence ao usuário");
+        }
+        outboxPublisher.publish(OutboxEvent.CATEGORY_UPDATED, id, userId, null);
+        cacheInvalidator.categoryChanged(id);
+        return categoryRepository.findByIdAndUserId(id, userId)
             .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+    }
+    
+    /**
+     * Delete category (only if belongs to user): one short transaction marks it deleted, so it
+     * leaves every listing and lookup at once, and queues the job that purges its expenses in
+     * chunks; its budget and recurring expenses go when the job deletes the category row
+     */
+    @Transactional
+    public DeletionJob deleteCategory(Long id, Long userId) {
+        logger.info("Deletando categoria {} do usuário {}", id, userId);
         
-        categoryRepository.delete(category);
+        if (categoryRepository.markDeleted(id, userId, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Categoria não encontrada ou não pertence ao usuário");
+        }
+        DeletionJob job = deletionPurger.schedule(DeletionJob.Target.CATEGORY, id, userId);
+        cacheInvalidator.categoryChanged(id);
+        logger.debug("Categoria {} marcada como removida, job de remoção {}", id, job.id());
+        return job;
+    }
+    
+    /**
+     * Latest deletion job of the category (only if belongs to user)
+     */
+    public Optional<DeletionJob> getDeletionJob(Long id, Long userId) {
+        return deletionPurger.findJob(DeletionJob.Target.CATEGORY, id)
+            .filter(job -> job.userId().equals(userId));
     }
     
-    public Category createCategory(CategoryRequestDTO categoryDTO) {
-        logger.debug("Criando nova categoria: {}", categoryDTO.getName());
+    /**
+     * Merge the source category into the target: expenses and recurring expenses move with
+     * set-based UPDATEs and the source is deleted (its budget goes with it).
+     * Returns the number of expenses moved.
+     */
+    @Transactional
+    public int mergeCategory(Long sourceId, Long targetId, Long userId) {
+        logger.info("Mesclando categoria {} na categoria {} do usuário {}", sourceId, targetId, userId);
         
-        if (categoryRepository.findByName(categoryDTO.getName()) != null) {
-            logger.error("Categoria já existe: {}", categoryDTO.getName());
-            throw new RuntimeException("Categoria já existe");
+        if (sourceId.equals(targetId)) {
+            throw new IllegalArgumentException("Categorias de origem e destino devem ser diferentes");
+        }
+        if (!categoryRepository.existsByIdAndUserId(sourceId, userId)
+                || !categoryRepository.existsByIdAndUserId(targetId, userId)) {
+            throw new RuntimeException("Categoria não encontrada ou não pertence ao usuário");
         }
         
-        Category category = new Category();
-        category.setName(categoryDTO.getName());
-        category.setDescription(categoryDTO.getDescription());
-        category.setColor(categoryDTO.getColor());
-        category.setIcon(categoryDTO.getIcon());
-        category.setCreatedAt(LocalDateTime.now());
+        YearMonth month = YearMonth.now();
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        String currency = userRepository.findBaseCurrencyById(userId);
+        if (currency == null) {
+            currency = fxRateCache.getReferenceCurrency();
+        }
+        BigDecimal monthTotal = fxRateCache.sumConverted(
+                expenseRepository.sumByCategory(userId, start, start.plusMonths(1)), currency)
+            .getOrDefault(sourceId, BigDecimal.ZERO);
         
-        Category saved = categoryRepository.save(category);
-        logger.debug("Categoria criada com ID: {}", saved.getId());
-        return saved;
+        int moved = expenseRepository.moveToCategory(userId, sourceId, targetId);
+        recurringExpenseRepository.moveToCategory(userId, sourceId, targetId);
+        archivedExpenseRepository.moveToCategory(userId, sourceId, targetId);
+        categoryRepository.deleteByIdAndUserId(sourceId, userId);
+        
+        ExpenseBulkEventPayload payload = new ExpenseBulkEventPayload(month, currency)
+            .add(sourceId, monthTotal.negate())
+            .add(targetId, monthTotal);
+        payload.setRemovedCategoryId(sourceId);
+        outboxPublisher.publish(OutboxEvent.EXPENSES_BULK_CHANGED, sourceId, userId, payload);
+        cacheInvalidator.categoryChanged(sourceId);
+        return moved;
     }
     
     public Category save(Category category) {
@@ -144,36 +273,11 @@ public class CategoryService {
             logger.debug("Atualizando categoria ID {}: {}", category.getId(), category.getName());
         }
         Category saved = categoryRepository.save(category);
+        cacheInvalidator.categoryChanged(saved.getId());
         logger.debug("Categoria salva com ID: {}", saved.getId());
         return saved;
     }
     
-    public Category updateCategory(Long id, CategoryRequestDTO categoryDTO) {
-        logger.debug("Atualizando categoria ID: {}", id);
-        
-        Category category = categoryRepository.findById(id)
-            .orElseThrow(() -> {
-                logger.error("Categoria não encontrada: {}", id);
-                return new RuntimeException("Categoria não encontrada");
-            });
-        
-        if (!category.getName().equals(categoryDTO.getName())) {
-            if (categoryRepository.findByName(categoryDTO.getName()) != null) {
-                logger.error("Nome de categoria já existe: {}", categoryDTO.getName());
-                throw new RuntimeException("Nome de categoria já existe");
-            }
-            category.setName(categoryDTO.getName());
-        }
-        
-        category.setDescription(categoryDTO.getDescription());
-        category.setColor(categoryDTO.getColor());
-        category.setIcon(categoryDTO.getIcon());
-        
-        Category saved = categoryRepository.save(category);
-        logger.debug("Categoria {} atualizada com sucesso", id);
-        return saved;
-    }
-    
     public void deleteById(Long id) {
         logger.debug("Deletando categoria com ID: {}", id);
         if (!categoryRepository.existsById(id)) {
@@ -181,9 +285,11 @@ public class CategoryService {
             throw new RuntimeException("Categoria não encontrada");
         }
         categoryRepository.deleteById(id);
+        cacheInvalidator.categoryChanged(id);
         logger.debug("Categoria {} deletada com sucesso", id);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         logger.debug("Verificando existência da categoria com ID: {}", id);
         boolean exists = categoryRepository.existsById(id);
@@ -191,13 +297,7 @@ public class CategoryService {
         return exists;
     }
     
-    public boolean existsByName(String name) {
-        logger.debug("Verificando existência da categoria com nome: {}", name);
-        boolean exists = categoryRepository.findByName(name) != null;
-        logger.debug("Categoria '{}' existe: {}", name, exists);
-        return exists;
-    }
-    
+    @Transactional(readOnly = true)
     public long count() {
         logger.debug("Contando total de categorias");
         long total = categoryRepository.count();
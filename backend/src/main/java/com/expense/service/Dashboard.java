@@ -0,0 +1,40 @@
+package com.expense.service;
+
+import com.expense.dto.response.GraficoResponseDTO;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Home screen data of one user for a month. A part that did not load in time is null and its
+ * name is listed in missing.
+ */
+public record Dashboard(YearMonth month, List<GraficoResponseDTO> categoryTotals, List<Expense> recentExpenses,
+                        List<Category> categories, List<String> missing) {
+
+    /**
+     * Month total in the user's base currency (sum of the category totals), or null when they are missing
+     */
+    public BigDecimal monthTotal() {
+        if (categoryTotals == null) {
+            return null;
+        }
+        return categoryTotals.stream()
+            .map(GraficoResponseDTO::getTotalValue)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public boolean isPartial() {
+        return !missing.isEmpty();
+    }
+
+    /**
+     * No part loaded in time
+     */
+    public boolean isEmpty() {
+        return categoryTotals == null && recentExpenses == null && categories == null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.dto.response.GraficoResponseDTO;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Loads the home screen in one call: the month's category totals, the latest expenses and the
+ * category list are read concurrently, each on its own virtual thread (and its own read-only
+ * transaction), under one deadline. Parts still running at the deadline are cancelled and
+ * reported as missing instead of failing the whole response.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    public static final String CATEGORY_TOTALS = "categoryTotals";
+    public static final String RECENT_EXPENSES = "recentExpenses";
+    public static final String CATEGORIES = "categories";
+
+    // Despesas mais recentes mostradas na tela inicial
+    public static final int RECENT_EXPENSES_SIZE = 20;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    // Prazo total das consultas do painel; o que não terminar até lá volta como parte faltante
+    @Value("${dashboard.timeout-ms:2000}")
+    private long timeoutMs = 2000;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Dashboard of the user for the month. Returns once every part finished or the deadline passed,
+     * whichever comes first; no part keeps running after this returns (late ones are interrupted).
+     */
+    public Dashboard getDashboard(Long userId, YearMonth month) {
+        logger.info("Montando o painel do usuário {} para {}", userId, month);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Future<List<GraficoResponseDTO>> categoryTotals = fork(() ->
+            expenseService.summarizeByCategory(userId, month.atDay(1), month.atEndOfMonth()));
+        Future<List<Expense>> recentExpenses = fork(() ->
+            expenseService.getExpensesPage(userId, 0, RECENT_EXPENSES_SIZE).getContent());
+        Future<List<Category>> categories = fork(() -> categoryService.getAllCategories(userId));
+
+        List<String> missing = new ArrayList<>();
+        try {
+            return new Dashboard(month,
+                join(CATEGORY_TOTALS, categoryTotals, deadline, userId, missing),
+                join(RECENT_EXPENSES, recentExpenses, deadline, userId, missing),
+                join(CATEGORIES, categories, deadline, userId, missing),
+                missing);
+        } finally {
+            // Nada continua rodando depois da resposta (sem efeito nas partes já concluídas)
+            categoryTotals.cancel(true);
+            recentExpenses.cancel(true);
+            categories.cancel(true);
+        }
+    }
+
+    /**
+     * Start the part on a virtual thread with the caller's shard and authentication (read-replica
+     * routing keeps the user's reads on the primary right after a write)
+     */
+    private <T> Future<T> fork(Supplier<T> part) {
+        String shard = ShardContext.current();
+        SecurityContext security = SecurityContextHolder.getContext();
+        return executor.submit(() -> {
+            SecurityContextHolder.setContext(security);
+            try {
+                return ShardContext.callIn(shard, part);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    /**
+     * Wait for the part until the deadline; a part that timed out or failed is recorded as missing
+     */
+    private <T> T join(String name, Future<T> part, long deadline, Long userId, List<String> missing) {
+        try {
+            return part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Parte {} do painel do usuário {} não terminou em {} ms", name, userId, timeoutMs);
+        } catch (ExecutionException e) {
+            logger.error("Erro ao carregar a parte {} do painel do usuário {}", name, userId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        missing.add(name);
+        return null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,350 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import com.expense.event.CacheInvalidator;
+import com.expense.event.OutboxPublisher;
+import com.expense.model.Category;
+import com.expense.model.DeletionJob;
+import com.expense.model.OutboxEvent;
+import com.expense.model.Tsid;
+import com.expense.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Purges deleted accounts and categories in the background, on the node holding the
+ * "deletion-purge" lease. Deleting only marks the row (deleted_at) and queues a deletion_job
+ * in the same transaction. This job then deletes the expenses and archived expenses in chunks,
+ * each chunk one short transaction picked by keyset on (date, id) with a pause after it, and
+ * finally the few remaining rows (recurring expenses, budgets, categories, the user) in one
+ * transaction. A run gives each pending job at most chunks-per-run chunks, so one heavy
+ * account does not hold back the others; the cursor is kept in the job row across runs.
+ */
+@Component
+public class DeletionPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeletionPurger.class);
+
+    static final String JOB_NAME = "deletion-purge";
+
+    // Etapas de um job: despesas, despesas arquivadas e por fim o que resta, em uma transação
+    static final String STAGE_EXPENSES = "EXPENSES";
+    static final String STAGE_ARCHIVE = "ARCHIVE";
+    static final String STAGE_FINISH = "FINISH";
+
+    static final String INSERT_JOB = "INSERT INTO deletion_job (id, target, target_id, user_id, status, stage, "
+            + "purged_rows, created_at, updated_at) VALUES (?, ?, ?, ?, 'PENDING', 'EXPENSES', 0, ?, ?)";
+
+    static final String JOB_COLUMNS = "SELECT id, target, target_id, user_id, status, purged_rows, created_at, "
+            + "updated_at, finished_at FROM deletion_job ";
+
+    static final String FIND_JOB = JOB_COLUMNS + "WHERE target = ? AND target_id = ? ORDER BY id DESC LIMIT 1";
+
+    static final String SELECT_PENDING = JOB_COLUMNS + "WHERE status IN ('PENDING', 'RUNNING') ORDER BY id LIMIT ?";
+
+    // FOR UPDATE: o job é a fonte do cursor, um chunk por vez
+    static final String LOCK_JOB = "SELECT status, stage, cursor_date, cursor_id FROM deletion_job WHERE id = ? FOR UPDATE";
+
+    // Próximo chunk pelos índices (user_id, date, id) e (user_id, category_id, date, id); o keyset
+    // não passa de novo pelas linhas já apagadas
+    static final String FIRST_CHUNK = "SELECT id, date FROM %s WHERE %s ORDER BY date, id LIMIT ?";
+
+    static final String NEXT_CHUNK = "SELECT id, date FROM %s WHERE %s AND (date > ? OR (date = ? AND id > ?)) "
+            + "ORDER BY date, id LIMIT ?";
+
+    static final String DELETE_CHUNK = "DELETE FROM %s WHERE id IN (%s)";
+
+    static final String PROGRESS = "UPDATE deletion_job SET status = 'RUNNING', stage = ?, purged_rows = purged_rows + ?, "
+            + "cursor_date = ?, cursor_id = ?, last_error = NULL, updated_at = ? WHERE id = ?";
+
+    static final String DONE = "UPDATE deletion_job SET status = 'DONE', purged_rows = purged_rows + ?, "
+            + "cursor_date = NULL, cursor_id = NULL, last_error = NULL, updated_at = ?, finished_at = ? WHERE id = ?";
+
+    static final String FAILED = "UPDATE deletion_job SET last_error = ?, updated_at = ? WHERE id = ?";
+
+    static final String PURGE_DONE = "DELETE FROM deletion_job WHERE status = 'DONE' AND finished_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SchedulerLock schedulerLock;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    @Value("${deletion.purge.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${deletion.purge.chunks-per-run:50}")
+    private int chunksPerRun = 50;
+
+    @Value("${deletion.purge.pause-ms:50}")
+    private long pauseMs = 50;
+
+    @Value("${deletion.purge.jobs-per-run:100}")
+    private int jobsPerRun = 100;
+
+    @Value("${deletion.purge.retention-hours:168}")
+    private long retentionHours = 168;
+
+    @Value("${deletion.purge.lease-seconds:300}")
+    private long leaseSeconds = 300;
+
+    /**
+     * Queue the purge of a row just marked deleted. Runs in the caller's transaction, so the
+     * job exists exactly when the mark does; the recurring expenses stop at once, so no new
+     * expense appears behind the cursor.
+     */
+    public DeletionJob schedule(DeletionJob.Target target, Long targetId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        long id = Tsid.next();
+        jdbcTemplate.update(INSERT_JOB, id, target.name(), targetId, userId, Timestamp.valueOf(now), Timestamp.valueOf(now));
+        if (target == DeletionJob.Target.USER) {
+            jdbcTemplate.update("UPDATE recurring_expense SET active = FALSE WHERE user_id = ?", userId);
+        } else {
+            jdbcTemplate.update("UPDATE recurring_expense SET active = FALSE WHERE user_id = ? AND category_id = ?",
+                userId, targetId);
+        }
+        return new DeletionJob(id, target, targetId, userId, DeletionJob.Status.PENDING, 0, now, now, null);
+    }
+
+    /**
+     * Latest purge job of the account or category
+     */
+    public Optional<DeletionJob> findJob(DeletionJob.Target target, Long targetId) {
+        return jdbcTemplate.query(FIND_JOB, JOB_MAPPER, target.name(), targetId).stream().findFirst();
+    }
+
+    @Scheduled(fixedDelayString = "${deletion.purge.delay-ms:1000}")
+    public void run() {
+        ShardContext.forEachShard(shardDirectory, this::purgePending);
+    }
+
+    /**
+     * Advance every pending job of this shard by up to chunks-per-run chunks. Returns the number
+     * of jobs finished.
+     */
+    public int purgePending() {
+        Duration lease = Duration.ofSeconds(leaseSeconds);
+        if (!schedulerLock.tryAcquire(JOB_NAME, lease)) {
+            return 0;
+        }
+        try {
+            int finished = 0;
+            for (DeletionJob job : jdbcTemplate.query(SELECT_PENDING, JOB_MAPPER, jobsPerRun)) {
+                try {
+                    if (purge(job)) {
+                        finished++;
+                    }
+                } catch (RuntimeException e) {
+                    // Tenta de novo na próxima execução, a partir do último chunk confirmado
+                    logger.error("Falha no job de remoção {} ({} {})", job.id(), job.target(), job.targetId(), e);
+                    jdbcTemplate.update(FAILED, abbreviate(String.valueOf(e.getMessage())),
+                        Timestamp.valueOf(LocalDateTime.now()), job.id());
+                }
+                // Renova o lease entre jobs; se outro nó assumiu, para aqui
+                if (Thread.currentThread().isInterrupted() || !schedulerLock.tryAcquire(JOB_NAME, lease)) {
+                    break;
+                }
+            }
+            jdbcTemplate.update(PURGE_DONE, Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+            return finished;
+        } finally {
+            schedulerLock.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * Run up to chunks-per-run chunks of the job. Returns true once the job is done.
+     */
+    private boolean purge(DeletionJob job) {
+        for (int chunk = 0; chunk < chunksPerRun; chunk++) {
+            Boolean more = transactionTemplate.execute(status -> purgeChunk(job));
+            if (!Boolean.TRUE.equals(more)) {
+                return finish(job);
+            }
+            // Pausa entre chunks: as escritas dos outros usuários e a replicação acompanham
+            if (!pause()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delete the next chunk of expenses or archived expenses. Returns false when only the
+     * final step is left.
+     */
+    private boolean purgeChunk(DeletionJob job) {
+        Map<String, Object> state = jdbcTemplate.queryForMap(LOCK_JOB, job.id());
+        String stage = (String) state.get("stage");
+        if ("DONE".equals(state.get("status")) || STAGE_FINISH.equals(stage)) {
+            return false;
+        }
+        String table = STAGE_EXPENSES.equals(stage) ? "expense" : "expense_archive";
+        String filter = job.target() == DeletionJob.Target.USER ? "user_id = ?" : "user_id = ? AND category_id = ?";
+        List<Object> args = new ArrayList<>();
+        args.add(job.userId());
+        if (job.target() == DeletionJob.Target.CATEGORY) {
+            args.add(job.targetId());
+        }
+        Timestamp cursorDate = toTimestamp(state.get("cursor_date"));
+        String sql;
+        if (cursorDate == null) {
+            sql = String.format(FIRST_CHUNK, table, filter);
+        } else {
+            sql = String.format(NEXT_CHUNK, table, filter);
+            args.add(cursorDate);
+            args.add(cursorDate);
+            args.add(((Number) state.get("cursor_id")).longValue());
+        }
+        args.add(chunkSize);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, args.toArray());
+
+        if (!rows.isEmpty()) {
+            List<Object> ids = new ArrayList<>(rows.size());
+            rows.forEach(row -> ids.add(((Number) row.get("id")).longValue()));
+            jdbcTemplate.update(String.format(DELETE_CHUNK, table, String.join(", ", Collections.nCopies(ids.size(), "?"))),
+                ids.toArray());
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (rows.size() < chunkSize) {
+            // Tabela esgotada: a próxima etapa começa do início
+            String next = STAGE_EXPENSES.equals(stage) ? STAGE_ARCHIVE : STAGE_FINISH;
+            jdbcTemplate.update(PROGRESS, next, rows.size(), null, null, now, job.id());
+        } else {
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            jdbcTemplate.update(PROGRESS, stage, rows.size(), toTimestamp(last.get("date")), last.get("id"), now, job.id());
+        }
+        return true;
+    }
+
+    /**
+     * Final step, in one transaction: leftovers, then the category or the account itself.
+     * Returns false if another run already finished the job.
+     */
+    private boolean finish(DeletionJob job) {
+        // Email da conta para o diretório de shards, lido antes de a linha sair
+        List<String> emails = job.target() == DeletionJob.Target.USER
+            ? jdbcTemplate.queryForList("SELECT email FROM user WHERE id = ?", String.class, job.userId())
+            : List.of();
+        Boolean finished = transactionTemplate.execute(status -> {
+            Map<String, Object> state = jdbcTemplate.queryForMap(LOCK_JOB, job.id());
+            if ("DONE".equals(state.get("status"))) {
+                return false;
+            }
+            int purged = job.target() == DeletionJob.Target.CATEGORY
+                ? deleteCategory(job.targetId(), job.userId())
+                : deleteUser(job.userId());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.update(DONE, purged, now, now, job.id());
+            return true;
+        });
+        if (!Boolean.TRUE.equals(finished)) {
+            return false;
+        }
+        // As linhas saíram por JDBC: o cache deste nó também descarta a entidade
+        if (job.target() == DeletionJob.Target.CATEGORY) {
+            entityManagerFactory.getCache().evict(Category.class, job.targetId());
+        } else {
+            entityManagerFactory.getCache().evict(User.class, job.userId());
+            if (shardDirectory != null && !emails.isEmpty()) {
+                shardDirectory.remove(job.userId(), emails.get(0));
+            }
+        }
+        logger.info("Job de remoção {} concluído ({} {})", job.id(), job.target(), job.targetId());
+        return true;
+    }
+
+    private int deleteCategory(Long categoryId, Long userId) {
+        // Sobras de escritas concorrentes com a marcação (normalmente nenhuma)
+        int purged = jdbcTemplate.update("DELETE FROM expense WHERE user_id = ? AND category_id = ?", userId, categoryId);
+        purged += jdbcTemplate.update("DELETE FROM expense_archive WHERE user_id = ? AND category_id = ?", userId, categoryId);
+        // Orçamento e despesas recorrentes vão junto (ON DELETE CASCADE)
+        purged += jdbcTemplate.update("DELETE FROM categories WHERE id = ? AND user_id = ?", categoryId, userId);
+        // Consumidores recarregam o estado do usuário sem a categoria
+        outboxPublisher.publish(OutboxEvent.CATEGORY_DELETED, categoryId, userId, null);
+        cacheInvalidator.categoryChanged(categoryId);
+        return purged;
+    }
+
+    private int deleteUser(Long userId) {
+        int purged = jdbcTemplate.update("DELETE FROM expense WHERE user_id = ?", userId);
+        purged += jdbcTemplate.update("DELETE FROM expense_archive WHERE user_id = ?", userId);
+        purged += jdbcTemplate.update("DELETE FROM budget WHERE user_id = ?", userId);
+        purged += jdbcTemplate.update("DELETE FROM recurring_expense WHERE user_id = ?", userId);
+        purged += jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", userId);
+        purged += jdbcTemplate.update("DELETE FROM idempotency_key WHERE user_id = ?", userId);
+        purged += jdbcTemplate.update("DELETE FROM user WHERE id = ?", userId);
+        cacheInvalidator.userChanged(userId, true);
+        return purged;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // O driver devolve DATETIME como LocalDateTime (Connector/J 8, H2) ou Timestamp
+    private static Timestamp toTimestamp(Object value) {
+        return value instanceof LocalDateTime dateTime ? Timestamp.valueOf(dateTime) : (Timestamp) value;
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static final RowMapper<DeletionJob> JOB_MAPPER = (rs, row) -> new DeletionJob(
+        rs.getLong("id"),
+        DeletionJob.Target.valueOf(rs.getString("target")),
+        rs.getLong("target_id"),
+        rs.getLong("user_id"),
+        DeletionJob.Status.valueOf(rs.getString("status")),
+        rs.getLong("purged_rows"),
+        toLocalDateTime(rs.getTimestamp("created_at")),
+        toLocalDateTime(rs.getTimestamp("updated_at")),
+        toLocalDateTime(rs.getTimestamp("finished_at")));
+}
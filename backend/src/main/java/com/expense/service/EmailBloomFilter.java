@@ -0,0 +1,150 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import com.expense.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over the normalized emails of all users, so the availability hint of the
+ * sign-up form is answered without a query for emails that were never registered. A positive
+ * only means "maybe": callers confirm it in the database. The filter lives in each process and
+ * only learns registrations made on this node, so a negative is a hint, never the answer for
+ * a registration or email change (those use the indexed lookup). Built from one streamed
+ * SELECT when the application is ready (until then every email is a "maybe") and updated on
+ * registration; emails of deleted users stay in it until the next rebuild, costing only a DB check.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int bitCount;
+    private final int hashCount;
+    private volatile AtomicLongArray bits;
+    private volatile AtomicLongArray building;
+
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${user.email-filter.expected-users:1000000}") int expectedUsers,
+                            @Value("${user.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.min(Math.max(optimalBits, 64), Integer.MAX_VALUE - 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedUsers * ln2));
+    }
+
+    /**
+     * Rebuild from the user table (of every shard); registrations during the scan go to both filters
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        AtomicLongArray next = new AtomicLongArray((bitCount + 63) / 64);
+        building = next;
+        try {
+            long[] count = {0};
+            ShardContext.forEachShard(shardDirectory, () -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        set(next, email);
+                        count[0]++;
+                    });
+                }
+            }));
+            bits = next;
+            logger.info("Filtro de emails carregado: {} usuários, {} bits, {} hashes", count[0], bitCount, hashCount);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao carregar o filtro de emails; verificações seguem no banco", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * False only if the email is certainly not registered
+     */
+    public boolean mightContain(String email) {
+        AtomicLongArray current = bits;
+        if (current == null || email == null) {
+            return true;
+        }
+        long hash = hash(normalize(email));
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod((int) hash + i * step, bitCount);
+            if ((current.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record a registered (or changed) email
+     */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        AtomicLongArray current = bits;
+        AtomicLongArray next = building;
+        if (current != null) {
+            set(current, email);
+        }
+        if (next != null) {
+            set(next, email);
+        }
+    }
+
+    /**
+     * Form used by the unique index and by every lookup: trimmed and lower-case
+     */
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void set(AtomicLongArray target, String email) {
+        long hash = hash(normalize(email));
+        int step = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod((int) hash + i * step, bitCount);
+            long mask = 1L << bit;
+            target.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+        }
+    }
+
+    // FNV-1a de 64 bits com finalização do MurmurHash3: as duas metades geram os k índices
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb3fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,217 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import com.expense.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Daily maintenance of the expense table, on the node holding the "expense-archive" lease.
+ * When the table is partitioned by month (migration in db/partitioning) it splits p_future
+ * so there is always a partition for each of the next months; on an unpartitioned table
+ * (or H2) that step is skipped. With archiving enabled it then moves expenses older than
+ * the horizon to expense_archive in chunks, each chunk one transaction (copy, delete and one
+ * EXPENSES_CHANGED outbox event per user), so a failed run leaves no row in both tables.
+ */
+@Component
+public class ExpenseArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseArchiver.class);
+
+    static final String JOB_NAME = "expense-archive";
+
+    static final String PARTITIONS = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'expense' AND PARTITION_NAME IS NOT NULL "
+            + "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    // FOR UPDATE: uma alteração concorrente espera o fim do chunk em vez de se perder na cópia
+    static final String SELECT_OLD = "SELECT id, user_id FROM expense WHERE date < ? ORDER BY date, id LIMIT ? FOR UPDATE";
+
+    static final String COPY = "INSERT INTO expense_archive (id, description, amount, currency, date, category_id, user_id, "
+            + "created_at, recurring_expense_id, occurrence_date, version, archived_at) "
+            + "SELECT id, description, amount, currency, date, category_id, user_id, "
+            + "created_at, recurring_expense_id, occurrence_date, version, ? FROM expense WHERE id IN (%s)";
+
+    static final String DELETE = "DELETE FROM expense WHERE id IN (%s)";
+
+    static final String FUTURE_PARTITION = "p_future";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SchedulerLock schedulerLock;
+
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    @Value("${expense.archive.enabled:false}")
+    private boolean archiveEnabled = false;
+
+    @Value("${expense.archive.horizon-months:24}")
+    private int horizonMonths = 24;
+
+    @Value("${expense.archive.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    @Value("${expense.archive.lease-seconds:600}")
+    private long leaseSeconds = 600;
+
+    @Value("${expense.partitions.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Scheduled(cron = "${expense.archive.cron:0 30 3 * * *}")
+    public void run() {
+        LocalDate today = LocalDate.now();
+        ShardContext.forEachShard(shardDirectory, () -> maintain(today));
+    }
+
+    /**
+     * Create upcoming partitions and archive old expenses. Returns the number of expenses archived.
+     */
+    public int maintain(LocalDate today) {
+        Duration lease = Duration.ofSeconds(leaseSeconds);
+        if (!schedulerLock.tryAcquire(JOB_NAME, lease)) {
+            return 0;
+        }
+        try {
+            createPartitions(today);
+            return archiveEnabled ? archive(cutoff(today, horizonMonths), lease) : 0;
+        } finally {
+            schedulerLock.release(JOB_NAME);
+        }
+    }
+
+    /**
+     * First day kept in the expense table: the start of the month horizonMonths before today
+     */
+    static LocalDate cutoff(LocalDate today, int horizonMonths) {
+        return YearMonth.from(today).minusMonths(horizonMonths).atDay(1);
+    }
+
+    private void createPartitions(LocalDate today) {
+        List<Map<String, Object>> partitions;
+        try {
+            partitions = jdbcTemplate.queryForList(PARTITIONS);
+        } catch (DataAccessException e) {
+            // Banco sem information_schema.PARTITIONS (H2): nada a particionar
+            logger.debug("Partições de expense indisponíveis: {}", e.getMessage());
+            return;
+        }
+        int future = -1;
+        for (int i = 0; i < partitions.size(); i++) {
+            if (FUTURE_PARTITION.equals(partitions.get(i).get("PARTITION_NAME"))) {
+                future = i;
+            }
+        }
+        if (future < 1) {
+            // Tabela sem particionamento (ou com outro esquema): nada a fazer
+            return;
+        }
+        LocalDate bound = upperBound(String.valueOf(partitions.get(future - 1).get("PARTITION_DESCRIPTION")));
+        String statement = reorganize(bound, YearMonth.from(today).plusMonths(monthsAhead));
+        if (statement != null) {
+            jdbcTemplate.execute(statement);
+            logger.info("Partições de expense criadas a partir de {}", bound);
+        }
+    }
+
+    /**
+     * Day in a RANGE COLUMNS bound as listed by information_schema ('2025-01-01' or
+     * '2025-01-01 00:00:00', with quotes)
+     */
+    static LocalDate upperBound(String description) {
+        return LocalDate.parse(description.replace("'", "").trim().substring(0, 10));
+    }
+
+    /**
+     * Split p_future into one partition per month from the month starting at bound through
+     * lastMonth. Returns null when those partitions already exist.
+     */
+    static String reorganize(LocalDate bound, YearMonth lastMonth) {
+        YearMonth month = YearMonth.from(bound);
+        if (month.isAfter(lastMonth)) {
+            return null;
+        }
+        StringBuilder sql = new StringBuilder("ALTER TABLE expense REORGANIZE PARTITION ")
+            .append(FUTURE_PARTITION).append(" INTO (");
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            sql.append("PARTITION ").append(month.format(PARTITION_NAME))
+                .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+        }
+        return sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))").toString();
+    }
+
+    private int archive(LocalDate cutoff, Duration lease) {
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            archived += moved != null ? moved : 0;
+            if (moved == null || moved < chunkSize) {
+                break;
+            }
+            // Renova o lease entre chunks; se outro nó assumiu, para aqui
+            if (!schedulerLock.tryAcquire(JOB_NAME, lease)) {
+                logger.warn("Lease do job {} perdido após {} despesas arquivadas", JOB_NAME, archived);
+                break;
+            }
+        }
+        if (archived > 0) {
+            logger.info("{} despesas anteriores a {} arquivadas", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDate cutoff) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_OLD,
+            Timestamp.valueOf(cutoff.atStartOfDay()), chunkSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Object> ids = new ArrayList<>(rows.size());
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            ids.add(((Number) row.get("id")).longValue());
+            userIds.add(((Number) row.get("user_id")).longValue());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object> copyArgs = new ArrayList<>(ids.size() + 1);
+        copyArgs.add(now);
+        copyArgs.addAll(ids);
+        jdbcTemplate.update(String.format(COPY, placeholders), copyArgs.toArray());
+        jdbcTemplate.update(String.format(DELETE, placeholders), ids.toArray());
+
+        List<Object[]> events = new ArrayList<>();
+        userIds.forEach(userId -> events.add(new Object[]{OutboxEvent.EXPENSES_CHANGED, userId, now}));
+        jdbcTemplate.batchUpdate(RecurringExpenseMaterializer.INSERT_EVENT, events);
+        return ids.size();
+    }
+}
@@ -0,0 +1,208 @@
+package com.expense.service;
+
+import com.expense.model.Expense;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over expense descriptions, one index per user.
+ * A user's index is built on first search and kept in sync by ExpenseService writes.
+ */
+@Component
+public class ExpenseSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, UserIndex> indexes;
+
+    public ExpenseSearchIndex(@Value("${expense.search.memory.max-users:1000}") int maxUsers) {
+        this.indexes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserIndex> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    /**
+     * Check if the user's index is loaded
+     */
+    public boolean isLoaded(Long userId) {
+        return indexes.containsKey(userId);
+    }
+
+    /**
+     * Build (or rebuild) the user's index from all of their expenses
+     */
+    public void load(Long userId, Collection<Expense> expenses) {
+        UserIndex index = new UserIndex();
+        for (Expense expense : expenses) {
+            index.put(expense.getId(), expense.getDescription(), expense.getDate());
+        }
+        indexes.put(userId, index);
+    }
+
+    /**
+     * Add or replace an expense in its owner's index (no-op if the index is not loaded)
+     */
+    public void index(Expense expense) {
+        if (expense.getUser() == null || expense.getId() == null) {
+            return;
+        }
+        UserIndex index = indexes.get(expense.getUser().getId());
+        if (index != null) {
+            index.put(expense.getId(), expense.getDescription(), expense.getDate());
+        }
+    }
+
+    /**
+     * Remove an expense from its owner's index (no-op if the index is not loaded)
+     */
+    public void remove(Long userId, Long expenseId) {
+        UserIndex index = indexes.get(userId);
+        if (index != null) {
+            index.remove(expenseId);
+        }
+    }
+
+    /**
+     * Remove an expense whose owner is unknown from every loaded index
+     */
+    public void remove(Long expenseId) {
+        synchronized (indexes) {
+            indexes.values().forEach(index -> index.remove(expenseId));
+        }
+    }
+
+    /**
+     * Drop the user's index; it is rebuilt on the next search
+     */
+    public void evict(Long userId) {
+        indexes.remove(userId);
+    }
+
+    /**
+     * Search the user's index. Every query term must prefix-match a word of the description.
+     * Results are ranked by number of exact word matches, then by most recent date.
+     */
+    public List<Long> search(Long userId, String query) {
+        UserIndex index = indexes.get(userId);
+        List<String> terms = tokenize(query);
+        if (index == null || terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return index.search(terms);
+    }
+
+    /**
+     * Split text into lowercase, accent-free words
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class UserIndex {
+
+        private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        synchronized void put(Long id, String description, LocalDateTime date) {
+            remove(id);
+            Set<String> tokens = new HashSet<>(tokenize(description));
+            documents.put(id, new Document(tokens, date));
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(id);
+            }
+        }
+
+        synchronized void remove(Long id) {
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String token : previous.tokens) {
+                Set<Long> ids = postings.get(token);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+
+        synchronized List<Long> search(List<String> terms) {
+            Set<Long> matches = null;
+            for (String term : terms) {
+                Set<Long> termMatches = new HashSet<>();
+                SortedMap<String, Set<Long>> prefixed = postings.subMap(term, term + Character.MAX_VALUE);
+                prefixed.values().forEach(termMatches::addAll);
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.retainAll(termMatches);
+                }
+                if (matches.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+
+            Map<Long, Integer> scores = new HashMap<>();
+            for (Long id : matches) {
+                Document document = documents.get(id);
+                int score = 0;
+                for (String term : terms) {
+                    if (document.tokens.contains(term)) {
+                        score++;
+                    }
+                }
+                scores.put(id, score);
+            }
+
+            List<Long> ranked = new ArrayList<>(matches);
+            ranked.sort(Comparator.<Long>comparingInt(scores::get).reversed()
+                    .thenComparing(id -> documents.get(id).date, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Comparator.reverseOrder()));
+            return ranked;
+        }
+    }
+
+    private static final class Document {
+
+        private final Set<String> tokens;
+        private final LocalDateTime date;
+
+        Document(Set<String> tokens, LocalDateTime date) {
+            this.tokens = tokens;
+            this.date = date;
+        }
+    }
+}
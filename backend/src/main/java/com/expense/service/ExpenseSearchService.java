@@ -0,0 +1,107 @@
+package com.expense.service;
+
+import com.expense.model.Expense;
+import com.expense.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Description search over a user's expenses.
+ * Engine is selected by expense.search.engine:
+ * fulltext (MySQL FULLTEXT index), like (portable fallback, used with H2) or memory (in-process inverted index).
+ */
+@Service
+public class ExpenseSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseSearchService.class);
+
+    public static final String ENGINE_FULLTEXT = "fulltext";
+    public static final String ENGINE_LIKE = "like";
+    public static final String ENGINE_MEMORY = "memory";
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private ExpenseSearchIndex expenseSearchIndex;
+
+    @Value("${expense.search.engine:fulltext}")
+    private String engine = ENGINE_FULLTEXT;
+
+    /**
+     * Search the user's expenses by description, ranked and paginated
+     */
+    public Page<Expense> search(Long userId, String query, int page, int size) {
+        // O texto buscado pode conter dados pessoais: só em DEBUG
+        logger.debug("Buscando despesas do usuário {} por '{}' (engine: {})", userId, query, engine);
+        Pageable pageable = PageRequest.of(page, size);
+
+        List<String> terms = ExpenseSearchIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        switch (engine) {
+            case ENGINE_MEMORY:
+                return searchInMemory(userId, query, pageable);
+            case ENGINE_LIKE:
+                return expenseRepository.searchByDescriptionLike(userId, escapeLike(query.trim()), pageable);
+            default:
+                return expenseRepository.searchByDescription(userId, toBooleanQuery(terms), pageable);
+        }
+    }
+
+    /**
+     * Text matched literally by LIKE: "50%" finds "50%", not every description starting with 50
+     */
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private Page<Expense> searchInMemory(Long userId, String query, Pageable pageable) {
+        if (!expenseSearchIndex.isLoaded(userId)) {
+            logger.debug("Construindo índice de busca do usuário {}", userId);
+            expenseSearchIndex.load(userId, expenseRepository.findByUserId(userId));
+        }
+
+        List<Long> ranked = expenseSearchIndex.search(userId, query);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, to);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ranked.size());
+        }
+
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < pageIds.size(); i++) {
+            positions.put(pageIds.get(i), i);
+        }
+        List<Expense> content = expenseRepository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(expense -> positions.get(expense.getId())))
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    /**
+     * Build a MySQL boolean-mode query: every term required, prefix-matched ("+uber* +centro*")
+     */
+    static String toBooleanQuery(List<String> terms) {
+        return terms.stream()
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -1,19 +1,49 @@
 package com.expense.service;
 
+import com.expense.dto.request.ExpenseFilterDTO;
+import com.expense.dto.request.ExpensePatchDTO;
 import com.expense.dto.request.ExpenseRequestDTO;
+import com.expense.dto.response.GraficoResponseDTO;
+import com.expense.event.ExpenseBulkEventPayload;
+import com.expense.event.ExpenseEventPayload;
+import com.expense.event.OutboxPublisher;
+import com.expense.model.ArchivedExpense;
 import com.expense.model.Category;
 import com.expense.model.Expense;
+import com.expense.model.OutboxEvent;
+import com.expense.model.Tsid;
 import com.expense.model.User;
+import com.expense.repository.ArchivedExpenseRepository;
 import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseCursor;
 import com.expense.repository.ExpenseRepository;
+import com.expense.repository.ExpenseSpecifications;
 import com.expense.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 
 @Service
@@ -21,6 +51,9 @@ public class ExpenseService {
     
     private static final Logger logger = LoggerFactory.getLogger(ExpenseService.class);
     
+    // Máximo de ids por operação em lote (tamanho da lista IN)
+    public static final int MAX_BULK_IDS = 1000;
+    
     @Autowired
     private ExpenseRepository expenseRepository;
     
@@ -30,79 +63,387 @@ public class ExpenseService {
     @Autowired
     private CategoryRepository categoryRepository;
     
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    
+    @Autowired
+    private FxRateCache fxRateCache;
+    
+    @Autowired
+    private ArchivedExpenseRepository archivedExpenseRepository;
+    
+    // Com o arquivamento ligado, consultas que alcançam datas antes do horizonte também leem expense_archive
+    @Value("${expense.archive.enabled:false}")
+    private boolean archiveEnabled = false;
+    
+    @Value("${expense.archive.horizon-months:24}")
+    private int archiveHorizonMonths = 24;
+    
     /**
      * Find all expenses for a specific user
      */
+    @Transactional(readOnly = true)
     public List<Expense> getAllExpenses(Long userId) {
         logger.info("Buscando despesas do usuário: {}", userId);
         return expenseRepository.findByUserId(userId);
     }
     
     /**
-     * Find expense by ID (only if belongs to user)
+     * Page of the user's expenses, newest first
+     */
+    @Transactional(readOnly = true)
+    public Slice<Expense> getExpensesPage(Long userId, int page, int size) {
+        logger.info("Buscando página {} das despesas do usuário {}", page, userId);
+        return expenseRepository.findByUserIdOrderByDateDescIdDesc(userId, PageRequest.of(page, size));
+    }
+    
+    /**
+     * Page of a category's expenses (only if the category belongs to user).
+     * Ownership is part of the query; the category is looked up only when the first page comes back empty.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Expense> getExpensesPageByCategory(Long categoryId, Long userId, int page, int size) {
+        logger.info("Buscando página {} das despesas da categoria {} do usuário {}", page, categoryId, userId);
+        
+        Slice<Expense> result = expenseRepository.findByCategoryIdAndUserIdOrderByDateDescIdDesc(
+            categoryId, userId, PageRequest.of(page, size));
+        if (!result.hasContent() && page == 0 && !categoryRepository.existsByIdAndUserId(categoryId, userId)) {
+            throw new NotFoundException("Categoria não encontrada ou não pertence ao usuário");
+        }
+        return result;
+    }
+    
+    /**
+     * Filter the user's expenses in SQL and return one keyset page.
+     * One extra row is fetched to know whether a next page exists; no count query is issued.
+     * When the range reaches archived dates, the archive is read with the same filter and the
+     * two sorted pages are merged (one snapshot: a row moved mid-request is seen once).
      */
+    @Transactional(readOnly = true)
+    public Slice<Expense> filterExpenses(Long userId, ExpenseFilterDTO filter, int size) {
+        logger.info("Filtrando despesas do usuário: {}", userId);
+        
+        String sortKey = filter.getSort() == null ? ExpenseCursor.SORT_DATE : filter.getSort().toLowerCase();
+        if (!ExpenseCursor.SORT_DATE.equals(sortKey) && !ExpenseCursor.SORT_AMOUNT.equals(sortKey)) {
+            throw new IllegalArgumentException("Ordenação inválida: " + filter.getSort());
+        }
+        Sort.Direction direction = filter.getDirection() == null
+            ? Sort.Direction.DESC
+            : Sort.Direction.fromString(filter.getDirection());
+        ExpenseCursor cursor = filter.getCursor() == null || filter.getCursor().isBlank()
+            ? null
+            : ExpenseCursor.decode(filter.getCursor(), sortKey);
+        
+        Sort sort = Sort.by(direction, sortKey).and(Sort.by(direction, "id"));
+        
+        Specification<Expense> spec = filterSpec(userId, filter, cursor, direction.isDescending());
+        List<Expense> rows = expenseRepository.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
+        if (reachesArchive(filter.getFrom())) {
+            Specification<ArchivedExpense> archiveSpec = filterSpec(userId, filter, cursor, direction.isDescending());
+            List<Expense> merged = new ArrayList<>(rows);
+            archivedExpenseRepository.findBy(archiveSpec, query -> query.sortBy(sort).limit(size + 1).all())
+                .forEach(archived -> merged.add(archived.toExpense()));
+            Comparator<Expense> order = ExpenseCursor.SORT_AMOUNT.equals(sortKey)
+                ? Comparator.comparing(Expense::getAmount)
+                : Comparator.comparing(Expense::getDate);
+            order = order.thenComparing(Expense::getId);
+            merged.sort(direction.isDescending() ? order.reversed() : order);
+            rows = merged.size() > size + 1 ? merged.subList(0, size + 1) : merged;
+        }
+        boolean hasNext = rows.size() > size;
+        List<Expense> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+    
+    private static <T> Specification<T> filterSpec(Long userId, ExpenseFilterDTO filter, ExpenseCursor cursor,
+                                                  boolean descending) {
+        return Specification.<T>where(ExpenseSpecifications.belongsToUser(userId))
+            .and(ExpenseSpecifications.amountAtLeast(filter.getMinAmount()))
+            .and(ExpenseSpecifications.amountAtMost(filter.getMaxAmount()))
+            .and(ExpenseSpecifications.dateFrom(filter.getFrom()))
+            .and(ExpenseSpecifications.dateTo(filter.getTo()))
+            .and(ExpenseSpecifications.categoryIn(filter.getCategoryIds()))
+            .and(ExpenseSpecifications.descriptionStartsWith(filter.getDescriptionPrefix()))
+            .and(ExpenseSpecifications.after(cursor, descending))
+            .and(ExpenseSpecifications.fetchAssociations());
+    }
+    
+    /**
+     * Whether a query starting at from (null: unbounded) can reach archived expenses
+     */
+    private boolean reachesArchive(LocalDate from) {
+        return archiveEnabled
+            && (from == null || from.isBefore(ExpenseArchiver.cutoff(LocalDate.now(), archiveHorizonMonths)));
+    }
+    
+    /**
+     * Find expense by ID (only if belongs to user), archived expenses included
+     */
+    @Transactional(readOnly = true)
     public Optional<Expense> getExpenseById(Long id, Long userId) {
         logger.info("Buscando despesa {} do usuário {}", id, userId);
-        return expenseRepository.findByIdAndUserId(id, userId);
+        Optional<Expense> expense = expenseRepository.findByIdAndUserId(id, userId);
+        if (expense.isEmpty() && archiveEnabled) {
+            return archivedExpenseRepository.findByIdAndUserId(id, userId).map(ArchivedExpense::toExpense);
+        }
+        return expense;
     }
     
     /**
      * Create new expense for a user
      */
+    @Transactional
     public Expense createExpense(ExpenseRequestDTO expenseDTO, Long userId) {
         logger.info("Criando despesa para usuário: {}", userId);
         
         User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            .orElseThrow(() -> new NotFoundException("Usuário não encontrado"));
         
         Category category = categoryRepository.findByIdAndUserId(expenseDTO.getCategoryId(), userId)
-            .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+            .orElseThrow(() -> new NotFoundException("Categoria não encontrada ou não pertence ao usuário"));
+        
+        if (expenseDTO.getId() != null) {
+            // Id gerado offline pelo app: formato do Tsid (ordem por tempo) em um nó reservado aos clientes
+            if (!Tsid.isValid(expenseDTO.getId())) {
+                throw new IllegalArgumentException("Id de despesa inválido: " + expenseDTO.getId());
+            }
+            Optional<Expense> existing = expenseRepository.findById(expenseDTO.getId());
+            if (existing.isPresent()) {
+                // Reenvio de uma despesa criada offline: devolve a já gravada
+                if (!existing.get().getUser().getId().equals(userId)) {
+                    throw new IdConflictException("Id de despesa já usado");
+                }
+                return existing.get();
+            }
+        }
         
         Expense expense = new Expense();
+        expense.setId(expenseDTO.getId());
         expense.setDescription(expenseDTO.getDescription());
         expense.setAmount(expenseDTO.getAmount());
+        expense.setCurrency(expenseDTO.getCurrency() != null ? currency(expenseDTO) : user.getBaseCurrency());
         expense.setDate(expenseDTO.getDate().atStartOfDay());
         expense.setUser(user);
         expense.setCategory(category);
         
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        outboxPublisher.publish(OutboxEvent.EXPENSE_CREATED, saved.getId(), userId, ExpenseEventPayload.of(saved));
+        return saved;
     }
     
     /**
      * Update expense (only if belongs to user)
      */
+    @Transactional
     public Expense updateExpense(Long id, ExpenseRequestDTO expenseDTO, Long userId) {
+        return updateExpense(id, expenseDTO, userId, null);
+    }
+    
+    /**
+     * Update expense only if it is still at expectedVersion (null skips the check).
+     * Concurrent writes between read and commit are caught by the @Version column.
+     */
+    @Transactional
+    public Expense updateExpense(Long id, ExpenseRequestDTO expenseDTO, Long userId, Long expectedVersion) {
         logger.info("Atualizando despesa {} do usuário {}", id, userId);
         
         Expense expense = expenseRepository.findByIdAndUserId(id, userId)
-            .orElseThrow(() -> new RuntimeException("Despesa não encontrada ou não pertence ao usuário"));
+            .orElseThrow(() -> new NotFoundException("Despesa não encontrada ou não pertence ao usuário"));
+        if (expectedVersion != null && !expectedVersion.equals(expense.getVersion())) {
+            throw new OptimisticLockingFailureException("Despesa alterada por outra requisição");
+        }
         
         Category category = categoryRepository.findByIdAndUserId(expenseDTO.getCategoryId(), userId)
-            .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+            .orElseThrow(() -> new NotFoundException("Categoria não encontrada ou não pertence ao usuário"));
         
+        Long previousCategoryId = expense.getCategory() != null ? expense.getCategory().getId() : null;
+        BigDecimal previousAmount = expense.getAmount();
+        String previousCurrency = expense.getCurrency();
+        LocalDateTime previousDate = expense.getDate();
         expense.setDescription(expenseDTO.getDescription());
         expense.setAmount(expenseDTO.getAmount());
+        if (expenseDTO.getCurrency() != null) {
+            expense.setCurrency(currency(expenseDTO));
+        }
         expense.setDate(expenseDTO.getDate().atStartOfDay());
         expense.setCategory(category);
         
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        outboxPublisher.publish(OutboxEvent.EXPENSE_UPDATED, saved.getId(), userId,
+            ExpenseEventPayload.of(saved, previousCategoryId, previousAmount, previousCurrency, previousDate));
+        return saved;
+    }
+    
+    /**
+     * Partial update with a single conditional UPDATE (no prior SELECT of the expense).
+     * The previous values are unknown here, so consumers rebuild the user's derived state.
+     */
+    @Transactional
+    public Expense patchExpense(Long id, ExpensePatchDTO patch, Long userId, long version) {
+        logger.info("Atualizando parcialmente despesa {} do usuário {} (versão {})", id, userId, version);
+        
+        if (patch.getCategoryId() != null && !categoryRepository.existsByIdAndUserId(patch.getCategoryId(), userId)) {
+            throw new NotFoundException("Categoria não encontrada ou não pertence ao usuário");
+        }
+        
+        int updated = expenseRepository.patch(id, userId, version, patch.getDescription(), patch.getAmount(),
+            patch.getDate() != null ? patch.getDate().atStartOfDay() : null, patch.getCategoryId());
+        if (updated == 0) {
+            // Só no caminho de falha: distingue versão desatualizada de despesa inexistente
+            if (expenseRepository.existsByIdAndUserId(id, userId)) {
+                throw new OptimisticLockingFailureException("Despesa alterada por outra requisição");
+            }
+            throw new NotFoundException("Despesa não encontrada ou não pertence ao usuário");
+        }
+        outboxPublisher.publish(OutboxEvent.EXPENSE_UPDATED, id, userId, null);
+        return expenseRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new NotFoundException("Despesa não encontrada ou não pertence ao usuário"));
     }
     
     /**
      * Delete expense (only if belongs to user)
      */
+    @Transactional
     public void deleteExpense(Long id, Long userId) {
         logger.info("Deletando despesa {} do usuário {}", id, userId);
         
-        Expense expense = expenseRepository.findByIdAndUserId(id, userId)
-            .orElseThrow(() -> new RuntimeException("Despesa não encontrada ou não pertence ao usuário"));
+        // Lê com bloqueio na mesma transação: o evento leva categoria, data e valor removidos
+        ExpenseEventPayload payload = expenseRepository.findForDelete(id, userId)
+            .orElseThrow(() -> new NotFoundException("Despesa não encontrada ou não pertence ao usuário"));
+        expenseRepository.deleteByIdAndUserId(id, userId);
+        outboxPublisher.publish(OutboxEvent.EXPENSE_DELETED, id, userId, payload);
+    }
+    
+    /**
+     * Move the user's expenses among the given ids to the category with one UPDATE.
+     * Returns the number of expenses moved; ids of other users are ignored.
+     */
+    @Transactional
+    public int recategorizeExpenses(List<Long> expenseIds, Long categoryId, Long userId) {
+        Set<Long> ids = bulkIds(expenseIds);
+        logger.info("Recategorizando {} despesas do usuário {} para a categoria {}", ids.size(), userId, categoryId);
+        
+        if (!categoryRepository.existsByIdAndUserId(categoryId, userId)) {
+            throw new NotFoundException("Categoria não encontrada ou não pertence ao usuário");
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        YearMonth month = YearMonth.now();
+        String currency = baseCurrency(userId);
+        ExpenseBulkEventPayload moved = new ExpenseBulkEventPayload(month, currency);
+        monthTotals(userId, ids, month, currency).forEach((fromCategory, total) -> {
+            moved.add(fromCategory, total.negate());
+            moved.add(categoryId, total);
+        });
+        int affected = expenseRepository.recategorize(userId, ids, categoryId);
+        if (affected > 0) {
+            outboxPublisher.publish(OutboxEvent.EXPENSES_BULK_CHANGED, null, userId, moved);
+        }
+        return affected;
+    }
+    
+    /**
+     * Delete the user's expenses among the given ids with one DELETE.
+     * Returns the number of expenses deleted; ids of other users are ignored.
+     */
+    @Transactional
+    public int deleteExpenses(List<Long> expenseIds, Long userId) {
+        Set<Long> ids = bulkIds(expenseIds);
+        logger.info("Deletando {} despesas do usuário {}", ids.size(), userId);
+        if (ids.isEmpty()) {
+            return 0;
+        }
         
-        expenseRepository.delete(expense);
+        YearMonth month = YearMonth.now();
+        String currency = baseCurrency(userId);
+        ExpenseBulkEventPayload removed = new ExpenseBulkEventPayload(month, currency);
+        monthTotals(userId, ids, month, currency).forEach((category, total) -> removed.add(category, total.negate()));
+        int affected = expenseRepository.deleteByUserIdAndIdIn(userId, ids);
+        if (affected > 0) {
+            removed.getDeletedExpenseIds().addAll(ids);
+            outboxPublisher.publish(OutboxEvent.EXPENSES_BULK_CHANGED, null, userId, removed);
+        }
+        return affected;
+    }
+    
+    private static Set<Long> bulkIds(List<Long> expenseIds) {
+        Set<Long> ids = expenseIds != null ? new LinkedHashSet<>(expenseIds) : new LinkedHashSet<>();
+        ids.remove(null);
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Máximo de " + MAX_BULK_IDS + " despesas por operação");
+        }
+        return ids;
+    }
+    
+    /**
+     * Current-month totals per category of the given expenses in the currency, read with one
+     * grouped SUM before the set-based change so rollups get a single aggregated delta
+     */
+    private Map<Long, BigDecimal> monthTotals(Long userId, Set<Long> ids, YearMonth month, String currency) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        return fxRateCache.sumConverted(
+            expenseRepository.sumByCategoryForIds(userId, ids, start, start.plusMonths(1)), currency);
+    }
+    
+    /**
+     * Spending per category in [from, to] in the user's base currency, largest first.
+     * One grouped SUM per (category, currency, day); each group is converted at that day's rate.
+     * Ranges that reach archived dates add the same sums over the archive.
+     */
+    @Transactional(readOnly = true)
+    public List<GraficoResponseDTO> summarizeByCategory(Long userId, LocalDate from, LocalDate to) {
+        logger.info("Resumindo despesas do usuário {} de {} a {}", userId, from, to);
+        
+        String currency = baseCurrency(userId);
+        List<Object[]> rows = expenseRepository.sumByCategory(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        if (reachesArchive(from)) {
+            rows = new ArrayList<>(rows);
+            rows.addAll(archivedExpenseRepository.sumByCategory(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+        }
+        Map<Long, BigDecimal> totals = fxRateCache.sumConverted(rows, currency);
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] != null && row[4] != null) {
+                counts.merge((Long) row[0], ((Number) row[4]).longValue(), Long::sum);
+            }
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findByUserId(userId)) {
+            names.put(category.getId(), category.getName());
+        }
+        
+        BigDecimal grandTotal = totals.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<GraficoResponseDTO> summary = new ArrayList<>();
+        totals.forEach((categoryId, total) -> {
+            double percentage = grandTotal.signum() == 0 ? 0d
+                : total.multiply(BigDecimal.valueOf(100)).divide(grandTotal, 2, RoundingMode.HALF_EVEN).doubleValue();
+            GraficoResponseDTO item = new GraficoResponseDTO(names.get(categoryId), total,
+                counts.getOrDefault(categoryId, 0L), percentage);
+            item.setCurrency(currency);
+            summary.add(item);
+        });
+        summary.sort(Comparator.comparing(GraficoResponseDTO::getTotalValue).reversed());
+        return summary;
+    }
+    
+    private String currency(ExpenseRequestDTO expenseDTO) {
+        if (!fxRateCache.supports(expenseDTO.getCurrency())) {
+            throw new IllegalArgumentException("Moeda não suportada: " + expenseDTO.getCurrency());
+        }
+        return expenseDTO.getCurrency();
+    }
+    
+    private String baseCurrency(Long userId) {
+        String currency = userRepository.findBaseCurrencyById(userId);
+        return currency != null ? currency : fxRateCache.getReferenceCurrency();
     }
     
     /**
      * Find all expenses
      */
+    @Transactional(readOnly = true)
     public List<Expense> findAll() {
         return expenseRepository.findAll();
     }
@@ -110,6 +451,7 @@ public class ExpenseService {
     /**
      * Find expense by ID
      */
+    @Transactional(readOnly = true)
     public Optional<Expense> findById(Long id) {
         return expenseRepository.findById(id);
     }
@@ -117,6 +459,7 @@ public class ExpenseService {
     /**
      * Find expenses by user ID
      */
+    @Transactional(readOnly = true)
     public List<Expense> findByUserId(Long userId) {
         return expenseRepository.findByUserId(userId);
     }
@@ -124,6 +467,7 @@ public class ExpenseService {
     /**
      * Find expenses by category ID
      */
+    @Transactional(readOnly = true)
     public List<Expense> findByCategoryId(Long categoryId) {
         return expenseRepository.findByCategoryId(categoryId);
     }
@@ -131,20 +475,32 @@ public class ExpenseService {
     /**
      * Save expense
      */
+    @Transactional
     public Expense save(Expense expense) {
-        return expenseRepository.save(expense);
+        Expense saved = expenseRepository.save(expense);
+        if (saved.getUser() != null) {
+            // No previous values here: consumers rebuild the user's derived state
+            outboxPublisher.publish(OutboxEvent.EXPENSE_UPDATED, saved.getId(), saved.getUser().getId(), null);
+        }
+        return saved;
     }
     
     /**
      * Delete expense by ID
      */
+    @Transactional
     public void deleteById(Long id) {
-        expenseRepository.deleteById(id);
+        expenseRepository.findById(id).ifPresent(expense -> {
+            expenseRepository.delete(expense);
+            outboxPublisher.publish(OutboxEvent.EXPENSE_DELETED, id, expense.getUser().getId(),
+                ExpenseEventPayload.of(expense));
+        });
     }
     
     /**
      * Check if expense exists
      */
+    @Transactional(readOnly = true)
     public boolean existsById(Long id) {
         return expenseRepository.existsById(id);
     }
@@ -0,0 +1,188 @@
+package com.expense.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Daily FX rates held in memory, loaded from a CSV file of {@code date,currency,rate} lines
+ * (rate = value of one unit of the currency in the reference currency).
+ * Each currency keeps two primitive arrays (epoch days, rates) sorted by date; a lookup is a
+ * binary search for the last rate on or before the date, with no allocation or DB access.
+ * Any pair is derived from the two currencies' rates against the reference currency.
+ */
+@Component
+public class FxRateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxRateCache.class);
+
+    private final Resource source;
+    private final String referenceCurrency;
+    private volatile Table table;
+
+    public FxRateCache(@Value("${fx.rates.location:classpath:fx/rates.csv}") Resource source,
+                       @Value("${fx.reference-currency:BRL}") String referenceCurrency) {
+        this.source = source;
+        this.referenceCurrency = referenceCurrency;
+    }
+
+    @PostConstruct
+    public void load() {
+        try (Reader reader = new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8)) {
+            table = Table.parse(reader, referenceCurrency);
+            logger.info("Cotações carregadas de {}: {} moedas", source.getDescription(), table.index.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler as cotações de " + source.getDescription(), e);
+        }
+    }
+
+    /**
+     * Pick up an updated rates file; on failure the rates already loaded stay in use
+     */
+    @Scheduled(fixedDelayString = "${fx.rates.reload-ms:3600000}", initialDelayString = "${fx.rates.reload-ms:3600000}")
+    public void reload() {
+        try {
+            load();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao recarregar cotações; mantendo as anteriores", e);
+        }
+    }
+
+    public String getReferenceCurrency() {
+        return referenceCurrency;
+    }
+
+    /**
+     * Whether amounts in the currency can be converted
+     */
+    public boolean supports(String currency) {
+        return currency != null && table.index.containsKey(currency);
+    }
+
+    /**
+     * Units of {@code to} per unit of {@code from} on the date (the last known rate on or before
+     * it; dates before the first rate use the first one)
+     */
+    public double rate(String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return 1d;
+        }
+        Table current = table;
+        int day = (int) date.toEpochDay();
+        return current.toReference(index(current, from), day) / current.toReference(index(current, to), day);
+    }
+
+    /**
+     * Amount in {@code from} converted to {@code to} at the date's rate, rounded to cents
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to, LocalDate date) {
+        if (from.equals(to)) {
+            return amount;
+        }
+        return amount.multiply(BigDecimal.valueOf(rate(from, to, date))).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * Sum grouped rows of (key, currency, day, total, ...) into per-key totals in {@code to}.
+     * Aggregations group by currency and day in SQL, so the work here grows with the number of
+     * groups, not of expenses.
+     */
+    public Map<Long, BigDecimal> sumConverted(List<Object[]> rows, String to) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : rows) {
+            if (row[0] == null || row[3] == null) {
+                continue;
+            }
+            String currency = row[1] != null ? (String) row[1] : to;
+            BigDecimal amount = convert((BigDecimal) row[3], currency, to, (LocalDate) row[2]);
+            totals.merge((Long) row[0], amount, BigDecimal::add);
+        }
+        return totals;
+    }
+
+    private static int index(Table table, String currency) {
+        Integer index = table.index.get(currency);
+        if (index == null) {
+            throw new IllegalArgumentException("Moeda não suportada: " + currency);
+        }
+        return index;
+    }
+
+    static final class Table {
+
+        // A moeda de referência tem índice 0 e nenhuma cotação (vale sempre 1)
+        private final Map<String, Integer> index = new HashMap<>();
+        private int[][] days;
+        private double[][] rates;
+
+        double toReference(int currency, int day) {
+            if (currency == 0) {
+                return 1d;
+            }
+            int[] currencyDays = days[currency];
+            int position = Arrays.binarySearch(currencyDays, day);
+            if (position < 0) {
+                position = Math.max(-position - 2, 0);
+            }
+            return rates[currency][position];
+        }
+
+        static Table parse(Reader reader, String referenceCurrency) throws IOException {
+            Map<String, TreeMap<Integer, Double>> series = new HashMap<>();
+            BufferedReader lines = new BufferedReader(reader);
+            String line;
+            int number = 0;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith("date")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Linha " + number + " inválida no arquivo de cotações: " + line);
+                }
+                String currency = fields[1].trim();
+                double rate = Double.parseDouble(fields[2].trim());
+                if (currency.equals(referenceCurrency) || !(rate > 0)) {
+                    throw new IllegalArgumentException("Linha " + number + " inválida no arquivo de cotações: " + line);
+                }
+                series.computeIfAbsent(currency, key -> new TreeMap<>())
+                    .put((int) LocalDate.parse(fields[0].trim()).toEpochDay(), rate);
+            }
+
+            Table table = new Table();
+            List<String> currencies = new ArrayList<>(series.keySet());
+            table.days = new int[currencies.size() + 1][];
+            table.rates = new double[currencies.size() + 1][];
+            table.index.put(referenceCurrency, 0);
+            for (int i = 0; i < currencies.size(); i++) {
+                TreeMap<Integer, Double> points = series.get(currencies.get(i));
+                table.index.put(currencies.get(i), i + 1);
+                table.days[i + 1] = points.keySet().stream().mapToInt(Integer::intValue).toArray();
+                table.rates[i + 1] = points.values().stream().mapToDouble(Double::doubleValue).toArray();
+            }
+            return table;
+        }
+    }
+}
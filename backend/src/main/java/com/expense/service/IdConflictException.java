@@ -0,0 +1,11 @@
+package com.expense.service;
+
+/**
+ * The id sent by the app for a new record already belongs to another user's record (answered as 409)
+ */
+public class IdConflictException extends RuntimeException {
+    
+    public IdConflictException(String message) {
+        super(message);
+    }
+}
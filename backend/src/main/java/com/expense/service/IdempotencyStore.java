@@ -0,0 +1,260 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stored responses of requests sent with an Idempotency-Key, per (user, key).
+ * The idempotency_key table is the source of truth: the first request inserts a row with no
+ * status (the primary key settles races between nodes) and fills it in when it completes.
+ * Completed responses of the most recent keys are also kept in memory, so a retry on the
+ * same node costs no query; otherwise a retry costs one primary-key lookup.
+ * Claims on one node are serialized by a striped lock held only while claiming; a duplicate
+ * that finds its key in progress on this node waits for that request instead of being rejected.
+ * A claim left unfinished longer than the in-flight timeout (its node died mid-request) is
+ * abandoned: the next request with the same key and body takes it over and runs.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    static final String PURGE_LOCK = "idempotency-purge";
+    static final String FIND = "SELECT request_hash, status, content_type, location, body FROM idempotency_key "
+            + "WHERE user_id = ? AND idempotency_key = ?";
+    static final String CLAIM = "INSERT INTO idempotency_key (user_id, idempotency_key, request_hash, created_at) "
+            + "VALUES (?, ?, ?, ?)";
+    static final String COMPLETE = "UPDATE idempotency_key SET status = ?, content_type = ?, location = ?, body = ? "
+            + "WHERE user_id = ? AND idempotency_key = ?";
+    static final String TAKE_OVER = "UPDATE idempotency_key SET created_at = ? WHERE user_id = ? AND idempotency_key = ? "
+            + "AND request_hash = ? AND status IS NULL AND created_at < ?";
+    static final String RELEASE = "DELETE FROM idempotency_key WHERE user_id = ? AND idempotency_key = ? AND status IS NULL";
+    static final String PURGE = "DELETE FROM idempotency_key WHERE created_at < ? LIMIT ?";
+
+    private static final int STRIPES = 256;
+
+    /**
+     * Outcome of claiming a key
+     */
+    public enum Outcome {
+        /** First request with this key: run it and complete or release the claim */
+        NEW,
+        /** Same request already answered: send the stored response */
+        REPLAY,
+        /** Same key still being processed */
+        IN_PROGRESS,
+        /** Same key used before with a different request */
+        MISMATCH
+    }
+
+    /**
+     * A stored response, or an unfinished claim when status is null
+     */
+    public record StoredResponse(String requestHash, Integer status, String contentType, String location, byte[] body) {
+    }
+
+    public record Claim(Outcome outcome, StoredResponse response) {
+    }
+
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final Map<String, StoredResponse> completed;
+    // Chaves reivindicadas por requisições deste nó que ainda não terminaram
+    private final Map<String, CountDownLatch> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchedulerLock schedulerLock;
+
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours = 24;
+
+    // Maior que a requisição mais longa: uma reivindicação sem resposta há mais tempo foi abandonada
+    @Value("${idempotency.in-flight-timeout-seconds:60}")
+    private long inFlightTimeoutSeconds = 60;
+
+    @Value("${idempotency.purge.chunk-size:10000}")
+    private int purgeChunkSize = 10000;
+
+    public IdempotencyStore(@Value("${idempotency.cache-size:10000}") int cacheSize) {
+        Arrays.setAll(stripes, i -> new ReentrantLock());
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Lock to hold around claim, so concurrent duplicates on this node claim one at a time
+     */
+    public Lock lockFor(long userId, String key) {
+        return stripes[Math.floorMod(cacheKey(userId, key).hashCode(), STRIPES)];
+    }
+
+    /**
+     * Claim the key for this request, or find what an earlier request with it left
+     */
+    public Claim claim(long userId, String key, String requestHash) {
+        StoredResponse cached = completed.get(cacheKey(userId, key));
+        if (cached != null) {
+            return outcomeOf(cached, requestHash);
+        }
+        StoredResponse stored = find(userId, key);
+        if (stored == null) {
+            try {
+                jdbcTemplate.update(CLAIM, userId, key, requestHash, Timestamp.valueOf(LocalDateTime.now()));
+                return started(userId, key);
+            } catch (DuplicateKeyException e) {
+                // Outro nó inseriu a mesma chave entre a leitura e a inserção
+                stored = find(userId, key);
+                if (stored == null) {
+                    return new Claim(Outcome.IN_PROGRESS, null);
+                }
+            }
+        }
+        if (stored.status() == null) {
+            return takeOver(userId, key, requestHash)
+                ? started(userId, key)
+                : new Claim(Outcome.IN_PROGRESS, null);
+        }
+        completed.put(cacheKey(userId, key), stored);
+        return outcomeOf(stored, requestHash);
+    }
+
+    private Claim started(long userId, String key) {
+        inFlight.put(cacheKey(userId, key), new CountDownLatch(1));
+        return new Claim(Outcome.NEW, null);
+    }
+
+    /**
+     * Wait, up to the in-flight timeout, for a request of this node that holds the key to
+     * complete or release it; returns at once if none does
+     */
+    public void awaitInFlight(long userId, String key) throws InterruptedException {
+        CountDownLatch latch = inFlight.get(cacheKey(userId, key));
+        if (latch != null) {
+            latch.await(inFlightTimeoutSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Take an abandoned claim over; the update succeeds on one node only, since it renews created_at
+     */
+    private boolean takeOver(long userId, String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(TAKE_OVER, Timestamp.valueOf(now), userId, key, requestHash,
+            Timestamp.valueOf(now.minusSeconds(inFlightTimeoutSeconds)));
+        if (updated == 1) {
+            logger.warn("Reivindicação abandonada da chave de idempotência do usuário {} retomada", userId);
+        }
+        return updated == 1;
+    }
+
+    /**
+     * Store the response of a claimed key
+     */
+    public void complete(long userId, String key, StoredResponse response) {
+        jdbcTemplate.update(COMPLETE, response.status(), response.contentType(), response.location(), response.body(),
+            userId, key);
+        completed.put(cacheKey(userId, key), response);
+        finished(userId, key);
+    }
+
+    /**
+     * Drop an unfinished claim (the request failed), so a retry runs again
+     */
+    public void release(long userId, String key) {
+        try {
+            jdbcTemplate.update(RELEASE, userId, key);
+        } finally {
+            finished(userId, key);
+        }
+    }
+
+    private void finished(long userId, String key) {
+        CountDownLatch latch = inFlight.remove(cacheKey(userId, key));
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Delete keys older than the TTL, in chunks, on one node at a time
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge.delay-ms:3600000}",
+               initialDelayString = "${idempotency.purge.initial-delay-ms:60000}")
+    public int purge() {
+        int[] total = {0};
+        ShardContext.forEachShard(shardDirectory, () -> total[0] += purgeShard());
+        return total[0];
+    }
+
+    private int purgeShard() {
+        if (!schedulerLock.tryAcquire(PURGE_LOCK, Duration.ofMinutes(10))) {
+            return 0;
+        }
+        try {
+            Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(ttlHours));
+            int total = 0;
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE, cutoff, purgeChunkSize);
+                total += deleted;
+            } while (deleted == purgeChunkSize);
+            if (total > 0) {
+                logger.info("{} chaves de idempotência expiradas removidas", total);
+            }
+            return total;
+        } finally {
+            schedulerLock.release(PURGE_LOCK);
+        }
+    }
+
+    private StoredResponse find(long userId, String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND, (rs, row) -> new StoredResponse(
+            rs.getString("request_hash"),
+            rs.getObject("status") != null ? rs.getInt("status") : null,
+            rs.getString("content_type"),
+            rs.getString("location"),
+            rs.getBytes("body")), userId, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private static Claim outcomeOf(StoredResponse stored, String requestHash) {
+        return stored.requestHash().equals(requestHash)
+            ? new Claim(Outcome.REPLAY, stored)
+            : new Claim(Outcome.MISMATCH, null);
+    }
+
+    private static String cacheKey(long userId, String key) {
+        return userId + ":" + key;
+    }
+}
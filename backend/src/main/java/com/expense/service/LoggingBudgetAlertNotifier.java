@@ -0,0 +1,21 @@
+package com.expense.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default notifier: writes budget alerts to the log
+ */
+@Component
+public class LoggingBudgetAlertNotifier implements BudgetAlertNotifier {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LoggingBudgetAlertNotifier.class);
+    
+    @Override
+    public void notify(BudgetAlert alert) {
+        logger.warn("Orçamento da categoria {} do usuário {} atingiu {}% em {}: gasto {} de {}",
+            alert.getCategoryId(), alert.getUserId(), alert.getThreshold(), alert.getMonth(),
+            alert.getSpent(), alert.getLimitAmount());
+    }
+}
@@ -0,0 +1,11 @@
+package com.expense.service;
+
+/**
+ * The requested record does not exist or belongs to another user (answered as 404)
+ */
+public class NotFoundException extends RuntimeException {
+    
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,101 @@
+package com.expense.service;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Subset of iCalendar RRULE used by recurring expenses:
+ * FREQ=DAILY|WEEKLY|MONTHLY|YEARLY, optional INTERVAL=n and, for MONTHLY, BYMONTHDAY=d.
+ * Monthly occurrences keep their anchor day and fall back to the last day of shorter months
+ * (BYMONTHDAY=31 gives Jan 31, Feb 28, Mar 31...).
+ */
+public final class RecurrenceRule {
+    
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+    
+    private final Frequency frequency;
+    private final int interval;
+    private final LocalDate start;
+    private final int anchorDay;
+    
+    private RecurrenceRule(Frequency frequency, int interval, LocalDate start, int anchorDay) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.start = start;
+        this.anchorDay = anchorDay;
+    }
+    
+    /**
+     * Parse a rule such as "FREQ=MONTHLY;INTERVAL=1;BYMONTHDAY=5" anchored at the start date
+     * @throws IllegalArgumentException if the rule is malformed
+     */
+    public static RecurrenceRule parse(String rule, LocalDate start) {
+        if (rule == null || rule.isBlank() || start == null) {
+            throw new IllegalArgumentException("Regra de recorrência inválida");
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Integer byMonthDay = null;
+        for (String part : rule.trim().toUpperCase(Locale.ROOT).split(";")) {
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Regra de recorrência inválida: " + rule);
+            }
+            try {
+                switch (pair[0].trim()) {
+                    case "FREQ":
+                        frequency = Frequency.valueOf(pair[1].trim());
+                        break;
+                    case "INTERVAL":
+                        interval = Integer.parseInt(pair[1].trim());
+                        break;
+                    case "BYMONTHDAY":
+                        byMonthDay = Integer.parseInt(pair[1].trim());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Parte não suportada na regra de recorrência: " + pair[0]);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Regra de recorrência inválida: " + rule, e);
+            }
+        }
+        if (frequency == null || interval < 1) {
+            throw new IllegalArgumentException("Regra de recorrência inválida: " + rule);
+        }
+        if (byMonthDay != null && (frequency != Frequency.MONTHLY || byMonthDay < 1 || byMonthDay > 31)) {
+            throw new IllegalArgumentException("BYMONTHDAY só é válido com FREQ=MONTHLY e entre 1 e 31");
+        }
+        return new RecurrenceRule(frequency, interval, start, byMonthDay != null ? byMonthDay : start.getDayOfMonth());
+    }
+    
+    /**
+     * First occurrence on or after the start date
+     */
+    public LocalDate first() {
+        if (frequency != Frequency.MONTHLY) {
+            return start;
+        }
+        LocalDate candidate = inMonth(start);
+        return candidate.isBefore(start) ? inMonth(start.plusMonths(1)) : candidate;
+    }
+    
+    /**
+     * Occurrence following the given one
+     */
+    public LocalDate next(LocalDate occurrence) {
+        switch (frequency) {
+            case DAILY:
+                return occurrence.plusDays(interval);
+            case WEEKLY:
+                return occurrence.plusWeeks(interval);
+            case MONTHLY:
+                return inMonth(occurrence.plusMonths(interval));
+            default:
+                return start.plusYears(occurrence.getYear() - start.getYear() + interval);
+        }
+    }
+    
+    private LocalDate inMonth(LocalDate date) {
+        return date.withDayOfMonth(Math.min(anchorDay, date.lengthOfMonth()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.expense.service;
+
+import com.expense.model.OutboxEvent;
+import com.expense.model.RecurringExpense;
+import com.expense.model.Tsid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns due occurrences of a batch of recurring expenses into expense rows with two JDBC
+ * batches (insert occurrences, advance next_occurrence) in a single transaction.
+ * The (recurring_expense_id, occurrence_date) unique key plus INSERT IGNORE make a re-run
+ * of the same batch a no-op. One EXPENSES_CHANGED outbox event per affected user is written
+ * in the same transaction.
+ */
+@Component
+public class RecurringExpenseMaterializer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RecurringExpenseMaterializer.class);
+    
+    static final String INSERT_OCCURRENCE = "INSERT IGNORE INTO expense "
+            + "(description, amount, currency, date, category_id, user_id, created_at, recurring_expense_id, occurrence_date, id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    static final String INSERT_EVENT = "INSERT INTO outbox_event (event_type, user_id, created_at) VALUES (?, ?, ?)";
+    
+    // Só avança se a definição não foi editada desde a leitura
+    static final String ADVANCE = "UPDATE recurring_expense SET next_occurrence = ?, active = ? "
+            + "WHERE id = ? AND next_occurrence = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    /**
+     * Materialize every occurrence up to today (at most maxCatchUp per definition)
+     * and return the users whose expenses changed
+     */
+    public Set<Long> materialize(List<RecurringExpense> due, LocalDate today, int maxCatchUp) {
+        Plan plan = plan(due, today, maxCatchUp);
+        if (plan.advances.isEmpty()) {
+            return plan.userIds;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!plan.occurrences.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_OCCURRENCE, plan.occurrences);
+            }
+            jdbcTemplate.batchUpdate(ADVANCE, plan.advances);
+            if (!plan.userIds.isEmpty()) {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> events = new ArrayList<>();
+                plan.userIds.forEach(userId -> events.add(new Object[]{OutboxEvent.EXPENSES_CHANGED, userId, now}));
+                jdbcTemplate.batchUpdate(INSERT_EVENT, events);
+            }
+        });
+        logger.debug("{} ocorrências geradas para {} despesas recorrentes", plan.occurrences.size(), plan.advances.size());
+        return plan.userIds;
+    }
+    
+    /**
+     * Compute the rows to insert and the new schedule state, without touching the database
+     */
+    static Plan plan(List<RecurringExpense> due, LocalDate today, int maxCatchUp) {
+        Plan plan = new Plan();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (RecurringExpense recurring : due) {
+            RecurrenceRule rule;
+            try {
+                rule = RecurrenceRule.parse(recurring.getRule(), recurring.getStartDate());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Despesa recorrente {} com regra inválida ignorada: {}", recurring.getId(), e.getMessage());
+                continue;
+            }
+            Long userId = recurring.getUser().getId();
+            Long categoryId = recurring.getCategory().getId();
+            LocalDate occurrence = recurring.getNextOccurrence();
+            int generated = 0;
+            while (occurrence != null && !occurrence.isAfter(today) && generated < maxCatchUp) {
+                if (recurring.getEndDate() != null && occurrence.isAfter(recurring.getEndDate())) {
+                    occurrence = null;
+                    break;
+                }
+                plan.occurrences.add(new Object[]{
+                    recurring.getDescription(), recurring.getAmount(), recurring.getCurrency(), Timestamp.valueOf(occurrence.atStartOfDay()),
+                    categoryId, userId, createdAt, recurring.getId(), Date.valueOf(occurrence), Tsid.next()
+                });
+                generated++;
+                occurrence = rule.next(occurrence);
+            }
+            if (occurrence != null && recurring.getEndDate() != null && occurrence.isAfter(recurring.getEndDate())) {
+                occurrence = null;
+            }
+            plan.advances.add(new Object[]{
+                occurrence != null ? Date.valueOf(occurrence) : null, occurrence != null,
+                recurring.getId(), Date.valueOf(recurring.getNextOccurrence())
+            });
+            if (generated > 0) {
+                plan.userIds.add(userId);
+            }
+        }
+        return plan;
+    }
+    
+    static final class Plan {
+        
+        final List<Object[]> occurrences = new ArrayList<>();
+        final List<Object[]> advances = new ArrayList<>();
+        final Set<Long> userIds = new HashSet<>();
+    }
+}
@@ -0,0 +1,94 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
+import com.expense.model.RecurringExpense;
+import com.expense.repository.RecurringExpenseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Periodically materializes due recurring expenses. Only the node holding the
+ * "recurring-expenses" lease runs; definitions are read in id-ordered batches, so a run
+ * after downtime simply finds more due occurrences and catches up.
+ */
+@Component
+public class RecurringExpenseScheduler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RecurringExpenseScheduler.class);
+    
+    static final String JOB_NAME = "recurring-expenses";
+    
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+    
+    @Autowired
+    private RecurringExpenseMaterializer recurringExpenseMaterializer;
+    
+    @Autowired
+    private SchedulerLock schedulerLock;
+    
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+    
+    @Value("${recurring.scheduler.batch-size:1000}")
+    private int batchSize = 1000;
+    
+    @Value("${recurring.scheduler.max-catch-up:400}")
+    private int maxCatchUp = 400;
+    
+    @Value("${recurring.scheduler.lease-seconds:300}")
+    private long leaseSeconds = 300;
+    
+    @Scheduled(fixedDelayString = "${recurring.scheduler.delay-ms:60000}",
+               initialDelayString = "${recurring.scheduler.initial-delay-ms:30000}")
+    public void run() {
+        // Com shards, cada shard tem suas definições e seu próprio lease
+        LocalDate today = LocalDate.now();
+        ShardContext.forEachShard(shardDirectory, () -> materializeDue(today));
+    }
+    
+    /**
+     * Materialize everything due up to the given day. Returns the number of definitions processed.
+     */
+    public int materializeDue(LocalDate today) {
+        Duration lease = Duration.ofSeconds(leaseSeconds);
+        if (!schedulerLock.tryAcquire(JOB_NAME, lease)) {
+            return 0;
+        }
+        int processed = 0;
+        try {
+            long afterId = 0;
+            while (true) {
+                List<RecurringExpense> due = recurringExpenseRepository.findDue(today, afterId, PageRequest.of(0, batchSize));
+                if (due.isEmpty()) {
+                    break;
+                }
+                recurringExpenseMaterializer.materialize(due, today, maxCatchUp);
+                processed += due.size();
+                afterId = due.get(due.size() - 1).getId();
+                
+                // Renova o lease entre lotes; se outro nó assumiu, para aqui
+                if (!schedulerLock.tryAcquire(JOB_NAME, lease)) {
+                    logger.warn("Lease do job {} perdido após {} definições", JOB_NAME, processed);
+                    return processed;
+                }
+            }
+        } finally {
+            schedulerLock.release(JOB_NAME);
+        }
+        if (processed > 0) {
+            logger.info("{} despesas recorrentes processadas até {}", processed, today);
+        }
+        return processed;
+    }
+}
@@ -0,0 +1,128 @@
+package com.expense.service;
+
+import com.expense.dto.request.RecurringExpenseRequestDTO;
+import com.expense.model.Category;
+import com.expense.model.RecurringExpense;
+import com.expense.model.User;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.RecurringExpenseRepository;
+import com.expense.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class RecurringExpenseService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RecurringExpenseService.class);
+    
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private FxRateCache fxRateCache;
+    
+    /**
+     * Find all recurring expenses for a specific user
+     */
+    public List<RecurringExpense> getAllRecurringExpenses(Long userId) {
+        logger.info("Buscando despesas recorrentes do usuário: {}", userId);
+        return recurringExpenseRepository.findByUserId(userId);
+    }
+    
+    /**
+     * Find recurring expense by ID (only if belongs to user)
+     */
+    public Optional<RecurringExpense> getRecurringExpenseById(Long id, Long userId) {
+        logger.info("Buscando despesa recorrente {} do usuário {}", id, userId);
+        return recurringExpenseRepository.findByIdAndUserId(id, userId);
+    }
+    
+    /**
+     * Create new recurring expense for a user. Past occurrences since the start date are
+     * generated by the scheduler on its next run.
+     */
+    public RecurringExpense createRecurringExpense(RecurringExpenseRequestDTO dto, Long userId) {
+        logger.info("Criando despesa recorrente para usuário: {}", userId);
+        
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        
+        Category category = categoryRepository.findByIdAndUserId(dto.getCategoryId(), userId)
+            .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+        
+        RecurringExpense recurring = new RecurringExpense();
+        recurring.setUser(user);
+        recurring.setCurrency(user.getBaseCurrency());
+        apply(recurring, dto, category, RecurrenceRule.parse(dto.getRule(), dto.getStartDate()).first());
+        return recurringExpenseRepository.save(recurring);
+    }
+    
+    /**
+     * Update recurring expense (only if belongs to user). The schedule restarts at the first
+     * occurrence from today, so already generated expenses are not repeated.
+     */
+    public RecurringExpense updateRecurringExpense(Long id, RecurringExpenseRequestDTO dto, Long userId) {
+        logger.info("Atualizando despesa recorrente {} do usuário {}", id, userId);
+        
+        RecurringExpense recurring = recurringExpenseRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new RuntimeException("Despesa recorrente não encontrada ou não pertence ao usuário"));
+        
+        Category category = categoryRepository.findByIdAndUserId(dto.getCategoryId(), userId)
+            .orElseThrow(() -> new RuntimeException("Categoria não encontrada ou não pertence ao usuário"));
+        
+        RecurrenceRule rule = RecurrenceRule.parse(dto.getRule(), dto.getStartDate());
+        LocalDate today = LocalDate.now();
+        LocalDate next = rule.first();
+        while (next.isBefore(today)) {
+            next = rule.next(next);
+        }
+        apply(recurring, dto, category, next);
+        return recurringExpenseRepository.save(recurring);
+    }
+    
+    /**
+     * Delete recurring expense (only if belongs to user). Generated expenses are kept.
+     */
+    public void deleteRecurringExpense(Long id, Long userId) {
+        logger.info("Deletando despesa recorrente {} do usuário {}", id, userId);
+        
+        RecurringExpense recurring = recurringExpenseRepository.findByIdAndUserId(id, userId)
+            .orElseThrow(() -> new RuntimeException("Despesa recorrente não encontrada ou não pertence ao usuário"));
+        
+        recurringExpenseRepository.delete(recurring);
+    }
+    
+    private void apply(RecurringExpense recurring, RecurringExpenseRequestDTO dto, Category category, LocalDate next) {
+        if (dto.getEndDate() != null && dto.getEndDate().isBefore(dto.getStartDate())) {
+            throw new IllegalArgumentException("Data final anterior à data inicial");
+        }
+        if (dto.getCurrency() != null && !fxRateCache.supports(dto.getCurrency())) {
+            throw new IllegalArgumentException("Moeda não suportada: " + dto.getCurrency());
+        }
+        boolean active = dto.getEndDate() == null || !next.isAfter(dto.getEndDate());
+        
+        recurring.setDescription(dto.getDescription());
+        recurring.setAmount(dto.getAmount());
+        if (dto.getCurrency() != null) {
+            recurring.setCurrency(dto.getCurrency());
+        }
+        recurring.setRule(dto.getRule().trim().toUpperCase());
+        recurring.setStartDate(dto.getStartDate());
+        recurring.setEndDate(dto.getEndDate());
+        recurring.setCategory(category);
+        recurring.setNextOccurrence(active ? next : null);
+        recurring.setActive(active);
+    }
+}
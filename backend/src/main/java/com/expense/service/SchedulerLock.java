@@ -0,0 +1,61 @@
+package com.expense.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database lease shared by all backend nodes (table scheduler_lock, one row per job).
+ * A node owns a job while locked_until is in the future; renewing is acquiring again.
+ */
+@Component
+public class SchedulerLock {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLock.class);
+    
+    private final String nodeId = hostName() + ":" + UUID.randomUUID();
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Acquire or renew the job's lease. Returns false if another node holds it.
+     */
+    public boolean tryAcquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(
+            "UPDATE scheduler_lock SET locked_until = ?, locked_by = ? "
+                + "WHERE name = ? AND (locked_until < ? OR locked_by = ?)",
+            Timestamp.valueOf(now.plus(lease)), nodeId, name, Timestamp.valueOf(now), nodeId);
+        if (updated == 0) {
+            logger.debug("Lease do job {} pertence a outro nó", name);
+        }
+        return updated == 1;
+    }
+    
+    /**
+     * Release the lease if this node holds it
+     */
+    public void release(String name) {
+        jdbcTemplate.update(
+            "UPDATE scheduler_lock SET locked_until = ? WHERE name = ? AND locked_by = ?",
+            Timestamp.valueOf(LocalDateTime.now()), name, nodeId);
+    }
+    
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
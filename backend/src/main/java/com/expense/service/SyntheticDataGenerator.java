@@ -0,0 +1,300 @@
+package com.expense.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Production-sized test data for performance work (profile "datagen"): users whose activity
+ * follows a Zipf distribution (a few heavy users, a long tail of light ones), their categories
+ * and millions of expenses with recency-skewed dates and log-normal amounts per category.
+ * Rows are written with JDBC batches, which the MySQL driver sends as multi-row INSERTs
+ * (rewriteBatchedStatements=true in the datasource URL). The same seed and end date always
+ * produce the same data. Writes bypass the outbox; caches start empty and load from the tables.
+ */
+@Component
+@Profile("datagen")
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final String INSERT_USER = "INSERT INTO user (id, name, email, password, created_at, base_currency) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String INSERT_CATEGORY = "INSERT INTO categories "
+            + "(id, name, description, color, icon, user_id, created_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    static final String INSERT_EXPENSE = "INSERT INTO expense "
+            + "(description, amount, currency, date, category_id, user_id, id, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    static final String PASSWORD = "senha123";
+
+    // Catálogo de categorias: nome, cor, ícone, valor mediano e descrições típicas
+    private static final CategoryTemplate[] CATALOG = {
+        new CategoryTemplate("Alimentação", "#FF9800", "restaurant", 38, "Almoço", "Supermercado", "Padaria", "Lanche", "Delivery"),
+        new CategoryTemplate("Transporte", "#2196F3", "directions_car", 25, "Uber", "Combustível", "Ônibus", "Estacionamento"),
+        new CategoryTemplate("Moradia", "#795548", "home", 450, "Aluguel", "Condomínio", "Manutenção"),
+        new CategoryTemplate("Contas", "#607D8B", "receipt", 140, "Energia", "Água", "Internet", "Celular"),
+        new CategoryTemplate("Saúde", "#F44336", "local_hospital", 90, "Farmácia", "Consulta", "Exame", "Plano de saúde"),
+        new CategoryTemplate("Lazer", "#9C27B0", "movie", 60, "Cinema", "Show", "Streaming", "Bar"),
+        new CategoryTemplate("Compras", "#E91E63", "shopping_cart", 120, "Roupas", "Eletrônicos", "Presente", "Casa"),
+        new CategoryTemplate("Educação", "#3F51B5", "school", 200, "Curso", "Livros", "Mensalidade"),
+        new CategoryTemplate("Viagem", "#009688", "flight", 600, "Passagem", "Hotel", "Passeio"),
+        new CategoryTemplate("Pets", "#8BC34A", "pets", 80, "Ração", "Veterinário", "Banho e tosa"),
+        new CategoryTemplate("Assinaturas", "#673AB7", "subscriptions", 35, "Música", "Vídeo", "Software"),
+        new CategoryTemplate("Outros", "#9E9E9E", "label", 50, "Diversos", "Taxa", "Doação")
+    };
+
+    private static final String[] FOREIGN_CURRENCIES = {"USD", "EUR"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${datagen.users:1000}")
+    private int users = 1000;
+
+    @Value("${datagen.expenses:1000000}")
+    private long expenses = 1_000_000;
+
+    @Value("${datagen.categories-per-user:8}")
+    private int categoriesPerUser = 8;
+
+    @Value("${datagen.months:24}")
+    private int months = 24;
+
+    @Value("${datagen.activity-skew:1.1}")
+    private double activitySkew = 1.1;
+
+    @Value("${datagen.foreign-currency-share:0.02}")
+    private double foreignCurrencyShare = 0.02;
+
+    @Value("${datagen.seed:42}")
+    private long seed = 42;
+
+    // Último dia com despesas; fixe a data para gerar exatamente os mesmos dados em outro dia
+    @Value("${datagen.until:}")
+    private String until = "";
+
+    @Value("${datagen.batch-size:5000}")
+    private int batchSize = 5000;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+    }
+
+    /**
+     * Insert the whole data set; does nothing if this seed was already generated
+     */
+    public void generate() {
+        if (categoriesPerUser < 1 || categoriesPerUser > CATALOG.length) {
+            throw new IllegalArgumentException("datagen.categories-per-user deve estar entre 1 e " + CATALOG.length);
+        }
+        String firstEmail = email(0);
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user WHERE email = ?", Integer.class, firstEmail);
+        if (existing != null && existing > 0) {
+            logger.warn("Dados da semente {} já existem ({}); nada a gerar", seed, firstEmail);
+            return;
+        }
+
+        long started = System.nanoTime();
+        LocalDate lastDay = until.isBlank() ? LocalDate.now() : LocalDate.parse(until);
+        long firstUserId = nextId("user");
+        long firstCategoryId = nextId("categories");
+        long expenseId = nextId("expense");
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] expensesPerUser = shuffle(allocate(expenses, users, activitySkew), random);
+
+        insertUsers(firstUserId, lastDay, random);
+        insertCategories(firstUserId, firstCategoryId, lastDay);
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        long written = 0;
+        for (int user = 0; user < users; user++) {
+            long userId = firstUserId + user;
+            long categoryBase = firstCategoryId + (long) user * categoriesPerUser;
+            int[] templates = categoryTemplates(new SplittableRandom(seed + user));
+            for (long i = 0; i < expensesPerUser[user]; i++) {
+                int category = zipf(categoriesPerUser, random);
+                batch.add(expense(expenseId++, userId, categoryBase + category, CATALOG[templates[category]], lastDay, random));
+                if (batch.size() == batchSize) {
+                    jdbcTemplate.batchUpdate(INSERT_EXPENSE, batch);
+                    written += batch.size();
+                    batch.clear();
+                    if (written % (batchSize * 20L) == 0) {
+                        logger.info("{} de {} despesas inseridas", written, expenses);
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EXPENSE, batch);
+            written += batch.size();
+        }
+        logger.info("Dados gerados (semente {}): {} usuários, {} categorias, {} despesas em {} s",
+            seed, users, (long) users * categoriesPerUser, written, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void insertUsers(long firstUserId, LocalDate lastDay, SplittableRandom random) {
+        // Um único hash: BCrypt é lento de propósito e todos os usuários usam a mesma senha
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int user = 0; user < users; user++) {
+            Timestamp createdAt = Timestamp.valueOf(lastDay.minusMonths(months).atStartOfDay()
+                .minusDays(random.nextInt(365)));
+            batch.add(new Object[]{firstUserId + user, "Usuário " + user, email(user), passwordHash, createdAt, "BRL"});
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_USER, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, batch);
+        }
+    }
+
+    private void insertCategories(long firstUserId, long firstCategoryId, LocalDate lastDay) {
+        Timestamp createdAt = Timestamp.valueOf(lastDay.minusMonths(months).atStartOfDay());
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int user = 0; user < users; user++) {
+            int[] templates = categoryTemplates(new SplittableRandom(seed + user));
+            for (int c = 0; c < categoriesPerUser; c++) {
+                CategoryTemplate template = CATALOG[templates[c]];
+                batch.add(new Object[]{firstCategoryId + (long) user * categoriesPerUser + c, template.name(),
+                    "Gastos com " + template.name().toLowerCase(), template.color(), template.icon(), firstUserId + user, createdAt});
+            }
+            if (batch.size() >= batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_CATEGORY, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY, batch);
+        }
+    }
+
+    /**
+     * One expense row: recent days are more likely (usage grows over time) and the amount is
+     * log-normal around the category's median
+     */
+    Object[] expense(long id, long userId, long categoryId, CategoryTemplate template, LocalDate lastDay, SplittableRandom random) {
+        int days = months * 30;
+        int daysAgo = (int) (days * Math.pow(random.nextDouble(), 1.5));
+        LocalDateTime date = lastDay.minusDays(daysAgo).atTime(7 + random.nextInt(16), random.nextInt(60));
+        double amount = template.median() * Math.exp(0.8 * gaussian(random));
+        BigDecimal value = BigDecimal.valueOf(Math.min(Math.max(amount, 1), 50_000)).setScale(2, RoundingMode.HALF_EVEN);
+        String currency = random.nextDouble() < foreignCurrencyShare
+            ? FOREIGN_CURRENCIES[random.nextInt(FOREIGN_CURRENCIES.length)] : "BRL";
+        String description = template.descriptions()[random.nextInt(template.descriptions().length)];
+        return new Object[]{description, value, currency, Timestamp.valueOf(date), categoryId, userId, id};
+    }
+
+    /**
+     * Split total expenses over users by Zipf weights (rank r gets 1/r^skew), largest first;
+     * the rounding remainder goes to the heaviest users so the sum is exact
+     */
+    static long[] allocate(long total, int users, double skew) {
+        double[] weights = new double[users];
+        double sum = 0;
+        for (int rank = 0; rank < users; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, skew);
+            sum += weights[rank];
+        }
+        long[] allocation = new long[users];
+        long assigned = 0;
+        for (int rank = 0; rank < users; rank++) {
+            allocation[rank] = (long) Math.floor(total * weights[rank] / sum);
+            assigned += allocation[rank];
+        }
+        for (int rank = 0; assigned < total; rank = (rank + 1) % users) {
+            allocation[rank]++;
+            assigned++;
+        }
+        return allocation;
+    }
+
+    // Embaralha para que a atividade não acompanhe a ordem dos ids
+    private static long[] shuffle(long[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
+    }
+
+    /**
+     * Which catalog entries a user has (first categoriesPerUser positions); the caller seeds the
+     * random per user so categories and expenses agree on it
+     */
+    private int[] categoryTemplates(SplittableRandom random) {
+        int[] indexes = new int[CATALOG.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        for (int i = 0; i < categoriesPerUser; i++) {
+            int j = i + random.nextInt(indexes.length - i);
+            int index = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = index;
+        }
+        return indexes;
+    }
+
+    // Categoria de posição r escolhida com peso 1/(r+1): poucas concentram a maioria dos gastos
+    private static int zipf(int size, SplittableRandom random) {
+        double sum = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            sum += 1.0 / rank;
+        }
+        double value = random.nextDouble() * sum;
+        for (int rank = 1; rank <= size; rank++) {
+            value -= 1.0 / rank;
+            if (value < 0) {
+                return rank - 1;
+            }
+        }
+        return size - 1;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller explícito: o algoritmo de nextGaussian do JDK pode mudar entre versões
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    // Blocos contíguos acima do maior id: os ids gerados pela aplicação (Tsid) para a mesma
+    // tabela podem alcançar o bloco, por isso a geração roda com o banco sem tráfego
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max + 1 : 1;
+    }
+
+    private String email(int user) {
+        return "datagen" + seed + "." + user + "@example.com";
+    }
+
+    record CategoryTemplate(String name, String color, String icon, double median, String... descriptions) {
+    }
+}
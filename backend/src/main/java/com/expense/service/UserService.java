@@ -1,11 +1,17 @@
 package com.expense.service;
 
+import com.expense.config.ShardContext;
+import com.expense.config.ShardDirectory;
 import com.expense.dto.request.UserRequestDTO;
+import com.expense.event.CacheInvalidator;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
 import com.expense.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,36 +27,74 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private DeletionPurger deletionPurger;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private FxRateCache fxRateCache;
+    
+    @Autowired
+    private BudgetTracker budgetTracker;
+    
+    @Autowired
+    private EmailBloomFilter emailBloomFilter;
+    
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+    
+    @Autowired(required = false)
+    private ShardDirectory shardDirectory;
+    
     /**
-     * Find all users
+     * Find all users (accounts being deleted are left out)
      */
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAll().stream()
+            .filter(user -> user.getDeletedAt() == null)
+            .toList();
     }
     
     /**
-     * Find user by ID
+     * Find user by ID (empty once the account is deleted)
      */
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userRepository.findById(id).filter(user -> user.getDeletedAt() == null);
     }
     
     /**
      * Find user by email
      */
+    @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
         User user = userRepository.findByEmail(email);
         return Optional.ofNullable(user);
     }
     
     /**
-     * Check if email exists
+     * Check if email exists (case-insensitive) with the indexed lookup; with sharding the
+     * directory is the one place to look. Registration and email changes rely on this answer.
      */
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        if (shardDirectory != null) {
+            return shardDirectory.contains(email);
+        }
+        return userRepository.existsByEmailNormalized(EmailBloomFilter.normalize(email));
+    }
+    
+    /**
+     * Availability hint for the sign-up form. The bloom filter is per process: its "no" only
+     * covers registrations this node has seen, so it answers the hint without a query but
+     * never decides a registration (existsByEmail and the unique index do).
+     */
+    @Transactional(readOnly = true)
+    public boolean isEmailAvailable(String email) {
+        return !emailBloomFilter.mightContain(email) || !existsByEmail(email);
     }
     
     /**
@@ -58,7 +102,7 @@ public class UserService {
      */
     public User createUser(UserRequestDTO userDTO) {
         // Verifica se email já existe
-        if (userRepository.findByEmail(userDTO.getEmail()) != null) {
+        if (existsByEmail(userDTO.getEmail())) {
             throw new RuntimeException("Email já cadastrado");
         }
         
@@ -66,9 +110,38 @@ public class UserService {
         user.setName(userDTO.getName());
         user.setEmail(userDTO.getEmail());
         user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        if (userDTO.getBaseCurrency() != null) {
+            user.setBaseCurrency(userDTO.getBaseCurrency());
+        }
+        checkBaseCurrency(user);
         user.setCreatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        User saved = shardDirectory != null ? insertOnShard(user) : userRepository.save(user);
+        emailBloomFilter.add(saved.getEmail());
+        return saved;
+    }
+    
+    /**
+     * Sharding: the directory allocates the id and the shard, then the user row is written
+     * there; the directory entry is undone if the insert fails
+     */
+    private User insertOnShard(User user) {
+        ShardDirectory.Entry entry;
+        try {
+            entry = shardDirectory.register(user.getEmail());
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException("Email já cadastrado");
+        }
+        user.setId(entry.userId());
+        try {
+            ShardContext.runIn(entry.shard(), () -> userRepository.insertWithId(user.getId(), user.getName(),
+                user.getEmail(), user.getPassword(), user.getBaseCurrency(), user.getCreatedAt()));
+        } catch (RuntimeException e) {
+            shardDirectory.remove(entry.userId(), user.getEmail());
+            throw e;
+        }
+        logger.info("Usuário {} criado no shard {}", user.getId(), entry.shard());
+        return user;
     }
     
     /**
@@ -78,23 +151,44 @@ public class UserService {
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        checkBaseCurrency(user);
+        User saved = userRepository.save(user);
+        emailBloomFilter.add(saved.getEmail());
+        // O email pode ter mudado: os outros nós também descartam as buscas por email
+        cacheInvalidator.userChanged(saved.getId(), true);
+        if (user.getId() != null) {
+            // A moeda base pode ter mudado: os totais de orçamento são recalculados na próxima leitura
+            budgetTracker.evict(user.getId());
+        }
+        return saved;
     }
     
     /**
-     * Update user
+     * Update user. One transaction: the user stays managed, so saving it issues a single
+     * UPDATE instead of a merge that reloads the user and cascades over all of their expenses.
      */
+    @Transactional
     public User updateUser(Long id, UserRequestDTO userDTO) {
-        User user = userRepository.findById(id)
+        User user = getUserById(id)
             .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
         
         user.setName(userDTO.getName());
         
         // Só atualiza email se for diferente e não existir
-        if (!user.getEmail().equals(userDTO.getEmail())) {
-            if (userRepository.findByEmail(userDTO.getEmail()) != null) {
+        boolean emailChanged = !user.getEmail().equals(userDTO.getEmail());
+        if (emailChanged) {
+            boolean sameAddress = EmailBloomFilter.normalize(user.getEmail())
+                .equals(EmailBloomFilter.normalize(userDTO.getEmail()));
+            if (!sameAddress && existsByEmail(userDTO.getEmail())) {
                 throw new RuntimeException("Email já cadastrado");
             }
+            if (shardDirectory != null && !sameAddress) {
+                try {
+                    shardDirectory.changeEmail(id, user.getEmail(), userDTO.getEmail());
+                } catch (DuplicateKeyException e) {
+                    throw new RuntimeException("Email já cadastrado");
+                }
+            }
             user.setEmail(userDTO.getEmail());
         }
         
@@ -103,16 +197,45 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
         
-        return userRepository.save(user);
+        if (userDTO.getBaseCurrency() != null) {
+            user.setBaseCurrency(userDTO.getBaseCurrency());
+            checkBaseCurrency(user);
+            budgetTracker.evict(id);
+        }
+        
+        User saved = userRepository.save(user);
+        emailBloomFilter.add(saved.getEmail());
+        cacheInvalidator.userChanged(id, emailChanged);
+        return saved;
     }
     
     /**
-     * Delete user
+     * Delete user: one short transaction marks the account deleted (from then on it neither
+     * authenticates nor shows up) and queues the job that purges its data in chunks.
+     * The email stays taken until the job is done.
      */
-    public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+    @Transactional
+    public DeletionJob deleteUser(Long id) {
+        if (userRepository.markDeleted(id, LocalDateTime.now()) == 0) {
             throw new RuntimeException("Usuário não encontrado");
         }
-        userRepository.deleteById(id);
+        DeletionJob job = deletionPurger.schedule(DeletionJob.Target.USER, id, id);
+        cacheInvalidator.userChanged(id, true);
+        budgetTracker.evict(id);
+        logger.info("Usuário {} marcado como removido, job de remoção {}", id, job.id());
+        return job;
+    }
+    
+    /**
+     * Latest deletion job of the user
+     */
+    public Optional<DeletionJob> getDeletionJob(Long id) {
+        return deletionPurger.findJob(DeletionJob.Target.USER, id);
+    }
+    
+    private void checkBaseCurrency(User user) {
+        if (!fxRateCache.supports(user.getBaseCurrency())) {
+            throw new RuntimeException("Moeda não suportada: " + user.getBaseCurrency());
+        }
     }
 }
\ No newline at end of file
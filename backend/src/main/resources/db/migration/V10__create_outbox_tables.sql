@@ -0,0 +1,22 @@
+-- Eventos de domínio gravados na mesma transação da alteração (transactional outbox)
+CREATE TABLE outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT,
+    user_id BIGINT NOT NULL,
+    payload TEXT,
+    created_at DATETIME(3) NOT NULL
+);
+
+CREATE INDEX idx_outbox_event_created_at ON outbox_event (created_at);
+
+-- Posição de cada consumidor durável (consumidores em memória guardam a posição no próprio nó)
+CREATE TABLE outbox_offset (
+    consumer VARCHAR(64) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at DATETIME(3) NOT NULL
+);
+
+-- Consumidores duráveis rodam em um nó por vez; a limpeza do outbox também
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('outbox-dispatch', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('outbox-purge', '1970-01-01 00:00:00', '');
@@ -0,0 +1,3 @@
+-- Controle de concorrência otimista: cada alteração incrementa a versão (ETag / If-Match)
+ALTER TABLE expense ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categories ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
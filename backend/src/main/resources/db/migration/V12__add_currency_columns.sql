@@ -0,0 +1,5 @@
+-- Multimoeda: cada despesa guarda a moeda do valor (ISO 4217) e cada usuário a moeda base
+-- em que os totais são exibidos; registros existentes ficam em BRL
+ALTER TABLE user ADD COLUMN base_currency CHAR(3) NOT NULL DEFAULT 'BRL';
+ALTER TABLE expense ADD COLUMN currency CHAR(3) NOT NULL DEFAULT 'BRL';
+ALTER TABLE recurring_expense ADD COLUMN currency CHAR(3) NOT NULL DEFAULT 'BRL';
@@ -0,0 +1,23 @@
+-- Unicidade de email sem diferenciar maiúsculas nem espaços nas pontas: coluna gerada com
+-- índice único. O índice original da coluna email continua servindo a busca do login.
+-- Contas que já colidem nessa forma (ex.: "Ana@x.com" e "ana@x.com ") impediriam o índice; a
+-- migração para antes de qualquer ALTER com a mensagem abaixo, e elas precisam ser unidas ou ter
+-- o email corrigido à mão (não há como escolher automaticamente qual conta fica). Para listá-las:
+--   SELECT LOWER(TRIM(email)), COUNT(*) FROM user GROUP BY LOWER(TRIM(email)) HAVING COUNT(*) > 1;
+DROP PROCEDURE IF EXISTS v13_check_duplicate_emails;
+
+DELIMITER //
+CREATE PROCEDURE v13_check_duplicate_emails()
+BEGIN
+    IF EXISTS (SELECT 1 FROM user GROUP BY LOWER(TRIM(email)) HAVING COUNT(*) > 1) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'V13: usuarios com o mesmo email sem diferenciar maiusculas; corrija-os (consulta no cabecalho)';
+    END IF;
+END //
+DELIMITER ;
+
+CALL v13_check_duplicate_emails();
+DROP PROCEDURE v13_check_duplicate_emails;
+
+ALTER TABLE user ADD COLUMN email_normalized VARCHAR(100) AS (LOWER(TRIM(email))) STORED;
+ALTER TABLE user ADD UNIQUE INDEX uk_user_email_normalized (email_normalized);
@@ -0,0 +1,11 @@
+-- Diretório de usuários para o modo com shards (sharding.enabled): email normalizado -> id e shard.
+-- Só é usado na base do primeiro shard, que aloca os ids (únicos entre os shards); nos demais fica vazio.
+-- Usuários anteriores aos shards são copiados na inicialização com shard nulo (ficam no primeiro).
+CREATE TABLE user_directory (
+    user_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email_normalized VARCHAR(100) NOT NULL,
+    shard VARCHAR(64) NULL,
+    created_at DATETIME NOT NULL,
+    UNIQUE INDEX uk_user_directory_email (email_normalized)
+);
+
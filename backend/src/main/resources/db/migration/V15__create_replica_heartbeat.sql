@@ -0,0 +1,7 @@
+-- Batimento gravado no primário e lido nas réplicas: a diferença é o atraso de replicação
+CREATE TABLE replica_heartbeat (
+    id TINYINT PRIMARY KEY,
+    beat DATETIME(3) NOT NULL
+);
+
+INSERT INTO replica_heartbeat (id, beat) VALUES (1, CURRENT_TIMESTAMP(3));
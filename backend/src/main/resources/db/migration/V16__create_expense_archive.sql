@@ -0,0 +1,25 @@
+-- Despesas mais antigas que o horizonte de retenção saem da tabela quente e vêm para cá.
+-- Mesmas colunas de expense (os ids são preservados) e compressão de página: a tabela só
+-- recebe inserções em lote do job e leituras por usuário e período.
+CREATE TABLE expense_archive (
+    id BIGINT PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    currency CHAR(3) NOT NULL DEFAULT 'BRL',
+    date DATETIME NOT NULL,
+    category_id BIGINT,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME,
+    recurring_expense_id BIGINT NULL,
+    occurrence_date DATE NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at DATETIME NOT NULL
+) ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8;
+
+CREATE INDEX idx_expense_archive_user_date ON expense_archive (user_id, date, id);
+CREATE INDEX idx_expense_archive_user_category_date ON expense_archive (user_id, category_id, date, id);
+
+-- O job de arquivamento seleciona por data sem filtro de usuário
+CREATE INDEX idx_expense_date ON expense (date, id);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('expense-archive', '1970-01-01 00:00:00', '');
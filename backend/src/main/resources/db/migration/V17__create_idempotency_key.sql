@@ -0,0 +1,17 @@
+-- Respostas de POST com cabeçalho Idempotency-Key, por usuário autenticado (login e cadastro não são guardados).
+-- status NULL: requisição em andamento; a linha é removida pela limpeza depois do TTL.
+CREATE TABLE idempotency_key (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status SMALLINT NULL,
+    content_type VARCHAR(100) NULL,
+    location VARCHAR(255) NULL,
+    body MEDIUMBLOB NULL,
+    created_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_key_created_at ON idempotency_key (created_at);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('idempotency-purge', '1970-01-01 00:00:00', '');
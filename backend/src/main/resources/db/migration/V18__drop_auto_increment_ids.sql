@@ -0,0 +1,14 @@
+-- Ids de usuários, categorias e despesas passam a ser gerados pela aplicação (Tsid: 53 bits
+-- ordenados pelo tempo), o que permite inserções em lote e criação offline no cliente.
+-- As linhas existentes mantêm seus ids inteiros pequenos: são menores que qualquer Tsid, então a
+-- ordem se mantém, e Tsid.isValid (que só confere ids enviados pelo app na criação) continua
+-- aceitando parte dessa faixa; um id antigo reenviado cai no caminho de id já usado.
+-- As colunas são referenciadas por chaves estrangeiras; o tipo não muda, só sai o AUTO_INCREMENT.
+-- As verificações de chave estrangeira ficam desligadas só durante os ALTER e voltam no fim.
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE user MODIFY id BIGINT NOT NULL;
+ALTER TABLE categories MODIFY id BIGINT NOT NULL;
+ALTER TABLE expense MODIFY id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,14 @@
+-- Invalidações do cache de segundo nível entre nós (cache.invalidation.channel=jdbc): cada escrita em
+-- categoria ou usuário grava uma linha na mesma transação e todos os nós leem as linhas recentes.
+-- Linhas mais antigas que a retenção são removidas pela limpeza.
+CREATE TABLE cache_invalidation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    node VARCHAR(64) NOT NULL,
+    target VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at DATETIME(3) NOT NULL
+);
+
+CREATE INDEX idx_cache_invalidation_created_at ON cache_invalidation (created_at);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('cache-invalidation-purge', '1970-01-01 00:00:00', '');
@@ -0,0 +1,12 @@
+-- Nome de categoria único por usuário: a criação passa a ser um INSERT ... ON DUPLICATE KEY, sem
+-- verificação prévia. Duplicatas já existentes ficam com o id no nome (a mais antiga mantém o nome).
+UPDATE categories c
+JOIN (
+    SELECT user_id, name, MIN(id) AS keep_id
+    FROM categories
+    GROUP BY user_id, name
+    HAVING COUNT(*) > 1
+) d ON c.user_id = d.user_id AND c.name = d.name AND c.id <> d.keep_id
+SET c.name = CONCAT(LEFT(c.name, 78), ' (', c.id, ')');
+
+ALTER TABLE categories ADD UNIQUE INDEX uk_categories_user_name (user_id, name);
@@ -0,0 +1,32 @@
+-- Remoção assíncrona de contas e categorias: a remoção só marca a linha (deleted_at), que some das
+-- consultas na hora, e enfileira um deletion_job na mesma transação. O job apaga as despesas em
+-- chunks (keyset por date, id) e por fim as linhas restantes; cursor e progresso ficam no job.
+ALTER TABLE user ADD COLUMN deleted_at DATETIME NULL;
+ALTER TABLE categories ADD COLUMN deleted_at DATETIME NULL;
+
+-- O nome só ocupa o índice único enquanto a categoria não foi removida: o usuário pode criar outra
+-- com o mesmo nome antes de o job terminar
+ALTER TABLE categories ADD COLUMN active_name VARCHAR(100) AS (IF(deleted_at IS NULL, name, NULL)) STORED;
+ALTER TABLE categories DROP INDEX uk_categories_user_name,
+    ADD UNIQUE INDEX uk_categories_user_name (user_id, active_name);
+
+CREATE TABLE deletion_job (
+    id BIGINT PRIMARY KEY,
+    target VARCHAR(20) NOT NULL,
+    target_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    purged_rows BIGINT NOT NULL DEFAULT 0,
+    cursor_date DATETIME NULL,
+    cursor_id BIGINT NULL,
+    last_error VARCHAR(255) NULL,
+    created_at DATETIME(3) NOT NULL,
+    updated_at DATETIME(3) NOT NULL,
+    finished_at DATETIME(3) NULL
+);
+
+CREATE INDEX idx_deletion_job_status ON deletion_job (status, id);
+CREATE INDEX idx_deletion_job_target ON deletion_job (target, target_id);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('deletion-purge', '1970-01-01 00:00:00', '');
@@ -0,0 +1,2 @@
+-- Full-text index used by /api/expenses/search (MATCH ... AGAINST)
+ALTER TABLE expense ADD FULLTEXT INDEX ft_expense_description (description);
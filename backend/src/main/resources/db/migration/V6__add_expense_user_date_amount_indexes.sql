@@ -0,0 +1,3 @@
+-- Índices compostos para filtros e paginação por cursor (keyset) nas despesas do usuário
+CREATE INDEX idx_expense_user_date ON expense (user_id, date, id);
+CREATE INDEX idx_expense_user_amount ON expense (user_id, amount, id);
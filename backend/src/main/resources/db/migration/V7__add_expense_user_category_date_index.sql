@@ -0,0 +1,2 @@
+-- Índice para listar as despesas de uma categoria já restritas ao dono
+CREATE INDEX idx_expense_user_category_date ON expense (user_id, category_id, date, id);
@@ -0,0 +1,10 @@
+CREATE TABLE budget (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    amount_limit DECIMAL(10, 2) NOT NULL,
+    category_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_budget_user_category UNIQUE (user_id, category_id),
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES user(id)
+);
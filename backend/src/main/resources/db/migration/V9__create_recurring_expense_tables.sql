@@ -0,0 +1,35 @@
+CREATE TABLE recurring_expense (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    description VARCHAR(255),
+    amount DECIMAL(10, 2) NOT NULL,
+    rule VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    next_occurrence DATE,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    category_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES user(id)
+);
+
+-- O job varre apenas as definições vencidas, em ordem de id
+CREATE INDEX idx_recurring_due ON recurring_expense (active, next_occurrence, id);
+CREATE INDEX idx_recurring_user ON recurring_expense (user_id);
+
+-- Cada ocorrência vira no máximo uma despesa (INSERT IGNORE torna o job idempotente)
+ALTER TABLE expense
+    ADD COLUMN recurring_expense_id BIGINT NULL,
+    ADD COLUMN occurrence_date DATE NULL,
+    ADD CONSTRAINT uk_expense_recurring_occurrence UNIQUE (recurring_expense_id, occurrence_date),
+    ADD CONSTRAINT fk_expense_recurring FOREIGN KEY (recurring_expense_id) REFERENCES recurring_expense(id) ON DELETE SET NULL;
+
+-- Lease para que só um nó execute cada job por vez
+CREATE TABLE scheduler_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until DATETIME NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('recurring-expenses', '1970-01-01 00:00:00', '');
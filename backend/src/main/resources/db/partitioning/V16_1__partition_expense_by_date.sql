@@ -0,0 +1,24 @@
+-- Particionamento de expense por mês (RANGE COLUMNS na data). Opcional: só roda com
+-- classpath:db/partitioning em spring.flyway.locations (e spring.flyway.out-of-order=true
+-- se migrações posteriores já foram aplicadas). O job ExpenseArchiver divide p_future em
+-- partições mensais à frente da data atual.
+--
+-- Restrições do MySQL para tabelas particionadas: sem chaves estrangeiras nem índice
+-- FULLTEXT, e toda chave única precisa conter a coluna de particionamento. A integridade
+-- com usuário, categoria e recorrência passa a ser garantida só pela aplicação, e a busca
+-- por descrição precisa usar expense.search.engine=like ou memory.
+ALTER TABLE expense DROP FOREIGN KEY expense_ibfk_1;
+ALTER TABLE expense DROP FOREIGN KEY expense_ibfk_2;
+ALTER TABLE expense DROP FOREIGN KEY fk_expense_recurring;
+ALTER TABLE expense DROP INDEX ft_expense_description;
+
+ALTER TABLE expense
+    DROP INDEX uk_expense_recurring_occurrence,
+    ADD CONSTRAINT uk_expense_recurring_occurrence UNIQUE (recurring_expense_id, occurrence_date, date);
+
+ALTER TABLE expense DROP PRIMARY KEY, ADD PRIMARY KEY (id, date);
+
+ALTER TABLE expense PARTITION BY RANGE COLUMNS (date) (
+    PARTITION p_start VALUES LESS THAN ('2025-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
@@ -0,0 +1,63 @@
+package com.expense.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int USERS = 100_000;
+
+    @Test
+    void shardFor_ShouldSpreadSequentialIdsEvenly() {
+        // Arrange
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("s0", "s1", "s2"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // Act
+        for (long id = 1; id <= USERS; id++) {
+            counts.merge(ring.shardFor(id), 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(3, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - USERS / 3.0) < USERS / 3.0 * 0.15, "distribuição desigual: " + counts);
+        }
+    }
+
+    @Test
+    void shardFor_WhenShardAdded_ShouldMoveOnlyAboutOneQuarterToIt() {
+        // Arrange
+        ConsistentHashRing before = new ConsistentHashRing(List.of("s0", "s1", "s2"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("s0", "s1", "s2", "s3"), 128);
+        int moved = 0;
+
+        // Act
+        for (long id = 1; id <= USERS; id++) {
+            String from = before.shardFor(id);
+            String to = after.shardFor(id);
+            if (!from.equals(to)) {
+                assertEquals("s3", to, "usuário movido entre shards antigos");
+                moved++;
+            }
+        }
+
+        // Assert
+        assertTrue(moved > USERS * 0.18 && moved < USERS * 0.32, "movidos: " + moved);
+    }
+
+    @Test
+    void shardFor_ShouldBeStableAcrossInstances() {
+        ConsistentHashRing first = new ConsistentHashRing(List.of("s0", "s1"), 64);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("s0", "s1"), 64);
+
+        for (long id = 1; id <= 1000; id++) {
+            assertEquals(first.shardFor(id), second.shardFor(id));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.expense.config;
+
+import com.expense.dto.request.UserRequestDTO;
+import com.expense.model.User;
+import com.expense.repository.UserRepository;
+import com.expense.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads served by a replica must not fill the second-level cache. The "replica" is the primary
+ * database itself, so it is always fresh and every read-only transaction goes to it.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReplicaCacheIntegrationTest.URL,
+    "replica.enabled=true",
+    "replica.urls=" + ReplicaCacheIntegrationTest.URL
+})
+@ActiveProfiles("stats-h2")
+class ReplicaCacheIntegrationTest {
+
+    static final String URL = "jdbc:h2:mem:replica-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findByEmail_FromReplica_ShouldReadButNotFillCache() {
+        // Arrange
+        User user = userService.createUser(new UserRequestDTO("Réplica", "replica-cache@example.com", "senha123"));
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Cache cache = sessionFactory.getCache();
+        Statistics statistics = sessionFactory.getStatistics();
+        cache.evictAllRegions();
+        replicaLagMonitor.check();
+        statistics.clear();
+
+        // Act: a busca da autenticação, em transação somente leitura, vai para a réplica
+        User found = userRepository.findByEmail("replica-cache@example.com");
+
+        // Assert
+        assertEquals(user.getId(), found.getId());
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        assertFalse(cache.containsEntity(User.class, user.getId()));
+
+        // A mesma leitura no primário não acha a resolução email -> id no cache e preenche o cache
+        statistics.clear();
+        ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByEmail("replica-cache@example.com"));
+        assertEquals(0, statistics.getNaturalIdCacheHitCount());
+        assertTrue(statistics.getNaturalIdCachePutCount() > 0);
+        assertTrue(cache.containsEntity(User.class, user.getId()));
+    }
+}
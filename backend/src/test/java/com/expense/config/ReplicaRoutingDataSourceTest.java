@@ -0,0 +1,167 @@
+package com.expense.config;
+
+import com.expense.security.AuthenticatedUser;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String REPLICA = "primary-replica-0";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000_000L);
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primary = h2("replica-test-primary");
+        JdbcDataSource replica = h2("replica-test-replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        for (JdbcTemplate jdbc : List.of(primaryJdbc, replicaJdbc)) {
+            jdbc.execute("CREATE TABLE replica_heartbeat (id TINYINT PRIMARY KEY, beat DATETIME(3) NOT NULL)");
+            jdbc.update("INSERT INTO replica_heartbeat (id, beat) VALUES (1, ?)", Timestamp.valueOf("2024-01-01 12:00:00"));
+        }
+        router = new ReplicaRoutingDataSource("primary", primary, List.of(replica),
+            Duration.ofSeconds(2), Duration.ofSeconds(5), clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    /**
+     * A réplica aplica tudo o que o primário tem
+     */
+    private void replicate() {
+        Timestamp beat = primaryJdbc.queryForObject(ReplicaRoutingDataSource.READ_BEAT, Timestamp.class);
+        replicaJdbc.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", beat);
+    }
+
+    private void inTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void authenticate(long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "Ana", "ana@example.com", "hash");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    void readOnlyTransaction_WithFreshReplica_ShouldUseReplica() {
+        // Arrange
+        router.checkLag();
+        inTransaction(true);
+
+        // Act & Assert
+        assertEquals(REPLICA, router.determineCurrentLookupKey());
+        assertEquals(0L, router.lagMillis().get(REPLICA));
+    }
+
+    @Test
+    void writesAndNonTransactionalReads_ShouldUsePrimary() {
+        router.checkLag();
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, router.determineCurrentLookupKey());
+        inTransaction(false);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, router.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_BeforeAnyCheck_ShouldUsePrimary() {
+        inTransaction(true);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, router.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaLagsBehind_ShouldFallBackToPrimary() {
+        // Arrange: o primário gravou batimentos que a réplica ainda não recebeu
+        router.checkLag();
+        primaryJdbc.update("UPDATE replica_heartbeat SET beat = ? WHERE id = 1", Timestamp.valueOf("2024-01-01 12:00:05"));
+        router.checkLag();
+        inTransaction(true);
+
+        // Act & Assert
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, router.determineCurrentLookupKey());
+        assertEquals(5000L, router.lagMillis().get(REPLICA));
+
+        // A réplica alcança o primário
+        replicate();
+        router.checkLag();
+        assertEquals(REPLICA, router.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_OnPrimary_ShouldSkipFreshReplica() {
+        // Arrange
+        router.checkLag();
+        inTransaction(true);
+
+        // Act & Assert
+        assertEquals(ReplicaRoutingDataSource.PRIMARY,
+            ReplicaRoutingDataSource.onPrimary(() -> router.determineCurrentLookupKey()));
+        assertEquals(REPLICA, router.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_WhenLastCheckIsStale_ShouldFallBackToPrimary() {
+        router.checkLag();
+        inTransaction(true);
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, router.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readsAfterOwnWrite_ShouldStayOnPrimaryForStickyWindow() {
+        // Arrange
+        router.checkLag();
+        authenticate(7L);
+        inTransaction(false);
+        router.determineCurrentLookupKey();
+
+        // Act & Assert: mesmo usuário logo depois da escrita
+        inTransaction(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, router.determineCurrentLookupKey());
+
+        // Outro usuário lê da réplica
+        authenticate(8L);
+        assertEquals(REPLICA, router.determineCurrentLookupKey());
+
+        // Passada a janela, o usuário volta para a réplica
+        authenticate(7L);
+        clock.addAndGet(Duration.ofSeconds(6).toNanos());
+        replicate();
+        router.checkLag();
+        assertEquals(REPLICA, router.determineCurrentLookupKey());
+    }
+}
@@ -0,0 +1,108 @@
+package com.expense.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sharding de ponta a ponta em três bases H2 (application-sharding-h2.properties):
+ * cadastro, login e escrita pela API caem no shard do usuário
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("sharding-h2")
+class ShardingIntegrationTest {
+
+    private static final int USERS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Test
+    void usersAndTheirData_ShouldLiveOnlyOnTheirShard() throws Exception {
+        Set<String> usedShards = new HashSet<>();
+        for (int i = 0; i < USERS; i++) {
+            // Arrange
+            String email = "shard" + i + "@example.com";
+            mockMvc.perform(post("/api/auth/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of(
+                        "name", "Usuário " + i, "email", email, "password", "senha123"))))
+                .andExpect(status().isCreated());
+
+            // Act
+            JsonNode login = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("email", email, "password", "senha123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+            String token = "Bearer " + login.path("token").asText();
+            long userId = login.path("userId").asLong();
+            mockMvc.perform(post("/api/categories")
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(Map.of("name", "Mercado " + i, "color", "#4CAF50"))))
+                .andExpect(status().isCreated());
+
+            // Assert
+            String shard = shardDirectory.findByEmail(email).orElseThrow().shard();
+            assertEquals(shardDirectory.placementOf(userId), shard);
+            usedShards.add(shard);
+            for (Map.Entry<String, DataSource> target : shardRoutingDataSource.getShards().entrySet()) {
+                JdbcTemplate jdbc = new JdbcTemplate(target.getValue());
+                int expected = target.getKey().equals(shard) ? 1 : 0;
+                assertEquals(expected, jdbc.queryForObject("SELECT COUNT(*) FROM user WHERE id = ?", Integer.class, userId));
+                assertEquals(expected, jdbc.queryForObject("SELECT COUNT(*) FROM categories WHERE user_id = ?", Integer.class, userId));
+            }
+            mockMvc.perform(get("/api/categories").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Mercado " + i)))
+                .andExpect(content().string(not(containsString("Mercado " + (i + 1)))));
+        }
+        assertTrue(usedShards.size() > 1, "todos os usuários no mesmo shard");
+    }
+
+    @Test
+    void register_WithEmailTakenOnAnotherShard_ShouldBeRejected() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("name", "Ana", "email", "ana@example.com", "password", "senha123"));
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content(body.replace("ana@example.com", " ANA@example.com")))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/check-email/{email}", "Ana@Example.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.available").value(false));
+    }
+}
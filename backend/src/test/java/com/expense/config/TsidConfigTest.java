@@ -0,0 +1,61 @@
+package com.expense.config;
+
+import com.expense.model.Tsid;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TsidConfigTest {
+
+    @AfterEach
+    void tearDown() {
+        Tsid.setNodeCount(Tsid.FIRST_CLIENT_NODE);
+        Tsid.setNode(0);
+    }
+
+    private static TsidConfig config(int node, int nodeCount, boolean sharding) {
+        TsidConfig config = new TsidConfig();
+        ReflectionTestUtils.setField(config, "node", node);
+        ReflectionTestUtils.setField(config, "nodeCount", nodeCount);
+        ReflectionTestUtils.setField(config, "sharding", sharding);
+        return config;
+    }
+
+    @Test
+    void init_WithoutNodeOnSingleInstance_ShouldUseNodeZero() {
+        Tsid.setNode(3);
+
+        config(-1, 1, false).init();
+
+        assertEquals(0, Tsid.getNode());
+    }
+
+    @Test
+    void init_WithoutNodeWithSeveralNodes_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> config(-1, 4, false).init());
+    }
+
+    @Test
+    void init_WithoutNodeWithSharding_ShouldFailStartup() {
+        assertThrows(IllegalStateException.class, () -> config(-1, 1, true).init());
+    }
+
+    @Test
+    void init_WithNodeOutsideCount_ShouldFailStartup() {
+        assertThrows(IllegalArgumentException.class, () -> config(4, 4, false).init());
+    }
+
+    @Test
+    void init_WithNodeCountReachingClientNodes_ShouldFailStartup() {
+        assertThrows(IllegalArgumentException.class, () -> config(0, Tsid.FIRST_CLIENT_NODE + 1, false).init());
+    }
+
+    @Test
+    void init_WithNode_ShouldUseIt() {
+        config(2, 4, false).init();
+
+        assertEquals(2, Tsid.getNode());
+    }
+}
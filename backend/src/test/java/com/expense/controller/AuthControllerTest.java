@@ -0,0 +1,92 @@
+package com.expense.controller;
+
+import com.expense.dto.request.LoginRequestDTO;
+import com.expense.security.AuthenticatedUser;
+import com.expense.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = AuthController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private AuthenticationManager authenticationManager;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private com.expense.security.JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private com.expense.security.UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private com.expense.repository.UserRepository userRepository;
+
+    @Test
+    void login_WithValidCredentials_ShouldUseAuthenticatedPrincipal() throws Exception {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "Test User", "test@example.com", "$2a$10$hash");
+        when(authenticationManager.authenticate(any()))
+            .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+        when(jwtTokenProvider.generateToken("test@example.com")).thenReturn("jwt-token");
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequestDTO("test@example.com", "password123"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt-token"))
+                .andExpect(jsonPath("$.userId").value(1))
+                .andExpect(jsonPath("$.name").value("Test User"))
+                .andExpect(jsonPath("$._links.user.href").value("http://localhost/api/users/1"))
+                .andExpect(jsonPath("$._links.categories.href").value("http://localhost/api/categories"));
+
+        // O usuário já vem no principal: nenhuma nova consulta
+        verify(userService, never()).findByEmail(anyString());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void login_WithInvalidCredentials_ShouldReturnUnauthorized() throws Exception {
+        // Arrange
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequestDTO("test@example.com", "wrong"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Credenciais inválidas"));
+
+        verify(jwtTokenProvider, never()).generateToken(anyString());
+    }
+}
@@ -0,0 +1,164 @@
+package com.expense.controller;
+
+import com.expense.dto.request.BudgetRequestDTO;
+import com.expense.dto.response.BudgetResponseDTO;
+import com.expense.mapper.BudgetMapper;
+import com.expense.model.Budget;
+import com.expense.model.Category;
+import com.expense.model.User;
+import com.expense.model.hateoas.BudgetModel;
+import com.expense.service.BudgetService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = BudgetController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@WithMockUser(username = "test@example.com")
+class BudgetControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BudgetService budgetService;
+
+    @MockBean
+    private BudgetMapper budgetMapper;
+
+    @MockBean
+    private com.expense.security.JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private com.expense.security.UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private com.expense.repository.UserRepository userRepository;
+
+    @MockBean
+    private com.expense.assembler.BudgetModelAssembler budgetModelAssembler;
+
+    private Budget budget;
+    private BudgetRequestDTO requestDTO;
+    private BudgetResponseDTO responseDTO;
+
+    @BeforeEach
+    void setUp() {
+        // Setup mock user
+        User mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setEmail("test@example.com");
+        when(userRepository.findByEmail(anyString())).thenReturn(mockUser);
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Food");
+
+        budget = new Budget(new BigDecimal("500.00"), category, mockUser);
+        budget.setId(1L);
+
+        requestDTO = new BudgetRequestDTO(1L, new BigDecimal("500.00"));
+        responseDTO = new BudgetResponseDTO(1L, 1L, "Food", new BigDecimal("500.00"), new BigDecimal("120.00"));
+
+        // Setup BudgetModel (HATEOAS)
+        BudgetModel budgetModel = new BudgetModel(1L, 1L, "Food", new BigDecimal("500.00"), new BigDecimal("120.00"));
+        budgetModel.add(Link.of("/api/budgets/1", "self"));
+
+        when(budgetService.getSpent(eq(1L), any(Budget.class))).thenReturn(new BigDecimal("120.00"));
+        when(budgetMapper.toResponseDTO(any(Budget.class), any(BigDecimal.class))).thenReturn(responseDTO);
+        when(budgetModelAssembler.toModel(any(BudgetResponseDTO.class))).thenReturn(budgetModel);
+    }
+
+    @Test
+    void getAllBudgets_ShouldReturnBudgetListWithSpending() throws Exception {
+        // Arrange
+        when(budgetService.getAllBudgets(1L)).thenReturn(Arrays.asList(budget));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/budgets")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.budgetModelList[0].id").value(1))
+                .andExpect(jsonPath("$._embedded.budgetModelList[0].spent").value(120.00));
+
+        verify(budgetService, times(1)).getAllBudgets(1L);
+    }
+
+    @Test
+    void getBudgetById_WhenBudgetDoesNotExist_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(budgetService.getBudgetById(999L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/budgets/999")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createBudget_WithValidData_ShouldReturnCreatedBudget() throws Exception {
+        // Arrange
+        when(budgetService.createBudget(any(BudgetRequestDTO.class), eq(1L))).thenReturn(budget);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/budgets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.limitAmount").value(500.00));
+
+        verify(budgetService, times(1)).createBudget(any(BudgetRequestDTO.class), eq(1L));
+    }
+
+    @Test
+    void createBudget_WithInvalidData_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        BudgetRequestDTO invalidDTO = new BudgetRequestDTO(1L, new BigDecimal("-10.00"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/budgets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidDTO)))
+                .andExpect(status().isBadRequest());
+
+        verify(budgetService, never()).createBudget(any(BudgetRequestDTO.class), anyLong());
+    }
+
+    @Test
+    void deleteBudget_WhenBudgetDoesNotExist_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        doThrow(new RuntimeException("Orçamento não encontrado ou não pertence ao usuário"))
+            .when(budgetService).deleteBudget(999L, 1L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/budgets/999")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -4,9 +4,11 @@ import com.expense.dto.request.CategoryRequestDTO;
 import com.expense.dto.response.CategoryResponseDTO;
 import com.expense.mapper.CategoryMapper;
 import com.expense.model.Category;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
 import com.expense.model.hateoas.CategoryModel;
 import com.expense.service.CategoryService;
+import com.expense.service.IdConflictException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +16,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.hateoas.Link;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -54,6 +58,9 @@ class CategoryControllerTest {
     @MockBean
     private com.expense.security.UserDetailsServiceImpl userDetailsService;
 
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
     @MockBean
     private com.expense.repository.UserRepository userRepository;
 
@@ -184,10 +191,23 @@ class CategoryControllerTest {
         verify(categoryService, never()).createCategory(any(CategoryRequestDTO.class), anyLong());
     }
 
+    @Test
+    void createCategory_WithIdOfAnotherUser_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(categoryService.createCategory(any(CategoryRequestDTO.class), eq(1L)))
+            .thenThrow(new IdConflictException("Id de categoria já usado"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/categories")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void updateCategory_WhenCategoryExists_ShouldReturnUpdatedCategory() throws Exception {
         // Arrange
-        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class), eq(1L))).thenReturn(category);
+        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class), eq(1L), isNull())).thenReturn(category);
         when(categoryMapper.toResponseDTO(any(Category.class))).thenReturn(responseDTO);
 
         // Act & Assert
@@ -198,13 +218,26 @@ class CategoryControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("Food"));
 
-        verify(categoryService, times(1)).updateCategory(eq(1L), any(CategoryRequestDTO.class), eq(1L));
+        verify(categoryService, times(1)).updateCategory(eq(1L), any(CategoryRequestDTO.class), eq(1L), isNull());
+    }
+
+    @Test
+    void updateCategory_WithNameOfAnotherCategory_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(categoryService.updateCategory(eq(1L), any(CategoryRequestDTO.class), eq(1L), isNull()))
+            .thenThrow(new DataIntegrityViolationException("uk_categories_user_name"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/categories/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict());
     }
 
     @Test
     void updateCategory_WhenCategoryDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(categoryService.updateCategory(eq(999L), any(CategoryRequestDTO.class), eq(1L)))
+        when(categoryService.updateCategory(eq(999L), any(CategoryRequestDTO.class), eq(1L), isNull()))
             .thenThrow(new RuntimeException("Category not found"));
 
         // Act & Assert
@@ -213,22 +246,50 @@ class CategoryControllerTest {
                 .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isNotFound());
 
-        verify(categoryService, times(1)).updateCategory(eq(999L), any(CategoryRequestDTO.class), eq(1L));
+        verify(categoryService, times(1)).updateCategory(eq(999L), any(CategoryRequestDTO.class), eq(1L), isNull());
     }
 
     @Test
-    void deleteCategory_WhenCategoryExists_ShouldReturnNoContent() throws Exception {
+    void deleteCategory_WhenCategoryExists_ShouldReturnAcceptedWithJob() throws Exception {
         // Arrange
-        doNothing().when(categoryService).deleteCategory(1L, 1L);
+        when(categoryService.deleteCategory(1L, 1L)).thenReturn(new DeletionJob(10L, DeletionJob.Target.CATEGORY,
+            1L, 1L, DeletionJob.Status.PENDING, 0, LocalDateTime.now(), LocalDateTime.now(), null));
 
         // Act & Assert
         mockMvc.perform(delete("/api/categories/1")
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", org.hamcrest.Matchers.endsWith("/api/categories/1/deletion")))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$._links.self.href").exists());
 
         verify(categoryService, times(1)).deleteCategory(1L, 1L);
     }
 
+    @Test
+    void getCategoryDeletion_ShouldReturnProgress() throws Exception {
+        // Arrange
+        when(categoryService.getDeletionJob(1L, 1L)).thenReturn(Optional.of(new DeletionJob(10L,
+            DeletionJob.Target.CATEGORY, 1L, 1L, DeletionJob.Status.RUNNING, 3000, LocalDateTime.now(),
+            LocalDateTime.now(), null)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/categories/1/deletion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.purgedRows").value(3000));
+    }
+
+    @Test
+    void getCategoryDeletion_WithoutJob_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(categoryService.getDeletionJob(2L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/categories/2/deletion"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void deleteCategory_WhenCategoryDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -0,0 +1,154 @@
+package com.expense.controller;
+
+import com.expense.dto.response.CategoryResponseDTO;
+import com.expense.dto.response.ExpenseResponseDTO;
+import com.expense.dto.response.GraficoResponseDTO;
+import com.expense.mapper.CategoryMapper;
+import com.expense.mapper.ExpenseMapper;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import com.expense.model.User;
+import com.expense.model.hateoas.CategoryModel;
+import com.expense.model.hateoas.ExpenseModel;
+import com.expense.service.Dashboard;
+import com.expense.service.DashboardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = DashboardController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@WithMockUser(username = "test@example.com")
+class DashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DashboardService dashboardService;
+
+    @MockBean
+    private ExpenseMapper expenseMapper;
+
+    @MockBean
+    private CategoryMapper categoryMapper;
+
+    @MockBean
+    private com.expense.assembler.ExpenseModelAssembler expenseModelAssembler;
+
+    @MockBean
+    private com.expense.assembler.CategoryModelAssembler categoryModelAssembler;
+
+    @MockBean
+    private com.expense.security.JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private com.expense.security.UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private com.expense.repository.UserRepository userRepository;
+
+    private Category category;
+    private Expense expense;
+    private List<GraficoResponseDTO> categoryTotals;
+
+    @BeforeEach
+    void setUp() {
+        User mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setEmail("test@example.com");
+        mockUser.setBaseCurrency("BRL");
+        when(userRepository.findByEmail(anyString())).thenReturn(mockUser);
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Food");
+
+        expense = new Expense();
+        expense.setId(10L);
+        expense.setAmount(new BigDecimal("100.00"));
+
+        categoryTotals = List.of(new GraficoResponseDTO("Food", new BigDecimal("100.00"), 1L, 100.0));
+
+        CategoryResponseDTO categoryDTO = new CategoryResponseDTO();
+        categoryDTO.setId(1L);
+        categoryDTO.setName("Food");
+        when(categoryMapper.toResponseDTO(any(Category.class))).thenReturn(categoryDTO);
+        when(categoryModelAssembler.toModel(any(CategoryResponseDTO.class)))
+            .thenReturn(new CategoryModel(1L, "Food", null, null, null));
+
+        ExpenseResponseDTO expenseDTO = new ExpenseResponseDTO();
+        expenseDTO.setId(10L);
+        when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(expenseDTO);
+        when(expenseModelAssembler.toModel(any(ExpenseResponseDTO.class)))
+            .thenReturn(new ExpenseModel(10L, new BigDecimal("100.00"), "Lunch", LocalDate.of(2026, 10, 1),
+                1L, "Test User", 1L, "Food"));
+    }
+
+    @Test
+    void getDashboard_ShouldReturnEveryPartInOneResponse() throws Exception {
+        // Arrange
+        when(dashboardService.getDashboard(eq(1L), any(YearMonth.class))).thenReturn(
+            new Dashboard(YearMonth.of(2026, 10), categoryTotals, List.of(expense), List.of(category), List.of()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.month").value("2026-10"))
+                .andExpect(jsonPath("$.currency").value("BRL"))
+                .andExpect(jsonPath("$.monthTotal").value(100.00))
+                .andExpect(jsonPath("$.categoryTotals[0].categoryName").value("Food"))
+                .andExpect(jsonPath("$.recentExpenses[0].id").value(10))
+                .andExpect(jsonPath("$.categories[0].name").value("Food"))
+                .andExpect(jsonPath("$.missing").doesNotExist())
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    void getDashboard_WhenPartTimesOut_ShouldReturnPartialResponse() throws Exception {
+        // Arrange
+        when(dashboardService.getDashboard(eq(1L), any(YearMonth.class))).thenReturn(
+            new Dashboard(YearMonth.of(2026, 10), null, List.of(expense), List.of(category),
+                List.of(DashboardService.CATEGORY_TOTALS)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.missing[0]").value("categoryTotals"))
+                .andExpect(jsonPath("$.monthTotal").doesNotExist())
+                .andExpect(jsonPath("$.categoryTotals").doesNotExist())
+                .andExpect(jsonPath("$.recentExpenses[0].id").value(10));
+    }
+
+    @Test
+    void getDashboard_WhenNothingLoads_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(dashboardService.getDashboard(eq(1L), any(YearMonth.class))).thenReturn(
+            new Dashboard(YearMonth.of(2026, 10), null, null, null, List.of(DashboardService.CATEGORY_TOTALS,
+                DashboardService.RECENT_EXPENSES, DashboardService.CATEGORIES)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
@@ -1,7 +1,11 @@
 package com.expense.controller;
 
+import com.expense.dto.request.ExpenseBulkRequestDTO;
+import com.expense.dto.request.ExpenseFilterDTO;
+import com.expense.dto.request.ExpensePatchDTO;
 import com.expense.dto.request.ExpenseRequestDTO;
 import com.expense.dto.response.ExpenseResponseDTO;
+import com.expense.dto.response.GraficoResponseDTO;
 import com.expense.dto.response.CategoryResponseDTO;
 import com.expense.dto.response.UserResponseDTO;
 import com.expense.mapper.ExpenseMapper;
@@ -9,9 +13,10 @@ import com.expense.model.Category;
 import com.expense.model.Expense;
 import com.expense.model.User;
 import com.expense.model.hateoas.ExpenseModel;
-import com.expense.service.CategoryService;
+import com.expense.service.ExpenseSearchService;
 import com.expense.service.ExpenseService;
-import com.expense.service.UserService;
+import com.expense.service.IdConflictException;
+import com.expense.service.NotFoundException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +24,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.hateoas.Link;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -51,10 +61,7 @@ class ExpenseControllerTest {
     private ExpenseService expenseService;
 
     @MockBean
-    private CategoryService categoryService;
-
-    @MockBean
-    private UserService userService;
+    private ExpenseSearchService expenseSearchService;
 
     @MockBean
     private ExpenseMapper expenseMapper;
@@ -65,6 +72,9 @@ class ExpenseControllerTest {
     @MockBean
     private com.expense.security.UserDetailsServiceImpl userDetailsService;
 
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
     @MockBean
     private com.expense.repository.UserRepository userRepository;
 
@@ -190,6 +200,35 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).getExpenseById(1L, 1L);
     }
 
+    @Test
+    void getExpenseSummary_ShouldReturnTotalsInBaseCurrency() throws Exception {
+        // Arrange
+        GraficoResponseDTO food = new GraficoResponseDTO("Food", new BigDecimal("150.00"), 4L, 100.0);
+        food.setCurrency("BRL");
+        when(expenseService.summarizeByCategory(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+            .thenReturn(List.of(food));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/summary")
+                .param("from", "2024-01-01")
+                .param("to", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.graficoResponseDTOList[0].categoryName").value("Food"))
+                .andExpect(jsonPath("$._embedded.graficoResponseDTOList[0].totalValue").value(150.00))
+                .andExpect(jsonPath("$._embedded.graficoResponseDTOList[0].currency").value("BRL"));
+    }
+
+    @Test
+    void getExpenseSummary_WithInvertedRange_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/summary")
+                .param("from", "2024-02-01")
+                .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, never()).summarizeByCategory(anyLong(), any(), any());
+    }
+
     @Test
     void getExpenseById_WhenExpenseDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -204,67 +243,125 @@ class ExpenseControllerTest {
     }
 
     @Test
-    void getExpensesByUser_WhenUserExists_ShouldReturnExpenseList() throws Exception {
+    void getExpensesByUser_WhenCurrentUser_ShouldReturnExpensePage() throws Exception {
         // Arrange
-        List<Expense> expenses = Arrays.asList(expense);
-        when(userService.getUserById(1L)).thenReturn(Optional.of(user));
-        when(expenseService.findByUserId(1L)).thenReturn(expenses);
+        when(expenseService.getExpensesPage(1L, 0, 20))
+            .thenReturn(new SliceImpl<>(List.of(expense), PageRequest.of(0, 20), true));
         when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(responseDTO);
 
         // Act & Assert
         mockMvc.perform(get("/api/expenses/user/1")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$._embedded.expenseModelList[0].id").value(1));
+                .andExpect(jsonPath("$._embedded.expenseModelList[0].id").value(1))
+                .andExpect(jsonPath("$._links.next.href").value(org.hamcrest.Matchers.containsString("page=1")));
 
-        verify(userService, times(1)).getUserById(1L);
-        verify(expenseService, times(1)).findByUserId(1L);
+        verify(expenseService, times(1)).getExpensesPage(1L, 0, 20);
     }
 
     @Test
-    void getExpensesByUser_WhenUserDoesNotExist_ShouldReturnNotFound() throws Exception {
-        // Arrange
-        when(userService.getUserById(999L)).thenReturn(Optional.empty());
-
+    void getExpensesByUser_WhenAnotherUser_ShouldReturnNotFound() throws Exception {
         // Act & Assert
         mockMvc.perform(get("/api/expenses/user/999")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
 
-        verify(userService, times(1)).getUserById(999L);
-        verify(expenseService, never()).findByUserId(any());
+        verify(expenseService, never()).getExpensesPage(anyLong(), anyInt(), anyInt());
     }
 
     @Test
-    void getExpensesByCategory_WhenCategoryExists_ShouldReturnExpenseList() throws Exception {
+    void getExpensesByCategory_WhenCategoryBelongsToUser_ShouldReturnExpensePage() throws Exception {
         // Arrange
-        List<Expense> expenses = Arrays.asList(expense);
-        when(categoryService.findById(1L)).thenReturn(Optional.of(category));
-        when(expenseService.findByCategoryId(1L)).thenReturn(expenses);
+        when(expenseService.getExpensesPageByCategory(1L, 1L, 0, 5))
+            .thenReturn(new SliceImpl<>(List.of(expense), PageRequest.of(0, 5), false));
         when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(responseDTO);
 
         // Act & Assert
         mockMvc.perform(get("/api/expenses/category/1")
+                .param("size", "5")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$._embedded.expenseModelList[0].id").value(1));
+                .andExpect(jsonPath("$._embedded.expenseModelList[0].id").value(1))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
 
-        verify(categoryService, times(1)).findById(1L);
-        verify(expenseService, times(1)).findByCategoryId(1L);
+        verify(expenseService, times(1)).getExpensesPageByCategory(1L, 1L, 0, 5);
     }
 
     @Test
-    void getExpensesByCategory_WhenCategoryDoesNotExist_ShouldReturnNotFound() throws Exception {
+    void getExpensesByCategory_WhenCategoryNotFoundOrNotOwned_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(categoryService.findById(999L)).thenReturn(Optional.empty());
+        when(expenseService.getExpensesPageByCategory(999L, 1L, 0, 20))
+            .thenThrow(new NotFoundException("Categoria não encontrada ou não pertence ao usuário"));
 
         // Act & Assert
         mockMvc.perform(get("/api/expenses/category/999")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
 
-        verify(categoryService, times(1)).findById(999L);
-        verify(expenseService, never()).findByCategoryId(any());
+        verify(expenseService, times(1)).getExpensesPageByCategory(999L, 1L, 0, 20);
+    }
+
+    @Test
+    void searchExpenses_ShouldReturnPagedResults() throws Exception {
+        // Arrange
+        when(expenseSearchService.search(1L, "lunch", 0, 20))
+            .thenReturn(new PageImpl<>(List.of(expense), PageRequest.of(0, 20), 1));
+        when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/search")
+                .param("q", "lunch")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.expenseModelList[0].id").value(1))
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+
+        verify(expenseSearchService, times(1)).search(1L, "lunch", 0, 20);
+    }
+
+    @Test
+    void searchExpenses_WithBlankQuery_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/search")
+                .param("q", "  ")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseSearchService, never()).search(anyLong(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void filterExpenses_WithMorePages_ShouldReturnNextCursorLink() throws Exception {
+        // Arrange
+        when(expenseService.filterExpenses(eq(1L), any(ExpenseFilterDTO.class), eq(1)))
+            .thenReturn(new SliceImpl<>(List.of(expense), PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "date")), true));
+        when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(responseDTO);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/filter")
+                .param("minAmount", "10")
+                .param("categoryIds", "1", "2")
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.expenseModelList[0].id").value(1))
+                .andExpect(jsonPath("$._links.next.href").value(org.hamcrest.Matchers.containsString("cursor=")));
+
+        verify(expenseService, times(1)).filterExpenses(eq(1L), argThat(filter ->
+            filter.getMinAmount().compareTo(BigDecimal.TEN) == 0 && filter.getCategoryIds().equals(List.of(1L, 2L))), eq(1));
+    }
+
+    @Test
+    void filterExpenses_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(expenseService.filterExpenses(eq(1L), any(ExpenseFilterDTO.class), anyInt()))
+            .thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/filter")
+                .param("cursor", "garbage")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -299,10 +396,23 @@ class ExpenseControllerTest {
         verify(expenseService, never()).createExpense(any(ExpenseRequestDTO.class), anyLong());
     }
 
+    @Test
+    void createExpense_WithIdOfAnotherUser_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(expenseService.createExpense(any(ExpenseRequestDTO.class), eq(1L)))
+            .thenThrow(new IdConflictException("Id de despesa já usado"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void updateExpense_WhenExpenseExists_ShouldReturnUpdatedExpense() throws Exception {
         // Arrange
-        when(expenseService.updateExpense(eq(1L), any(ExpenseRequestDTO.class), eq(1L))).thenReturn(expense);
+        when(expenseService.updateExpense(eq(1L), any(ExpenseRequestDTO.class), eq(1L), isNull())).thenReturn(expense);
         when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(responseDTO);
 
         // Act & Assert
@@ -312,14 +422,14 @@ class ExpenseControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1));
 
-        verify(expenseService, times(1)).updateExpense(eq(1L), any(ExpenseRequestDTO.class), eq(1L));
+        verify(expenseService, times(1)).updateExpense(eq(1L), any(ExpenseRequestDTO.class), eq(1L), isNull());
     }
 
     @Test
     void updateExpense_WhenExpenseDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(expenseService.updateExpense(eq(999L), any(ExpenseRequestDTO.class), eq(1L)))
-            .thenThrow(new RuntimeException("Expense not found"));
+        when(expenseService.updateExpense(eq(999L), any(ExpenseRequestDTO.class), eq(1L), isNull()))
+            .thenThrow(new NotFoundException("Expense not found"));
 
         // Act & Assert
         mockMvc.perform(put("/api/expenses/999")
@@ -327,7 +437,87 @@ class ExpenseControllerTest {
                 .content(objectMapper.writeValueAsString(requestDTO)))
                 .andExpect(status().isNotFound());
 
-        verify(expenseService, times(1)).updateExpense(eq(999L), any(ExpenseRequestDTO.class), eq(1L));
+        verify(expenseService, times(1)).updateExpense(eq(999L), any(ExpenseRequestDTO.class), eq(1L), isNull());
+    }
+
+    @Test
+    void updateExpense_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        when(expenseService.updateExpense(eq(1L), any(ExpenseRequestDTO.class), eq(1L), eq(2L)))
+            .thenThrow(new OptimisticLockingFailureException("Despesa alterada por outra requisição"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/expenses/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchExpense_WithIfMatch_ShouldReturnPatchedExpenseWithNewETag() throws Exception {
+        // Arrange
+        expense.setVersion(4L);
+        when(expenseService.patchExpense(eq(1L), any(ExpensePatchDTO.class), eq(1L), eq(3L))).thenReturn(expense);
+        when(expenseMapper.toResponseDTO(any(Expense.class))).thenReturn(responseDTO);
+        ExpensePatchDTO patch = new ExpensePatchDTO(null, new BigDecimal("42.00"), null, null);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/expenses/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        verify(expenseService, times(1)).patchExpense(eq(1L), any(ExpensePatchDTO.class), eq(1L), eq(3L));
+    }
+
+    @Test
+    void patchExpense_WithoutIfMatch_ShouldReturnPreconditionRequired() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/expenses/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ExpensePatchDTO("Dinner", null, null, null))))
+                .andExpect(status().isPreconditionRequired());
+
+        verify(expenseService, never()).patchExpense(anyLong(), any(ExpensePatchDTO.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void patchExpense_WithMalformedIfMatch_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/expenses/1")
+                .header("If-Match", "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ExpensePatchDTO("Dinner", null, null, null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void recategorizeExpenses_ShouldReturnAffectedCount() throws Exception {
+        // Arrange
+        when(expenseService.recategorizeExpenses(anyList(), eq(2L), eq(1L))).thenReturn(3);
+        ExpenseBulkRequestDTO request = new ExpenseBulkRequestDTO(List.of(1L, 2L, 3L), 2L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/bulk/recategorize")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.operation").value("recategorize"))
+                .andExpect(jsonPath("$.affected").value(3));
+    }
+
+    @Test
+    void deleteExpenses_WithoutIds_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/bulk/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ExpenseBulkRequestDTO(List.of(), null))))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, never()).deleteExpenses(anyList(), anyLong());
     }
 
     @Test
@@ -346,7 +536,7 @@ class ExpenseControllerTest {
     @Test
     void deleteExpense_WhenExpenseDoesNotExist_ShouldReturnNotFound() throws Exception {
         // Arrange
-        doThrow(new RuntimeException("Expense not found"))
+        doThrow(new NotFoundException("Expense not found"))
             .when(expenseService).deleteExpense(999L, 1L);
 
         // Act & Assert
@@ -356,4 +546,15 @@ class ExpenseControllerTest {
 
         verify(expenseService, times(1)).deleteExpense(999L, 1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteExpense_WhenUnexpectedFailure_ShouldNotReturnNotFound() throws Exception {
+        // Arrange
+        doThrow(new IllegalStateException("conexão perdida"))
+            .when(expenseService).deleteExpense(1L, 1L);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/expenses/1"))
+                .andExpect(status().isInternalServerError());
+    }
+}
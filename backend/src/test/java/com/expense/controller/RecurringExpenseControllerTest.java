@@ -0,0 +1,144 @@
+package com.expense.controller;
+
+import com.expense.dto.request.RecurringExpenseRequestDTO;
+import com.expense.dto.response.RecurringExpenseResponseDTO;
+import com.expense.mapper.RecurringExpenseMapper;
+import com.expense.model.RecurringExpense;
+import com.expense.model.User;
+import com.expense.model.hateoas.RecurringExpenseModel;
+import com.expense.service.RecurringExpenseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = RecurringExpenseController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@WithMockUser(username = "test@example.com")
+class RecurringExpenseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RecurringExpenseService recurringExpenseService;
+
+    @MockBean
+    private RecurringExpenseMapper recurringExpenseMapper;
+
+    @MockBean
+    private com.expense.security.JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private com.expense.security.UserDetailsServiceImpl userDetailsService;
+
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private com.expense.repository.UserRepository userRepository;
+
+    @MockBean
+    private com.expense.assembler.RecurringExpenseModelAssembler recurringExpenseModelAssembler;
+
+    private RecurringExpense recurring;
+    private RecurringExpenseRequestDTO requestDTO;
+
+    @BeforeEach
+    void setUp() {
+        // Setup mock user
+        User mockUser = new User();
+        mockUser.setId(1L);
+        mockUser.setEmail("test@example.com");
+        when(userRepository.findByEmail(anyString())).thenReturn(mockUser);
+
+        recurring = new RecurringExpense();
+        recurring.setId(1L);
+
+        requestDTO = new RecurringExpenseRequestDTO();
+        requestDTO.setDescription("Aluguel");
+        requestDTO.setAmount(new BigDecimal("1500.00"));
+        requestDTO.setCategoryId(1L);
+        requestDTO.setRule("FREQ=MONTHLY;BYMONTHDAY=5");
+        requestDTO.setStartDate(LocalDate.of(2024, 1, 5));
+
+        RecurringExpenseModel model = new RecurringExpenseModel(1L, "Aluguel", new BigDecimal("1500.00"), 1L, "Moradia",
+            "FREQ=MONTHLY;BYMONTHDAY=5", LocalDate.of(2024, 1, 5), null, LocalDate.of(2024, 1, 5), true);
+        model.add(Link.of("/api/recurring-expenses/1", "self"));
+
+        when(recurringExpenseMapper.toResponseDTO(any(RecurringExpense.class))).thenReturn(new RecurringExpenseResponseDTO());
+        when(recurringExpenseModelAssembler.toModel(any(RecurringExpenseResponseDTO.class))).thenReturn(model);
+    }
+
+    @Test
+    void getAllRecurringExpenses_ShouldReturnList() throws Exception {
+        // Arrange
+        when(recurringExpenseService.getAllRecurringExpenses(1L)).thenReturn(Arrays.asList(recurring));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/recurring-expenses")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.recurringExpenseModelList[0].rule").value("FREQ=MONTHLY;BYMONTHDAY=5"));
+    }
+
+    @Test
+    void createRecurringExpense_WithValidData_ShouldReturnCreated() throws Exception {
+        // Arrange
+        when(recurringExpenseService.createRecurringExpense(any(RecurringExpenseRequestDTO.class), eq(1L))).thenReturn(recurring);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/recurring-expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void createRecurringExpense_WithInvalidRule_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(recurringExpenseService.createRecurringExpense(any(RecurringExpenseRequestDTO.class), eq(1L)))
+            .thenThrow(new IllegalArgumentException("Regra de recorrência inválida"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/recurring-expenses")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deleteRecurringExpense_WhenNotFound_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        doThrow(new RuntimeException("Despesa recorrente não encontrada ou não pertence ao usuário"))
+            .when(recurringExpenseService).deleteRecurringExpense(anyLong(), eq(1L));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/recurring-expenses/999")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
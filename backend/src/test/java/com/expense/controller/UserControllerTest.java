@@ -3,10 +3,12 @@ package com.expense.controller;
 import com.expense.dto.request.UserRequestDTO;
 import com.expense.dto.response.UserResponseDTO;
 import com.expense.mapper.UserMapper;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
 import com.expense.model.hateoas.UserModel;
 import com.expense.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,12 +19,14 @@ import org.springframework.hateoas.Link;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,9 +53,15 @@ class UserControllerTest {
     @MockBean
     private com.expense.security.UserDetailsServiceImpl userDetailsService;
 
+    @MockBean
+    private com.expense.service.IdempotencyStore idempotencyStore;
+
     @MockBean
     private com.expense.assembler.UserModelAssembler userModelAssembler;
 
+    @MockBean
+    private com.expense.security.EmailCheckRateLimiter emailCheckRateLimiter;
+
     private User user;
     private UserRequestDTO requestDTO;
     private UserResponseDTO responseDTO;
@@ -298,15 +308,19 @@ class UserControllerTest {
     }
 
     @Test
-    void deleteUser_WhenUserExists_ShouldReturnNoContent() throws Exception {
+    void deleteUser_WhenUserExists_ShouldReturnAcceptedWithJob() throws Exception {
         // Arrange
         when(userService.getUserById(1L)).thenReturn(Optional.of(user));
-        doNothing().when(userService).deleteUser(1L);
+        when(userService.deleteUser(1L)).thenReturn(new DeletionJob(10L, DeletionJob.Target.USER, 1L, 1L,
+            DeletionJob.Status.PENDING, 0, LocalDateTime.now(), LocalDateTime.now(), null));
 
         // Act & Assert
         mockMvc.perform(delete("/api/users/1")
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", org.hamcrest.Matchers.endsWith("/api/users/1/deletion")))
+                .andExpect(jsonPath("$.target").value("USER"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
 
         verify(userService, times(1)).getUserById(1L);
         verify(userService, times(1)).deleteUser(1L);
@@ -327,10 +341,26 @@ class UserControllerTest {
         verify(userService, never()).deleteUser(anyLong());
     }
 
+    @Test
+    void getUserDeletion_ShouldReturnProgress() throws Exception {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(userService.getDeletionJob(1L)).thenReturn(Optional.of(new DeletionJob(10L, DeletionJob.Target.USER,
+            1L, 1L, DeletionJob.Status.DONE, 12000, now, now, now)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1/deletion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("DONE"))
+                .andExpect(jsonPath("$.purgedRows").value(12000))
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
     @Test
     void checkEmailAvailability_WhenEmailAvailable_ShouldReturnTrue() throws Exception {
         // Arrange
-        when(userService.existsByEmail("newemail@example.com")).thenReturn(false);
+        when(emailCheckRateLimiter.tryAcquire(any(HttpServletRequest.class))).thenReturn(true);
+        when(userService.isEmailAvailable("newemail@example.com")).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(get("/api/users/check-email/newemail@example.com")
@@ -338,13 +368,14 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.available").value(true));
 
-        verify(userService, times(1)).existsByEmail("newemail@example.com");
+        verify(userService, times(1)).isEmailAvailable("newemail@example.com");
     }
 
     @Test
     void checkEmailAvailability_WhenEmailTaken_ShouldReturnFalse() throws Exception {
         // Arrange
-        when(userService.existsByEmail("john@example.com")).thenReturn(true);
+        when(emailCheckRateLimiter.tryAcquire(any(HttpServletRequest.class))).thenReturn(true);
+        when(userService.isEmailAvailable("john@example.com")).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(get("/api/users/check-email/john@example.com")
@@ -352,6 +383,19 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.available").value(false));
 
-        verify(userService, times(1)).existsByEmail("john@example.com");
+        verify(userService, times(1)).isEmailAvailable("john@example.com");
+    }
+
+    @Test
+    void checkEmailAvailability_WhenRateLimited_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        when(emailCheckRateLimiter.tryAcquire(any(HttpServletRequest.class))).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/check-email/john@example.com"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(userService, never()).isEmailAvailable(anyString());
     }
-}
\ No newline at end of file
+}
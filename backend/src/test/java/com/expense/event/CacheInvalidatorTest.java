@@ -0,0 +1,171 @@
+package com.expense.event;
+
+import com.expense.model.Category;
+import com.expense.model.User;
+import com.expense.repository.CategoryRepository;
+import com.expense.service.SchedulerLock;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidatorTest {
+
+    private final Cache cacheA = mock(Cache.class);
+    private final Cache cacheB = mock(Cache.class);
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:cache-invalidation-test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE cache_invalidation (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "node VARCHAR(64) NOT NULL, target VARCHAR(20) NOT NULL, entity_id BIGINT NOT NULL, "
+            + "created_at DATETIME(3) NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private static CacheInvalidator node(CacheInvalidationChannel channel, Cache cache) {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        CacheInvalidator invalidator = new CacheInvalidator(channel, entityManagerFactory);
+        invalidator.init();
+        return invalidator;
+    }
+
+    private JdbcCacheInvalidationChannel jdbcChannel(SchedulerLock schedulerLock) {
+        JdbcCacheInvalidationChannel channel = new JdbcCacheInvalidationChannel();
+        ReflectionTestUtils.setField(channel, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(channel, "schedulerLock", schedulerLock);
+        return channel;
+    }
+
+    @Test
+    void categoryChange_ShouldEvictOnOtherNodesOnly() {
+        // Arrange
+        LocalCacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        CacheInvalidator nodeA = node(channel, cacheA);
+        node(channel, cacheB);
+
+        // Act
+        nodeA.categoryChanged(5L);
+
+        // Assert
+        verify(cacheB).evictEntityData(Category.class, 5L);
+        verify(cacheB).evictQueryRegion(CategoryRepository.CATEGORIES_BY_USER_REGION);
+        verifyNoInteractions(cacheA);
+    }
+
+    @Test
+    void userChange_WithSameEmail_ShouldKeepEmailLookups() {
+        // Arrange
+        LocalCacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        CacheInvalidator nodeA = node(channel, cacheA);
+        node(channel, cacheB);
+
+        // Act
+        nodeA.userChanged(7L, false);
+
+        // Assert
+        verify(cacheB).evictEntityData(User.class, 7L);
+        verify(cacheB, never()).evictNaturalIdData(any(Class.class));
+    }
+
+    @Test
+    void emailChange_ShouldEvictEmailLookups() {
+        // Arrange
+        LocalCacheInvalidationChannel channel = new LocalCacheInvalidationChannel();
+        CacheInvalidator nodeA = node(channel, cacheA);
+        node(channel, cacheB);
+
+        // Act
+        nodeA.userChanged(7L, true);
+
+        // Assert
+        verify(cacheB).evictEntityData(User.class, 7L);
+        verify(cacheB).evictNaturalIdData(User.class);
+    }
+
+    @Test
+    void jdbcChannel_ShouldDeliverEachRowOnceToTheOtherNode() {
+        // Arrange: cada nó com seu canal sobre a mesma tabela
+        JdbcCacheInvalidationChannel channelA = jdbcChannel(mock(SchedulerLock.class));
+        JdbcCacheInvalidationChannel channelB = jdbcChannel(mock(SchedulerLock.class));
+        CacheInvalidator nodeA = node(channelA, cacheA);
+        node(channelB, cacheB);
+
+        // Act
+        nodeA.categoryChanged(5L);
+        int first = channelB.poll();
+        int second = channelB.poll();
+        channelA.poll();
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(0, second);
+        verify(cacheB, times(1)).evictEntityData(Category.class, 5L);
+        verifyNoInteractions(cacheA);
+    }
+
+    @Test
+    void jdbcChannel_ShouldDeliverRowCommittedAfterAHigherId() {
+        // Arrange
+        JdbcCacheInvalidationChannel channelA = jdbcChannel(mock(SchedulerLock.class));
+        JdbcCacheInvalidationChannel channelB = jdbcChannel(mock(SchedulerLock.class));
+        CacheInvalidator nodeA = node(channelA, cacheA);
+        node(channelB, cacheB);
+        jdbcTemplate.execute("ALTER TABLE cache_invalidation ALTER COLUMN id RESTART WITH 2");
+        nodeA.userChanged(8L, false);
+        channelB.poll();
+
+        // Act: a transação mais longa grava o id 1 depois que o 2 já foi lido
+        jdbcTemplate.update(JdbcCacheInvalidationChannel.INSERT.replace("(node", "(id, node").replace("(?", "(1, ?"),
+            "other", "USER", 9L, Timestamp.valueOf(LocalDateTime.now()));
+        int delivered = channelB.poll();
+
+        // Assert
+        assertEquals(1, delivered);
+        verify(cacheB).evictEntityData(User.class, 8L);
+        verify(cacheB).evictEntityData(User.class, 9L);
+    }
+
+    @Test
+    void purge_ShouldDeleteRowsOlderThanRetention() {
+        // Arrange
+        SchedulerLock schedulerLock = mock(SchedulerLock.class);
+        when(schedulerLock.tryAcquire(eq(JdbcCacheInvalidationChannel.PURGE_LOCK), any(Duration.class))).thenReturn(true);
+        JdbcCacheInvalidationChannel channel = jdbcChannel(schedulerLock);
+        jdbcTemplate.update(JdbcCacheInvalidationChannel.INSERT, "n", "USER", 1L,
+            Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+        jdbcTemplate.update(JdbcCacheInvalidationChannel.INSERT, "n", "USER", 2L, Timestamp.valueOf(LocalDateTime.now()));
+
+        // Act
+        int purged = channel.purge();
+
+        // Assert
+        assertEquals(1, purged);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidation", Integer.class));
+        verify(schedulerLock).release(JdbcCacheInvalidationChannel.PURGE_LOCK);
+    }
+}
@@ -0,0 +1,231 @@
+package com.expense.event;
+
+import com.expense.model.OutboxEvent;
+import com.expense.repository.OutboxEventRepository;
+import com.expense.service.SchedulerLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SchedulerLock schedulerLock;
+
+    private RecordingConsumer consumer;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new RecordingConsumer();
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new OutboxDispatcher(outboxEventRepository, jdbcTemplate, schedulerLock, List.of(consumer), meterRegistry);
+
+        // Started with event 10 as the newest one
+        when(outboxEventRepository.findMaxId()).thenReturn(10L);
+        dispatcher.init();
+    }
+
+    private OutboxEvent event(long id, LocalDateTime createdAt) {
+        OutboxEvent event = new OutboxEvent(OutboxEvent.EXPENSE_CREATED, id, 1L, null);
+        event.setId(id);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    @Test
+    void dispatch_ShouldDeliverNewEventsInOrderAndAdvance() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxEventRepository.findMaxId()).thenReturn(12L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(event(11L, now), event(12L, now)));
+
+        // Act
+        int delivered = dispatcher.dispatch();
+
+        // Assert
+        assertEquals(2, delivered);
+        assertEquals(List.of(11L, 12L), consumer.received);
+        assertEquals(0.0, meterRegistry.get("outbox.consumer.lag").tag("consumer", "recording").gauge().value());
+    }
+
+    @Test
+    void dispatch_ShouldStopAtRecentGapUntilItSettles() {
+        // Arrange: 12 is not committed yet, 13 was just written
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxEventRepository.findMaxId()).thenReturn(13L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(event(11L, now), event(13L, now)));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(List.of(11L), consumer.received);
+        assertEquals(2.0, meterRegistry.get("outbox.consumer.lag").tag("consumer", "recording").gauge().value());
+    }
+
+    @Test
+    void dispatch_ShouldSkipGapOlderThanTimeout() {
+        // Arrange: 12 was rolled back long ago
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(outboxEventRepository.findMaxId()).thenReturn(13L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(event(11L, old), event(13L, old)));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(List.of(11L, 13L), consumer.received);
+    }
+
+    @Test
+    void dispatch_WhenSkippedEventCommitsLate_ShouldStillDeliverIt() {
+        // Arrange: 12 reserved its id first but commits after 13 has been delivered
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(outboxEventRepository.findMaxId()).thenReturn(13L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(event(11L, old), event(13L, old)));
+        dispatcher.dispatch();
+        when(outboxEventRepository.findAllById(Set.of(12L))).thenReturn(List.of(event(12L, LocalDateTime.now())));
+
+        // Act
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        // Assert: entregue uma vez, fora da ordem dos ids
+        assertEquals(List.of(11L, 13L, 12L), consumer.received);
+        assertEquals(0.0, meterRegistry.get("outbox.consumer.gaps").tag("consumer", "recording").gauge().value());
+    }
+
+    @Test
+    void dispatch_WhenGapNeverCommits_ShouldAbandonItAfterTheBound() {
+        // Arrange
+        ReflectionTestUtils.setField(dispatcher, "gapAbandonMs", 0L);
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(outboxEventRepository.findMaxId()).thenReturn(13L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(event(11L, old), event(13L, old)));
+        dispatcher.dispatch();
+        assertEquals(1.0, meterRegistry.get("outbox.consumer.gaps").tag("consumer", "recording").gauge().value());
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        verify(outboxEventRepository).findAllById(Set.of(12L));
+        assertEquals(0.0, meterRegistry.get("outbox.consumer.gaps").tag("consumer", "recording").gauge().value());
+        assertEquals(1.0, meterRegistry.get("outbox.consumer.gaps.abandoned").tag("consumer", "recording").counter().count());
+        assertEquals(List.of(11L, 13L), consumer.received);
+    }
+
+    @Test
+    void dispatch_DurableConsumer_ShouldNotSaveOffsetPastAnOpenGap() {
+        // Arrange
+        RecordingConsumer durable = new RecordingConsumer() {
+            @Override
+            public String getName() {
+                return "durable";
+            }
+
+            @Override
+            public boolean isDurable() {
+                return true;
+            }
+        };
+        dispatcher = new OutboxDispatcher(outboxEventRepository, jdbcTemplate, schedulerLock, List.of(durable),
+            new SimpleMeterRegistry());
+        dispatcher.init();
+        when(schedulerLock.tryAcquire(anyString(), any())).thenReturn(true);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("durable"))).thenReturn(List.of(10L));
+        LocalDateTime old = LocalDateTime.now().minusMinutes(1);
+        when(outboxEventRepository.findMaxId()).thenReturn(13L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(event(11L, old), event(13L, old)));
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert: 13 foi entregue, mas a posição salva fica em 11 até 12 aparecer ou ser abandonado
+        assertEquals(List.of(11L, 13L), durable.received);
+        verify(jdbcTemplate).update(eq(OutboxDispatcher.SAVE_OFFSET), eq("durable"), eq(11L), any());
+    }
+
+    @Test
+    void dispatch_WhenConsumerFails_ShouldRedeliverSameBatch() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        when(outboxEventRepository.findMaxId()).thenReturn(11L);
+        when(outboxEventRepository.findAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(event(11L, now)));
+        consumer.failuresLeft = 1;
+
+        // Act
+        int first = dispatcher.dispatch();
+        int second = dispatcher.dispatch();
+
+        // Assert
+        assertEquals(0, first);
+        assertEquals(1, second);
+        assertEquals(List.of(11L, 11L), consumer.received);
+        verify(outboxEventRepository, times(2)).findAfter(eq(10L), any(Pageable.class));
+    }
+
+    @Test
+    void dispatch_WhenUpToDate_ShouldNotQueryEvents() {
+        // Act
+        int delivered = dispatcher.dispatch();
+
+        // Assert
+        assertEquals(0, delivered);
+        verify(outboxEventRepository, never()).findAfter(anyLong(), any(Pageable.class));
+        verifyNoInteractions(schedulerLock);
+    }
+
+    private static class RecordingConsumer implements DomainEventConsumer {
+
+        private final List<Long> received = new ArrayList<>();
+        private int failuresLeft;
+
+        @Override
+        public String getName() {
+            return "recording";
+        }
+
+        @Override
+        public void consume(List<OutboxEvent> events) {
+            events.forEach(e -> received.add(e.getId()));
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("falha simulada");
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.expense.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TsidTest {
+
+    @AfterEach
+    void tearDown() {
+        Tsid.setNodeCount(Tsid.FIRST_CLIENT_NODE);
+        Tsid.setNode(0);
+    }
+
+    /**
+     * Id como o app gera offline, no primeiro nó reservado aos clientes
+     */
+    private static long clientId() {
+        return Tsid.next() | (long) Tsid.FIRST_CLIENT_NODE << Tsid.SEQUENCE_BITS;
+    }
+
+    @Test
+    void next_ShouldIncreaseAndFitInJavaScriptNumbers() {
+        long previous = Tsid.next();
+        for (int i = 0; i < 100_000; i++) {
+            long id = Tsid.next();
+            assertTrue(id > previous);
+            assertTrue(id <= (1L << 53) - 1);
+            previous = id;
+        }
+        assertTrue(Tsid.isValid(previous | (long) Tsid.FIRST_CLIENT_NODE << Tsid.SEQUENCE_BITS));
+    }
+
+    @Test
+    void next_ShouldEncodeCurrentTimeAndNode() {
+        // Arrange
+        Tsid.setNode(5);
+        long before = System.currentTimeMillis();
+
+        // Act
+        long id = Tsid.next();
+
+        // Assert
+        assertEquals(5, Tsid.nodeOf(id));
+        // Uma rajada anterior pode ter avançado o relógio lógico alguns milissegundos
+        assertTrue(Math.abs(Tsid.millisOf(id) - before) < 1000);
+    }
+
+    @Test
+    void next_FromManyThreads_ShouldNeverRepeat() throws InterruptedException {
+        // Arrange
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(Tsid.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(160_000, ids.size());
+    }
+
+    @Test
+    void isValid_ShouldRejectIdsOutOfRange() {
+        assertFalse(Tsid.isValid(-1));
+        assertFalse(Tsid.isValid(1L << 53));
+        assertFalse(Tsid.isValid((System.currentTimeMillis() + 2 * 86_400_000L - Tsid.EPOCH_MILLIS) << 12));
+    }
+
+    @Test
+    void setNode_OutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> Tsid.setNode(Tsid.FIRST_CLIENT_NODE));
+    }
+
+    @Test
+    void isValid_ShouldAcceptOnlyClientNodes() {
+        // Arrange: um id do servidor no último nó de servidor e um do app
+        Tsid.setNode(Tsid.FIRST_CLIENT_NODE - 1);
+        long server = Tsid.next();
+        long client = clientId();
+
+        // Assert
+        assertFalse(Tsid.isValid(server));
+        assertTrue(Tsid.isValid(client));
+    }
+
+    @Test
+    void setNode_OutsideNodeCount_ShouldThrow() {
+        Tsid.setNodeCount(4);
+
+        assertThrows(IllegalArgumentException.class, () -> Tsid.setNode(4));
+    }
+}
@@ -0,0 +1,76 @@
+package com.expense.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailCheckRateLimiterTest {
+
+    private final EmailCheckRateLimiter rateLimiter = new EmailCheckRateLimiter(3, 1, 100);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tryAcquire_AfterBurst_ShouldRejectUntilRefilled() {
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.tryAcquire("10.0.0.1", 0L));
+        }
+        assertFalse(rateLimiter.tryAcquire("10.0.0.1", 0L));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.1", 1_000_000_000L));
+        assertFalse(rateLimiter.tryAcquire("10.0.0.1", 1_000_000_000L));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerClient() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("10.0.0.1", 0L);
+        }
+
+        // Act & Assert
+        assertFalse(rateLimiter.tryAcquire("10.0.0.1", 0L));
+        assertTrue(rateLimiter.tryAcquire("10.0.0.2", 0L));
+    }
+
+    @Test
+    void clientOf_BehindProxy_ShouldUseForwardedAddress() throws Exception {
+        // Arrange: o que server.forward-headers-strategy=framework aplica antes do controller
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/check-email/a@b.com");
+        request.setRemoteAddr("10.0.0.254");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        new ForwardedHeaderFilter().doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals("ip:203.0.113.7", EmailCheckRateLimiter.clientOf((HttpServletRequest) chain.getRequest()));
+    }
+
+    @Test
+    void clientOf_WhenAuthenticated_ShouldUseUserId() {
+        // Arrange
+        AuthenticatedUser user = new AuthenticatedUser(42L, "Test", "test@example.com", "");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.254");
+
+        // Act & Assert
+        assertEquals("user:42", EmailCheckRateLimiter.clientOf(request));
+    }
+}
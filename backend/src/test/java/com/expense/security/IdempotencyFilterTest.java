@@ -0,0 +1,294 @@
+package com.expense.security;
+
+import com.expense.service.IdempotencyStore;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private int status = 201;
+    // Com valor, a primeira execução avisa started e espera proceed (uma requisição ainda em andamento)
+    private volatile CountDownLatch started;
+    private volatile CountDownLatch proceed;
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:idempotency-test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE idempotency_key (user_id BIGINT NOT NULL, idempotency_key VARCHAR(64) NOT NULL, "
+            + "request_hash CHAR(64) NOT NULL, status SMALLINT NULL, content_type VARCHAR(100) NULL, "
+            + "location VARCHAR(255) NULL, body BLOB NULL, created_at DATETIME(3) NOT NULL, "
+            + "PRIMARY KEY (user_id, idempotency_key))");
+        filter = filter(store());
+        AuthenticatedUser user = new AuthenticatedUser(7L, "John Doe", "john@example.com", "secret");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        SecurityContextHolder.clearContext();
+    }
+
+    private IdempotencyStore store() {
+        IdempotencyStore store = new IdempotencyStore(100);
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        return store;
+    }
+
+    private IdempotencyFilter filter(IdempotencyStore store) {
+        IdempotencyFilter filter = new IdempotencyFilter();
+        ReflectionTestUtils.setField(filter, "idempotencyStore", store);
+        ReflectionTestUtils.setField(filter, "secret", "test-secret");
+        return filter;
+    }
+
+    private MockHttpServletResponse post(IdempotencyFilter filter, String key, String body) throws Exception {
+        return post(filter, "/api/expenses", key, body);
+    }
+
+    private MockHttpServletResponse post(IdempotencyFilter filter, String path, String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                int id = executions.incrementAndGet();
+                if (id == 1 && proceed != null) {
+                    started.countDown();
+                    try {
+                        assertTrue(proceed.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                assertEquals(body, new String(req.getInputStream().readAllBytes()));
+                resp.setStatus(status);
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"id\":" + id + "}");
+            }
+        }));
+        return response;
+    }
+
+    /**
+     * POST em outra thread, com o mesmo usuário autenticado
+     */
+    private CompletableFuture<MockHttpServletResponse> postAsync(IdempotencyFilter filter, String key) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return CompletableFuture.supplyAsync(() -> {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            try {
+                return post(filter, key, "{\"amount\":10}");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    @Test
+    void retry_ShouldReplayStoredResponseWithoutRunningAgain() throws Exception {
+        // Act
+        MockHttpServletResponse first = post(filter, "k-1", "{\"amount\":10}");
+        MockHttpServletResponse retry = post(filter, "k-1", "{\"amount\":10}");
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_key", Integer.class));
+    }
+
+    @Test
+    void retry_OnAnotherNode_ShouldReplayFromDatabase() throws Exception {
+        // Arrange
+        post(filter, "k-1", "{\"amount\":10}");
+
+        // Act
+        MockHttpServletResponse retry = post(filter(store()), "k-1", "{\"amount\":10}");
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals("{\"id\":1}", retry.getContentAsString());
+    }
+
+    @Test
+    void sameKey_WithDifferentBody_ShouldBeRejected() throws Exception {
+        // Arrange
+        post(filter, "k-1", "{\"amount\":10}");
+
+        // Act
+        MockHttpServletResponse other = post(filter, "k-1", "{\"amount\":99}");
+
+        // Assert
+        assertEquals(422, other.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void keyInProgress_ShouldAnswerConflict() throws Exception {
+        // Arrange: outro nó reivindicou a chave e ainda não respondeu
+        IdempotencyStore otherNode = store();
+        otherNode.claim(7L, "k-1", "hash");
+
+        // Act
+        MockHttpServletResponse response = post(filter, "k-1", "{\"amount\":10}");
+
+        // Assert
+        assertEquals(409, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void duplicateOnSameNode_WhileFirstRuns_ShouldWaitAndReplay() throws Exception {
+        // Arrange: a primeira requisição está executando
+        started = new CountDownLatch(1);
+        proceed = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = postAsync(filter, "k-1");
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<MockHttpServletResponse> duplicate = postAsync(filter, "k-1");
+        Thread.sleep(200);
+        assertFalse(duplicate.isDone());
+        proceed.countDown();
+
+        // Assert
+        assertEquals("{\"id\":1}", first.get(10, TimeUnit.SECONDS).getContentAsString());
+        MockHttpServletResponse replayed = duplicate.get(10, TimeUnit.SECONDS);
+        assertEquals("{\"id\":1}", replayed.getContentAsString());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void otherKeyOnSameStripe_WhileFirstRuns_ShouldNotWait() throws Exception {
+        // Arrange: uma chave que cai na mesma faixa de lock da que está executando
+        IdempotencyStore store = (IdempotencyStore) ReflectionTestUtils.getField(filter, "idempotencyStore");
+        String other = "k-2";
+        for (int i = 2; store.lockFor(7L, other) != store.lockFor(7L, "k-1"); i++) {
+            other = "k-" + i;
+        }
+        started = new CountDownLatch(1);
+        proceed = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = postAsync(filter, "k-1");
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse response = post(filter, other, "{\"amount\":10}");
+
+        // Assert
+        assertEquals(201, response.getStatus());
+        assertFalse(first.isDone());
+        proceed.countDown();
+        assertEquals(201, first.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void abandonedClaim_ShouldBeTakenOverByRetry() throws Exception {
+        // Arrange: o nó que reivindicou a chave caiu antes de responder
+        post(filter, "k-1", "{\"amount\":10}");
+        jdbcTemplate.update("UPDATE idempotency_key SET status = NULL, body = NULL, created_at = ?",
+            Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)));
+
+        // Act
+        MockHttpServletResponse retry = post(filter(store()), "k-1", "{\"amount\":10}");
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals("{\"id\":2}", retry.getContentAsString());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, jdbcTemplate.queryForObject("SELECT status FROM idempotency_key", Integer.class));
+    }
+
+    @Test
+    void abandonedClaim_WithDifferentBody_ShouldStayInProgress() throws Exception {
+        // Arrange
+        store().claim(7L, "k-1", "other-hash");
+        jdbcTemplate.update("UPDATE idempotency_key SET created_at = ?", Timestamp.valueOf(LocalDateTime.now().minusMinutes(5)));
+
+        // Act
+        MockHttpServletResponse response = post(filter, "k-1", "{\"amount\":10}");
+
+        // Assert
+        assertEquals(409, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void serverError_ShouldNotBeStored() throws Exception {
+        // Arrange
+        status = 500;
+
+        // Act
+        post(filter, "k-1", "{\"amount\":10}");
+        status = 201;
+        MockHttpServletResponse retry = post(filter, "k-1", "{\"amount\":10}");
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void login_ShouldNeverBeStored() throws Exception {
+        // Arrange: a resposta do login traz um token
+        SecurityContextHolder.clearContext();
+
+        // Act
+        post(filter, "/api/auth/login", "k-1", "{\"email\":\"john@example.com\"}");
+        MockHttpServletResponse retry = post(filter, "/api/auth/login", "k-1", "{\"email\":\"john@example.com\"}");
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_key", Integer.class));
+    }
+
+    @Test
+    void invalidKey_ShouldBeRejected() throws Exception {
+        // Act
+        MockHttpServletResponse response = post(filter, "not a valid key", "{}");
+
+        // Assert
+        assertEquals(400, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+}
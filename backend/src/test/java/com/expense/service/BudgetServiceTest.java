@@ -0,0 +1,140 @@
+package com.expense.service;
+
+import com.expense.dto.request.BudgetRequestDTO;
+import com.expense.model.Budget;
+import com.expense.model.Category;
+import com.expense.model.User;
+import com.expense.repository.BudgetRepository;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BudgetTracker budgetTracker;
+
+    @InjectMocks
+    private BudgetService budgetService;
+
+    private User user;
+    private Category category;
+    private Budget budget;
+    private BudgetRequestDTO budgetRequestDTO;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Food");
+        category.setUser(user);
+
+        budget = new Budget(new BigDecimal("500.00"), category, user);
+        budget.setId(1L);
+
+        budgetRequestDTO = new BudgetRequestDTO(1L, new BigDecimal("500.00"));
+    }
+
+    @Test
+    void createBudget_WithValidData_ShouldSaveAndRegisterLimit() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(budgetRepository.existsByUserIdAndCategoryId(1L, 1L)).thenReturn(false);
+        when(budgetRepository.save(any(Budget.class))).thenReturn(budget);
+
+        // Act
+        Budget result = budgetService.createBudget(budgetRequestDTO, 1L);
+
+        // Assert
+        assertEquals(new BigDecimal("500.00"), result.getLimitAmount());
+        verify(budgetTracker, times(1)).setLimit(1L, 1L, new BigDecimal("500.00"));
+    }
+
+    @Test
+    void createBudget_WhenCategoryAlreadyHasBudget_ShouldThrowException() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(budgetRepository.existsByUserIdAndCategoryId(1L, 1L)).thenReturn(true);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> budgetService.createBudget(budgetRequestDTO, 1L));
+        assertEquals("Já existe um orçamento para esta categoria", exception.getMessage());
+        verify(budgetRepository, never()).save(any(Budget.class));
+    }
+
+    @Test
+    void createBudget_WhenCategoryNotOwned_ShouldThrowException() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> budgetService.createBudget(budgetRequestDTO, 1L));
+        verify(budgetRepository, never()).save(any(Budget.class));
+    }
+
+    @Test
+    void updateBudget_WhenBudgetExists_ShouldUpdateLimit() {
+        // Arrange
+        when(budgetRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(budget));
+        when(budgetRepository.save(any(Budget.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Budget result = budgetService.updateBudget(1L, new BudgetRequestDTO(1L, new BigDecimal("800.00")), 1L);
+
+        // Assert
+        assertEquals(new BigDecimal("800.00"), result.getLimitAmount());
+        verify(budgetTracker, times(1)).setLimit(1L, 1L, new BigDecimal("800.00"));
+    }
+
+    @Test
+    void deleteBudget_WhenBudgetExists_ShouldDeleteAndRemoveLimit() {
+        // Arrange
+        when(budgetRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(budget));
+
+        // Act
+        budgetService.deleteBudget(1L, 1L);
+
+        // Assert
+        verify(budgetRepository, times(1)).delete(budget);
+        verify(budgetTracker, times(1)).removeLimit(1L, 1L);
+    }
+
+    @Test
+    void deleteBudget_WhenBudgetNotFound_ShouldThrowException() {
+        // Arrange
+        when(budgetRepository.findByIdAndUserId(999L, 1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> budgetService.deleteBudget(999L, 1L));
+        verify(budgetRepository, never()).delete(any(Budget.class));
+    }
+}
@@ -0,0 +1,273 @@
+package com.expense.service;
+
+import com.expense.config.ReplicaRoutingDataSource;
+import com.expense.config.ShardContext;
+import com.expense.model.Budget;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import com.expense.model.User;
+import com.expense.repository.BudgetRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.OutboxEventRepository;
+import com.expense.repository.UserRepository;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetTrackerTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private BudgetAlertNotifier notifier;
+
+    private BudgetTracker budgetTracker;
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        FxRateCache fxRateCache = new FxRateCache(
+            new ByteArrayResource("date,currency,rate\n2020-01-01,USD,5.00\n".getBytes()), "BRL");
+        fxRateCache.load();
+        budgetTracker = new BudgetTracker(expenseRepository, budgetRepository, outboxEventRepository, userRepository,
+            fxRateCache, transactionManager, List.of(notifier), new int[]{80, 100}, 10);
+
+        user = new User();
+        user.setId(1L);
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Food");
+    }
+
+    private Expense expense(String amount, LocalDateTime date) {
+        Expense expense = new Expense();
+        expense.setAmount(new BigDecimal(amount));
+        expense.setDate(date);
+        expense.setCategory(category);
+        expense.setUser(user);
+        return expense;
+    }
+
+    private void seed(String spent) {
+        // The dispatcher delivered every event up to id 10 and none of the user's later ones are in the seed
+        budgetTracker.setDeliveredUpTo(null, 10L);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "BRL", LocalDate.now(), new BigDecimal(spent), 1L});
+        when(expenseRepository.sumByCategory(eq(1L), any(), any())).thenReturn(rows);
+        when(budgetRepository.findByUserId(1L)).thenReturn(Arrays.asList(new Budget(new BigDecimal("100.00"), category, user)));
+    }
+
+    @Test
+    void apply_WhenCrossingEightyPercent_ShouldNotifyOnce() {
+        // Arrange
+        seed("70.00");
+
+        // Act
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("15.00", LocalDateTime.now())));
+
+        // Assert
+        ArgumentCaptor<BudgetAlert> alert = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(notifier, times(1)).notify(alert.capture());
+        assertEquals(80, alert.getValue().getThreshold());
+        assertEquals(0, new BigDecimal("85.00").compareTo(alert.getValue().getSpent()));
+    }
+
+    @Test
+    void apply_WithForeignCurrency_ShouldConvertToBaseCurrency() {
+        // Arrange
+        seed("70.00");
+        Expense dollars = expense("3.00", LocalDateTime.now());
+        dollars.setCurrency("USD");
+
+        // Act: US$ 3.00 = R$ 15.00
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(dollars));
+
+        // Assert
+        verify(notifier, times(1)).notify(any(BudgetAlert.class));
+        assertEquals(0, new BigDecimal("85.00").compareTo(budgetTracker.spent(1L, 1L)));
+    }
+
+    @Test
+    void apply_AfterSeed_ShouldUpdateInMemoryWithoutQuerying() {
+        // Arrange
+        seed("10.00");
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("10.00", LocalDateTime.now())));
+
+        // Act: 20 -> 105 crosses both thresholds
+        budgetTracker.apply(null, 1L, 12L, BudgetTracker.Delta.added(expense("85.00", LocalDateTime.now())));
+
+        // Assert
+        verify(expenseRepository, times(1)).sumByCategory(eq(1L), any(), any());
+        verify(notifier, times(2)).notify(any(BudgetAlert.class));
+        assertEquals(0, new BigDecimal("105.00").compareTo(budgetTracker.spent(1L, 1L)));
+    }
+
+    @Test
+    void apply_ForEventsInSeedOrRedelivered_ShouldBeIgnored() {
+        // Arrange
+        seed("90.00");
+
+        // Act
+        budgetTracker.apply(null, 1L, 10L, BudgetTracker.Delta.added(expense("50.00", LocalDateTime.now())));
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("5.00", LocalDateTime.now())));
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("5.00", LocalDateTime.now())));
+
+        // Assert
+        verify(notifier, never()).notify(any(BudgetAlert.class));
+        assertEquals(0, new BigDecimal("95.00").compareTo(budgetTracker.spent(1L, 1L)));
+    }
+
+    @Test
+    void apply_ForEventUncommittedAtSeed_ShouldBeAppliedEvenBelowNewerSeededEvents() {
+        // Arrange: 12 is already in the sums; 11 reserved its id first but had not committed yet
+        seed("50.00");
+        when(outboxEventRepository.findIdsByUserIdAfter(1L, 10L)).thenReturn(List.of(12L));
+
+        // Act
+        budgetTracker.apply(null, 1L, 12L, BudgetTracker.Delta.added(expense("20.00", LocalDateTime.now())));
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("5.00", LocalDateTime.now())));
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("5.00", LocalDateTime.now())));
+
+        // Assert
+        assertEquals(0, new BigDecimal("55.00").compareTo(budgetTracker.spent(1L, 1L)));
+    }
+
+    @Test
+    void apply_WithShardsWhoseIdsOverlap_ShouldUseTheFloorOfTheUsersShard() {
+        // Arrange: s0 já entregou até 500; o outbox de s1, onde está o usuário, só até 10
+        budgetTracker.setDeliveredUpTo("s0", 500L);
+        budgetTracker.setDeliveredUpTo("s1", 10L);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "BRL", LocalDate.now(), new BigDecimal("50.00"), 1L});
+        when(expenseRepository.sumByCategory(eq(1L), any(), any())).thenReturn(rows);
+        when(budgetRepository.findByUserId(1L)).thenReturn(List.of());
+
+        // Act: eventos 11 e 12 de s1, abaixo do que s0 já entregou
+        budgetTracker.apply("s1", 1L, 11L, BudgetTracker.Delta.added(expense("5.00", LocalDateTime.now())));
+        budgetTracker.apply("s1", 1L, 12L, BudgetTracker.Delta.added(expense("7.00", LocalDateTime.now())));
+        budgetTracker.apply("s1", 1L, 12L, BudgetTracker.Delta.added(expense("7.00", LocalDateTime.now())));
+
+        // Assert
+        verify(outboxEventRepository).findIdsByUserIdAfter(1L, 10L);
+        BigDecimal spent = ShardContext.callIn("s1", () -> budgetTracker.spent(1L, 1L));
+        assertEquals(0, new BigDecimal("62.00").compareTo(spent));
+    }
+
+    @Test
+    void apply_WithLaggingReplica_ShouldSeedFromPrimary() throws Exception {
+        // Arrange: the replica is within the allowed lag but does not have the expense of event 10 yet
+        JdbcDataSource primary = h2("budget-tracker-primary");
+        JdbcDataSource replica = h2("budget-tracker-replica");
+        for (JdbcDataSource dataSource : List.of(primary, replica)) {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            jdbc.execute("CREATE TABLE replica_heartbeat (id TINYINT PRIMARY KEY, beat DATETIME(3) NOT NULL)");
+            jdbc.update("INSERT INTO replica_heartbeat (id, beat) VALUES (1, ?)", Timestamp.valueOf("2024-01-01 12:00:00"));
+            jdbc.execute("CREATE TABLE spending (total DECIMAL(10, 2) NOT NULL)");
+        }
+        new JdbcTemplate(primary).update("INSERT INTO spending (total) VALUES (50.00)");
+        new JdbcTemplate(replica).update("INSERT INTO spending (total) VALUES (30.00)");
+        try (ReplicaRoutingDataSource router = new ReplicaRoutingDataSource("primary", primary, List.of(replica),
+                Duration.ofSeconds(2), Duration.ofSeconds(5))) {
+            router.checkLag();
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(router);
+            FxRateCache fxRateCache = new FxRateCache(
+                new ByteArrayResource("date,currency,rate\n2020-01-01,USD,5.00\n".getBytes()), "BRL");
+            fxRateCache.load();
+            BudgetTracker tracker = new BudgetTracker(expenseRepository, budgetRepository, outboxEventRepository,
+                userRepository, fxRateCache, new DataSourceTransactionManager(dataSource), List.of(notifier),
+                new int[]{80, 100}, 10);
+            tracker.setDeliveredUpTo(null, 10L);
+            when(expenseRepository.sumByCategory(eq(1L), any(), any())).thenAnswer(invocation -> {
+                List<Object[]> rows = new ArrayList<>();
+                rows.add(new Object[]{1L, "BRL", LocalDate.now(),
+                    new JdbcTemplate(dataSource).queryForObject("SELECT total FROM spending", BigDecimal.class), 1L});
+                return rows;
+            });
+            when(budgetRepository.findByUserId(1L)).thenReturn(List.of());
+
+            // Act
+            tracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("5.00", LocalDateTime.now())));
+
+            // Assert
+            assertEquals(0, new BigDecimal("55.00").compareTo(tracker.spent(1L, 1L)));
+        } finally {
+            new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+            new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        }
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    @Test
+    void apply_WhenUpdateMovesAmountDown_ShouldNotNotify() {
+        // Arrange
+        seed("90.00");
+        budgetTracker.spent(1L, 1L);
+        Expense before = expense("50.00", LocalDateTime.now());
+        Expense after = expense("20.00", LocalDateTime.now());
+
+        // Act
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.removed(before), BudgetTracker.Delta.added(after));
+
+        // Assert
+        verify(notifier, never()).notify(any(BudgetAlert.class));
+        assertEquals(0, new BigDecimal("60.00").compareTo(budgetTracker.spent(1L, 1L)));
+    }
+
+    @Test
+    void apply_ForExpenseOutsideCurrentMonth_ShouldBeIgnored() {
+        // Arrange
+        seed("0.00");
+        budgetTracker.spent(1L, 1L);
+
+        // Act
+        budgetTracker.apply(null, 1L, 11L, BudgetTracker.Delta.added(expense("500.00", LocalDateTime.now().minusMonths(2))));
+
+        // Assert
+        verify(notifier, never()).notify(any(BudgetAlert.class));
+        assertEquals(0, BigDecimal.ZERO.compareTo(budgetTracker.spent(1L, 1L)));
+    }
+}
@@ -1,9 +1,16 @@
 package com.expense.service;
 
 import com.expense.dto.request.CategoryRequestDTO;
+import com.expense.event.CacheInvalidator;
+import com.expense.event.OutboxPublisher;
 import com.expense.model.Category;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
+import com.expense.model.OutboxEvent;
+import com.expense.repository.ArchivedExpenseRepository;
 import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.RecurringExpenseRepository;
 import com.expense.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,13 +20,16 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +45,28 @@ class CategoryServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Mock
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Spy
+    private FxRateCache fxRateCache = new FxRateCache(
+        new ByteArrayResource("date,currency,rate\n2020-01-01,USD,5.00\n".getBytes()), "BRL");
+
+    @Mock
+    private ArchivedExpenseRepository archivedExpenseRepository;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
+    @Mock
+    private DeletionPurger deletionPurger;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -44,6 +76,7 @@ class CategoryServiceTest {
 
     @BeforeEach
     void setUp() {
+        fxRateCache.load();
         user = new User();
         user.setId(1L);
         user.setName("Test User");
@@ -111,193 +144,17 @@ class CategoryServiceTest {
         verify(categoryRepository, times(1)).findByIdAndUserId(999L, 1L);
     }
 
-    @Test
-    void findByName_WhenCategoryExists_ShouldReturnCategory() {
-        // Arrange
-        when(categoryRepository.findByName("Food")).thenReturn(category);
-
-        // Act
-        Optional<Category> result = categoryService.findByName("Food");
-
-        // Assert
-        assertTrue(result.isPresent());
-        assertEquals("Food", result.get().getName());
-        verify(categoryRepository, times(1)).findByName("Food");
-    }
-
-    @Test
-    void findByName_WhenCategoryDoesNotExist_ShouldReturnEmptyOptional() {
-        // Arrange
-        when(categoryRepository.findByName("NonExistent")).thenReturn(null);
-
-        // Act
-        Optional<Category> result = categoryService.findByName("NonExistent");
-
-        // Assert
-        assertFalse(result.isPresent());
-        verify(categoryRepository, times(1)).findByName("NonExistent");
-    }
-
-    @Test
-    void existsByName_WhenCategoryExists_ShouldReturnTrue() {
-        // Arrange
-        when(categoryRepository.findByName("Food")).thenReturn(category);
-
-        // Act
-        boolean result = categoryService.existsByName("Food");
-
-        // Assert
-        assertTrue(result);
-        verify(categoryRepository, times(1)).findByName("Food");
-    }
-
-    @Test
-    void existsByName_WhenCategoryDoesNotExist_ShouldReturnFalse() {
-        // Arrange
-        when(categoryRepository.findByName("NonExistent")).thenReturn(null);
-
-        // Act
-        boolean result = categoryService.existsByName("NonExistent");
-
-        // Assert
-        assertFalse(result);
-        verify(categoryRepository, times(1)).findByName("NonExistent");
-    }
-
-    @Test
-    void createCategory_WithExistingName_ShouldThrowException() {
-        // Arrange
-        CategoryRequestDTO dto = new CategoryRequestDTO();
-        dto.setName("Food"); // Nome já existente
-        
-        when(categoryRepository.findByName("Food")).thenReturn(category);
-
-        // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            categoryService.createCategory(dto);
-        });
-
-        assertEquals("Categoria já existe", exception.getMessage());
-        verify(categoryRepository, times(1)).findByName("Food");
-        verify(categoryRepository, never()).save(any(Category.class));
-    }
-
-    @Test
-    void createCategory_WithoutUserId_ShouldCreateCategoryWithoutUser() {
-        // Arrange
-        CategoryRequestDTO dto = new CategoryRequestDTO();
-        dto.setName("New Category");
-        dto.setDescription("Test Description");
-        dto.setColor("#FFFFFF");
-        dto.setIcon("📁");
-
-        Category newCategory = new Category();
-        newCategory.setId(2L);
-        newCategory.setName("New Category");
-        newCategory.setDescription("Test Description");
-        newCategory.setColor("#FFFFFF");
-        newCategory.setIcon("📁");
-        newCategory.setCreatedAt(LocalDateTime.now());
-
-        when(categoryRepository.findByName("New Category")).thenReturn(null);
-        when(categoryRepository.save(any(Category.class))).thenReturn(newCategory);
-
-        // Act
-        Category result = categoryService.createCategory(dto);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals("New Category", result.getName());
-        assertNull(result.getUser()); // Não deve ter usuário associado
-        verify(categoryRepository, times(1)).findByName("New Category");
-        verify(categoryRepository, times(1)).save(any(Category.class));
-    }
-
-    @Test
-    void updateCategory_WhenCategoryDoesNotExist_ShouldThrowException() {
-        // Arrange
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            categoryService.updateCategory(999L, categoryRequestDTO);
-        });
-
-        assertEquals("Categoria não encontrada", exception.getMessage());
-        verify(categoryRepository, times(1)).findById(999L);
-        verify(categoryRepository, never()).save(any(Category.class));
-    }
-
-    @Test
-    void updateCategory_WithDuplicateName_ShouldThrowException() {
-        // Arrange
-        CategoryRequestDTO dto = new CategoryRequestDTO();
-        dto.setName("Transport"); // Nome diferente do original
-        dto.setDescription("Updated description");
-        dto.setColor("#000000");
-        dto.setIcon("🚗");
-
-        Category existingTransport = new Category();
-        existingTransport.setId(2L);
-        existingTransport.setName("Transport");
-
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(categoryRepository.findByName("Transport")).thenReturn(existingTransport);
-
-        // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            categoryService.updateCategory(1L, dto);
-        });
-
-        assertEquals("Nome de categoria já existe", exception.getMessage());
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).findByName("Transport");
-        verify(categoryRepository, never()).save(any(Category.class));
-    }
-
-    @Test
-    void updateCategory_WithSameName_ShouldUpdateOtherFields() {
-        // Arrange
-        CategoryRequestDTO dto = new CategoryRequestDTO();
-        dto.setName("Food"); // Mesmo nome (deve permitir)
-        dto.setDescription("Updated description");
-        dto.setColor("#000000");
-        dto.setIcon("🍕");
-
-        Category updatedCategory = new Category();
-        updatedCategory.setId(1L);
-        updatedCategory.setName("Food");
-        updatedCategory.setDescription("Updated description");
-        updatedCategory.setColor("#000000");
-        updatedCategory.setIcon("🍕");
-
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(categoryRepository.save(any(Category.class))).thenReturn(updatedCategory);
-
-        // Act
-        Category result = categoryService.updateCategory(1L, dto);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals("Food", result.getName());
-        assertEquals("Updated description", result.getDescription());
-        assertEquals("#000000", result.getColor());
-        assertEquals("🍕", result.getIcon());
-        verify(categoryRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).save(any(Category.class));
-    }
-
     @Test
     void save_WhenCreatingNewCategory_ShouldSetCreatedAt() {
         // Arrange
         Category newCategory = new Category();
-        newCategory.setName("Test Category");
+        newCategory.setName("Food");
         newCategory.setDescription("Test Description");
         // Não seta createdAt
 
         Category savedCategory = new Category();
         savedCategory.setId(1L);
-        savedCategory.setName("Test Category");
+        savedCategory.setName("Food");
         savedCategory.setDescription("Test Description");
         savedCategory.setCreatedAt(LocalDateTime.now());
 
@@ -408,16 +265,13 @@ class CategoryServiceTest {
         dto.setColor(color);
         dto.setIcon(icon);
 
-        when(categoryRepository.findByName(any())).thenReturn(null);
-
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            categoryService.createCategory(dto);
+        assertThrows(IllegalArgumentException.class, () -> {
+            categoryService.createCategory(dto, 1L);
         });
 
-        // Verifica que pelo menos alguma exceção foi lançada
-        assertNotNull(exception);
-        verify(categoryRepository, never()).save(any(Category.class));
+        verify(categoryRepository, never()).insertIfAbsent(anyLong(), anyLong(), any(), any(), any(), any(), any());
+        verifyNoInteractions(outboxPublisher);
     }
 
     private static Stream<Arguments> provideInvalidCategoryData() {
@@ -437,15 +291,19 @@ class CategoryServiceTest {
         // Outros campos são null
 
         Category savedCategory = new Category();
-        savedCategory.setId(1L);
         savedCategory.setName("Test");
         // Campos nulos permanecem nulos
 
-        when(categoryRepository.findByName("Test")).thenReturn(null);
-        when(categoryRepository.save(any(Category.class))).thenReturn(savedCategory);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.insertIfAbsent(anyLong(), eq(1L), eq("Test"), isNull(), isNull(), isNull(),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+            savedCategory.setId(invocation.getArgument(0));
+            return 1;
+        });
+        when(categoryRepository.findByUserIdAndName(1L, "Test")).thenReturn(Optional.of(savedCategory));
 
         // Act
-        Category result = categoryService.createCategory(dto);
+        Category result = categoryService.createCategory(dto, 1L);
 
         // Assert
         assertNotNull(result);
@@ -457,33 +315,55 @@ class CategoryServiceTest {
 
     // Teste para verificar que o usuário é associado corretamente
     @Test
-    void createCategory_WithUserId_ShouldAssociateUser() {
+    void createCategory_WithUserId_ShouldInsertOnceAndPublishEvent() {
         // Arrange
+        AtomicLong insertedId = new AtomicLong();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> {
-            Category cat = invocation.getArgument(0);
-            cat.setId(100L); // Simula o ID gerado pelo banco
-            return cat;
+        when(categoryRepository.insertIfAbsent(anyLong(), eq(1L), eq("Food"), any(), any(), any(),
+                any(LocalDateTime.class))).thenAnswer(invocation -> {
+            insertedId.set(invocation.getArgument(0));
+            return 1;
+        });
+        when(categoryRepository.findByUserIdAndName(1L, "Food")).thenAnswer(invocation -> {
+            Category cat = new Category("Food", "Food and beverages");
+            cat.setId(insertedId.get());
+            cat.setUser(user);
+            return Optional.of(cat);
         });
 
         // Act
         Category result = categoryService.createCategory(categoryRequestDTO, 1L);
 
         // Assert
-        assertNotNull(result);
-        assertNotNull(result.getUser());
+        assertEquals(insertedId.get(), result.getId());
         assertEquals(1L, result.getUser().getId());
-        assertEquals("Test User", result.getUser().getName());
-        verify(userRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(categoryRepository, never()).save(any(Category.class));
+        verify(outboxPublisher).publish(OutboxEvent.CATEGORY_CREATED, insertedId.get(), 1L, null);
+    }
+
+    @Test
+    void createCategory_WithNameAlreadyUsedByTheUser_ShouldReturnExistingCategory() {
+        // Arrange: o INSERT não faz nada e a leitura devolve a categoria que já existia
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByUserIdAndName(1L, "Food")).thenReturn(Optional.of(category));
+
+        // Act
+        Category result = categoryService.createCategory(categoryRequestDTO, 1L);
+
+        // Assert
+        assertSame(category, result);
+        verify(categoryRepository).insertIfAbsent(anyLong(), eq(1L), eq("Food"), any(), any(), any(),
+            any(LocalDateTime.class));
+        verify(outboxPublisher, never()).publish(anyString(), anyLong(), anyLong(), any());
     }
 
     // Teste para verificar rollback em caso de erro
     @Test
-    void createCategory_WhenSaveFails_ShouldNotPersist() {
+    void createCategory_WhenInsertFails_ShouldNotPublishEvent() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(categoryRepository.save(any(Category.class))).thenThrow(new RuntimeException("Database error"));
+        when(categoryRepository.insertIfAbsent(anyLong(), anyLong(), anyString(), any(), any(), any(),
+                any(LocalDateTime.class))).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
@@ -491,7 +371,7 @@ class CategoryServiceTest {
         });
 
         verify(userRepository, times(1)).findById(1L);
-        verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(outboxPublisher, never()).publish(anyString(), anyLong(), anyLong(), any());
     }
 
     // Teste para verificar que findAll retorna em ordem
@@ -548,36 +428,68 @@ class CategoryServiceTest {
 
     // Teste de concorrência básico
     @Test
-    void updateCategory_WithConcurrentModification_ShouldHandleGracefully() {
+    void deleteCategory_ShouldMarkDeletedAndQueuePurge() {
         // Arrange
-        CategoryRequestDTO dto1 = new CategoryRequestDTO();
-        dto1.setName("Updated Name");
-        dto1.setDescription("Desc 1");
-        
-        CategoryRequestDTO dto2 = new CategoryRequestDTO();
-        dto2.setName("Updated Name");
-        dto2.setDescription("Desc 2");
-
-        Category categoryCopy = new Category();
-        categoryCopy.setId(1L);
-        categoryCopy.setName("Food");
-        categoryCopy.setDescription("Original");
-
-        when(categoryRepository.findById(1L))
-            .thenReturn(Optional.of(categoryCopy))
-            .thenReturn(Optional.of(categoryCopy));
-        
-        when(categoryRepository.save(any(Category.class)))
-            .thenAnswer(invocation -> invocation.getArgument(0));
+        DeletionJob job = new DeletionJob(10L, DeletionJob.Target.CATEGORY, 1L, 1L, DeletionJob.Status.PENDING,
+            0, LocalDateTime.now(), LocalDateTime.now(), null);
+        when(categoryRepository.markDeleted(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(deletionPurger.schedule(DeletionJob.Target.CATEGORY, 1L, 1L)).thenReturn(job);
+
+        // Act
+        DeletionJob result = categoryService.deleteCategory(1L, 1L);
+
+        // Assert: as despesas ficam para o job, nenhuma remoção aqui
+        assertSame(job, result);
+        verify(categoryRepository, never()).deleteByIdAndUserId(anyLong(), anyLong());
+        verifyNoInteractions(expenseRepository, outboxPublisher);
+        verify(cacheInvalidator).categoryChanged(1L);
+    }
 
-        // Act - Simula duas atualizações "concorrentes"
-        Category result1 = categoryService.updateCategory(1L, dto1);
-        Category result2 = categoryService.updateCategory(1L, dto2);
+    @Test
+    void deleteCategory_WhenCategoryDoesNotBelongToUser_ShouldThrowException() {
+        // Arrange
+        when(categoryRepository.markDeleted(eq(1L), eq(999L), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> categoryService.deleteCategory(1L, 999L));
+        verifyNoInteractions(deletionPurger, outboxPublisher);
+    }
+
+    @Test
+    void getDeletionJob_OfAnotherUsersCategory_ShouldBeEmpty() {
+        // Arrange
+        DeletionJob job = new DeletionJob(10L, DeletionJob.Target.CATEGORY, 1L, 1L, DeletionJob.Status.RUNNING,
+            500, LocalDateTime.now(), LocalDateTime.now(), null);
+        when(deletionPurger.findJob(DeletionJob.Target.CATEGORY, 1L)).thenReturn(Optional.of(job));
+
+        // Act & Assert
+        assertEquals(Optional.of(job), categoryService.getDeletionJob(1L, 1L));
+        assertTrue(categoryService.getDeletionJob(1L, 999L).isEmpty());
+    }
+
+    @Test
+    void mergeCategory_ShouldMoveExpensesAndDeleteSource() {
+        // Arrange
+        List<Object[]> totals = Collections.singletonList(new Object[]{1L, "BRL", java.time.LocalDate.now(), new java.math.BigDecimal("40.00"), 3L});
+        when(categoryRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(categoryRepository.existsByIdAndUserId(2L, 1L)).thenReturn(true);
+        when(expenseRepository.sumByCategory(eq(1L), any(), any())).thenReturn(totals);
+        when(expenseRepository.moveToCategory(1L, 1L, 2L)).thenReturn(250);
+
+        // Act
+        int moved = categoryService.mergeCategory(1L, 2L, 1L);
 
         // Assert
-        assertNotNull(result1);
-        assertNotNull(result2);
-        verify(categoryRepository, times(2)).findById(1L);
-        verify(categoryRepository, times(2)).save(any(Category.class));
+        assertEquals(250, moved);
+        verify(recurringExpenseRepository, times(1)).moveToCategory(1L, 1L, 2L);
+        verify(categoryRepository, times(1)).deleteByIdAndUserId(1L, 1L);
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.EXPENSES_BULK_CHANGED), eq(1L), eq(1L), any());
+    }
+
+    @Test
+    void mergeCategory_IntoItself_ShouldThrowIllegalArgument() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> categoryService.mergeCategory(1L, 1L, 1L));
+        verifyNoInteractions(expenseRepository, outboxPublisher);
     }
-}
\ No newline at end of file
+}
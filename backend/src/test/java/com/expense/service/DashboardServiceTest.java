@@ -0,0 +1,180 @@
+package com.expense.service;
+
+import com.expense.config.ShardContext;
+import com.expense.dto.response.GraficoResponseDTO;
+import com.expense.model.Category;
+import com.expense.model.Expense;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 10);
+
+    @Mock
+    private ExpenseService expenseService;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @InjectMocks
+    private DashboardService dashboardService;
+
+    private Category category;
+    private Expense expense;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dashboardService, "timeoutMs", 5_000L);
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Mercado");
+
+        expense = new Expense();
+        expense.setId(10L);
+        expense.setAmount(new BigDecimal("100.00"));
+        expense.setCategory(category);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    private void stubAllParts() {
+        lenient().when(expenseService.summarizeByCategory(1L, LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31)))
+            .thenReturn(List.of(new GraficoResponseDTO("Mercado", new BigDecimal("100.00"), 1L, 80.0),
+                new GraficoResponseDTO("Lazer", new BigDecimal("25.50"), 1L, 20.0)));
+        lenient().when(expenseService.getExpensesPage(1L, 0, DashboardService.RECENT_EXPENSES_SIZE))
+            .thenReturn(new SliceImpl<>(List.of(expense)));
+        lenient().when(categoryService.getAllCategories(1L)).thenReturn(List.of(category));
+    }
+
+    @Test
+    void getDashboard_ShouldLoadEveryPart() {
+        // Arrange
+        stubAllParts();
+
+        // Act
+        Dashboard dashboard = dashboardService.getDashboard(1L, MONTH);
+
+        // Assert
+        assertFalse(dashboard.isPartial());
+        assertEquals(MONTH, dashboard.month());
+        assertEquals(new BigDecimal("125.50"), dashboard.monthTotal());
+        assertEquals(2, dashboard.categoryTotals().size());
+        assertEquals(List.of(expense), dashboard.recentExpenses());
+        assertEquals(List.of(category), dashboard.categories());
+    }
+
+    @Test
+    void getDashboard_ShouldRunPartsConcurrently() {
+        // Arrange: cada parte só termina quando as três estiverem rodando ao mesmo tempo
+        CyclicBarrier barrier = new CyclicBarrier(3);
+        when(expenseService.summarizeByCategory(anyLong(), any(), any())).thenAnswer(invocation -> {
+            barrier.await(3, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(expenseService.getExpensesPage(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            barrier.await(3, TimeUnit.SECONDS);
+            return new SliceImpl<>(List.of(expense));
+        });
+        when(categoryService.getAllCategories(1L)).thenAnswer(invocation -> {
+            barrier.await(3, TimeUnit.SECONDS);
+            return List.of(category);
+        });
+
+        // Act
+        Dashboard dashboard = dashboardService.getDashboard(1L, MONTH);
+
+        // Assert
+        assertFalse(dashboard.isPartial());
+        assertEquals(BigDecimal.ZERO, dashboard.monthTotal());
+    }
+
+    @Test
+    void getDashboard_WhenPartMissesDeadline_ShouldReturnTheOthersAndCancelIt() throws InterruptedException {
+        // Arrange
+        ReflectionTestUtils.setField(dashboardService, "timeoutMs", 1_000L);
+        stubAllParts();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(categoryService.getAllCategories(1L)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of(category);
+        });
+
+        // Act
+        long start = System.nanoTime();
+        Dashboard dashboard = dashboardService.getDashboard(1L, MONTH);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsedMs < 5_000, "esperou a parte lenta: " + elapsedMs + " ms");
+        assertEquals(List.of(DashboardService.CATEGORIES), dashboard.missing());
+        assertNull(dashboard.categories());
+        assertEquals(new BigDecimal("125.50"), dashboard.monthTotal());
+        assertEquals(List.of(expense), dashboard.recentExpenses());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getDashboard_WhenPartFails_ShouldReportItMissing() {
+        // Arrange
+        stubAllParts();
+        when(expenseService.summarizeByCategory(anyLong(), any(), any())).thenThrow(new RuntimeException("falha"));
+
+        // Act
+        Dashboard dashboard = dashboardService.getDashboard(1L, MONTH);
+
+        // Assert
+        assertEquals(List.of(DashboardService.CATEGORY_TOTALS), dashboard.missing());
+        assertNull(dashboard.categoryTotals());
+        assertNull(dashboard.monthTotal());
+        assertFalse(dashboard.isEmpty());
+        assertEquals(List.of(category), dashboard.categories());
+    }
+
+    @Test
+    void getDashboard_ShouldRunPartsOnTheCallersShard() {
+        // Arrange
+        stubAllParts();
+        when(categoryService.getAllCategories(1L)).thenAnswer(invocation ->
+            "s1".equals(ShardContext.current()) ? List.of(category) : List.of());
+
+        // Act
+        Dashboard dashboard;
+        ShardContext.set("s1");
+        try {
+            dashboard = dashboardService.getDashboard(1L, MONTH);
+        } finally {
+            ShardContext.clear();
+        }
+
+        // Assert
+        assertEquals(List.of(category), dashboard.categories());
+    }
+}
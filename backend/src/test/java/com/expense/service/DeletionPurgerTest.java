@@ -0,0 +1,211 @@
+package com.expense.service;
+
+import com.expense.event.CacheInvalidator;
+import com.expense.event.OutboxPublisher;
+import com.expense.model.DeletionJob;
+import com.expense.model.OutboxEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeletionPurgerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OutboxPublisher outboxPublisher;
+    private CacheInvalidator cacheInvalidator;
+    private DeletionPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:deletion-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/shard-h2/V1__schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        outboxPublisher = mock(OutboxPublisher.class);
+        cacheInvalidator = mock(CacheInvalidator.class);
+
+        purger = new DeletionPurger();
+        ReflectionTestUtils.setField(purger, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(purger, "transactionTemplate",
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(purger, "schedulerLock", schedulerLock());
+        ReflectionTestUtils.setField(purger, "outboxPublisher", outboxPublisher);
+        ReflectionTestUtils.setField(purger, "cacheInvalidator", cacheInvalidator);
+        ReflectionTestUtils.setField(purger, "entityManagerFactory", mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS));
+        ReflectionTestUtils.setField(purger, "chunkSize", 10);
+        ReflectionTestUtils.setField(purger, "chunksPerRun", 2);
+        ReflectionTestUtils.setField(purger, "pauseMs", 0L);
+
+        // Usuário 1 com duas categorias (25 e 5 despesas, 3 arquivadas, orçamento e recorrente na 10);
+        // usuário 2 com uma categoria e 5 despesas
+        user(1);
+        user(2);
+        category(10, 1, "Mercado");
+        category(11, 1, "Lazer");
+        category(20, 2, "Mercado");
+        expenses(1, 10, 1000, 25);
+        expenses(1, 11, 2000, 5);
+        expenses(2, 20, 3000, 5);
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.update("INSERT INTO expense_archive (id, description, amount, date, category_id, user_id, archived_at) "
+                + "VALUES (?, 'Antiga', 10.00, ?, 10, 1, ?)", 4000 + i, Timestamp.valueOf(LocalDateTime.now().minusYears(3)),
+                Timestamp.valueOf(LocalDateTime.now()));
+        }
+        jdbcTemplate.update("INSERT INTO budget (amount_limit, category_id, user_id) VALUES (500.00, 10, 1)");
+        jdbcTemplate.update("INSERT INTO recurring_expense (description, amount, rule, start_date, next_occurrence, "
+            + "category_id, user_id) VALUES ('Feira', 50.00, 'FREQ=WEEKLY', CURRENT_DATE, CURRENT_DATE, 10, 1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private SchedulerLock schedulerLock() {
+        SchedulerLock lock = new SchedulerLock();
+        ReflectionTestUtils.setField(lock, "jdbcTemplate", jdbcTemplate);
+        return lock;
+    }
+
+    private void user(long id) {
+        jdbcTemplate.update("INSERT INTO user (id, name, email, password, created_at) VALUES (?, 'Usuário', ?, 'x', ?)",
+            id, "user" + id + "@example.com", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void category(long id, long userId, String name) {
+        jdbcTemplate.update("INSERT INTO categories (id, name, user_id, created_at) VALUES (?, ?, ?, ?)",
+            id, name, userId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void expenses(long userId, long categoryId, long firstId, int count) {
+        for (int i = 0; i < count; i++) {
+            // Várias despesas na mesma data: o keyset desempata pelo id
+            jdbcTemplate.update("INSERT INTO expense (id, description, amount, date, category_id, user_id) "
+                + "VALUES (?, 'Despesa', 10.00, ?, ?, ?)", firstId + i,
+                Timestamp.valueOf(LocalDateTime.of(2025, 1, 1 + i / 4, 12, 0)), categoryId, userId);
+        }
+    }
+
+    private DeletionJob delete(DeletionJob.Target target, long targetId, long userId) {
+        String table = target == DeletionJob.Target.USER ? "user" : "categories";
+        jdbcTemplate.update("UPDATE " + table + " SET deleted_at = ? WHERE id = ?", Timestamp.valueOf(LocalDateTime.now()), targetId);
+        return purger.schedule(target, targetId, userId);
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+
+    private DeletionJob job(DeletionJob.Target target, long targetId) {
+        return purger.findJob(target, targetId).orElseThrow();
+    }
+
+    @Test
+    void schedule_ShouldQueueJobAndStopRecurringExpenses() {
+        // Act
+        DeletionJob job = delete(DeletionJob.Target.CATEGORY, 10, 1);
+
+        // Assert
+        DeletionJob stored = job(DeletionJob.Target.CATEGORY, 10);
+        assertEquals(job.id(), stored.id());
+        assertEquals(DeletionJob.Status.PENDING, stored.status());
+        assertEquals(0, count("SELECT COUNT(*) FROM recurring_expense WHERE active = TRUE"));
+        assertEquals(25, count("SELECT COUNT(*) FROM expense WHERE category_id = 10"));
+    }
+
+    @Test
+    void purgeCategory_ShouldDeleteExpensesInChunksAcrossRuns() {
+        // Arrange
+        delete(DeletionJob.Target.CATEGORY, 10, 1);
+
+        // Act & Assert: dois chunks de 10 por execução, o cursor continua na seguinte
+        assertEquals(0, purger.purgePending());
+        assertEquals(5, count("SELECT COUNT(*) FROM expense WHERE category_id = 10"));
+        DeletionJob running = job(DeletionJob.Target.CATEGORY, 10);
+        assertEquals(DeletionJob.Status.RUNNING, running.status());
+        assertEquals(20, running.purgedRows());
+
+        // Restantes: 5 despesas, 3 arquivadas e por fim a categoria
+        assertEquals(0, purger.purgePending());
+        assertEquals(1, purger.purgePending());
+
+        DeletionJob done = job(DeletionJob.Target.CATEGORY, 10);
+        assertEquals(DeletionJob.Status.DONE, done.status());
+        assertNotNull(done.finishedAt());
+        assertEquals(25 + 3 + 1, done.purgedRows());
+        assertEquals(0, count("SELECT COUNT(*) FROM categories WHERE id = 10"));
+        assertEquals(0, count("SELECT COUNT(*) FROM expense_archive"));
+        assertEquals(0, count("SELECT COUNT(*) FROM budget"));
+        assertEquals(0, count("SELECT COUNT(*) FROM recurring_expense"));
+        // As outras categorias não são tocadas
+        assertEquals(5, count("SELECT COUNT(*) FROM expense WHERE category_id = 11"));
+        assertEquals(5, count("SELECT COUNT(*) FROM expense WHERE user_id = 2"));
+        verify(outboxPublisher).publish(OutboxEvent.CATEGORY_DELETED, 10L, 1L, null);
+        verify(cacheInvalidator).categoryChanged(10L);
+    }
+
+    @Test
+    void purgeUser_ShouldDeleteEverythingOfTheUserOnly() {
+        // Arrange
+        ReflectionTestUtils.setField(purger, "chunksPerRun", 100);
+        delete(DeletionJob.Target.USER, 1, 1);
+
+        // Act
+        int finished = purger.purgePending();
+
+        // Assert: 30 despesas, 3 arquivadas, 2 categorias, orçamento, recorrente e o usuário
+        assertEquals(1, finished);
+        assertEquals(30 + 3 + 1 + 1 + 2 + 1, job(DeletionJob.Target.USER, 1).purgedRows());
+        assertEquals(0, count("SELECT COUNT(*) FROM user WHERE id = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM expense WHERE user_id = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM categories WHERE user_id = 1"));
+        assertEquals(1, count("SELECT COUNT(*) FROM user WHERE id = 2"));
+        assertEquals(5, count("SELECT COUNT(*) FROM expense WHERE user_id = 2"));
+        verify(cacheInvalidator).userChanged(1L, true);
+    }
+
+    @Test
+    void purgePending_ShouldAdvanceEveryJobInEachRun() {
+        // Arrange: uma conta grande na frente da fila e uma categoria pequena de outro usuário
+        ReflectionTestUtils.setField(purger, "chunksPerRun", 1);
+        delete(DeletionJob.Target.USER, 1, 1);
+        delete(DeletionJob.Target.CATEGORY, 20, 2);
+
+        // Act
+        purger.purgePending();
+
+        // Assert: a conta grande não segurou a outra remoção
+        assertEquals(20, count("SELECT COUNT(*) FROM expense WHERE user_id = 1"));
+        assertEquals(0, count("SELECT COUNT(*) FROM expense WHERE user_id = 2"));
+    }
+
+    @Test
+    void purgePending_WhenLeaseHeldByAnotherNode_ShouldDoNothing() {
+        // Arrange
+        delete(DeletionJob.Target.CATEGORY, 10, 1);
+        assertTrue(schedulerLock().tryAcquire(DeletionPurger.JOB_NAME, Duration.ofMinutes(1)));
+
+        // Act
+        int finished = purger.purgePending();
+
+        // Assert
+        assertEquals(0, finished);
+        assertEquals(DeletionJob.Status.PENDING, job(DeletionJob.Target.CATEGORY, 10).status());
+        assertEquals(25, count("SELECT COUNT(*) FROM expense WHERE category_id = 10"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.expense.service;
+
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailBloomFilter emailBloomFilter;
+
+    @BeforeEach
+    void setUp() {
+        emailBloomFilter = new EmailBloomFilter(userRepository, transactionManager, 1000, 0.01);
+    }
+
+    @Test
+    void mightContain_BeforeRebuild_ShouldAnswerMaybe() {
+        // Act & Assert
+        assertTrue(emailBloomFilter.mightContain("anyone@email.com"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void rebuild_ShouldContainEveryRegisteredEmailIgnoringCase() {
+        // Arrange
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("john@example.com", "Jane@Example.com"));
+
+        // Act
+        emailBloomFilter.rebuild();
+
+        // Assert
+        assertTrue(emailBloomFilter.mightContain("john@example.com"));
+        assertTrue(emailBloomFilter.mightContain(" JOHN@example.com"));
+        assertTrue(emailBloomFilter.mightContain("jane@example.com"));
+        assertFalse(emailBloomFilter.mightContain("nobody@example.com"));
+    }
+
+    @Test
+    void add_AfterRebuild_ShouldContainNewEmail() {
+        // Arrange
+        when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+        emailBloomFilter.rebuild();
+
+        // Act
+        emailBloomFilter.add("new@example.com");
+
+        // Assert
+        assertTrue(emailBloomFilter.mightContain("new@example.com"));
+    }
+
+    @Test
+    void mightContain_WithUnknownEmails_ShouldKeepFalsePositivesNearConfiguredRate() {
+        // Arrange
+        when(userRepository.streamAllEmails())
+            .thenReturn(IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@example.com"));
+        emailBloomFilter.rebuild();
+
+        // Act
+        long falsePositives = IntStream.range(0, 10000)
+            .filter(i -> emailBloomFilter.mightContain("other" + i + "@example.com"))
+            .count();
+
+        // Assert
+        assertTrue(falsePositives < 300, "falsos positivos: " + falsePositives);
+    }
+
+    @Test
+    void rebuild_WhenQueryFails_ShouldKeepAnsweringMaybe() {
+        // Arrange
+        when(userRepository.streamAllEmails()).thenThrow(new RuntimeException("banco indisponível"));
+
+        // Act
+        emailBloomFilter.rebuild();
+
+        // Assert
+        assertTrue(emailBloomFilter.mightContain("anyone@email.com"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.expense.service;
+
+import com.expense.model.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseArchiverTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private SchedulerLock schedulerLock;
+
+    @InjectMocks
+    private ExpenseArchiver expenseArchiver;
+
+    @Test
+    void cutoff_ShouldBeStartOfMonthBeforeHorizon() {
+        assertEquals(LocalDate.of(2024, 10, 1), ExpenseArchiver.cutoff(LocalDate.of(2026, 10, 19), 24));
+    }
+
+    @Test
+    void reorganize_ShouldSplitFutureIntoMonthlyPartitions() {
+        // Act
+        String sql = ExpenseArchiver.reorganize(ExpenseArchiver.upperBound("'2025-01-01 00:00:00'"), YearMonth.of(2025, 2));
+
+        // Assert
+        assertEquals("ALTER TABLE expense REORGANIZE PARTITION p_future INTO ("
+            + "PARTITION p202501 VALUES LESS THAN ('2025-02-01'), "
+            + "PARTITION p202502 VALUES LESS THAN ('2025-03-01'), "
+            + "PARTITION p_future VALUES LESS THAN (MAXVALUE))", sql);
+    }
+
+    @Test
+    void reorganize_WhenPartitionsAlreadyExist_ShouldReturnNull() {
+        assertNull(ExpenseArchiver.reorganize(LocalDate.of(2025, 3, 1), YearMonth.of(2025, 2)));
+    }
+
+    @Test
+    void maintain_WhenLeaseHeldByAnotherNode_ShouldDoNothing() {
+        // Arrange
+        when(schedulerLock.tryAcquire(eq(ExpenseArchiver.JOB_NAME), any(Duration.class))).thenReturn(false);
+
+        // Act
+        int archived = expenseArchiver.maintain(LocalDate.now());
+
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(jdbcTemplate, transactionTemplate);
+    }
+
+    @Test
+    void maintain_OnPartitionedTable_ShouldCreateUpcomingPartitions() {
+        // Arrange
+        when(schedulerLock.tryAcquire(eq(ExpenseArchiver.JOB_NAME), any(Duration.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(ExpenseArchiver.PARTITIONS)).thenReturn(List.of(
+            Map.of("PARTITION_NAME", "p_start", "PARTITION_DESCRIPTION", "'2025-01-01 00:00:00'"),
+            Map.of("PARTITION_NAME", "p_future", "PARTITION_DESCRIPTION", "MAXVALUE")));
+
+        // Act
+        expenseArchiver.maintain(LocalDate.of(2025, 1, 15));
+
+        // Assert
+        ArgumentCaptor<String> statement = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).execute(statement.capture());
+        assertTrue(statement.getValue().contains("PARTITION p202504 VALUES LESS THAN ('2025-05-01')"));
+        verifyNoInteractions(transactionTemplate);
+        verify(schedulerLock).release(ExpenseArchiver.JOB_NAME);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void maintain_WithArchiveEnabled_ShouldMoveOldExpensesInChunks() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseArchiver, "archiveEnabled", true);
+        ReflectionTestUtils.setField(expenseArchiver, "chunkSize", 2);
+        when(schedulerLock.tryAcquire(eq(ExpenseArchiver.JOB_NAME), any(Duration.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(ExpenseArchiver.PARTITIONS)).thenThrow(new DataAccessResourceFailureException("H2"));
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+            .thenAnswer(invocation -> ((TransactionCallback<Integer>) invocation.getArgument(0)).doInTransaction(null));
+        when(jdbcTemplate.queryForList(eq(ExpenseArchiver.SELECT_OLD), any(Timestamp.class), eq(2)))
+            .thenReturn(List.of(Map.of("id", 1L, "user_id", 5L), Map.of("id", 2L, "user_id", 5L)))
+            .thenReturn(Collections.emptyList());
+
+        // Act
+        int archived = expenseArchiver.maintain(LocalDate.of(2026, 10, 19));
+
+        // Assert
+        assertEquals(2, archived);
+        verify(jdbcTemplate).update(eq(String.format(ExpenseArchiver.COPY, "?, ?")), any(), eq(1L), eq(2L));
+        verify(jdbcTemplate).update(String.format(ExpenseArchiver.DELETE, "?, ?"), 1L, 2L);
+        ArgumentCaptor<List<Object[]>> events = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(RecurringExpenseMaterializer.INSERT_EVENT), events.capture());
+        assertEquals(1, events.getValue().size());
+        assertEquals(OutboxEvent.EXPENSES_CHANGED, events.getValue().get(0)[0]);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,165 @@
+package com.expense.service;
+
+import com.expense.model.Expense;
+import com.expense.model.User;
+import com.expense.repository.ExpenseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExpenseSearchServiceTest {
+
+    @Mock
+    private ExpenseRepository expenseRepository;
+
+    @Spy
+    private ExpenseSearchIndex expenseSearchIndex = new ExpenseSearchIndex(10);
+
+    @InjectMocks
+    private ExpenseSearchService expenseSearchService;
+
+    private User user;
+    private Expense uber;
+    private Expense uberEats;
+    private Expense pharmacy;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+
+        uber = expense(1L, "Uber to work", LocalDateTime.now().minusDays(3));
+        uberEats = expense(2L, "Jantar Uber Eats", LocalDateTime.now().minusDays(1));
+        pharmacy = expense(3L, "Farmácia", LocalDateTime.now());
+    }
+
+    private Expense expense(Long id, String description, LocalDateTime date) {
+        Expense expense = new Expense();
+        expense.setId(id);
+        expense.setDescription(description);
+        expense.setAmount(new BigDecimal("10.00"));
+        expense.setDate(date);
+        expense.setUser(user);
+        return expense;
+    }
+
+    @Test
+    void search_WithFulltextEngine_ShouldUseBooleanModeQuery() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseSearchService, "engine", ExpenseSearchService.ENGINE_FULLTEXT);
+        when(expenseRepository.searchByDescription(eq(1L), eq("+uber* +work*"), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(uber)));
+
+        // Act
+        Page<Expense> result = expenseSearchService.search(1L, "Uber, work!", 0, 20);
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        verify(expenseRepository, times(1)).searchByDescription(eq(1L), eq("+uber* +work*"), any(Pageable.class));
+    }
+
+    @Test
+    void search_WithLikeEngine_ShouldUsePortableQuery() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseSearchService, "engine", ExpenseSearchService.ENGINE_LIKE);
+        when(expenseRepository.searchByDescriptionLike(eq(1L), eq("uber"), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of(uber, uberEats)));
+
+        // Act
+        Page<Expense> result = expenseSearchService.search(1L, " uber ", 0, 20);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        verify(expenseRepository, never()).searchByDescription(any(), any(), any());
+    }
+
+    @Test
+    void search_WithLikeEngine_ShouldMatchWildcardsLiterally() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseSearchService, "engine", ExpenseSearchService.ENGINE_LIKE);
+        when(expenseRepository.searchByDescriptionLike(eq(1L), eq("desconto 50\\% item\\_a"), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(List.of()));
+
+        // Act
+        expenseSearchService.search(1L, "desconto 50% item_a", 0, 20);
+
+        // Assert
+        verify(expenseRepository, times(1)).searchByDescriptionLike(eq(1L), eq("desconto 50\\% item\\_a"), any(Pageable.class));
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldReturnEmptyPageWithoutQuerying() {
+        // Act
+        Page<Expense> result = expenseSearchService.search(1L, " ?! ", 0, 20);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void search_WithMemoryEngine_ShouldBuildIndexOnceAndRankByExactMatchThenDate() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseSearchService, "engine", ExpenseSearchService.ENGINE_MEMORY);
+        when(expenseRepository.findByUserId(1L)).thenReturn(Arrays.asList(uber, uberEats, pharmacy));
+        when(expenseRepository.findAllById(anyList())).thenReturn(Arrays.asList(uber, uberEats));
+
+        // Act
+        Page<Expense> first = expenseSearchService.search(1L, "uber", 0, 20);
+        expenseSearchService.search(1L, "uber", 0, 20);
+
+        // Assert
+        assertEquals(2, first.getTotalElements());
+        assertEquals(2L, first.getContent().get(0).getId());
+        assertEquals(1L, first.getContent().get(1).getId());
+        verify(expenseRepository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    void index_ShouldMatchPrefixesIgnoringAccentsAndFollowWrites() {
+        // Arrange
+        expenseSearchIndex.load(1L, Arrays.asList(uber, uberEats, pharmacy));
+
+        // Act & Assert
+        assertEquals(List.of(3L), expenseSearchIndex.search(1L, "farmacia"));
+        assertEquals(List.of(3L), expenseSearchIndex.search(1L, "FARM"));
+
+        pharmacy.setDescription("Drogaria");
+        expenseSearchIndex.index(pharmacy);
+        assertTrue(expenseSearchIndex.search(1L, "farm").isEmpty());
+        assertEquals(List.of(3L), expenseSearchIndex.search(1L, "drogaria"));
+
+        expenseSearchIndex.remove(1L, 2L);
+        assertEquals(List.of(1L), expenseSearchIndex.search(1L, "uber"));
+    }
+
+    @Test
+    void index_ShouldIgnoreWritesForUsersNotLoaded() {
+        // Act
+        expenseSearchIndex.index(uber);
+
+        // Assert
+        assertFalse(expenseSearchIndex.isLoaded(1L));
+        assertTrue(expenseSearchIndex.search(1L, "uber").isEmpty());
+    }
+}
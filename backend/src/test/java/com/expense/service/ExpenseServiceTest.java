@@ -1,18 +1,39 @@
 package com.expense.service;
 
+import com.expense.dto.request.ExpenseFilterDTO;
+import com.expense.dto.request.ExpensePatchDTO;
 import com.expense.dto.request.ExpenseRequestDTO;
+import com.expense.dto.response.GraficoResponseDTO;
+import com.expense.event.ExpenseBulkEventPayload;
+import com.expense.event.ExpenseEventPayload;
+import com.expense.event.OutboxPublisher;
+import com.expense.model.ArchivedExpense;
 import com.expense.model.Category;
 import com.expense.model.Expense;
+import com.expense.model.OutboxEvent;
+import com.expense.model.Tsid;
 import com.expense.model.User;
+import com.expense.repository.ArchivedExpenseRepository;
 import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseCursor;
 import com.expense.repository.ExpenseRepository;
 import com.expense.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,6 +44,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +61,16 @@ class ExpenseServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ArchivedExpenseRepository archivedExpenseRepository;
+
+    @Spy
+    private FxRateCache fxRateCache = new FxRateCache(
+        new ByteArrayResource("date,currency,rate\n2020-01-01,USD,5.00\n".getBytes()), "BRL");
+
     @InjectMocks
     private ExpenseService expenseService;
 
@@ -47,6 +81,7 @@ class ExpenseServiceTest {
 
     @BeforeEach
     void setUp() {
+        fxRateCache.load();
         user = new User();
         user.setId(1L);
         user.setName("John Doe");
@@ -74,6 +109,13 @@ class ExpenseServiceTest {
         expenseRequestDTO.setUserId(1L);
     }
 
+    /**
+     * Id como o app gera offline: os bits de nó (8 a 11) em um nó reservado aos clientes
+     */
+    private static long clientId() {
+        return Tsid.next() | (long) Tsid.FIRST_CLIENT_NODE << 8;
+    }
+
     @Test
     void getAllExpenses_ShouldReturnUserExpenses() {
         // Arrange
@@ -123,6 +165,36 @@ class ExpenseServiceTest {
         verify(expenseRepository, times(1)).findByIdAndUserId(1L, 999L);
     }
 
+    @Test
+    void getExpenseById_WhenArchived_ShouldFallBackToArchive() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseService, "archiveEnabled", true);
+        when(expenseRepository.findByIdAndUserId(7L, 1L)).thenReturn(Optional.empty());
+        when(archivedExpenseRepository.findByIdAndUserId(7L, 1L))
+            .thenReturn(Optional.of(archived(7L, LocalDate.now().minusYears(3).atStartOfDay())));
+
+        // Act
+        Optional<Expense> result = expenseService.getExpenseById(7L, 1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(7L, result.get().getId());
+        assertEquals(category, result.get().getCategory());
+    }
+
+    @Test
+    void getExpenseById_WhenArchiveDisabled_ShouldNotReadArchive() {
+        // Arrange
+        when(expenseRepository.findByIdAndUserId(7L, 1L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Expense> result = expenseService.getExpenseById(7L, 1L);
+
+        // Assert
+        assertFalse(result.isPresent());
+        verifyNoInteractions(archivedExpenseRepository);
+    }
+
     @Test
     void createExpense_WithValidData_ShouldCreateAndReturnExpense() {
         // Arrange
@@ -140,6 +212,114 @@ class ExpenseServiceTest {
         verify(userRepository, times(1)).findById(1L);
         verify(categoryRepository, times(1)).findByIdAndUserId(1L, 1L);
         verify(expenseRepository, times(1)).save(any(Expense.class));
+        verify(outboxPublisher, times(1))
+            .publish(eq(OutboxEvent.EXPENSE_CREATED), eq(1L), eq(1L), any(ExpenseEventPayload.class));
+    }
+
+    @Test
+    void createExpense_WithoutCurrency_ShouldUseUserBaseCurrency() {
+        // Arrange
+        user.setBaseCurrency("USD");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Expense result = expenseService.createExpense(expenseRequestDTO, 1L);
+
+        // Assert
+        assertEquals("USD", result.getCurrency());
+    }
+
+    @Test
+    void createExpense_WithUnsupportedCurrency_ShouldThrowIllegalArgument() {
+        // Arrange
+        expenseRequestDTO.setCurrency("XYZ");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expenseService.createExpense(expenseRequestDTO, 1L));
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void createExpense_WithIdFromServerNode_ShouldThrowIllegalArgument() {
+        // Arrange
+        expenseRequestDTO.setId(Tsid.next());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expenseService.createExpense(expenseRequestDTO, 1L));
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void createExpense_WithClientId_ShouldKeepIt() {
+        // Arrange
+        long clientId = clientId();
+        expenseRequestDTO.setId(clientId);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(expenseRepository.findById(clientId)).thenReturn(Optional.empty());
+        when(expenseRepository.save(any(Expense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Expense result = expenseService.createExpense(expenseRequestDTO, 1L);
+
+        // Assert
+        assertEquals(clientId, result.getId());
+    }
+
+    @Test
+    void createExpense_WithClientIdAlreadySaved_ShouldReturnExistingExpense() {
+        // Arrange
+        long clientId = clientId();
+        expenseRequestDTO.setId(clientId);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(expenseRepository.findById(clientId)).thenReturn(Optional.of(expense));
+
+        // Act
+        Expense result = expenseService.createExpense(expenseRequestDTO, 1L);
+
+        // Assert
+        assertSame(expense, result);
+        verify(expenseRepository, never()).save(any(Expense.class));
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    void createExpense_WithClientIdOfAnotherUser_ShouldThrowConflict() {
+        // Arrange
+        long clientId = clientId();
+        expenseRequestDTO.setId(clientId);
+        User other = new User();
+        other.setId(2L);
+        Expense othersExpense = new Expense();
+        othersExpense.setId(clientId);
+        othersExpense.setUser(other);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(expenseRepository.findById(clientId)).thenReturn(Optional.of(othersExpense));
+
+        // Act & Assert
+        assertThrows(IdConflictException.class, () -> expenseService.createExpense(expenseRequestDTO, 1L));
+        verify(expenseRepository, never()).save(any(Expense.class));
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    void createExpense_WithMalformedClientId_ShouldThrowIllegalArgument() {
+        // Arrange
+        expenseRequestDTO.setId(-5L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expenseService.createExpense(expenseRequestDTO, 1L));
+        verify(expenseRepository, never()).save(any(Expense.class));
     }
 
     @Test
@@ -220,31 +400,185 @@ class ExpenseServiceTest {
     }
 
     @Test
-    void deleteExpense_WhenExpenseExists_ShouldDelete() {
+    void updateExpense_WithStaleVersion_ShouldThrowWithoutSaving() {
         // Arrange
+        expense.setVersion(5L);
         when(expenseRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(expense));
-        doNothing().when(expenseRepository).delete(expense);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+            () -> expenseService.updateExpense(1L, expenseRequestDTO, 1L, 4L));
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void patchExpense_WhenVersionMatches_ShouldUpdateWithSingleStatementAndPublish() {
+        // Arrange
+        ExpensePatchDTO patch = new ExpensePatchDTO(null, new BigDecimal("42.00"), null, null);
+        when(expenseRepository.patch(1L, 1L, 3L, null, new BigDecimal("42.00"), null, null)).thenReturn(1);
+        when(expenseRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(expense));
+
+        // Act
+        Expense result = expenseService.patchExpense(1L, patch, 1L, 3L);
+
+        // Assert
+        assertSame(expense, result);
+        verify(categoryRepository, never()).existsByIdAndUserId(anyLong(), anyLong());
+        verify(outboxPublisher, times(1)).publish(OutboxEvent.EXPENSE_UPDATED, 1L, 1L, null);
+    }
+
+    @Test
+    void patchExpense_WhenVersionIsStale_ShouldThrowOptimisticLockingFailure() {
+        // Arrange
+        ExpensePatchDTO patch = new ExpensePatchDTO("Dinner", null, null, null);
+        when(expenseRepository.patch(1L, 1L, 2L, "Dinner", null, null, null)).thenReturn(0);
+        when(expenseRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> expenseService.patchExpense(1L, patch, 1L, 2L));
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    void patchExpense_WhenExpenseDoesNotBelongToUser_ShouldThrowException() {
+        // Arrange
+        ExpensePatchDTO patch = new ExpensePatchDTO("Dinner", null, null, null);
+        when(expenseRepository.patch(1L, 999L, 2L, "Dinner", null, null, null)).thenReturn(0);
+        when(expenseRepository.existsByIdAndUserId(1L, 999L)).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> expenseService.patchExpense(1L, patch, 999L, 2L));
+        assertFalse(exception instanceof OptimisticLockingFailureException);
+    }
+
+    @Test
+    void deleteExpense_WhenExpenseExists_ShouldPublishDeletedValues() {
+        // Arrange
+        when(expenseRepository.findForDelete(1L, 1L)).thenReturn(Optional.of(ExpenseEventPayload.of(expense)));
+        when(expenseRepository.deleteByIdAndUserId(1L, 1L)).thenReturn(1);
 
         // Act
         expenseService.deleteExpense(1L, 1L);
 
         // Assert
-        verify(expenseRepository, times(1)).findByIdAndUserId(1L, 1L);
-        verify(expenseRepository, times(1)).delete(expense);
+        verify(expenseRepository, times(1)).deleteByIdAndUserId(1L, 1L);
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(outboxPublisher, times(1)).publish(eq(OutboxEvent.EXPENSE_DELETED), eq(1L), eq(1L), payload.capture());
+        ExpenseEventPayload deleted = (ExpenseEventPayload) payload.getValue();
+        assertEquals(expense.getCategory().getId(), deleted.getCategoryId());
+        assertEquals(expense.getAmount(), deleted.getAmount());
+        assertEquals(expense.getDate(), deleted.getDate());
+        assertEquals(expense.getCurrency(), deleted.getCurrency());
     }
 
     @Test
     void deleteExpense_WhenExpenseDoesNotBelongToUser_ShouldThrowException() {
         // Arrange
-        when(expenseRepository.findByIdAndUserId(1L, 999L)).thenReturn(Optional.empty());
+        when(expenseRepository.findForDelete(1L, 999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
             expenseService.deleteExpense(1L, 999L);
         });
 
-        verify(expenseRepository, times(1)).findByIdAndUserId(1L, 999L);
-        verify(expenseRepository, never()).delete(any(Expense.class));
+        verify(expenseRepository, never()).deleteByIdAndUserId(anyLong(), anyLong());
+        verifyNoInteractions(outboxPublisher);
+    }
+
+    @Test
+    void summarizeByCategory_ShouldConvertGroupsToBaseCurrency() {
+        // Arrange: R$ 30.00 in category 1 and US$ 2.00 (R$ 10.00) + R$ 20.00 in category 2
+        Category other = new Category();
+        other.setId(2L);
+        other.setName("Transport");
+        List<Object[]> rows = Arrays.asList(
+            new Object[]{1L, "BRL", LocalDate.now(), new BigDecimal("30.00"), 3L},
+            new Object[]{2L, "USD", LocalDate.now(), new BigDecimal("2.00"), 1L},
+            new Object[]{2L, "BRL", LocalDate.now().minusDays(1), new BigDecimal("20.00"), 2L});
+        when(userRepository.findBaseCurrencyById(1L)).thenReturn("BRL");
+        when(expenseRepository.sumByCategory(eq(1L), any(), any())).thenReturn(rows);
+        when(categoryRepository.findByUserId(1L)).thenReturn(Arrays.asList(category, other));
+
+        // Act
+        List<GraficoResponseDTO> summary = expenseService.summarizeByCategory(1L,
+            LocalDate.now().minusDays(7), LocalDate.now());
+
+        // Assert
+        assertEquals(2, summary.size());
+        assertEquals(0, new BigDecimal("30.00").compareTo(summary.get(0).getTotalValue()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(summary.get(1).getTotalValue()));
+        assertEquals(3L, summary.stream().filter(item -> "Transport".equals(item.getCategoryName()))
+            .findFirst().orElseThrow().getCount());
+        assertEquals(50.0, summary.get(0).getPercentage());
+        assertEquals("BRL", summary.get(0).getCurrency());
+    }
+
+    @Test
+    void recategorizeExpenses_ShouldUpdateOnceAndPublishAggregatedDelta() {
+        // Arrange: 30.00 of this month's spending moves from categories 2 and 3 to category 1
+        List<Object[]> totals = Arrays.asList(
+            new Object[]{2L, "BRL", LocalDate.now(), new BigDecimal("20.00"), 2L},
+            new Object[]{3L, "BRL", LocalDate.now(), new BigDecimal("10.00"), 1L});
+        when(categoryRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(expenseRepository.sumByCategoryForIds(eq(1L), any(), any(), any())).thenReturn(totals);
+        when(expenseRepository.recategorize(eq(1L), any(), eq(1L))).thenReturn(3);
+
+        // Act
+        int affected = expenseService.recategorizeExpenses(Arrays.asList(10L, 11L, 12L, 12L), 1L, 1L);
+
+        // Assert
+        assertEquals(3, affected);
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(outboxPublisher, times(1))
+            .publish(eq(OutboxEvent.EXPENSES_BULK_CHANGED), isNull(), eq(1L), payload.capture());
+        ExpenseBulkEventPayload bulk = (ExpenseBulkEventPayload) payload.getValue();
+        assertEquals(0, new BigDecimal("30.00").compareTo(bulk.getCategoryDeltas().get(1L)));
+        assertEquals(0, new BigDecimal("-20.00").compareTo(bulk.getCategoryDeltas().get(2L)));
+        verify(expenseRepository, never()).save(any(Expense.class));
+    }
+
+    @Test
+    void recategorizeExpenses_WhenCategoryDoesNotBelongToUser_ShouldThrowException() {
+        // Arrange
+        when(categoryRepository.existsByIdAndUserId(5L, 1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> expenseService.recategorizeExpenses(List.of(10L), 5L, 1L));
+        verify(expenseRepository, never()).recategorize(any(), any(), any());
+    }
+
+    @Test
+    void deleteExpenses_ShouldDeleteOnceAndPublishDeletedIds() {
+        // Arrange
+        List<Object[]> totals = List.<Object[]>of(new Object[]{1L, "BRL", LocalDate.now(), new BigDecimal("50.00"), 2L});
+        when(expenseRepository.sumByCategoryForIds(eq(1L), any(), any(), any())).thenReturn(totals);
+        when(expenseRepository.deleteByUserIdAndIdIn(eq(1L), any())).thenReturn(2);
+
+        // Act
+        int affected = expenseService.deleteExpenses(List.of(1L, 2L), 1L);
+
+        // Assert
+        assertEquals(2, affected);
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(outboxPublisher, times(1))
+            .publish(eq(OutboxEvent.EXPENSES_BULK_CHANGED), isNull(), eq(1L), payload.capture());
+        ExpenseBulkEventPayload bulk = (ExpenseBulkEventPayload) payload.getValue();
+        assertEquals(List.of(1L, 2L), bulk.getDeletedExpenseIds());
+        assertEquals(0, new BigDecimal("-50.00").compareTo(bulk.getCategoryDeltas().get(1L)));
+    }
+
+    @Test
+    void deleteExpenses_WithTooManyIds_ShouldThrowIllegalArgument() {
+        // Arrange
+        List<Long> ids = new java.util.ArrayList<>();
+        for (long id = 1; id <= ExpenseService.MAX_BULK_IDS + 1; id++) {
+            ids.add(id);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expenseService.deleteExpenses(ids, 1L));
+        verifyNoInteractions(outboxPublisher);
     }
 
     @Test
@@ -353,6 +687,33 @@ class ExpenseServiceTest {
         verify(expenseRepository, times(1)).findByCategoryId(1L);
     }
 
+    @Test
+    void getExpensesPageByCategory_WhenCategoryBelongsToUser_ShouldUseSingleScopedQuery() {
+        // Arrange
+        when(expenseRepository.findByCategoryIdAndUserIdOrderByDateDescIdDesc(eq(1L), eq(1L), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Arrays.asList(expense), PageRequest.of(0, 20), false));
+
+        // Act
+        Slice<Expense> result = expenseService.getExpensesPageByCategory(1L, 1L, 0, 20);
+
+        // Assert
+        assertEquals(1, result.getNumberOfElements());
+        verify(categoryRepository, never()).existsByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void getExpensesPageByCategory_WhenCategoryBelongsToAnotherUser_ShouldThrowException() {
+        // Arrange
+        when(expenseRepository.findByCategoryIdAndUserIdOrderByDateDescIdDesc(eq(2L), eq(1L), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Arrays.asList(), PageRequest.of(0, 20), false));
+        when(categoryRepository.existsByIdAndUserId(2L, 1L)).thenReturn(false);
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> expenseService.getExpensesPageByCategory(2L, 1L, 0, 20));
+        assertEquals("Categoria não encontrada ou não pertence ao usuário", exception.getMessage());
+    }
+
     @Test
     void save_ShouldSaveAndReturnExpense() {
         // Arrange
@@ -382,13 +743,15 @@ class ExpenseServiceTest {
     @Test
     void deleteById_ShouldCallRepositoryDelete() {
         // Arrange
-        doNothing().when(expenseRepository).deleteById(1L);
+        when(expenseRepository.findById(1L)).thenReturn(Optional.of(expense));
 
         // Act
         expenseService.deleteById(1L);
 
         // Assert
-        verify(expenseRepository, times(1)).deleteById(1L);
+        verify(expenseRepository, times(1)).delete(expense);
+        verify(outboxPublisher, times(1))
+            .publish(eq(OutboxEvent.EXPENSE_DELETED), eq(1L), eq(1L), any(ExpenseEventPayload.class));
     }
 
     @Test
@@ -416,4 +779,102 @@ class ExpenseServiceTest {
         assertFalse(result);
         verify(expenseRepository, times(1)).existsById(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void filterExpenses_WhenMoreRowsThanSize_ShouldTrimAndReportNext() {
+        // Arrange
+        Expense older = new Expense();
+        older.setId(2L);
+        older.setDate(LocalDate.now().minusDays(1).atStartOfDay());
+        doReturn(Arrays.asList(expense, older)).when(expenseRepository).findBy(any(Specification.class), any());
+
+        // Act
+        Slice<Expense> result = expenseService.filterExpenses(1L, new ExpenseFilterDTO(), 1);
+
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(1L, result.getContent().get(0).getId());
+    }
+
+    @Test
+    void filterExpenses_WhenRangeReachesArchive_ShouldMergeBothSortedPages() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseService, "archiveEnabled", true);
+        Expense older = new Expense();
+        older.setId(2L);
+        older.setDate(LocalDate.now().minusYears(1).atStartOfDay());
+        doReturn(Arrays.asList(expense, older)).when(expenseRepository).findBy(any(Specification.class), any());
+        doReturn(Arrays.asList(archived(9L, LocalDate.now().minusYears(3).atStartOfDay())))
+            .when(archivedExpenseRepository).findBy(any(Specification.class), any());
+
+        // Act
+        Slice<Expense> result = expenseService.filterExpenses(1L, new ExpenseFilterDTO(), 2);
+
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals(Arrays.asList(1L, 2L), result.getContent().stream().map(Expense::getId).toList());
+    }
+
+    @Test
+    void filterExpenses_WhenRangeStartsAfterHorizon_ShouldNotReadArchive() {
+        // Arrange
+        ReflectionTestUtils.setField(expenseService, "archiveEnabled", true);
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setFrom(LocalDate.now().minusMonths(1));
+        doReturn(Arrays.asList(expense)).when(expenseRepository).findBy(any(Specification.class), any());
+
+        // Act
+        Slice<Expense> result = expenseService.filterExpenses(1L, filter, 20);
+
+        // Assert
+        assertEquals(1, result.getNumberOfElements());
+        verifyNoInteractions(archivedExpenseRepository);
+    }
+
+    private ArchivedExpense archived(Long id, LocalDateTime date) {
+        ArchivedExpense archived = new ArchivedExpense();
+        ReflectionTestUtils.setField(archived, "id", id);
+        ReflectionTestUtils.setField(archived, "description", "Old lunch");
+        ReflectionTestUtils.setField(archived, "amount", new BigDecimal("20.00"));
+        ReflectionTestUtils.setField(archived, "currency", "BRL");
+        ReflectionTestUtils.setField(archived, "date", date);
+        ReflectionTestUtils.setField(archived, "category", category);
+        ReflectionTestUtils.setField(archived, "user", user);
+        ReflectionTestUtils.setField(archived, "version", 0L);
+        return archived;
+    }
+
+    @Test
+    void filterExpenses_WithInvalidSort_ShouldThrowException() {
+        // Arrange
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setSort("description");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expenseService.filterExpenses(1L, filter, 20));
+        verifyNoInteractions(expenseRepository);
+    }
+
+    @Test
+    void filterExpenses_WithCursorForAnotherSort_ShouldThrowException() {
+        // Arrange
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setSort(ExpenseCursor.SORT_AMOUNT);
+        filter.setCursor(ExpenseCursor.after(expense, ExpenseCursor.SORT_DATE).encode());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> expenseService.filterExpenses(1L, filter, 20));
+    }
+
+    @Test
+    void expenseCursor_ShouldRoundTrip() {
+        // Act
+        ExpenseCursor decoded = ExpenseCursor.decode(ExpenseCursor.after(expense, ExpenseCursor.SORT_AMOUNT).encode(),
+            ExpenseCursor.SORT_AMOUNT);
+
+        // Assert
+        assertEquals(0, new BigDecimal("50.00").compareTo((BigDecimal) decoded.getValue()));
+        assertEquals(1L, decoded.getId());
+    }
+}
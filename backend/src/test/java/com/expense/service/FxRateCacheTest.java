@@ -0,0 +1,84 @@
+package com.expense.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxRateCacheTest {
+
+    private static final String RATES = "date,currency,rate\n"
+        + "2024-03-01,USD,5.00\n"
+        + "2024-01-01,USD,4.00\n"
+        + "2024-01-01,EUR,6.00\n";
+
+    private FxRateCache fxRateCache;
+
+    @BeforeEach
+    void setUp() {
+        fxRateCache = new FxRateCache(new ByteArrayResource(RATES.getBytes()), "BRL");
+        fxRateCache.load();
+    }
+
+    @Test
+    void rate_ShouldUseLastRateOnOrBeforeDate() {
+        assertEquals(4.0, fxRateCache.rate("USD", "BRL", LocalDate.of(2024, 2, 29)));
+        assertEquals(5.0, fxRateCache.rate("USD", "BRL", LocalDate.of(2024, 3, 1)));
+        assertEquals(5.0, fxRateCache.rate("USD", "BRL", LocalDate.of(2030, 1, 1)));
+    }
+
+    @Test
+    void rate_BeforeFirstRate_ShouldUseFirstRate() {
+        assertEquals(4.0, fxRateCache.rate("USD", "BRL", LocalDate.of(2020, 1, 1)));
+    }
+
+    @Test
+    void rate_BetweenTwoForeignCurrencies_ShouldCrossThroughReference() {
+        assertEquals(1.5, fxRateCache.rate("EUR", "USD", LocalDate.of(2024, 1, 15)), 1e-9);
+        assertEquals(0.25, fxRateCache.rate("BRL", "USD", LocalDate.of(2024, 1, 15)), 1e-9);
+    }
+
+    @Test
+    void convert_ShouldRoundToCents() {
+        BigDecimal converted = fxRateCache.convert(new BigDecimal("10.00"), "BRL", "EUR", LocalDate.of(2024, 1, 15));
+
+        assertEquals(new BigDecimal("1.67"), converted);
+    }
+
+    @Test
+    void convert_WithUnsupportedCurrency_ShouldThrowIllegalArgument() {
+        assertFalse(fxRateCache.supports("XYZ"));
+        assertThrows(IllegalArgumentException.class,
+            () -> fxRateCache.convert(BigDecimal.ONE, "XYZ", "BRL", LocalDate.of(2024, 1, 15)));
+    }
+
+    @Test
+    void sumConverted_ShouldConvertEachGroupAtItsDate() {
+        // Arrange
+        List<Object[]> rows = Arrays.asList(
+            new Object[]{1L, "USD", LocalDate.of(2024, 2, 10), new BigDecimal("10.00"), 2L},
+            new Object[]{1L, "USD", LocalDate.of(2024, 3, 10), new BigDecimal("10.00"), 1L},
+            new Object[]{2L, "BRL", LocalDate.of(2024, 3, 10), new BigDecimal("7.50"), 1L});
+
+        // Act
+        Map<Long, BigDecimal> totals = fxRateCache.sumConverted(rows, "BRL");
+
+        // Assert
+        assertEquals(0, new BigDecimal("90.00").compareTo(totals.get(1L)));
+        assertEquals(0, new BigDecimal("7.50").compareTo(totals.get(2L)));
+    }
+
+    @Test
+    void load_WithInvalidLine_ShouldFail() {
+        FxRateCache invalid = new FxRateCache(new ByteArrayResource("2024-01-01,USD\n".getBytes()), "BRL");
+
+        assertThrows(IllegalArgumentException.class, invalid::load);
+    }
+}
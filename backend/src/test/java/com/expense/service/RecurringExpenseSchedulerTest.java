@@ -0,0 +1,74 @@
+package com.expense.service;
+
+import com.expense.model.RecurringExpense;
+import com.expense.repository.RecurringExpenseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringExpenseSchedulerTest {
+
+    @Mock
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Mock
+    private RecurringExpenseMaterializer recurringExpenseMaterializer;
+
+    @Mock
+    private SchedulerLock schedulerLock;
+
+    @InjectMocks
+    private RecurringExpenseScheduler recurringExpenseScheduler;
+
+    private RecurringExpense recurring(Long id) {
+        RecurringExpense recurring = new RecurringExpense();
+        recurring.setId(id);
+        return recurring;
+    }
+
+    @Test
+    void materializeDue_WhenLeaseHeldByAnotherNode_ShouldDoNothing() {
+        // Arrange
+        when(schedulerLock.tryAcquire(eq(RecurringExpenseScheduler.JOB_NAME), any(Duration.class))).thenReturn(false);
+
+        // Act
+        int processed = recurringExpenseScheduler.materializeDue(LocalDate.now());
+
+        // Assert
+        assertEquals(0, processed);
+        verifyNoInteractions(recurringExpenseRepository, recurringExpenseMaterializer);
+    }
+
+    @Test
+    void materializeDue_ShouldWalkBatchesById() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(schedulerLock.tryAcquire(eq(RecurringExpenseScheduler.JOB_NAME), any(Duration.class))).thenReturn(true);
+        List<RecurringExpense> firstBatch = List.of(recurring(1L), recurring(2L));
+        when(recurringExpenseRepository.findDue(eq(today), eq(0L), any(Pageable.class))).thenReturn(firstBatch);
+        when(recurringExpenseRepository.findDue(eq(today), eq(2L), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(recurringExpenseMaterializer.materialize(eq(firstBatch), eq(today), anyInt())).thenReturn(Set.of(7L));
+
+        // Act
+        int processed = recurringExpenseScheduler.materializeDue(today);
+
+        // Assert
+        assertEquals(2, processed);
+        verify(recurringExpenseMaterializer, times(1)).materialize(eq(firstBatch), eq(today), anyInt());
+        verify(schedulerLock, times(1)).release(RecurringExpenseScheduler.JOB_NAME);
+    }
+}
@@ -0,0 +1,175 @@
+package com.expense.service;
+
+import com.expense.dto.request.RecurringExpenseRequestDTO;
+import com.expense.model.Category;
+import com.expense.model.RecurringExpense;
+import com.expense.model.User;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.RecurringExpenseRepository;
+import com.expense.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringExpenseServiceTest {
+
+    @Mock
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private FxRateCache fxRateCache = new FxRateCache(
+        new ByteArrayResource("date,currency,rate\n2020-01-01,USD,5.00\n".getBytes()), "BRL");
+
+    @InjectMocks
+    private RecurringExpenseService recurringExpenseService;
+
+    private User user;
+    private Category category;
+    private RecurringExpenseRequestDTO requestDTO;
+
+    @BeforeEach
+    void setUp() {
+        fxRateCache.load();
+        user = new User();
+        user.setId(1L);
+
+        category = new Category();
+        category.setId(1L);
+        category.setName("Moradia");
+
+        requestDTO = new RecurringExpenseRequestDTO();
+        requestDTO.setDescription("Aluguel");
+        requestDTO.setAmount(new BigDecimal("1500.00"));
+        requestDTO.setCategoryId(1L);
+        requestDTO.setRule("FREQ=MONTHLY;BYMONTHDAY=5");
+        requestDTO.setStartDate(LocalDate.of(2024, 1, 10));
+    }
+
+    private RecurringExpense recurring(Long id, String rule, LocalDate start, LocalDate next, LocalDate end) {
+        RecurringExpense recurring = new RecurringExpense();
+        recurring.setId(id);
+        recurring.setDescription("Aluguel");
+        recurring.setAmount(new BigDecimal("1500.00"));
+        recurring.setRule(rule);
+        recurring.setStartDate(start);
+        recurring.setNextOccurrence(next);
+        recurring.setEndDate(end);
+        recurring.setCategory(category);
+        recurring.setUser(user);
+        return recurring;
+    }
+
+    @Test
+    void createRecurringExpense_ShouldScheduleFirstOccurrenceOnOrAfterStart() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(recurringExpenseRepository.save(any(RecurringExpense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        RecurringExpense result = recurringExpenseService.createRecurringExpense(requestDTO, 1L);
+
+        // Assert: day 5 already passed in January, so the first one is February 5
+        assertEquals(LocalDate.of(2024, 2, 5), result.getNextOccurrence());
+        assertTrue(result.isActive());
+    }
+
+    @Test
+    void createRecurringExpense_WithInvalidRule_ShouldThrowException() {
+        // Arrange
+        requestDTO.setRule("FREQ=HOURLY");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> recurringExpenseService.createRecurringExpense(requestDTO, 1L));
+        verify(recurringExpenseRepository, never()).save(any(RecurringExpense.class));
+    }
+
+    @Test
+    void updateRecurringExpense_ShouldRestartScheduleFromToday() {
+        // Arrange
+        requestDTO.setRule("FREQ=DAILY");
+        RecurringExpense existing = recurring(1L, "FREQ=DAILY", requestDTO.getStartDate(), LocalDate.of(2024, 1, 10), null);
+        when(recurringExpenseRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existing));
+        when(categoryRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(category));
+        when(recurringExpenseRepository.save(any(RecurringExpense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        RecurringExpense result = recurringExpenseService.updateRecurringExpense(1L, requestDTO, 1L);
+
+        // Assert
+        assertEquals(LocalDate.now(), result.getNextOccurrence());
+    }
+
+    @Test
+    void recurrenceRule_Monthly_ShouldClampToShorterMonthsWithoutDrifting() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;BYMONTHDAY=31", LocalDate.of(2024, 1, 1));
+
+        // Act
+        LocalDate first = rule.first();
+        LocalDate second = rule.next(first);
+        LocalDate third = rule.next(second);
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 1, 31), first);
+        assertEquals(LocalDate.of(2024, 2, 29), second);
+        assertEquals(LocalDate.of(2024, 3, 31), third);
+    }
+
+    @Test
+    void plan_AfterDowntime_ShouldCatchUpUntilTodayAndStopAtEndDate() {
+        // Arrange: weekly, three weeks missed; the second definition ends in the middle
+        LocalDate today = LocalDate.of(2024, 3, 22);
+        RecurringExpense weekly = recurring(1L, "FREQ=WEEKLY", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1), null);
+        RecurringExpense ending = recurring(2L, "FREQ=WEEKLY", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1),
+            LocalDate.of(2024, 3, 10));
+
+        // Act
+        RecurringExpenseMaterializer.Plan plan = RecurringExpenseMaterializer.plan(List.of(weekly, ending), today, 400);
+
+        // Assert
+        assertEquals(4 + 2, plan.occurrences.size());
+        assertEquals(Date.valueOf(LocalDate.of(2024, 3, 29)), plan.advances.get(0)[0]);
+        assertEquals(Boolean.TRUE, plan.advances.get(0)[1]);
+        assertNull(plan.advances.get(1)[0]);
+        assertEquals(Boolean.FALSE, plan.advances.get(1)[1]);
+        assertEquals(1, plan.userIds.size());
+    }
+
+    @Test
+    void plan_ShouldRespectCatchUpLimit() {
+        // Arrange
+        RecurringExpense daily = recurring(1L, "FREQ=DAILY", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1), null);
+
+        // Act
+        RecurringExpenseMaterializer.Plan plan = RecurringExpenseMaterializer.plan(List.of(daily), LocalDate.of(2024, 12, 31), 10);
+
+        // Assert
+        assertEquals(10, plan.occurrences.size());
+        assertEquals(Date.valueOf(LocalDate.of(2024, 1, 11)), plan.advances.get(0)[0]);
+    }
+}
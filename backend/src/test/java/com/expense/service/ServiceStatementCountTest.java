@@ -0,0 +1,640 @@
+package com.expense.service;
+
+import com.expense.dto.request.CategoryPatchDTO;
+import com.expense.dto.request.CategoryRequestDTO;
+import com.expense.dto.request.ExpenseFilterDTO;
+import com.expense.dto.request.ExpensePatchDTO;
+import com.expense.dto.request.ExpenseRequestDTO;
+import com.expense.dto.request.UserRequestDTO;
+import com.expense.model.Category;
+import com.expense.model.DeletionJob;
+import com.expense.model.Expense;
+import com.expense.model.User;
+import com.expense.repository.CategoryRepository;
+import com.expense.repository.ExpenseRepository;
+import com.expense.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL statements issued by each method of ExpenseService, CategoryService and UserService
+ * with the Hibernate settings of application.properties (application-stats-h2.properties adds
+ * H2 and statistics). JdbcLog records each round trip to the database, a JDBC batch counting
+ * once; a change that adds a query or breaks batching fails here. The user and categories
+ * created in setUp are in the second-level cache, as they are after a write in production.
+ */
+@SpringBootTest
+@ActiveProfiles("stats-h2")
+@Import(ServiceStatementCountTest.JdbcLog.class)
+class ServiceStatementCountTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DeletionPurger deletionPurger;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User user;
+    private List<Category> categories;
+    private List<Expense> expenses;
+
+    /**
+     * Wraps the data source so every round trip to the database is recorded: each execute,
+     * and each executeBatch once with its SQL, whatever the number of rows in the batch
+     */
+    @TestConfiguration
+    static class JdbcLog {
+
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    // Só a fonte de dados principal, usada pelo JPA e pelo JdbcTemplate
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                        ? proxy(DataSource.class, dataSource, null) : bean;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, String sql) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (instance, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    STATEMENTS.add((sql != null ? sql : String.valueOf(args[0])).trim().toLowerCase());
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection) {
+                    return proxy(Connection.class, connection, null);
+                }
+                if (result instanceof PreparedStatement statement && name.startsWith("prepare")) {
+                    return proxy(PreparedStatement.class, statement, (String) args[0]);
+                }
+                if (result instanceof Statement statement && name.equals("createStatement")) {
+                    return proxy(Statement.class, statement, null);
+                }
+                return result;
+            });
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int n = USERS.incrementAndGet();
+        user = userService.createUser(new UserRequestDTO("Usuário " + n, "stats" + n + "@example.com", "senha123"));
+        categories = new ArrayList<>();
+        for (int c = 0; c < 3; c++) {
+            categories.add(categoryService.createCategory(
+                new CategoryRequestDTO("Categoria " + c, null, "#4CAF50", "label"), user.getId()));
+        }
+        expenses = transactionTemplate.execute(status -> {
+            List<Expense> rows = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                rows.add(new Expense("Despesa " + i, new BigDecimal("10.00"), LocalDateTime.now().minusDays(i % 40),
+                    categories.get(i % 3), user));
+            }
+            return expenseRepository.saveAll(rows);
+        });
+    }
+
+    private List<String> statements(Runnable action) {
+        return run(() -> {
+            action.run();
+            return null;
+        }).statements();
+    }
+
+    private <T> Run<T> run(Supplier<T> action) {
+        JdbcLog.STATEMENTS.clear();
+        statistics.clear();
+        T result = action.get();
+        return new Run<>(result, List.copyOf(JdbcLog.STATEMENTS));
+    }
+
+    private record Run<T>(T result, List<String> statements) {
+    }
+
+    private static long count(List<String> statements, String prefix) {
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    private static void assertStatements(int expected, List<String> statements) {
+        assertEquals(expected, statements.size(), () -> String.join("\n", statements));
+    }
+
+    private void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void settings_ShouldBeApplied() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+
+        assertEquals(50, options.getJdbcBatchSize());
+        assertTrue(options.isOrderInsertsEnabled());
+        assertTrue(options.isOrderUpdatesEnabled());
+        assertTrue(options.isJdbcBatchVersionedData());
+        assertEquals(32, options.getDefaultBatchFetchSize());
+        assertTrue(options.inClauseParameterPaddingEnabled());
+        assertEquals(100, options.getJdbcFetchSize());
+        assertEquals("512", sessionFactory.getProperties().get("hibernate.query.plan_cache_max_size"));
+        assertTrue(options.isSecondLevelCacheEnabled());
+        assertTrue(options.isQueryCacheEnabled());
+    }
+
+    @Test
+    void cacheRegions_ShouldReportMetrics() {
+        for (String region : List.of("category", "user", "user-natural-id", "category-by-user")) {
+            assertNotNull(meterRegistry.find("cache.evictions").tag("cache", region).functionCounter(), region);
+            assertNotNull(meterRegistry.find("cache.gets").tag("cache", region).tag("result", "hit").functionCounter(), region);
+        }
+    }
+
+    // ExpenseService
+
+    @Test
+    void saveAll_ShouldInsertInBatches() {
+        // Act
+        List<String> statements = statements(() -> transactionTemplate.executeWithoutResult(status -> {
+            Category category = categoryRepository.getReferenceById(categories.get(0).getId());
+            User owner = userRepository.getReferenceById(user.getId());
+            List<Expense> rows = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                rows.add(new Expense("Lote " + i, BigDecimal.ONE, LocalDateTime.now(), category, owner));
+            }
+            expenseRepository.saveAll(rows);
+        }));
+
+        // Assert: 120 linhas em 3 lotes, sem consulta para descobrir ids
+        assertStatements(3, statements);
+        assertEquals(3, count(statements, "insert into expense"));
+        assertEquals(120, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    void save_ManyInOneTransaction_ShouldInsertEachExpenseWithItsOutboxEvent() {
+        // Act
+        List<String> statements = statements(() -> transactionTemplate.executeWithoutResult(status -> {
+            Category category = categoryRepository.getReferenceById(categories.get(0).getId());
+            User owner = userRepository.getReferenceById(user.getId());
+            for (int i = 0; i < 60; i++) {
+                expenseService.save(new Expense("Lote " + i, BigDecimal.ONE, LocalDateTime.now(), category, owner));
+            }
+        }));
+
+        // Assert: outbox_event usa AUTO_INCREMENT (o despacho segue a ordem dos ids) e cada inserção
+        // com IDENTITY executa antes as pendentes, então aqui não há lote
+        assertEquals(60, count(statements, "insert into expense"));
+        assertEquals(60, count(statements, "insert into outbox_event"));
+        assertStatements(120, statements);
+    }
+
+    @Test
+    void getAllExpenses_WithWarmCache_ShouldOnlyQueryExpenses() {
+        // Arrange
+        expenseService.getAllExpenses(user.getId());
+
+        // Act
+        Run<List<Expense>> run = run(() -> expenseService.getAllExpenses(user.getId()));
+
+        // Assert: só as despesas; usuário e categorias vêm do cache de segundo nível
+        assertEquals(120, run.result().size());
+        assertStatements(1, run.statements());
+    }
+
+    @Test
+    void getAllExpenses_WithColdCache_ShouldLoadCategoriesInOneBatch() {
+        // Arrange
+        evictSecondLevelCache();
+
+        // Act
+        Run<List<Expense>> run = run(() -> expenseService.getAllExpenses(user.getId()));
+
+        // Assert: despesas + usuário + as 3 categorias juntas (default_batch_fetch_size)
+        assertEquals(120, run.result().size());
+        assertStatements(3, run.statements());
+    }
+
+    @Test
+    void getExpensesPage_ShouldUseOneQuery() {
+        assertStatements(1, run(() -> expenseService.getExpensesPage(user.getId(), 0, 20)).statements());
+    }
+
+    @Test
+    void getExpensesPageByCategory_ShouldUseOneQuery() {
+        assertStatements(1, run(() -> expenseService.getExpensesPageByCategory(
+            categories.get(0).getId(), user.getId(), 0, 20)).statements());
+    }
+
+    @Test
+    void filterExpenses_ShouldUseOneQuery() {
+        // Arrange
+        ExpenseFilterDTO filter = new ExpenseFilterDTO();
+        filter.setFrom(LocalDate.now().minusDays(10));
+        filter.setCategoryIds(List.of(categories.get(0).getId(), categories.get(1).getId(), categories.get(2).getId()));
+
+        // Act
+        Run<?> run = run(() -> expenseService.filterExpenses(user.getId(), filter, 20));
+
+        // Assert
+        assertStatements(1, run.statements());
+        // Três ids na lista IN viram quatro parâmetros (in_clause_parameter_padding)
+        assertTrue(run.statements().get(0).matches("(?s).*in ?\\(\\?, ?\\?, ?\\?, ?\\?\\).*"), run.statements().get(0));
+    }
+
+    @Test
+    void getExpenseById_ShouldUseOneQuery() {
+        assertStatements(1, run(() -> expenseService.getExpenseById(expenses.get(0).getId(), user.getId())).statements());
+    }
+
+    @Test
+    void createExpense_ShouldReadOwnerAndCategoryThenInsertTwice() {
+        // Arrange
+        ExpenseRequestDTO request = new ExpenseRequestDTO("Almoço", new BigDecimal("32.50"), LocalDate.now(),
+            categories.get(0).getId(), user.getId());
+
+        // Act
+        List<String> statements = run(() -> expenseService.createExpense(request, user.getId())).statements();
+
+        // Assert: categoria, despesa e evento (usuário do cache)
+        assertStatements(3, statements);
+        assertEquals(1, count(statements, "insert into expense"));
+    }
+
+    @Test
+    void updateExpense_ShouldIssueOneUpdate() {
+        // Arrange
+        ExpenseRequestDTO request = new ExpenseRequestDTO("Jantar", new BigDecimal("80.00"), LocalDate.now(),
+            categories.get(1).getId(), user.getId());
+
+        // Act
+        List<String> statements = run(() -> expenseService.updateExpense(
+            expenses.get(0).getId(), request, user.getId())).statements();
+
+        // Assert: despesa, categoria, UPDATE e evento
+        assertStatements(4, statements);
+        assertEquals(1, count(statements, "update expense"));
+    }
+
+    @Test
+    void patchExpense_ShouldNotReadBeforeUpdating() {
+        // Arrange
+        Expense expense = expenses.get(0);
+
+        // Act
+        List<String> statements = run(() -> expenseService.patchExpense(expense.getId(),
+            new ExpensePatchDTO("Novo", null, null, null), user.getId(), expense.getVersion())).statements();
+
+        // Assert: UPDATE condicional, evento e a releitura devolvida
+        assertStatements(3, statements);
+        assertTrue(statements.get(0).startsWith("update expense"));
+    }
+
+    @Test
+    void deleteExpense_ShouldLockReadDeleteAndPublish() {
+        List<String> statements = statements(() -> expenseService.deleteExpense(expenses.get(0).getId(), user.getId()));
+
+        // Assert: SELECT ... FOR UPDATE, DELETE e evento
+        assertStatements(3, statements);
+        assertTrue(statements.get(0).startsWith("select") && statements.get(0).contains("for update"));
+        assertTrue(statements.get(1).startsWith("delete from expense"));
+    }
+
+    @Test
+    void recategorizeExpenses_ShouldUseOneUpdateForAllIds() {
+        // Arrange
+        List<Long> ids = expenses.subList(0, 100).stream().map(Expense::getId).toList();
+
+        // Act
+        List<String> statements = run(() -> expenseService.recategorizeExpenses(
+            ids, categories.get(2).getId(), user.getId())).statements();
+
+        // Assert: categoria, moeda base, soma do mês, UPDATE e evento
+        assertStatements(5, statements);
+        assertEquals(1, count(statements, "update expense"));
+    }
+
+    @Test
+    void deleteExpenses_ShouldUseOneDeleteForAllIds() {
+        // Arrange
+        List<Long> ids = expenses.subList(0, 100).stream().map(Expense::getId).toList();
+
+        // Act
+        List<String> statements = run(() -> expenseService.deleteExpenses(ids, user.getId())).statements();
+
+        // Assert: moeda base, soma do mês, DELETE e evento
+        assertStatements(4, statements);
+        assertEquals(1, count(statements, "delete from expense"));
+    }
+
+    @Test
+    void summarizeByCategory_ShouldUseThreeQueries() {
+        assertStatements(3, run(() -> expenseService.summarizeByCategory(
+            user.getId(), LocalDate.now().minusMonths(1), LocalDate.now())).statements());
+    }
+
+    @Test
+    void deleteById_ShouldReadThenDelete() {
+        List<String> statements = statements(() -> expenseService.deleteById(expenses.get(0).getId()));
+
+        assertStatements(3, statements);
+    }
+
+    // CategoryService
+
+    @Test
+    void getAllCategories_ShouldUseOneQuery() {
+        assertStatements(1, run(() -> categoryService.getAllCategories(user.getId())).statements());
+    }
+
+    @Test
+    void getAllCategories_Again_ShouldComeFromQueryCacheUntilACategoryChanges() {
+        // Arrange
+        categoryService.getAllCategories(user.getId());
+
+        // Act
+        Run<List<Category>> cached = run(() -> categoryService.getAllCategories(user.getId()));
+        categoryService.updateCategory(categories.get(0).getId(),
+            new CategoryRequestDTO("Mercado", null, "#4CAF50", "cart"), user.getId());
+        Run<List<Category>> afterUpdate = run(() -> categoryService.getAllCategories(user.getId()));
+
+        // Assert
+        assertStatements(0, cached.statements());
+        assertEquals(3, cached.result().size());
+        assertStatements(1, afterUpdate.statements());
+        assertTrue(afterUpdate.result().stream().anyMatch(category -> "Mercado".equals(category.getName())));
+    }
+
+    @Test
+    void getCategoryById_ShouldUseOneQuery() {
+        assertStatements(1, run(() -> categoryService.getCategoryById(categories.get(0).getId(), user.getId())).statements());
+    }
+
+    @Test
+    void categoryExpenses_ShouldLoadInBatchesAcrossCategories() {
+        // Act: coleção lazy Category.expenses de três categorias
+        Run<Integer> run = run(() -> transactionTemplate.execute(status -> categoryRepository.findByUserId(user.getId())
+            .stream().mapToInt(category -> category.getExpenses().size()).sum()));
+
+        // Assert: categorias e uma consulta para as três coleções
+        assertEquals(120, run.result());
+        assertStatements(2, run.statements());
+    }
+
+    @Test
+    void createCategory_ShouldUpsertThenReadBack() {
+        List<String> statements = run(() -> categoryService.createCategory(
+            new CategoryRequestDTO("Mercado", null, "#4CAF50", "cart"), user.getId())).statements();
+
+        // INSERT ... ON DUPLICATE KEY, releitura e evento (usuário do cache)
+        assertStatements(3, statements);
+        assertTrue(statements.get(0).startsWith("insert into categories"));
+    }
+
+    @Test
+    void createCategory_WithExistingName_ShouldReturnExistingCategory() {
+        // Act
+        Run<Category> run = run(() -> categoryService.createCategory(
+            new CategoryRequestDTO("Categoria 0", "Outra", "#000000", "cart"), user.getId()));
+
+        // Assert: o INSERT não faz nada e não há evento
+        assertEquals(categories.get(0).getId(), run.result().getId());
+        assertStatements(2, run.statements());
+        assertEquals(3, categoryRepository.findByUserId(user.getId()).size());
+    }
+
+    @Test
+    void updateCategory_ToNameOfAnotherCategory_ShouldViolateUniqueIndex() {
+        CategoryRequestDTO request = new CategoryRequestDTO("Categoria 1", null, "#4CAF50", "cart");
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> categoryService.updateCategory(categories.get(0).getId(), request, user.getId()));
+    }
+
+    @Test
+    void updateCategory_ShouldIssueOneUpdate() {
+        List<String> statements = run(() -> categoryService.updateCategory(categories.get(0).getId(),
+            new CategoryRequestDTO("Mercado", "Compras", "#4CAF50", "cart"), user.getId())).statements();
+
+        assertStatements(3, statements);
+        assertEquals(1, count(statements, "update categories"));
+    }
+
+    @Test
+    void patchCategory_ShouldNotReadBeforeUpdating() {
+        // Arrange
+        Category category = categoryRepository.findById(categories.get(0).getId()).orElseThrow();
+
+        // Act
+        List<String> statements = run(() -> categoryService.patchCategory(category.getId(),
+            new CategoryPatchDTO("Feira", null, null, null), user.getId(), category.getVersion())).statements();
+
+        // Assert
+        assertStatements(3, statements);
+        assertTrue(statements.get(0).startsWith("update categories"));
+    }
+
+    @Test
+    void deleteCategory_ShouldOnlyMarkAndQueuePurge() {
+        List<String> statements = statements(() -> categoryService.deleteCategory(categories.get(0).getId(), user.getId()));
+
+        // Marcação, job e despesas recorrentes paradas, quantas despesas houver
+        assertStatements(3, statements);
+        assertTrue(statements.get(0).startsWith("update categories"));
+    }
+
+    @Test
+    void deleteCategory_ShouldHideCategoryAtOnceAndFreeItsName() {
+        // Arrange
+        Category deleted = categories.get(0);
+
+        // Act
+        categoryService.deleteCategory(deleted.getId(), user.getId());
+
+        // Assert: some das consultas (também do cache) antes do purge
+        assertTrue(categoryService.getCategoryById(deleted.getId(), user.getId()).isEmpty());
+        assertEquals(2, categoryService.getAllCategories(user.getId()).size());
+        Category recreated = categoryService.createCategory(
+            new CategoryRequestDTO(deleted.getName(), null, "#4CAF50", "label"), user.getId());
+        assertNotEquals(deleted.getId(), recreated.getId());
+
+        deletionPurger.purgePending();
+        assertFalse(categoryRepository.existsById(deleted.getId()));
+        assertEquals(80, expenseRepository.findByUserId(user.getId()).size());
+    }
+
+    @Test
+    void mergeCategory_ShouldUseSetBasedUpdates() {
+        List<String> statements = run(() -> categoryService.mergeCategory(
+            categories.get(0).getId(), categories.get(1).getId(), user.getId())).statements();
+
+        // Duas verificações, moeda base, soma do mês, três UPDATEs, DELETE e evento
+        assertStatements(9, statements);
+    }
+
+    // UserService
+
+    @Test
+    void getUserById_ShouldComeFromCache() {
+        assertStatements(0, run(() -> userService.getUserById(user.getId())).statements());
+    }
+
+    @Test
+    void getUserById_WithColdCache_ShouldUseOneQuery() {
+        evictSecondLevelCache();
+
+        assertStatements(1, run(() -> userService.getUserById(user.getId())).statements());
+    }
+
+    @Test
+    void findByEmail_ShouldComeFromNaturalIdCache() {
+        Run<?> run = run(() -> userService.findByEmail(user.getEmail()));
+
+        assertStatements(0, run.statements());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+    }
+
+    @Test
+    void findByEmail_WithColdCache_ShouldUseOneQuery() {
+        evictSecondLevelCache();
+
+        assertStatements(1, run(() -> userService.findByEmail(user.getEmail())).statements());
+        assertStatements(0, run(() -> userService.findByEmail(user.getEmail())).statements());
+    }
+
+    @Test
+    void findByEmail_AfterEmailChange_ShouldOnlyFindNewEmail() {
+        // Arrange
+        String oldEmail = user.getEmail();
+        String newEmail = "novo-" + oldEmail;
+
+        // Act
+        userService.updateUser(user.getId(), new UserRequestDTO(user.getName(), newEmail, null));
+
+        // Assert
+        assertTrue(userService.findByEmail(oldEmail).isEmpty());
+        assertEquals(user.getId(), userService.findByEmail(newEmail).orElseThrow().getId());
+    }
+
+    @Test
+    void isEmailAvailable_ForUnknownEmail_ShouldNotQuery() {
+        // O filtro de bloom responde a dica sem consulta para emails nunca vistos
+        assertStatements(0, run(() -> userService.isEmailAvailable("nunca-visto@example.com")).statements());
+    }
+
+    @Test
+    void createUser_ShouldInsertWithoutReadingTheIdBack() {
+        int n = USERS.incrementAndGet();
+        List<String> statements = run(() -> userService.createUser(
+            new UserRequestDTO("Novo", "stats" + n + "@example.com", "senha123"))).statements();
+
+        // Assert: o email é conferido no índice (o filtro de bloom é só do nó) e o INSERT não relê o id
+        assertStatements(2, statements);
+        assertTrue(statements.get(0).contains("email_normalized"));
+        assertTrue(statements.get(1).startsWith("insert into user"));
+    }
+
+    @Test
+    void updateUser_ShouldOnlyUpdate() {
+        UserRequestDTO request = new UserRequestDTO("Outro nome", user.getEmail(), null);
+
+        // O usuário vem do cache
+        assertStatements(1, run(() -> userService.updateUser(user.getId(), request)).statements());
+    }
+
+    @Test
+    void deleteUser_ShouldOnlyMarkAndQueuePurge() {
+        // Act
+        List<String> statements = statements(() -> userService.deleteUser(user.getId()));
+
+        // Assert: marcação, job e despesas recorrentes paradas, quantas despesas o usuário tiver
+        assertStatements(3, statements);
+        assertTrue(statements.get(0).startsWith("update user"));
+    }
+
+    @Test
+    void deleteUser_ShouldStopAuthenticationAtOnceThenPurge() {
+        // Arrange
+        userService.findByEmail(user.getEmail());
+
+        // Act
+        userService.deleteUser(user.getId());
+
+        // Assert: o natural id em cache não devolve a conta removida
+        assertTrue(userService.findByEmail(user.getEmail()).isEmpty());
+        assertTrue(userService.getUserById(user.getId()).isEmpty());
+
+        deletionPurger.purgePending();
+        assertFalse(userRepository.existsById(user.getId()));
+        assertTrue(expenseRepository.findByUserId(user.getId()).isEmpty());
+        assertEquals(DeletionJob.Status.DONE, userService.getDeletionJob(user.getId()).orElseThrow().status());
+    }
+}
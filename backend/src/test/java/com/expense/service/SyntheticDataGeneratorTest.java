@@ -0,0 +1,131 @@
+package com.expense.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SyntheticDataGeneratorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private SyntheticDataGenerator generator;
+
+    private final Map<String, List<Object[]>> inserted = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(generator, "users", 50);
+        ReflectionTestUtils.setField(generator, "expenses", 5000L);
+        ReflectionTestUtils.setField(generator, "categoriesPerUser", 5);
+        ReflectionTestUtils.setField(generator, "until", "2024-06-30");
+        ReflectionTestUtils.setField(generator, "batchSize", 700);
+    }
+
+    private void stubDatabase() {
+        lenient().when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$hash");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(null);
+        // A lista do lote é reaproveitada depois de cada chamada: guarda uma cópia
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            inserted.computeIfAbsent(invocation.getArgument(0), sql -> new ArrayList<>()).addAll(rows);
+            return new int[rows.size()];
+        });
+    }
+
+    @Test
+    void allocate_ShouldSplitTotalExactlyWithHeaviestUsersFirst() {
+        // Act
+        long[] allocation = SyntheticDataGenerator.allocate(1_000_003, 1000, 1.1);
+
+        // Assert
+        assertEquals(1_000_003, Arrays.stream(allocation).sum());
+        assertTrue(allocation[0] > 100 * allocation[999]);
+        for (int i = 1; i < allocation.length; i++) {
+            assertTrue(allocation[i - 1] >= allocation[i]);
+        }
+    }
+
+    @Test
+    void generate_ShouldInsertRequestedVolumesWithValidRows() {
+        // Arrange
+        stubDatabase();
+
+        // Act
+        generator.generate();
+
+        // Assert
+        assertEquals(50, inserted.get(SyntheticDataGenerator.INSERT_USER).size());
+        assertEquals(250, inserted.get(SyntheticDataGenerator.INSERT_CATEGORY).size());
+        List<Object[]> expenses = inserted.get(SyntheticDataGenerator.INSERT_EXPENSE);
+        assertEquals(5000, expenses.size());
+        Timestamp last = Timestamp.valueOf(LocalDate.of(2024, 7, 1).atStartOfDay());
+        for (Object[] row : expenses) {
+            BigDecimal amount = (BigDecimal) row[1];
+            assertTrue(amount.compareTo(BigDecimal.ONE) >= 0 && amount.compareTo(new BigDecimal("50000")) <= 0);
+            assertTrue(((Timestamp) row[3]).before(last));
+            long categoryId = (Long) row[4];
+            long userId = (Long) row[5];
+            assertEquals(userId - 1, (categoryId - 1) / 5, "categoria de outro usuário");
+        }
+        verify(passwordEncoder, times(1)).encode(SyntheticDataGenerator.PASSWORD);
+    }
+
+    @Test
+    void generate_WithSameSeed_ShouldProduceSameRows() {
+        // Arrange
+        stubDatabase();
+
+        // Act
+        generator.generate();
+        List<Object[]> first = new ArrayList<>(inserted.remove(SyntheticDataGenerator.INSERT_EXPENSE));
+        generator.generate();
+        List<Object[]> second = inserted.get(SyntheticDataGenerator.INSERT_EXPENSE);
+
+        // Assert
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    void generate_WhenSeedAlreadyGenerated_ShouldInsertNothing() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(1);
+
+        // Act
+        generator.generate();
+
+        // Assert
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
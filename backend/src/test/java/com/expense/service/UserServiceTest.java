@@ -1,6 +1,8 @@
 package com.expense.service;
 
 import com.expense.dto.request.UserRequestDTO;
+import com.expense.event.CacheInvalidator;
+import com.expense.model.DeletionJob;
 import com.expense.model.User;
 import com.expense.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,7 +10,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -19,6 +23,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +35,22 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private BudgetTracker budgetTracker;
+
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+
+    @Spy
+    private FxRateCache fxRateCache = new FxRateCache(
+        new ByteArrayResource("date,currency,rate\n2020-01-01,USD,5.00\n".getBytes()), "BRL");
+
+    @Mock
+    private DeletionPurger deletionPurger;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private UserService userService;
 
@@ -38,6 +59,7 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        fxRateCache.load();
         testUser = new User();
         testUser.setId(1L);
         testUser.setName("Test User");
@@ -124,33 +146,71 @@ class UserServiceTest {
     @Test
     void existsByEmail_WhenEmailExists_ShouldReturnTrue() {
         // Arrange
-        when(userRepository.existsByEmail("test@email.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("test@email.com")).thenReturn(true);
 
         // Act
-        boolean result = userService.existsByEmail("test@email.com");
+        boolean result = userService.existsByEmail("Test@Email.com ");
 
         // Assert
         assertTrue(result);
-        verify(userRepository, times(1)).existsByEmail("test@email.com");
+        verify(userRepository, times(1)).existsByEmailNormalized("test@email.com");
     }
 
     @Test
     void existsByEmail_WhenEmailDoesNotExist_ShouldReturnFalse() {
         // Arrange
-        when(userRepository.existsByEmail("notfound@email.com")).thenReturn(false);
+        when(userRepository.existsByEmailNormalized("notfound@email.com")).thenReturn(false);
 
         // Act
         boolean result = userService.existsByEmail("notfound@email.com");
 
         // Assert
         assertFalse(result);
-        verify(userRepository, times(1)).existsByEmail("notfound@email.com");
+        verify(userRepository, times(1)).existsByEmailNormalized("notfound@email.com");
+    }
+
+    @Test
+    void existsByEmail_ShouldNotTrustTheFilter() {
+        // Arrange: registrado em outro nó, que o filtro deste processo nunca viu
+        when(userRepository.existsByEmailNormalized("other-node@email.com")).thenReturn(true);
+
+        // Act
+        boolean result = userService.existsByEmail("other-node@email.com");
+
+        // Assert
+        assertTrue(result);
+        verify(emailBloomFilter, never()).mightContain(anyString());
+    }
+
+    @Test
+    void isEmailAvailable_WhenFilterRulesEmailOut_ShouldNotQueryDatabase() {
+        // Arrange
+        when(emailBloomFilter.mightContain("never@email.com")).thenReturn(false);
+
+        // Act
+        boolean result = userService.isEmailAvailable("never@email.com");
+
+        // Assert
+        assertTrue(result);
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+    }
+
+    @Test
+    void isEmailAvailable_WhenFilterSaysMaybe_ShouldConfirmInDatabase() {
+        // Arrange
+        when(emailBloomFilter.mightContain("test@email.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized("test@email.com")).thenReturn(true);
+
+        // Act
+        boolean result = userService.isEmailAvailable("test@email.com");
+
+        // Assert
+        assertFalse(result);
     }
 
     @Test
     void createUser_WithValidData_ShouldCreateAndReturnUser() {
         // Arrange
-        when(userRepository.findByEmail(userRequestDTO.getEmail())).thenReturn(null);
         when(passwordEncoder.encode(anyString())).thenReturn("$2a$10$encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
@@ -161,15 +221,15 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals("Test User", result.getName());
         assertEquals("test@email.com", result.getEmail());
-        verify(userRepository, times(1)).findByEmail(userRequestDTO.getEmail());
         verify(passwordEncoder, times(1)).encode(userRequestDTO.getPassword());
         verify(userRepository, times(1)).save(any(User.class));
+        verify(emailBloomFilter, times(1)).add("test@email.com");
     }
 
     @Test
     void createUser_WithExistingEmail_ShouldThrowException() {
         // Arrange
-        when(userRepository.findByEmail(userRequestDTO.getEmail())).thenReturn(testUser);
+        when(userRepository.existsByEmailNormalized("test@email.com")).thenReturn(true);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -177,7 +237,7 @@ class UserServiceTest {
         });
 
         assertEquals("Email já cadastrado", exception.getMessage());
-        verify(userRepository, times(1)).findByEmail(userRequestDTO.getEmail());
+        verify(userRepository, times(1)).existsByEmailNormalized("test@email.com");
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -251,7 +311,7 @@ class UserServiceTest {
         updateDTO.setPassword("");
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.findByEmail("newemail@email.com")).thenReturn(null);
+        when(userRepository.existsByEmailNormalized("newemail@email.com")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
@@ -260,7 +320,7 @@ class UserServiceTest {
         // Assert
         assertNotNull(result);
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findByEmail("newemail@email.com");
+        verify(userRepository, times(1)).existsByEmailNormalized("newemail@email.com");
         verify(userRepository, times(1)).save(any(User.class));
     }
 
@@ -271,12 +331,8 @@ class UserServiceTest {
         updateDTO.setName("Updated Name");
         updateDTO.setEmail("taken@email.com");
 
-        User anotherUser = new User();
-        anotherUser.setId(2L);
-        anotherUser.setEmail("taken@email.com");
-
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.findByEmail("taken@email.com")).thenReturn(anotherUser);
+        when(userRepository.existsByEmailNormalized("taken@email.com")).thenReturn(true);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -285,10 +341,29 @@ class UserServiceTest {
 
         assertEquals("Email já cadastrado", exception.getMessage());
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findByEmail("taken@email.com");
+        verify(userRepository, times(1)).existsByEmailNormalized("taken@email.com");
         verify(userRepository, never()).save(any(User.class));
     }
 
+    @Test
+    void updateUser_WhenEmailOnlyChangesCase_ShouldNotCheckAvailability() {
+        // Arrange
+        UserRequestDTO updateDTO = new UserRequestDTO();
+        updateDTO.setName("Updated Name");
+        updateDTO.setEmail("Test@Email.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.updateUser(1L, updateDTO);
+
+        // Assert
+        assertEquals("Test@Email.com", testUser.getEmail());
+        verify(emailBloomFilter, never()).mightContain(anyString());
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+    }
+
     @Test
     void updateUser_WhenUserDoesNotExist_ShouldThrowException() {
         // Arrange
@@ -305,23 +380,27 @@ class UserServiceTest {
     }
 
     @Test
-    void deleteUser_WhenUserExists_ShouldDeleteUser() {
+    void deleteUser_WhenUserExists_ShouldMarkDeletedAndQueuePurge() {
         // Arrange
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        DeletionJob job = new DeletionJob(10L, DeletionJob.Target.USER, 1L, 1L, DeletionJob.Status.PENDING,
+            0, LocalDateTime.now(), LocalDateTime.now(), null);
+        when(userRepository.markDeleted(eq(1L), any(LocalDateTime.class))).thenReturn(1);
+        when(deletionPurger.schedule(DeletionJob.Target.USER, 1L, 1L)).thenReturn(job);
 
         // Act
-        userService.deleteUser(1L);
+        DeletionJob result = userService.deleteUser(1L);
 
         // Assert
-        verify(userRepository, times(1)).existsById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        assertSame(job, result);
+        verify(userRepository, never()).deleteById(anyLong());
+        verify(cacheInvalidator).userChanged(1L, true);
+        verify(budgetTracker).evict(1L);
     }
 
     @Test
     void deleteUser_WhenUserDoesNotExist_ShouldThrowException() {
         // Arrange
-        when(userRepository.existsById(999L)).thenReturn(false);
+        when(userRepository.markDeleted(eq(999L), any(LocalDateTime.class))).thenReturn(0);
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -329,7 +408,16 @@ class UserServiceTest {
         });
 
         assertEquals("Usuário não encontrado", exception.getMessage());
-        verify(userRepository, times(1)).existsById(999L);
-        verify(userRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(deletionPurger);
+    }
+
+    @Test
+    void getUserById_WhenUserIsDeleted_ShouldBeEmpty() {
+        // Arrange
+        testUser.setDeletedAt(LocalDateTime.now());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        assertTrue(userService.getUserById(1L).isEmpty());
     }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+-- Esquema das migrações de db/migration para o H2 (modo MySQL), aplicado em cada shard dos
+-- testes de sharding; sem o índice FULLTEXT e com a coluna gerada na sintaxe do H2
+CREATE TABLE user (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    email_normalized VARCHAR(100) GENERATED ALWAYS AS (LOWER(TRIM(email))),
+    password VARCHAR(255) NOT NULL,
+    base_currency CHAR(3) NOT NULL DEFAULT 'BRL',
+    created_at DATETIME NOT NULL,
+    deleted_at DATETIME NULL,
+    CONSTRAINT uk_user_email_normalized UNIQUE (email_normalized)
+);
+
+CREATE TABLE categories (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(255),
+    color VARCHAR(7),
+    icon VARCHAR(50),
+    user_id BIGINT NOT NULL,
+    created_at DATETIME NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    deleted_at DATETIME NULL,
+    active_name VARCHAR(100) GENERATED ALWAYS AS (CASE WHEN deleted_at IS NULL THEN name END),
+    FOREIGN KEY (user_id) REFERENCES user(id),
+    CONSTRAINT uk_categories_user_name UNIQUE (user_id, active_name)
+);
+
+CREATE TABLE recurring_expense (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    description VARCHAR(255),
+    amount DECIMAL(10, 2) NOT NULL,
+    currency CHAR(3) NOT NULL DEFAULT 'BRL',
+    rule VARCHAR(255) NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    next_occurrence DATE,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    category_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES user(id)
+);
+
+CREATE TABLE expense (
+    id BIGINT PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    currency CHAR(3) NOT NULL DEFAULT 'BRL',
+    date DATETIME NOT NULL,
+    category_id BIGINT,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    recurring_expense_id BIGINT NULL,
+    occurrence_date DATE NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (category_id) REFERENCES categories(id),
+    FOREIGN KEY (user_id) REFERENCES user(id),
+    CONSTRAINT uk_expense_recurring_occurrence UNIQUE (recurring_expense_id, occurrence_date),
+    CONSTRAINT fk_expense_recurring FOREIGN KEY (recurring_expense_id) REFERENCES recurring_expense(id) ON DELETE SET NULL
+);
+
+CREATE INDEX idx_expense_user_date ON expense (user_id, date, id);
+CREATE INDEX idx_expense_user_amount ON expense (user_id, amount, id);
+CREATE INDEX idx_expense_user_category_date ON expense (user_id, category_id, date, id);
+
+CREATE TABLE budget (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    amount_limit DECIMAL(10, 2) NOT NULL,
+    category_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_budget_user_category UNIQUE (user_id, category_id),
+    FOREIGN KEY (category_id) REFERENCES categories(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES user(id)
+);
+
+CREATE INDEX idx_recurring_due ON recurring_expense (active, next_occurrence, id);
+CREATE INDEX idx_recurring_user ON recurring_expense (user_id);
+
+CREATE TABLE scheduler_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until DATETIME NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT,
+    user_id BIGINT NOT NULL,
+    payload TEXT,
+    created_at DATETIME(3) NOT NULL
+);
+
+CREATE INDEX idx_outbox_event_created_at ON outbox_event (created_at);
+
+CREATE TABLE outbox_offset (
+    consumer VARCHAR(64) PRIMARY KEY,
+    last_event_id BIGINT NOT NULL,
+    updated_at DATETIME(3) NOT NULL
+);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('recurring-expenses', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('outbox-dispatch', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('outbox-purge', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('expense-archive', '1970-01-01 00:00:00', '');
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('idempotency-purge', '1970-01-01 00:00:00', '');
+
+CREATE TABLE user_directory (
+    user_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email_normalized VARCHAR(100) NOT NULL,
+    shard VARCHAR(64) NULL,
+    created_at DATETIME NOT NULL,
+    CONSTRAINT uk_user_directory_email UNIQUE (email_normalized)
+);
+
+CREATE TABLE replica_heartbeat (
+    id TINYINT PRIMARY KEY,
+    beat DATETIME(3) NOT NULL
+);
+
+INSERT INTO replica_heartbeat (id, beat) VALUES (1, CURRENT_TIMESTAMP(3));
+
+CREATE TABLE expense_archive (
+    id BIGINT PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    amount DECIMAL(10, 2) NOT NULL,
+    currency CHAR(3) NOT NULL DEFAULT 'BRL',
+    date DATETIME NOT NULL,
+    category_id BIGINT,
+    user_id BIGINT NOT NULL,
+    created_at DATETIME,
+    recurring_expense_id BIGINT NULL,
+    occurrence_date DATE NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    archived_at DATETIME NOT NULL
+);
+
+CREATE INDEX idx_expense_archive_user_date ON expense_archive (user_id, date, id);
+CREATE INDEX idx_expense_date ON expense (date, id);
+
+CREATE TABLE idempotency_key (
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status SMALLINT NULL,
+    content_type VARCHAR(100) NULL,
+    location VARCHAR(255) NULL,
+    body BLOB NULL,
+    created_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE TABLE cache_invalidation (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    node VARCHAR(64) NOT NULL,
+    target VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    created_at DATETIME(3) NOT NULL
+);
+
+CREATE INDEX idx_cache_invalidation_created_at ON cache_invalidation (created_at);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('cache-invalidation-purge', '1970-01-01 00:00:00', '');
+
+CREATE TABLE deletion_job (
+    id BIGINT PRIMARY KEY,
+    target VARCHAR(20) NOT NULL,
+    target_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    stage VARCHAR(20) NOT NULL,
+    purged_rows BIGINT NOT NULL DEFAULT 0,
+    cursor_date DATETIME NULL,
+    cursor_id BIGINT NULL,
+    last_error VARCHAR(255) NULL,
+    created_at DATETIME(3) NOT NULL,
+    updated_at DATETIME(3) NOT NULL,
+    finished_at DATETIME(3) NULL
+);
+
+CREATE INDEX idx_deletion_job_status ON deletion_job (status, id);
+CREATE INDEX idx_deletion_job_target ON deletion_job (target, target_id);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES ('deletion-purge', '1970-01-01 00:00:00', '');